@@ -9,11 +9,13 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.event.ContextRefreshedEvent;
 import org.springframework.context.event.EventListener;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 
 @SpringBootApplication
 @EnableRabbit 
 @EnableJpaRepositories
+@EnableScheduling
 public class VideoproccesorApplication {
 	private static final Logger logger = LoggerFactory.getLogger(VideoproccesorApplication.class);
 	
@@ -0,0 +1,42 @@
+package com.example.videoprocessor.config;
+
+import com.example.videoprocessor.controller.ws.VideoEventsWebSocketHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@EnableWebSocket
+public class EventStreamConfig implements WebSocketConfigurer {
+
+    @Autowired
+    private VideoEventsWebSocketHandler videoEventsWebSocketHandler;
+
+    @Value("${video.events.delivery-threads:4}")
+    private int deliveryThreads;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        registry.addHandler(videoEventsWebSocketHandler, "/ws/videos").setAllowedOrigins("*");
+    }
+
+    /**
+     * Olayları abonelere gönderen havuz. Yavaş bir istemci sadece kendi tamponunu doldurur,
+     * status yazan thread'leri (listener, ffmpeg progress) hiç bekletmez.
+     */
+    @Bean(name = "videoEventExecutor")
+    public ThreadPoolTaskExecutor videoEventExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(deliveryThreads);
+        executor.setMaxPoolSize(deliveryThreads);
+        executor.setQueueCapacity(10_000);
+        executor.setThreadNamePrefix("video-events-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.videoprocessor.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+@Configuration
+public class PipelineConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(PipelineConfig.class);
+
+    @Value("${video.pipeline.stage-threads:8}")
+    private int stageThreads;
+
+    @Value("${video.batch.ingest-threads:8}")
+    private int ingestThreads;
+
+    @Value("${video.storage.transfer-threads:8}")
+    private int transferThreads;
+
+    /**
+     * Stage graph'ın paralel stage'leri için sınırlı havuz.
+     * Thread'ler çoğunlukla ffmpeg process'ini bekler, asıl CPU yükü ffmpeg'dedir.
+     */
+    @Bean(name = "videoStageExecutor")
+    public ThreadPoolTaskExecutor videoStageExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(stageThreads);
+        executor.setMaxPoolSize(stageThreads);
+        executor.setThreadNamePrefix("video-stage-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+
+        logger.info("Video stage executor configured with {} threads", stageThreads);
+        return executor;
+    }
+
+    /**
+     * Batch upload'da dosyaları paralel diske yazan havuz. İş disk I/O'su; kuyruk dolarsa çağıran thread yazar.
+     */
+    @Bean(name = "videoIngestExecutor")
+    public ThreadPoolTaskExecutor videoIngestExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(ingestThreads);
+        executor.setMaxPoolSize(ingestThreads);
+        executor.setQueueCapacity(1000);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("video-ingest-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Nesne deposuna paralel part upload / ranged download (bkz. S3VideoStorage). Çağıran thread part'ları bekler.
+     */
+    @Bean(name = "storageTransferExecutor")
+    public ThreadPoolTaskExecutor storageTransferExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(transferThreads);
+        executor.setMaxPoolSize(transferThreads);
+        executor.setQueueCapacity(10_000);
+        executor.setThreadNamePrefix("storage-transfer-");
+        executor.initialize();
+        return executor;
+    }
+
+    /**
+     * Dosya silme işleri (bkz. StorageLifecycleService); istek thread'ini bekletmez.
+     */
+    @Bean(name = "storageLifecycleExecutor")
+    public ThreadPoolTaskExecutor storageLifecycleExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(10_000);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("storage-lifecycle-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+}
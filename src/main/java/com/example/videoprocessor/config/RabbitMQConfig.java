@@ -26,6 +26,29 @@ public class RabbitMQConfig {
     public static final String VIDEO_PROCESSING_ROUTING_KEY = "video.processing";
     public static final String VIDEO_PROCESSING_FAILED_ROUTING_KEY = "video.processing.failed";
 
+    // Öncelik seviyeleri: MEDIUM mevcut ana kuyruk, HIGH ve LOW ayrı kuyruklar (bkz. WeightedFairScheduler)
+    public static final String VIDEO_PROCESSING_HIGH_QUEUE = "video.processing.queue.high";
+    public static final String VIDEO_PROCESSING_LOW_QUEUE = "video.processing.queue.low";
+    public static final String VIDEO_PROCESSING_HIGH_ROUTING_KEY = "video.processing.high";
+    public static final String VIDEO_PROCESSING_LOW_ROUTING_KEY = "video.processing.low";
+
+    // Staged mod: her stage'in kendi kuyruğu ve worker havuzu, sonuçlar tek bir completion kuyruğunda birleşir
+    public static final String VIDEO_STAGE_METADATA_QUEUE = "video.stage.metadata.queue";
+    public static final String VIDEO_STAGE_THUMBNAIL_QUEUE = "video.stage.thumbnail.queue";
+    public static final String VIDEO_STAGE_TRANSCODE_QUEUE = "video.stage.transcode.queue";
+    public static final String VIDEO_STAGE_COMPLETED_QUEUE = "video.stage.completed.queue";
+    public static final String VIDEO_STAGE_METADATA_ROUTING_KEY = "video.stage.metadata";
+    public static final String VIDEO_STAGE_THUMBNAIL_ROUTING_KEY = "video.stage.thumbnail";
+    public static final String VIDEO_STAGE_TRANSCODE_ROUTING_KEY = "video.stage.transcode";
+    public static final String VIDEO_STAGE_COMPLETED_ROUTING_KEY = "video.stage.completed";
+
+    // Segment-paralel encode: uzun videoların parçaları, herhangi bir node'daki segment worker'larına dağılır
+    public static final String VIDEO_SEGMENT_QUEUE = "video.segment.queue";
+    public static final String VIDEO_SEGMENT_ROUTING_KEY = "video.segment";
+
+    // İptal broadcast'i: her node kendi geçici kuyruğu ile fanout exchange'i dinler
+    public static final String VIDEO_CANCELLATION_EXCHANGE = "video.cancellation.exchange";
+
     private final ConnectionFactory connectionFactory;
 
     public RabbitMQConfig(ConnectionFactory connectionFactory) {
@@ -67,6 +90,24 @@ public class RabbitMQConfig {
                 .build();
     }
 
+    @Bean
+    public Queue videoProcessingHighQueue() {
+        return QueueBuilder.durable(VIDEO_PROCESSING_HIGH_QUEUE)
+                .withArgument("x-dead-letter-exchange", VIDEO_PROCESSING_EXCHANGE)
+                .withArgument("x-dead-letter-routing-key", VIDEO_PROCESSING_FAILED_ROUTING_KEY)
+                .withArgument("x-message-ttl", 3600000) // 1 hour TTL
+                .build();
+    }
+
+    // Toplu işler saatlerce bekleyebilir, TTL yok
+    @Bean
+    public Queue videoProcessingLowQueue() {
+        return QueueBuilder.durable(VIDEO_PROCESSING_LOW_QUEUE)
+                .withArgument("x-dead-letter-exchange", VIDEO_PROCESSING_EXCHANGE)
+                .withArgument("x-dead-letter-routing-key", VIDEO_PROCESSING_FAILED_ROUTING_KEY)
+                .build();
+    }
+
     @Bean
     public Queue videoProcessingDLQ() {
         return QueueBuilder.durable(VIDEO_PROCESSING_DLQ).build();
@@ -84,6 +125,20 @@ public class RabbitMQConfig {
                 .with(VIDEO_PROCESSING_ROUTING_KEY);
     }
 
+    @Bean
+    public Binding videoProcessingHighBinding() {
+        return BindingBuilder.bind(videoProcessingHighQueue())
+                .to(videoProcessingExchange())
+                .with(VIDEO_PROCESSING_HIGH_ROUTING_KEY);
+    }
+
+    @Bean
+    public Binding videoProcessingLowBinding() {
+        return BindingBuilder.bind(videoProcessingLowQueue())
+                .to(videoProcessingExchange())
+                .with(VIDEO_PROCESSING_LOW_ROUTING_KEY);
+    }
+
     @Bean
     public Binding videoProcessingDLQBinding() {
         return BindingBuilder.bind(videoProcessingDLQ())
@@ -91,6 +146,86 @@ public class RabbitMQConfig {
                 .with(VIDEO_PROCESSING_FAILED_ROUTING_KEY);
     }
 
+    @Bean
+    public Queue videoStageMetadataQueue() {
+        return stageQueue(VIDEO_STAGE_METADATA_QUEUE);
+    }
+
+    @Bean
+    public Queue videoStageThumbnailQueue() {
+        return stageQueue(VIDEO_STAGE_THUMBNAIL_QUEUE);
+    }
+
+    @Bean
+    public Queue videoStageTranscodeQueue() {
+        return stageQueue(VIDEO_STAGE_TRANSCODE_QUEUE);
+    }
+
+    @Bean
+    public Queue videoSegmentQueue() {
+        return stageQueue(VIDEO_SEGMENT_QUEUE);
+    }
+
+    @Bean
+    public Queue videoStageCompletedQueue() {
+        return QueueBuilder.durable(VIDEO_STAGE_COMPLETED_QUEUE).build();
+    }
+
+    // Yeni kuyruklar olduğu için x-max-priority burada güvenle tanımlanabilir
+    private Queue stageQueue(String name) {
+        return QueueBuilder.durable(name)
+                .withArgument("x-dead-letter-exchange", VIDEO_PROCESSING_EXCHANGE)
+                .withArgument("x-dead-letter-routing-key", VIDEO_PROCESSING_FAILED_ROUTING_KEY)
+                .withArgument("x-max-priority", 10)
+                .build();
+    }
+
+    @Bean
+    public Binding videoStageMetadataBinding() {
+        return BindingBuilder.bind(videoStageMetadataQueue()).to(videoProcessingExchange())
+                .with(VIDEO_STAGE_METADATA_ROUTING_KEY);
+    }
+
+    @Bean
+    public Binding videoStageThumbnailBinding() {
+        return BindingBuilder.bind(videoStageThumbnailQueue()).to(videoProcessingExchange())
+                .with(VIDEO_STAGE_THUMBNAIL_ROUTING_KEY);
+    }
+
+    @Bean
+    public Binding videoStageTranscodeBinding() {
+        return BindingBuilder.bind(videoStageTranscodeQueue()).to(videoProcessingExchange())
+                .with(VIDEO_STAGE_TRANSCODE_ROUTING_KEY);
+    }
+
+    @Bean
+    public Binding videoStageCompletedBinding() {
+        return BindingBuilder.bind(videoStageCompletedQueue()).to(videoProcessingExchange())
+                .with(VIDEO_STAGE_COMPLETED_ROUTING_KEY);
+    }
+
+    @Bean
+    public Binding videoSegmentBinding() {
+        return BindingBuilder.bind(videoSegmentQueue()).to(videoProcessingExchange())
+                .with(VIDEO_SEGMENT_ROUTING_KEY);
+    }
+
+    @Bean
+    public FanoutExchange videoCancellationExchange() {
+        return new FanoutExchange(VIDEO_CANCELLATION_EXCHANGE, true, false);
+    }
+
+    // Node'a özel, bağlantı kapanınca silinen kuyruk
+    @Bean
+    public Queue videoCancellationQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy("video.cancellation."));
+    }
+
+    @Bean
+    public Binding videoCancellationBinding() {
+        return BindingBuilder.bind(videoCancellationQueue()).to(videoCancellationExchange());
+    }
+
     @Bean
     public MessageConverter jsonMessageConverter() {
         return new Jackson2JsonMessageConverter();
@@ -115,13 +250,39 @@ public class RabbitMQConfig {
                 
                 rabbitAdmin.declareQueue(videoProcessingQueue());
                 logger.info("Declared queue: {}", VIDEO_PROCESSING_QUEUE);
+
+                rabbitAdmin.declareQueue(videoProcessingHighQueue());
+                rabbitAdmin.declareQueue(videoProcessingLowQueue());
+                logger.info("Declared priority queues: {}, {}", VIDEO_PROCESSING_HIGH_QUEUE, VIDEO_PROCESSING_LOW_QUEUE);
                 
                 rabbitAdmin.declareQueue(videoProcessingDLQ());
                 logger.info("Declared DLQ: {}", VIDEO_PROCESSING_DLQ);
                 
                 rabbitAdmin.declareBinding(videoProcessingBinding());
+                rabbitAdmin.declareBinding(videoProcessingHighBinding());
+                rabbitAdmin.declareBinding(videoProcessingLowBinding());
                 rabbitAdmin.declareBinding(videoProcessingDLQBinding());
                 logger.info("Declared bindings for video processing");
+
+                rabbitAdmin.declareQueue(videoStageMetadataQueue());
+                rabbitAdmin.declareQueue(videoStageThumbnailQueue());
+                rabbitAdmin.declareQueue(videoStageTranscodeQueue());
+                rabbitAdmin.declareQueue(videoStageCompletedQueue());
+                rabbitAdmin.declareBinding(videoStageMetadataBinding());
+                rabbitAdmin.declareBinding(videoStageThumbnailBinding());
+                rabbitAdmin.declareBinding(videoStageTranscodeBinding());
+                rabbitAdmin.declareBinding(videoStageCompletedBinding());
+                logger.info("Declared stage queues and bindings");
+
+                rabbitAdmin.declareQueue(videoSegmentQueue());
+                rabbitAdmin.declareBinding(videoSegmentBinding());
+                logger.info("Declared segment queue: {}", VIDEO_SEGMENT_QUEUE);
+
+                rabbitAdmin.declareExchange(videoCancellationExchange());
+                rabbitAdmin.declareQueue(videoCancellationQueue());
+                rabbitAdmin.declareBinding(videoCancellationBinding());
+                logger.info("Declared cancellation broadcast: {} -> {}",
+                        VIDEO_CANCELLATION_EXCHANGE, videoCancellationQueue().getName());
                 
                 logger.info("RabbitMQ initialization completed successfully!");
                 
@@ -0,0 +1,58 @@
+package com.example.videoprocessor.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+public class SyncExecutionConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyncExecutionConfig.class);
+
+    @Value("${video.sync.max-concurrent:4}")
+    private int maxConcurrent;
+
+    @Value("${video.sync.executor-queue-capacity:100}")
+    private int queueCapacity;
+
+    /**
+     * Senkron upload isteklerini Tomcat thread'i dışında çalıştıran executor.
+     * Java 21+ üzerinde her istek bir virtual thread'de çalışır; Java 17'de (mevcut imaj) sınırlı platform
+     * thread havuzuna düşülür. Her iki durumda da ffmpeg eş zamanlılığını SyncPermitPool sınırlar.
+     */
+    @Bean(name = "syncProcessingExecutor")
+    public AsyncTaskExecutor syncProcessingExecutor() {
+        ExecutorService virtualThreads = newVirtualThreadExecutor();
+        if (virtualThreads != null) {
+            logger.info("Sync processing runs on virtual threads");
+            return new TaskExecutorAdapter(virtualThreads);
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        // İzin bekleyenler de bir thread tutar; havuz izin sayısının iki katı
+        executor.setCorePoolSize(maxConcurrent * 2);
+        executor.setMaxPoolSize(maxConcurrent * 2);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("sync-video-");
+        executor.initialize();
+        logger.info("Virtual threads not available, sync processing runs on {} platform threads", maxConcurrent * 2);
+        return executor;
+    }
+
+    // Derleme hedefi Java 17 olduğu için API'ye reflection ile erişilir
+    private ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
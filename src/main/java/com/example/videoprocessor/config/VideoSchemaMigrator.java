@@ -0,0 +1,57 @@
+package com.example.videoprocessor.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * ddl-auto=update'in yapamadığı şema değişiklikleri (kolon tipi değişimi, GIN / partial index).
+ * Tüm ifadeler idempotent; her açılışta çalışır, hata olursa loglanır ve uygulama açılmaya devam eder.
+ */
+@Component
+public class VideoSchemaMigrator implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(VideoSchemaMigrator.class);
+
+    private static final List<String> STATEMENTS = List.of(
+            // metadata TEXT -> jsonb; eskiden parse hatası sessizce yutulan bozuk kayıtlar temizlenir
+            """
+            DO $$
+            BEGIN
+                IF EXISTS (SELECT 1 FROM information_schema.columns
+                            WHERE table_name = 'videos' AND column_name = 'metadata' AND data_type = 'text') THEN
+                    UPDATE videos SET metadata = NULL WHERE metadata IS NOT NULL AND metadata !~ '^\\s*\\{';
+                    ALTER TABLE videos ALTER COLUMN metadata TYPE jsonb USING metadata::jsonb;
+                END IF;
+            END
+            $$
+            """,
+            "CREATE INDEX IF NOT EXISTS idx_videos_metadata_gin ON videos USING gin (metadata jsonb_path_ops)",
+            // Tablo büyüdükçe satırların çoğu terminal; kuyruk sorguları sadece aktif satırları tarar
+            """
+            CREATE INDEX IF NOT EXISTS idx_videos_active_status_created_at ON videos (status, created_at)
+             WHERE status NOT IN ('COMPLETED', 'FAILED', 'CANCELLED')
+            """
+    );
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        for (String statement : STATEMENTS) {
+            try {
+                jdbcTemplate.execute(statement);
+            } catch (Exception e) {
+                logger.warn("Schema migration statement failed: {}", e.getMessage());
+            }
+        }
+        logger.info("Video schema migrations applied");
+    }
+}
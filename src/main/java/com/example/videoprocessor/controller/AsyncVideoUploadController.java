@@ -2,16 +2,33 @@ package com.example.videoprocessor.controller;
 
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import com.example.videoprocessor.dto.BatchUploadResponseDto;
+import com.example.videoprocessor.dto.QueueSummaryDto;
+import com.example.videoprocessor.dto.QueueTierMetricsDto;
 import com.example.videoprocessor.dto.VideoProcessingResponseDto;
 import com.example.videoprocessor.dto.VideoUploadRequestDto;
+import com.example.videoprocessor.entity.enums.VideoStatus;
 import com.example.videoprocessor.service.AsyncVideoService;
+import com.example.videoprocessor.service.BatchVideoIngestService;
+import com.example.videoprocessor.service.admission.AdmissionController;
+import com.example.videoprocessor.service.events.VideoCompletionWaiter;
+import com.example.videoprocessor.service.listing.VideoListingService;
 
+import java.net.URI;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/async/videos")
@@ -21,6 +38,25 @@ public class AsyncVideoUploadController {
     @Autowired
     private AsyncVideoService asyncVideoService;
 
+    @Autowired
+    private VideoListingService videoListingService;
+
+    @Autowired
+    private BatchVideoIngestService batchVideoIngestService;
+
+    @Autowired
+    private VideoCompletionWaiter completionWaiter;
+
+    @Autowired
+    @Qualifier("videoEventExecutor")
+    private TaskExecutor videoEventExecutor;
+
+    @Value("${video.wait.default-seconds:20}")
+    private int defaultWaitSeconds;
+
+    @Value("${video.wait.max-seconds:60}")
+    private int maxWaitSeconds;
+
     /**
      * ASYNCHRONOUS VIDEO UPLOAD
      * - Sadece upload yapılır, işlemler arka planda devam eder
@@ -66,6 +102,106 @@ public class AsyncVideoUploadController {
         }
     }
 
+    /**
+     * HYBRID VIDEO UPLOAD
+     * - Async pipeline ile kuyruğa alınır, ardından istek thread bloke etmeden (DeferredResult) beklenir
+     * - İş waitSeconds içinde biterse 200 + tam sonuç (sync gibi, ayrıca poll gerekmez)
+     * - Bitmezse 202 + statusUrl / Location; işlem arka planda devam eder
+     */
+    @PostMapping("/upload/wait")
+    public DeferredResult<ResponseEntity<VideoProcessingResponseDto>> uploadVideoAndWait(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(value = "title", required = false) String title,
+            @RequestParam(value = "description", required = false) String description,
+            @RequestParam(value = "category", required = false) String category,
+            @RequestParam(value = "priority", defaultValue = "5") Integer priority,
+            @RequestParam(value = "waitSeconds", required = false) Integer waitSeconds) {
+
+        long startTime = System.currentTimeMillis();
+        long waitMs = Math.min(waitSeconds != null ? Math.max(waitSeconds, 0) : defaultWaitSeconds, maxWaitSeconds) * 1000L;
+
+        VideoProcessingResponseDto queued;
+        try {
+            VideoUploadRequestDto requestDto = new VideoUploadRequestDto();
+            requestDto.setFile(file);
+            requestDto.setTitle(title);
+            requestDto.setDescription(description);
+            requestDto.setCategory(category);
+
+            queued = asyncVideoService.processVideoAsync(requestDto, priority);
+        } catch (Exception e) {
+            VideoProcessingResponseDto errorResponse = new VideoProcessingResponseDto();
+            errorResponse.setStatus("FAILED");
+            errorResponse.setMessage("Hybrid processing failed: " + e.getMessage());
+            errorResponse.setProcessingType("HYBRID");
+
+            DeferredResult<ResponseEntity<VideoProcessingResponseDto>> failed = new DeferredResult<>();
+            failed.setResult(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse));
+            return failed;
+        }
+
+        Long videoId = queued.getVideoId();
+        // Timeout callback'i request thread'inde çalışmaz; adres şimdiden hesaplanır
+        String statusUrl = ServletUriComponentsBuilder.fromCurrentContextPath()
+                .path("/api/async/videos/{id}").buildAndExpand(videoId).toUriString();
+        // Timeout 0 olursa container varsayılanı kullanılır; en az 1 ms
+        DeferredResult<ResponseEntity<VideoProcessingResponseDto>> result = new DeferredResult<>(Math.max(waitMs, 1L));
+        CompletableFuture<VideoStatus> completion = completionWaiter.awaitTerminal(videoId);
+
+        result.onTimeout(() -> result.setResult(stillProcessing(videoId, statusUrl, startTime)));
+        result.onCompletion(() -> completionWaiter.release(videoId, completion));
+
+        // Sonuç DTO'su worker thread'inde değil event executor'da hazırlanır
+        completion.thenAcceptAsync(status -> {
+            VideoProcessingResponseDto response = asyncVideoService.getVideoStatus(videoId);
+            response.setProcessingTimeMs(System.currentTimeMillis() - startTime);
+            response.setProcessingType("HYBRID");
+            result.setResult(ResponseEntity.ok(response));
+        }, videoEventExecutor);
+
+        return result;
+    }
+
+    private ResponseEntity<VideoProcessingResponseDto> stillProcessing(Long videoId, String statusUrl, long startTime) {
+        VideoProcessingResponseDto response = asyncVideoService.getVideoProgress(videoId);
+        response.setStatusUrl(statusUrl);
+        response.setMessage("Processing continues in the background; poll statusUrl or subscribe to /events");
+        response.setProcessingTimeMs(System.currentTimeMillis() - startTime);
+        response.setProcessingType("HYBRID");
+
+        return ResponseEntity.status(HttpStatus.ACCEPTED).location(URI.create(statusUrl)).body(response);
+    }
+
+    /**
+     * BATCH VIDEO UPLOAD
+     * - Tek istekte çok sayıda dosya (ingest partnerleri yüzlerce dosya gönderir)
+     * - Dosyalar paralel yazılır, satırlar tek INSERT ile eklenir, mesajlar broker onayı ile gönderilir
+     * - Her dosya için ayrı sonuç; hepsi başarısızsa 500, kısmi başarıda 207 Multi-Status
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<BatchUploadResponseDto> uploadBatch(
+            @RequestParam("files") List<MultipartFile> files,
+            @RequestParam(value = "priority", defaultValue = "5") Integer priority) {
+
+        if (files.isEmpty()) {
+            BatchUploadResponseDto empty = new BatchUploadResponseDto();
+            empty.setTotalFiles(0);
+            empty.setAcceptedCount(0);
+            empty.setFailedCount(0);
+            empty.setResults(List.of());
+            return ResponseEntity.badRequest().body(empty);
+        }
+
+        BatchUploadResponseDto response = batchVideoIngestService.ingest(files, priority);
+        if (response.getAcceptedCount() == 0) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(response);
+        }
+        if (response.getFailedCount() > 0) {
+            return ResponseEntity.status(HttpStatus.MULTI_STATUS).body(response);
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<VideoProcessingResponseDto> getVideoStatus(@PathVariable Long id) {
         VideoProcessingResponseDto response = asyncVideoService.getVideoStatus(id);
@@ -90,16 +226,43 @@ public class AsyncVideoUploadController {
         return ResponseEntity.ok(queueStatus);
     }
 
+    /**
+     * QUEUE SUMMARY
+     * - Dashboard için: durum başına aktif sayılar, bekleyen en eski işin yaşı, son N dakikadaki throughput
+     * - Satır listesi dönmez, tüm hesap SQL'de yapılır
+     */
+    @GetMapping("/queue/summary")
+    public ResponseEntity<QueueSummaryDto> getQueueSummary(
+            @RequestParam(value = "windowMinutes", defaultValue = "15") Integer windowMinutes) {
+        if (windowMinutes <= 0 || windowMinutes > 24 * 60) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(asyncVideoService.getQueueSummary(windowMinutes));
+    }
+
+    @GetMapping("/queue/tiers")
+    public ResponseEntity<List<QueueTierMetricsDto>> getQueueTierMetrics() {
+        return ResponseEntity.ok(asyncVideoService.getQueueTierMetrics());
+    }
+
+    @GetMapping("/queue/admission")
+    public ResponseEntity<AdmissionController.AdmissionStats> getAdmissionStats() {
+        return ResponseEntity.ok(asyncVideoService.getAdmissionStats());
+    }
+
     @PostMapping("/{id}/cancel")
     public ResponseEntity<VideoProcessingResponseDto> cancelProcessing(@PathVariable Long id) {
         VideoProcessingResponseDto response = asyncVideoService.cancelProcessing(id);
         return ResponseEntity.ok(response);
     }
 
+    // Tüm liste bellekte toplanmadan, keyset sayfaları halinde stream edilir
     @GetMapping("/all")
-    public ResponseEntity<List<VideoProcessingResponseDto>> getAllVideos() {
-        List<VideoProcessingResponseDto> videos = asyncVideoService.getAllVideos();
-        return ResponseEntity.ok(videos);
+    public ResponseEntity<StreamingResponseBody> getAllVideos(
+            @RequestParam(value = "includeMetadata", defaultValue = "true") boolean includeMetadata) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> videoListingService.writeAll(out, includeMetadata));
     }
 
     @DeleteMapping("/{id}")
@@ -0,0 +1,135 @@
+package com.example.videoprocessor.controller;
+
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import com.example.videoprocessor.dto.UploadSessionDto;
+import com.example.videoprocessor.dto.UploadSessionRequestDto;
+import com.example.videoprocessor.dto.VideoProcessingResponseDto;
+import com.example.videoprocessor.service.upload.ResumableUploadService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+
+import java.net.URI;
+import java.util.NoSuchElementException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+@RestController
+@RequestMapping("/api/async/videos/uploads")
+@CrossOrigin(origins = "*")
+public class ResumableUploadController {
+
+    private static final Pattern CONTENT_RANGE = Pattern.compile("bytes (\\d+)-(\\d+)/(\\d+|\\*)");
+
+    @Autowired
+    private ResumableUploadService resumableUploadService;
+
+    /**
+     * RESUMABLE UPLOAD
+     * 1. POST   /uploads                -> oturum oluştur (201 + Location)
+     * 2. PUT    /uploads/{id}           -> "Content-Range: bytes start-end/total" ile parça gönder
+     * 3. GET    /uploads/{id}           -> alınan aralıkları sorgula (kopan bağlantıdan sonra devam için)
+     * 4. POST   /uploads/{id}/complete  -> dosyayı kapat, videoyu kuyruğa gönder (202 Accepted)
+     * 5. DELETE /uploads/{id}           -> oturumu iptal et
+     */
+    @PostMapping
+    public ResponseEntity<UploadSessionDto> createSession(@Valid @RequestBody UploadSessionRequestDto requestDto) {
+        try {
+            UploadSessionDto session = resumableUploadService.createSession(requestDto);
+            return ResponseEntity.created(URI.create("/api/async/videos/uploads/" + session.getUploadId()))
+                    .body(session);
+        } catch (Exception e) {
+            UploadSessionDto errorResponse = new UploadSessionDto();
+            errorResponse.setMessage("Failed to create upload session: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    @PutMapping("/{uploadId}")
+    public ResponseEntity<UploadSessionDto> uploadChunk(
+            @PathVariable String uploadId,
+            @RequestHeader(HttpHeaders.CONTENT_RANGE) String contentRange,
+            HttpServletRequest request) {
+
+        Matcher matcher = CONTENT_RANGE.matcher(contentRange.trim());
+        if (!matcher.matches()) {
+            return errorResponse(HttpStatus.BAD_REQUEST, "Malformed Content-Range header: " + contentRange);
+        }
+
+        try {
+            long start = Long.parseLong(matcher.group(1));
+            long end = Long.parseLong(matcher.group(2));
+            UploadSessionDto session = resumableUploadService.writeChunk(uploadId, start, end, request.getInputStream());
+            return ResponseEntity.ok(session);
+        } catch (NoSuchElementException e) {
+            return errorResponse(HttpStatus.NOT_FOUND, e.getMessage());
+        } catch (IllegalArgumentException e) {
+            return errorResponse(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE, e.getMessage());
+        } catch (IllegalStateException e) {
+            return errorResponse(HttpStatus.CONFLICT, e.getMessage());
+        } catch (Exception e) {
+            return errorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to write chunk: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<UploadSessionDto> getUploadStatus(@PathVariable String uploadId) {
+        try {
+            return ResponseEntity.ok(resumableUploadService.getStatus(uploadId));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        }
+    }
+
+    @PostMapping("/{uploadId}/complete")
+    public ResponseEntity<VideoProcessingResponseDto> completeUpload(@PathVariable String uploadId) {
+        try {
+            long startTime = System.currentTimeMillis();
+
+            VideoProcessingResponseDto response = resumableUploadService.finalizeUpload(uploadId);
+
+            response.setProcessingTimeMs(System.currentTimeMillis() - startTime);
+            response.setProcessingType("ASYNCHRONOUS");
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            VideoProcessingResponseDto errorResponse = new VideoProcessingResponseDto();
+            errorResponse.setStatus("UPLOAD_INCOMPLETE");
+            errorResponse.setMessage(e.getMessage());
+            errorResponse.setProcessingType("ASYNCHRONOUS");
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+        } catch (Exception e) {
+            VideoProcessingResponseDto errorResponse = new VideoProcessingResponseDto();
+            errorResponse.setStatus("FAILED");
+            errorResponse.setMessage("Finalizing upload failed: " + e.getMessage());
+            errorResponse.setProcessingType("ASYNCHRONOUS");
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
+    @DeleteMapping("/{uploadId}")
+    public ResponseEntity<Void> abortUpload(@PathVariable String uploadId) {
+        try {
+            resumableUploadService.abort(uploadId);
+            return ResponseEntity.noContent().build();
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    private ResponseEntity<UploadSessionDto> errorResponse(HttpStatus status, String message) {
+        UploadSessionDto errorResponse = new UploadSessionDto();
+        errorResponse.setMessage(message);
+        return ResponseEntity.status(status).body(errorResponse);
+    }
+}
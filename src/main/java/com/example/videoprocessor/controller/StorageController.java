@@ -0,0 +1,38 @@
+package com.example.videoprocessor.controller;
+
+import com.example.videoprocessor.dto.StorageStatsDto;
+import com.example.videoprocessor.service.storage.StorageLifecycleService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/storage")
+@CrossOrigin(origins = "*")
+public class StorageController {
+
+    @Autowired
+    private StorageLifecycleService storageLifecycleService;
+
+    @Autowired
+    @Qualifier("storageLifecycleExecutor")
+    private TaskExecutor storageExecutor;
+
+    /**
+     * Disk kullanımı, geri kazanılabilir alan (silinebilir orijinaller) ve son orphan taramasının sonuçları.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<StorageStatsDto> getStats() {
+        return ResponseEntity.ok(storageLifecycleService.getStats());
+    }
+
+    // Orphan taramasını beklemeden başlatır; sonuç /stats'ta görünür
+    @PostMapping("/reconcile")
+    public ResponseEntity<Void> reconcile() {
+        storageExecutor.execute(storageLifecycleService::reconcile);
+        return ResponseEntity.status(HttpStatus.ACCEPTED).build();
+    }
+}
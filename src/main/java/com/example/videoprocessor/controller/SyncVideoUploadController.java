@@ -2,17 +2,26 @@ package com.example.videoprocessor.controller;
 
 
 import org.springframework.beans.factory.annotation.Autowired;
-
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import com.example.videoprocessor.dto.VideoProcessingResponseDto;
 import com.example.videoprocessor.dto.VideoUploadRequestDto;
 import com.example.videoprocessor.service.SyncVideoService;
+import com.example.videoprocessor.service.listing.VideoListingService;
+import com.example.videoprocessor.service.admission.SyncCapacityExceededException;
+import com.example.videoprocessor.service.admission.SyncPermitPool;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/api/sync/videos")
@@ -22,51 +31,86 @@ public class SyncVideoUploadController {
     @Autowired
     private SyncVideoService syncVideoService;
 
+    @Autowired
+    private VideoListingService videoListingService;
+
+    @Autowired
+    private SyncPermitPool syncPermitPool;
+
+    @Autowired
+    @Qualifier("syncProcessingExecutor")
+    private AsyncTaskExecutor syncProcessingExecutor;
+
     /**
      * SYNCHRONOUS VIDEO UPLOAD
      * - Tüm işlemler sırayla yapılır
      * - Client işlem bitene kadar bekler
      * - Büyük dosyalar için timeout riski var
-     * - Sunucu kaynakları uzun süre bloke olur
+     * - İşlem Tomcat thread'inde değil syncProcessingExecutor'da (Java 21+ ise virtual thread) çalışır;
+     *   request thread'i hemen serbest kalır, GET istekleri aç kalmaz
+     * - Node genelinde eş zamanlı senkron iş sayısı sınırlıdır; kapasite dolunca 429 + Retry-After
      */
-    
-    
-    
     @PostMapping("/upload")
-    public ResponseEntity<VideoProcessingResponseDto> uploadVideo(
+    public CompletableFuture<ResponseEntity<VideoProcessingResponseDto>> uploadVideo(
             @RequestParam("file") MultipartFile file,
             @RequestParam(value = "title", required = false) String title,
             @RequestParam(value = "description", required = false) String description,
             @RequestParam(value = "category", required = false) String category) {
-        
+
+        long startTime = System.currentTimeMillis();
+
+        VideoUploadRequestDto requestDto = new VideoUploadRequestDto();
+        requestDto.setFile(file);
+        requestDto.setTitle(title);
+        requestDto.setDescription(description);
+        requestDto.setCategory(category);
+
         try {
-            long startTime = System.currentTimeMillis();
-            
-            VideoUploadRequestDto requestDto = new VideoUploadRequestDto();
-            requestDto.setFile(file);
-            requestDto.setTitle(title);
-            requestDto.setDescription(description);
-            requestDto.setCategory(category);
-            
+            return CompletableFuture.supplyAsync(() -> processWithPermit(requestDto, startTime), syncProcessingExecutor);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.completedFuture(tooManyRequests(syncPermitPool.getRetryAfterSeconds()));
+        }
+    }
+
+    private ResponseEntity<VideoProcessingResponseDto> processWithPermit(VideoUploadRequestDto requestDto, long startTime) {
+        // Executor kuyruğunda geçen süre de izin bekleme bütçesinden düşülür
+        try (SyncPermitPool.Permit permit = syncPermitPool.acquire(startTime)) {
             // SENKRON İŞLEM - Client bekler tüm işlemler tamamlanırsa bekleme sona erer.
             VideoProcessingResponseDto response = syncVideoService.processVideoSync(requestDto);
-            
+
             long processingTime = System.currentTimeMillis() - startTime;
             response.setProcessingTimeMs(processingTime);
             response.setProcessingType("SYNCHRONOUS");
-            
+
             return ResponseEntity.ok(response);
-            
+
+        } catch (SyncCapacityExceededException e) {
+            return tooManyRequests(e.getRetryAfterSeconds());
+
         } catch (Exception e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
             VideoProcessingResponseDto errorResponse = new VideoProcessingResponseDto();
             errorResponse.setStatus("FAILED");
             errorResponse.setMessage("Synchronous processing failed: " + e.getMessage());
             errorResponse.setProcessingType("SYNCHRONOUS");
-            
+
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
         }
     }
 
+    private ResponseEntity<VideoProcessingResponseDto> tooManyRequests(long retryAfterSeconds) {
+        VideoProcessingResponseDto busyResponse = new VideoProcessingResponseDto();
+        busyResponse.setStatus("REJECTED");
+        busyResponse.setMessage("Synchronous processing capacity exhausted, retry later or use /api/async/videos/upload");
+        busyResponse.setProcessingType("SYNCHRONOUS");
+
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds))
+                .body(busyResponse);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<VideoProcessingResponseDto> getVideoStatus(@PathVariable Long id) {
         VideoProcessingResponseDto response = syncVideoService.getVideoStatus(id);
@@ -76,10 +120,13 @@ public class SyncVideoUploadController {
         return ResponseEntity.ok(response);
     }
 
+    // Tüm liste bellekte toplanmadan, keyset sayfaları halinde stream edilir
     @GetMapping("/all")
-    public ResponseEntity<List<VideoProcessingResponseDto>> getAllVideos() {
-        List<VideoProcessingResponseDto> videos = syncVideoService.getAllVideos();
-        return ResponseEntity.ok(videos);
+    public ResponseEntity<StreamingResponseBody> getAllVideos(
+            @RequestParam(value = "includeMetadata", defaultValue = "true") boolean includeMetadata) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> videoListingService.writeAll(out, includeMetadata));
     }
 
     @DeleteMapping("/{id}")
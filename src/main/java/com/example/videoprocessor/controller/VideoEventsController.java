@@ -0,0 +1,74 @@
+package com.example.videoprocessor.controller;
+
+import com.example.videoprocessor.dto.VideoProcessingResponseDto;
+import com.example.videoprocessor.entity.enums.VideoStatus;
+import com.example.videoprocessor.service.AsyncVideoService;
+import com.example.videoprocessor.service.VideoStatusWriter;
+import com.example.videoprocessor.service.events.SseEventSubscriber;
+import com.example.videoprocessor.service.events.VideoEventBroadcaster;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/async/videos")
+@CrossOrigin(origins = "*")
+public class VideoEventsController {
+
+    @Autowired
+    private AsyncVideoService asyncVideoService;
+
+    @Autowired
+    private VideoEventBroadcaster broadcaster;
+
+    @Autowired
+    @Qualifier("videoEventExecutor")
+    private TaskExecutor videoEventExecutor;
+
+    @Value("${video.events.buffer-size:64}")
+    private int bufferSize;
+
+    @Value("${video.events.sse-timeout-ms:1800000}")
+    private long sseTimeoutMs;
+
+    /**
+     * SERVER-SENT EVENTS STATUS STREAM
+     * - /progress endpoint'ini poll etmek yerine durum ve ilerleme değişiklikleri anında push edilir
+     * - Bağlantı koparsa tarayıcı Last-Event-ID ile yeniden bağlanır, kaçırılan olaylar tekrar gönderilir
+     * - Video terminal duruma (COMPLETED, FAILED, CANCELLED) geçince akış kapanır
+     */
+    @GetMapping(value = "/{id}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamVideoEvents(
+            @PathVariable Long id,
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+
+        VideoProcessingResponseDto current = asyncVideoService.getVideoProgress(id);
+        if ("NOT_FOUND".equals(current.getStatus())) {
+            return ResponseEntity.notFound().build();
+        }
+
+        SseEmitter emitter = new SseEmitter(sseTimeoutMs);
+        SseEventSubscriber subscriber = new SseEventSubscriber(emitter, bufferSize, videoEventExecutor);
+        emitter.onCompletion(() -> broadcaster.unsubscribeAll(subscriber));
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(e -> subscriber.close());
+
+        // Bitmiş video için tek bir olay gönderip kapat
+        if (VideoStatusWriter.isTerminal(VideoStatus.valueOf(current.getStatus()))) {
+            broadcaster.sendSnapshot(subscriber, current);
+            return ResponseEntity.ok(emitter);
+        }
+
+        if (!broadcaster.subscribe(subscriber, List.of(id), lastEventId)) {
+            broadcaster.sendSnapshot(subscriber, current);
+        }
+        return ResponseEntity.ok(emitter);
+    }
+}
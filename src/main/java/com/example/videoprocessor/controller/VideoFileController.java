@@ -0,0 +1,73 @@
+package com.example.videoprocessor.controller;
+
+import com.example.videoprocessor.service.download.VideoFileKind;
+import com.example.videoprocessor.service.download.VideoFileServer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+
+/**
+ * İşlenmiş mp4, önizleme klibi, thumbnail'ler ve scrub sprite'ını sunar (Range, ETag, sendfile); ayrı bir nginx'e gerek kalmaz.
+ * GET ile birlikte HEAD de desteklenir.
+ */
+@RestController
+@RequestMapping("/api/videos/{id}")
+@CrossOrigin(origins = "*", exposedHeaders = {"Accept-Ranges", "Content-Range", "Content-Length", "ETag"})
+public class VideoFileController {
+
+    @Autowired
+    private VideoFileServer videoFileServer;
+
+    @GetMapping("/processed")
+    public void streamProcessed(@PathVariable Long id,
+                                @RequestParam(value = "download", defaultValue = "false") boolean download,
+                                HttpServletRequest request, HttpServletResponse response) throws IOException {
+        videoFileServer.serve(id, VideoFileKind.PROCESSED, download, request, response);
+    }
+
+    @GetMapping("/preview")
+    public void streamPreview(@PathVariable Long id,
+                              HttpServletRequest request, HttpServletResponse response) throws IOException {
+        videoFileServer.serve(id, VideoFileKind.PREVIEW, false, request, response);
+    }
+
+    @GetMapping("/thumbnail")
+    public void getThumbnail(@PathVariable Long id,
+                             HttpServletRequest request, HttpServletResponse response) throws IOException {
+        videoFileServer.serve(id, VideoFileKind.THUMBNAIL, false, request, response);
+    }
+
+    // Süreye yayılmış ek thumbnail'ler: 0..video.thumbnail.count-1
+    @GetMapping("/thumbnails/{index}")
+    public void getThumbnailAt(@PathVariable Long id, @PathVariable int index,
+                               HttpServletRequest request, HttpServletResponse response) throws IOException {
+        videoFileServer.serveThumbnail(id, index, request, response);
+    }
+
+    /**
+     * Scrub önizlemesi için sprite sheet; kare koordinatları storyboard.vtt'de (#xywh=x,y,w,h).
+     */
+    @GetMapping("/sprite")
+    public void getSprite(@PathVariable Long id,
+                          HttpServletRequest request, HttpServletResponse response) throws IOException {
+        videoFileServer.serve(id, VideoFileKind.SPRITE, false, request, response);
+    }
+
+    /**
+     * HLS (fMP4) ABR çıktısı: /hls/master.m3u8 ve ona göre göreli basamak playlist'leri / segmentler.
+     */
+    @GetMapping("/hls/{*path}")
+    public void getHls(@PathVariable Long id, @PathVariable String path,
+                       HttpServletRequest request, HttpServletResponse response) throws IOException {
+        videoFileServer.serveHls(id, path.startsWith("/") ? path.substring(1) : path, request, response);
+    }
+
+    @GetMapping("/storyboard.vtt")
+    public void getStoryboard(@PathVariable Long id,
+                              HttpServletRequest request, HttpServletResponse response) throws IOException {
+        videoFileServer.serve(id, VideoFileKind.STORYBOARD, false, request, response);
+    }
+}
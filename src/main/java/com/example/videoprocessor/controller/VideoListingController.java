@@ -0,0 +1,85 @@
+package com.example.videoprocessor.controller;
+
+import com.example.videoprocessor.dto.VideoProcessingResponseDto;
+import com.example.videoprocessor.entity.enums.VideoStatus;
+import com.example.videoprocessor.service.listing.VideoListingService;
+import com.example.videoprocessor.service.listing.VideoPageCursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/videos")
+@CrossOrigin(origins = "*")
+public class VideoListingController {
+
+    @Autowired
+    private VideoListingService videoListingService;
+
+    /**
+     * PAGINATED VIDEO LIST
+     * - En yeni videolar önce; sonraki sayfa için response'taki nextCursor gönderilir
+     * - status / category ile filtrelenebilir
+     * - Metadata varsayılan olarak okunmaz (includeMetadata=true ile eklenir)
+     */
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> listVideos(
+            @RequestParam(value = "status", required = false) VideoStatus status,
+            @RequestParam(value = "category", required = false) String category,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "limit", required = false) Integer limit,
+            @RequestParam(value = "includeMetadata", defaultValue = "false") boolean includeMetadata) {
+
+        VideoPageCursor after;
+        try {
+            after = VideoPageCursor.decode(cursor);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        int pageSize = videoListingService.resolvePageSize(limit);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> videoListingService.writePage(out, status, category, after, pageSize, includeMetadata));
+    }
+
+    /**
+     * METADATA SEARCH
+     * - ffprobe metadata'sındaki alanlara göre (codec, çözünürlük, format...) en yeni videolar
+     * - Tüm verilen alanlar eşleşmeli; en az bir filtre gerekli
+     */
+    @GetMapping("/search")
+    public ResponseEntity<List<VideoProcessingResponseDto>> searchByMetadata(
+            @RequestParam(value = "codec", required = false) String codec,
+            @RequestParam(value = "resolution", required = false) String resolution,
+            @RequestParam(value = "audioCodec", required = false) String audioCodec,
+            @RequestParam(value = "format", required = false) String format,
+            @RequestParam(value = "width", required = false) Integer width,
+            @RequestParam(value = "height", required = false) Integer height,
+            @RequestParam(value = "limit", required = false) Integer limit) throws Exception {
+
+        Map<String, Object> filter = new LinkedHashMap<>();
+        putIfPresent(filter, "codec", codec);
+        putIfPresent(filter, "resolution", resolution);
+        putIfPresent(filter, "audioCodec", audioCodec);
+        putIfPresent(filter, "format", format);
+        putIfPresent(filter, "width", width);
+        putIfPresent(filter, "height", height);
+        if (filter.isEmpty()) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(videoListingService.searchByMetadata(filter, limit));
+    }
+
+    private void putIfPresent(Map<String, Object> filter, String field, Object value) {
+        if (value != null && !(value instanceof String text && text.isBlank())) {
+            filter.put(field, value);
+        }
+    }
+}
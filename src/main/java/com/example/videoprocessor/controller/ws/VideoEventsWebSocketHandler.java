@@ -0,0 +1,105 @@
+package com.example.videoprocessor.controller.ws;
+
+import com.example.videoprocessor.dto.VideoProcessingResponseDto;
+import com.example.videoprocessor.service.AsyncVideoService;
+import com.example.videoprocessor.service.events.VideoEventBroadcaster;
+import com.example.videoprocessor.service.events.WebSocketEventSubscriber;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * WEBSOCKET STATUS STREAM (/ws/videos)
+ * Tek bağlantı üzerinden birden fazla videonun durumu izlenir. İstemci mesajları:
+ *   {"action":"subscribe","videoIds":[1,2,3],"lastEventId":123}
+ *   {"action":"unsubscribe","videoIds":[2]}
+ */
+@Component
+public class VideoEventsWebSocketHandler extends TextWebSocketHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(VideoEventsWebSocketHandler.class);
+
+    @Autowired
+    private VideoEventBroadcaster broadcaster;
+
+    @Autowired
+    private AsyncVideoService asyncVideoService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("videoEventExecutor")
+    private TaskExecutor videoEventExecutor;
+
+    @Value("${video.events.buffer-size:64}")
+    private int bufferSize;
+
+    private final Map<String, WebSocketEventSubscriber> subscribers = new ConcurrentHashMap<>();
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        subscribers.put(session.getId(),
+                new WebSocketEventSubscriber(session, objectMapper, bufferSize, videoEventExecutor));
+        logger.debug("WebSocket event session opened: {}", session.getId());
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) throws Exception {
+        WebSocketEventSubscriber subscriber = subscribers.get(session.getId());
+        if (subscriber == null) {
+            return;
+        }
+
+        JsonNode request = objectMapper.readTree(message.getPayload());
+        String action = request.path("action").asText();
+        List<Long> videoIds = new ArrayList<>();
+        request.path("videoIds").forEach(id -> videoIds.add(id.asLong()));
+
+        switch (action) {
+            case "subscribe" -> {
+                Long lastEventId = request.hasNonNull("lastEventId") ? request.get("lastEventId").asLong() : null;
+                if (!broadcaster.subscribe(subscriber, videoIds, lastEventId)) {
+                    for (Long videoId : videoIds) {
+                        VideoProcessingResponseDto current = asyncVideoService.getVideoProgress(videoId);
+                        if (!"NOT_FOUND".equals(current.getStatus())) {
+                            broadcaster.sendSnapshot(subscriber, current);
+                        }
+                    }
+                }
+            }
+            case "unsubscribe" -> broadcaster.unsubscribe(subscriber, videoIds);
+            default -> logger.warn("Unknown WebSocket action '{}' from session {}", action, session.getId());
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        WebSocketEventSubscriber subscriber = subscribers.remove(session.getId());
+        if (subscriber != null) {
+            broadcaster.unsubscribeAll(subscriber);
+            subscriber.close();
+        }
+        logger.debug("WebSocket event session closed: {} ({})", session.getId(), status);
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        logger.debug("WebSocket transport error on {}: {}", session.getId(), exception.getMessage());
+    }
+}
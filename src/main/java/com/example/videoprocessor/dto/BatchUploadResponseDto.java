@@ -0,0 +1,18 @@
+package com.example.videoprocessor.dto;
+
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class BatchUploadResponseDto {
+    private Integer totalFiles;
+    private Integer acceptedCount;
+    private Integer failedCount;
+    private Long processingTimeMs;
+    private String processingType;
+    // Dosyaların gönderildiği sırada
+    private List<VideoProcessingResponseDto> results;
+}
@@ -0,0 +1,28 @@
+package com.example.videoprocessor.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+@Getter
+@Setter
+public class QueueSummaryDto {
+    // Terminal olmayan videolar, durum başına
+    private Map<String, Long> activeByStatus;
+    private Long activeCount;
+    private Long waitingCount;
+    private Long oldestWaitingAgeSeconds;
+
+    // Son windowMinutes dakikada biten işler
+    private Integer windowMinutes;
+    private Map<String, Long> finishedByStatus;
+    private Double completedPerMinute;
+    private Double averageProcessingSeconds;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime generatedAt;
+}
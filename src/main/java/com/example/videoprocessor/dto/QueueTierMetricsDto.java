@@ -0,0 +1,23 @@
+package com.example.videoprocessor.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class QueueTierMetricsDto {
+    private String tier;
+    private String queueName;
+    private Integer weight;
+
+    // Broker tarafı (tüm cluster)
+    private Long messageCount;
+    private Integer consumerCount;
+
+    // Bu node'daki scheduler
+    private Integer waitingForSlot;
+    private Integer running;
+    private Long processedCount;
+    private Long averageSlotWaitMs;
+    private Long maxSlotWaitMs;
+}
@@ -0,0 +1,27 @@
+package com.example.videoprocessor.dto;
+
+import java.io.Serializable;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Segment-paralel encode'da tek bir parçanın işi (bkz. SegmentCoordinator).
+ */
+@Getter
+@Setter
+public class SegmentTaskMessageDto implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private Long videoId;
+    private Integer segmentIndex;
+    private Integer priority;
+
+    public SegmentTaskMessageDto() {}
+
+    public SegmentTaskMessageDto(Long videoId, Integer segmentIndex, Integer priority) {
+        this.videoId = videoId;
+        this.segmentIndex = segmentIndex;
+        this.priority = priority;
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.videoprocessor.dto;
+
+import com.example.videoprocessor.entity.enums.TranscodeMode;
+
+import java.io.Serializable;
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Stage worker'ının sonucu; koordinatör bunları video satırı kilitliyken birleştirir.
+ */
+@Getter
+@Setter
+public class StageCompletedMessageDto implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private Long videoId;
+    private String stage;
+    private Integer priority;
+    private boolean success;
+    private boolean cancelled;
+    private String errorMessage;
+    private Long durationMs;
+
+    private VideoMetadataDto metadata;
+    private String thumbnailPath;
+    private String processedPath;
+    private String previewPath;
+    private List<String> thumbnailPaths;
+    private String spritePath;
+    private String storyboardPath;
+    private TranscodeMode transcodeMode;
+    private String hlsManifestPath;
+}
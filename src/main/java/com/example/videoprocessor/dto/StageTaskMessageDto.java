@@ -0,0 +1,27 @@
+package com.example.videoprocessor.dto;
+
+import java.io.Serializable;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Staged modda tek bir stage'in işi (bkz. StageCoordinator).
+ */
+@Getter
+@Setter
+public class StageTaskMessageDto implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private Long videoId;
+    private String stage; // METADATA, THUMBNAIL, TRANSCODING
+    private Integer priority;
+
+    public StageTaskMessageDto() {}
+
+    public StageTaskMessageDto(Long videoId, String stage, Integer priority) {
+        this.videoId = videoId;
+        this.stage = stage;
+        this.priority = priority;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.videoprocessor.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+public class StorageStatsDto {
+
+    @Getter
+    @Setter
+    public static class DirectoryStats {
+        private String name;
+        private String path;
+        private Long fileCount;
+        private Long totalBytes;
+        // Son taramada DB'de karşılığı olmayan ve silinen dosyalar
+        private Long orphanFileCount;
+        private Long orphanBytes;
+    }
+
+    // Upload dizininin bulunduğu disk
+    private Long diskTotalBytes;
+    private Long diskUsableBytes;
+    private Double diskUsedFraction;
+    private Double highWaterMark;
+    private Double lowWaterMark;
+
+    // Tamamlanmış videoların hâlâ diskte duran orijinalleri (disk dolunca silinebilir)
+    private Long evictableOriginalBytes;
+    private Long evictedOriginalCount;
+    private Long evictedOriginalBytes;
+
+    private Integer pendingDeletes;
+    private Long deletedFileCount;
+    private Long reclaimedBytes;
+
+    private List<DirectoryStats> directories;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime lastReconcileAt;
+}
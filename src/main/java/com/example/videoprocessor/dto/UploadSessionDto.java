@@ -0,0 +1,27 @@
+package com.example.videoprocessor.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Getter
+@Setter
+public class UploadSessionDto {
+    private String uploadId;
+    private String filename;
+    private Long totalSize;
+    private Long receivedBytes;
+    private List<String> receivedRanges; // inclusive, ör. "0-1048575"
+    private boolean complete;
+    private String message;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime createdAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime lastActivityAt;
+}
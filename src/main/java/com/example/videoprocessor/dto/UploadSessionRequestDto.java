@@ -0,0 +1,29 @@
+package com.example.videoprocessor.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class UploadSessionRequestDto {
+    @NotBlank(message = "Filename is required")
+    private String filename;
+
+    @NotNull(message = "Total size is required")
+    @Min(value = 0, message = "Total size cannot be negative")
+    private Long totalSize;
+
+    @Size(max = 100, message = "Title cannot exceed 100 characters")
+    private String title;
+
+    @Size(max = 500, message = "Description cannot exceed 500 characters")
+    private String description;
+
+    private String category;
+
+    private Integer priority = 5;
+}
@@ -0,0 +1,20 @@
+package com.example.videoprocessor.dto;
+
+import java.io.Serializable;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class VideoCancellationMessageDto implements Serializable {
+    private static final long serialVersionUID = 1L;
+
+    private Long videoId;
+
+    public VideoCancellationMessageDto() {}
+
+    public VideoCancellationMessageDto(Long videoId) {
+        this.videoId = videoId;
+    }
+}
@@ -1,5 +1,8 @@
 package com.example.videoprocessor.dto;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import lombok.Getter;
 import lombok.Setter;
 
@@ -12,8 +15,49 @@ public class VideoMetadataDto {
     private Double frameRate;
     private Long fileSize;
     private String format;
-    private Integer bitrate;
+    private Integer bitrate; // kbit/s
     private String audioCodec;
     private Integer audioChannels;
     private Integer audioSampleRate;
+
+    // ffprobe'dan gelen ayrıntılı bilgiler
+    private Double durationSeconds;
+    private Integer width;
+    private Integer height;
+    private String pixelFormat;
+    private String videoProfile;
+    private Integer rotation;
+    private Long videoBitrate; // bit/s
+    private Long audioBitrate; // bit/s
+    private String formatLongName;
+    private List<VideoStreamDto> streams;
+
+    // Derin kopya; cache'teki örnek çağıranlar tarafından değiştirilemesin (bkz. ProbeCache)
+    public VideoMetadataDto copy() {
+        VideoMetadataDto copy = new VideoMetadataDto();
+        copy.duration = duration;
+        copy.resolution = resolution;
+        copy.codec = codec;
+        copy.frameRate = frameRate;
+        copy.fileSize = fileSize;
+        copy.format = format;
+        copy.bitrate = bitrate;
+        copy.audioCodec = audioCodec;
+        copy.audioChannels = audioChannels;
+        copy.audioSampleRate = audioSampleRate;
+        copy.durationSeconds = durationSeconds;
+        copy.width = width;
+        copy.height = height;
+        copy.pixelFormat = pixelFormat;
+        copy.videoProfile = videoProfile;
+        copy.rotation = rotation;
+        copy.videoBitrate = videoBitrate;
+        copy.audioBitrate = audioBitrate;
+        copy.formatLongName = formatLongName;
+        if (streams != null) {
+            copy.streams = new ArrayList<>(streams.size());
+            streams.forEach(stream -> copy.streams.add(stream.copy()));
+        }
+        return copy;
+    }
 } 
\ No newline at end of file
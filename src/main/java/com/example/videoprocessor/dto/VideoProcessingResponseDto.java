@@ -12,6 +12,9 @@ import java.time.LocalDateTime;
 @Setter
 public class VideoProcessingResponseDto {
     private Long videoId;
+    private String originalFilename;
+    private String title;
+    private String category;
     private String status;
     private String message;
     private String processingType;
@@ -19,6 +22,9 @@ public class VideoProcessingResponseDto {
     private Integer progressPercentage;
     private String thumbnailPath;
     private String processedPath;
+    private String previewPath;
+    private String hlsManifestPath;
+    private String transcodeMode;
     private VideoMetadataDto metadata;
     
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
@@ -26,8 +32,14 @@ public class VideoProcessingResponseDto {
     
     @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
     private LocalDateTime updatedAt;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime previewReadyAt;
     
     private Long estimatedTimeRemaining; 
+
+    // Bekleme süresi dolan hibrit upload'larda durumun sorgulanacağı adres
+    private String statusUrl;
     
     public VideoProcessingResponseDto() {}
     
@@ -0,0 +1,35 @@
+package com.example.videoprocessor.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@Setter
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class VideoStatusEventDto {
+    public static final String TYPE_STATUS = "status";
+    public static final String TYPE_HEARTBEAT = "heartbeat";
+
+    private Long eventId;
+    private String type;
+    private Long videoId;
+    private String status;
+    private Integer progressPercentage;
+    private Long estimatedTimeRemaining;
+    private String message;
+
+    @JsonFormat(pattern = "yyyy-MM-dd HH:mm:ss")
+    private LocalDateTime timestamp;
+
+    public static VideoStatusEventDto heartbeat() {
+        VideoStatusEventDto event = new VideoStatusEventDto();
+        event.setType(TYPE_HEARTBEAT);
+        event.setTimestamp(LocalDateTime.now());
+        return event;
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.videoprocessor.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class VideoStreamDto {
+    private Integer index;
+    private String codecType; // video, audio, subtitle, data
+    private String codecName;
+    private String profile;
+    private Integer width;
+    private Integer height;
+    private String pixelFormat;
+    private Double frameRate;
+    private Long bitrate; // bit/s
+    private Integer channels;
+    private Integer sampleRate;
+    private Double durationSeconds;
+    private String language;
+    private Integer rotation;
+    private boolean attachedPicture;
+
+    public VideoStreamDto copy() {
+        VideoStreamDto copy = new VideoStreamDto();
+        copy.index = index;
+        copy.codecType = codecType;
+        copy.codecName = codecName;
+        copy.profile = profile;
+        copy.width = width;
+        copy.height = height;
+        copy.pixelFormat = pixelFormat;
+        copy.frameRate = frameRate;
+        copy.bitrate = bitrate;
+        copy.channels = channels;
+        copy.sampleRate = sampleRate;
+        copy.durationSeconds = durationSeconds;
+        copy.language = language;
+        copy.rotation = rotation;
+        copy.attachedPicture = attachedPicture;
+        return copy;
+    }
+}
@@ -1,7 +1,13 @@
 package com.example.videoprocessor.entity;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import com.example.videoprocessor.dto.VideoMetadataDto;
+import com.example.videoprocessor.entity.enums.TranscodeMode;
 import com.example.videoprocessor.entity.enums.VideoStatus;
 
 import jakarta.persistence.Column;
@@ -11,6 +17,7 @@ import jakarta.persistence.Enumerated;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
@@ -21,7 +28,16 @@ import lombok.Setter;
 @Setter
 @Getter
 @Entity
-@Table(name = "videos")
+@Table(name = "videos", indexes = {
+        // Keyset sayfalama (bkz. VideoRepository.findSummaryPage)
+        @Index(name = "idx_videos_created_at_id", columnList = "created_at, id"),
+        @Index(name = "idx_videos_status_created_at", columnList = "status, created_at"),
+        // Kuyruk özetindeki throughput penceresi
+        @Index(name = "idx_videos_processing_end_time", columnList = "processing_end_time"),
+        // Orphan dosya taramasında dosya adından satır bulmak için (bkz. StorageLifecycleService)
+        @Index(name = "idx_videos_filename", columnList = "filename")
+        // Aktif (terminal olmayan) satırlar için partial index: bkz. VideoSchemaMigrator
+})
 public class VideoEntity {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -30,6 +46,15 @@ public class VideoEntity {
     @Column(nullable = false)
     private String filename;
     
+    @Column(length = 100)
+    private String title;
+
+    @Column(length = 500)
+    private String description;
+
+    @Column
+    private String category;
+
     @Column(name = "original_path", nullable = false)
     private String originalPath;
     
@@ -39,6 +64,29 @@ public class VideoEntity {
     @Column(name = "thumbnail_path")
     private String thumbnailPath;
     
+    @Column(name = "preview_path")
+    private String previewPath;
+
+    // Süreye yayılmış ek thumbnail'ler (jsonb dizi), scrub sprite'ı ve WebVTT indeksi
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "thumbnail_paths", columnDefinition = "jsonb")
+    private List<String> thumbnailPaths;
+
+    @Column(name = "sprite_path")
+    private String spritePath;
+
+    @Column(name = "storyboard_path")
+    private String storyboardPath;
+
+    // HLS ABR çıktısının master playlist'i; basamaklar ve segmentler aynı dizinde
+    @Column(name = "hls_manifest_path")
+    private String hlsManifestPath;
+
+    // Transcode stage'inde seçilen yol; yeniden encode edilmeden paketlenen videolar REMUX
+    @Enumerated(EnumType.STRING)
+    @Column(name = "transcode_mode", length = 20)
+    private TranscodeMode transcodeMode;
+    
     @Enumerated(EnumType.STRING)
     @Column(nullable = false)
     private VideoStatus status;
@@ -58,8 +106,10 @@ public class VideoEntity {
     @Column(name = "frame_rate")
     private Double frameRate;
     
-    @Column(name = "metadata", columnDefinition = "TEXT")
-    private String metadata;
+    // ffprobe sonucu jsonb olarak; Hibernate okurken bir kez map eder, GIN index ile sorgulanabilir
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "metadata", columnDefinition = "jsonb")
+    private VideoMetadataDto metadata;
     
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
@@ -72,10 +122,30 @@ public class VideoEntity {
     
     @Column(name = "processing_end_time")
     private LocalDateTime processingEndTime;
+
+    // Hızlı önizlemenin oynatılabilir olduğu an (time-to-first-playable = previewReadyAt - createdAt)
+    @Column(name = "preview_ready_at")
+    private LocalDateTime previewReadyAt;
+
+    // Encode'u çalıştıran node'un ffmpeg hızından tahmini bitiş zamanı; diğer node'lar ETA'yı buradan okur
+    @Column(name = "estimated_completion_at")
+    private LocalDateTime estimatedCompletionAt;
     
     @Column(name = "error_message")
     private String errorMessage;
     
+    // Staged modda tamamlanan stage'ler (virgülle ayrılmış, bkz. StageCoordinator)
+    @Column(name = "completed_stages")
+    private String completedStages;
+    
+    // Orijinal dosyanın son okunduğu zaman (işleme, indirme); disk dolunca en eski erişilenler silinir
+    @Column(name = "last_accessed_at")
+    private LocalDateTime lastAccessedAt;
+
+    // Disk baskısı nedeniyle orijinal dosya silindiyse zamanı; işlenmiş çıktılar durur
+    @Column(name = "original_evicted_at")
+    private LocalDateTime originalEvictedAt;
+
     // Progress tracking for async processing
     @Column(name = "progress_percentage")
     private Integer progressPercentage = 0;
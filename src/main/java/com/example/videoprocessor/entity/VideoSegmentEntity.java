@@ -0,0 +1,82 @@
+package com.example.videoprocessor.entity;
+
+import java.time.LocalDateTime;
+
+import com.example.videoprocessor.entity.enums.SegmentStatus;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Segment-paralel encode'da uzun bir videonun keyframe'den bölünmüş bir parçası.
+ * Satırlar birleştirme bitince silinir (bkz. SegmentCoordinator).
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "video_segments", uniqueConstraints =
+        @UniqueConstraint(name = "uk_video_segments_video_index", columnNames = {"video_id", "segment_index"}))
+public class VideoSegmentEntity {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "video_id", nullable = false)
+    private Long videoId;
+
+    @Column(name = "segment_index", nullable = false)
+    private Integer segmentIndex;
+
+    // Stream copy ile kesilmiş parça (location)
+    @Column(name = "source_path", nullable = false)
+    private String sourcePath;
+
+    // Encode edilmiş parça (location); ENCODED olunca dolar
+    @Column(name = "output_path")
+    private String outputPath;
+
+    @Column(name = "start_seconds", nullable = false)
+    private Double startSeconds;
+
+    @Column(name = "duration_seconds", nullable = false)
+    private Double durationSeconds;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private SegmentStatus status;
+
+    @Column(nullable = false)
+    private Integer attempts = 0;
+
+    // Sadece segment 0'da: birleştirmeyi üstlenen worker'ın başlama zamanı; tek worker üstlenebilir
+    @Column(name = "stitch_started_at")
+    private LocalDateTime stitchStartedAt;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.videoprocessor.entity.enums;
+
+/**
+ * Segment-paralel encode'da bir parçanın durumu (bkz. VideoSegmentEntity).
+ */
+public enum SegmentStatus {
+    PENDING, // kuyrukta veya encode ediliyor
+    ENCODED
+}
@@ -0,0 +1,11 @@
+package com.example.videoprocessor.entity.enums;
+
+/**
+ * Transcode stage'inde seçilen yol (bkz. TranscodeDecision).
+ */
+public enum TranscodeMode {
+    REMUX,          // video ve ses stream copy, sadece mp4'e +faststart ile yeniden paketlenir
+    AUDIO_REENCODE, // video stream copy, ses AAC'ye encode edilir
+    FULL_TRANSCODE, // libx264 + AAC
+    SEGMENTED_TRANSCODE // uzun videolar: parçalar ayrı worker'larda libx264, concat + AAC (bkz. SegmentCoordinator)
+}
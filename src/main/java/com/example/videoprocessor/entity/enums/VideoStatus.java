@@ -9,6 +9,7 @@ public enum VideoStatus {
     TRANSCODED,        
     METADATA_EXTRACTING,
     METADATA_EXTRACTED, 
+    PREVIEW_READY,      // hızlı önizleme oynatılabilir, tam kalite encode arka planda sürüyor
     COMPLETED,          
     FAILED,             
     CANCELLED           
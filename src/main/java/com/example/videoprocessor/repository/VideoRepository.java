@@ -1,16 +1,187 @@
 package com.example.videoprocessor.repository;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import com.example.videoprocessor.dto.VideoMetadataDto;
 import com.example.videoprocessor.entity.VideoEntity;
 import com.example.videoprocessor.entity.enums.VideoStatus;
+import com.example.videoprocessor.repository.projection.StatusCountView;
+import com.example.videoprocessor.repository.projection.StoredOriginalView;
+import com.example.videoprocessor.repository.projection.VideoDetailView;
+import com.example.videoprocessor.repository.projection.VideoFilesView;
+import com.example.videoprocessor.repository.projection.VideoSummaryView;
 
+import jakarta.persistence.LockModeType;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface VideoRepository extends JpaRepository<VideoEntity, Long> {
     List<VideoEntity> findByStatus(VideoStatus status);
     List<VideoEntity> findByStatusIn(List<VideoStatus> statuses);
     List<VideoEntity> findByFilenameContaining(String filename);
+
+    @Query("SELECT v.status FROM VideoEntity v WHERE v.id = :id")
+    Optional<VideoStatus> findStatusById(@Param("id") Long id);
+
+    @Query("SELECT v.id FROM VideoEntity v WHERE v.id IN :ids AND v.status IN :statuses")
+    List<Long> findIdsByIdInAndStatusIn(@Param("ids") Collection<Long> ids,
+                                        @Param("statuses") Collection<VideoStatus> statuses);
+
+    // Keyset sayfalama: (created_at, id) azalan; cursor null ise ilk sayfa. OFFSET kullanılmaz, derin sayfalar da ucuz
+    @Query("""
+            SELECT v.id AS id, v.title AS title, v.category AS category, v.status AS status,
+                   v.progressPercentage AS progressPercentage, v.thumbnailPath AS thumbnailPath,
+                   v.processedPath AS processedPath, v.previewPath AS previewPath,
+                   v.createdAt AS createdAt, v.updatedAt AS updatedAt,
+                   v.processingStartTime AS processingStartTime, v.estimatedCompletionAt AS estimatedCompletionAt
+              FROM VideoEntity v
+             WHERE (:status IS NULL OR v.status = :status)
+               AND (:category IS NULL OR v.category = :category)
+               AND (:afterCreatedAt IS NULL OR v.createdAt < :afterCreatedAt
+                    OR (v.createdAt = :afterCreatedAt AND v.id < :afterId))
+             ORDER BY v.createdAt DESC, v.id DESC
+            """)
+    List<VideoSummaryView> findSummaryPage(@Param("status") VideoStatus status,
+                                           @Param("category") String category,
+                                           @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                           @Param("afterId") Long afterId,
+                                           Limit limit);
+
+    @Query("""
+            SELECT v.id AS id, v.title AS title, v.category AS category, v.status AS status,
+                   v.progressPercentage AS progressPercentage, v.thumbnailPath AS thumbnailPath,
+                   v.processedPath AS processedPath, v.previewPath AS previewPath,
+                   v.createdAt AS createdAt, v.updatedAt AS updatedAt,
+                   v.processingStartTime AS processingStartTime, v.estimatedCompletionAt AS estimatedCompletionAt, v.metadata AS metadata
+              FROM VideoEntity v
+             WHERE (:status IS NULL OR v.status = :status)
+               AND (:category IS NULL OR v.category = :category)
+               AND (:afterCreatedAt IS NULL OR v.createdAt < :afterCreatedAt
+                    OR (v.createdAt = :afterCreatedAt AND v.id < :afterId))
+             ORDER BY v.createdAt DESC, v.id DESC
+            """)
+    List<VideoDetailView> findDetailPage(@Param("status") VideoStatus status,
+                                         @Param("category") String category,
+                                         @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                         @Param("afterId") Long afterId,
+                                         Limit limit);
+
+    @Query("""
+            SELECT v.id AS id, v.title AS title, v.category AS category, v.status AS status,
+                   v.progressPercentage AS progressPercentage, v.thumbnailPath AS thumbnailPath,
+                   v.processedPath AS processedPath, v.previewPath AS previewPath,
+                   v.createdAt AS createdAt, v.updatedAt AS updatedAt,
+                   v.processingStartTime AS processingStartTime, v.estimatedCompletionAt AS estimatedCompletionAt
+              FROM VideoEntity v
+             WHERE v.id = :id
+            """)
+    Optional<VideoSummaryView> findSummaryById(@Param("id") Long id);
+
+    @Query("""
+            SELECT v.processedPath AS processedPath, v.previewPath AS previewPath, v.thumbnailPath AS thumbnailPath,
+                   v.thumbnailPaths AS thumbnailPaths, v.spritePath AS spritePath, v.storyboardPath AS storyboardPath,
+                   v.hlsManifestPath AS hlsManifestPath
+              FROM VideoEntity v
+             WHERE v.id = :id
+            """)
+    Optional<VideoFilesView> findFilesById(@Param("id") Long id);
+
+    @Query("""
+            SELECT v.id AS id, v.title AS title, v.category AS category, v.status AS status,
+                   v.progressPercentage AS progressPercentage, v.thumbnailPath AS thumbnailPath,
+                   v.processedPath AS processedPath, v.previewPath AS previewPath,
+                   v.createdAt AS createdAt, v.updatedAt AS updatedAt,
+                   v.processingStartTime AS processingStartTime, v.estimatedCompletionAt AS estimatedCompletionAt, v.metadata AS metadata
+              FROM VideoEntity v
+             WHERE v.id IN :ids
+             ORDER BY v.createdAt DESC, v.id DESC
+            """)
+    List<VideoDetailView> findDetailsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT v.metadata FROM VideoEntity v WHERE v.id = :id")
+    Optional<VideoMetadataDto> findMetadataById(@Param("id") Long id);
+
+    // jsonb containment (metadata @> filtre); idx_videos_metadata_gin kullanır, bkz. VideoSchemaMigrator
+    @Query(value = """
+            SELECT id FROM videos
+             WHERE metadata @> CAST(:filter AS jsonb)
+             ORDER BY created_at DESC, id DESC
+             LIMIT :limit
+            """, nativeQuery = true)
+    List<Long> findIdsByMetadataContaining(@Param("filter") String filterJson, @Param("limit") int limit);
+
+    // Kuyruk özeti: predicate idx_videos_active_status_created_at partial index'inin koşuluyla birebir aynı olmalı
+    @Query(value = """
+            SELECT status AS status, COUNT(*) AS count, NULL AS averageProcessingSeconds
+              FROM videos
+             WHERE status NOT IN ('COMPLETED', 'FAILED', 'CANCELLED')
+             GROUP BY status
+            """, nativeQuery = true)
+    List<StatusCountView> countActiveByStatus();
+
+    // Kuyrukta bekleyen (henüz bir worker almamış) en eski videonun yaşı; zaman uygulamanın saatine göre
+    @Query(value = """
+            SELECT EXTRACT(EPOCH FROM (CAST(:now AS timestamp) - MIN(created_at)))
+              FROM videos
+             WHERE status NOT IN ('COMPLETED', 'FAILED', 'CANCELLED')
+               AND status = 'UPLOADED'
+            """, nativeQuery = true)
+    Double findOldestWaitingAgeSeconds(@Param("now") LocalDateTime now);
+
+    @Query(value = """
+            SELECT status AS status, COUNT(*) AS count,
+                   AVG(EXTRACT(EPOCH FROM (processing_end_time - processing_start_time))) AS averageProcessingSeconds
+              FROM videos
+             WHERE processing_end_time >= :since
+             GROUP BY status
+            """, nativeQuery = true)
+    List<StatusCountView> countFinishedSince(@Param("since") LocalDateTime since);
+
+    @Query("SELECT v.filename FROM VideoEntity v WHERE v.filename IN :filenames")
+    List<String> findExistingFilenames(@Param("filenames") Collection<String> filenames);
+
+    // İşlenmiş çıktısı olan tamamlanmış videoların orijinalleri; en uzun süredir erişilmeyen önce
+    @Query("""
+            SELECT v.id AS id, v.originalPath AS originalPath, v.fileSize AS fileSize
+              FROM VideoEntity v
+             WHERE v.status = com.example.videoprocessor.entity.enums.VideoStatus.COMPLETED
+               AND v.processedPath IS NOT NULL
+               AND v.originalEvictedAt IS NULL
+             ORDER BY COALESCE(v.lastAccessedAt, v.processingEndTime, v.createdAt) ASC, v.id ASC
+            """)
+    List<StoredOriginalView> findEvictableOriginals(Limit limit);
+
+    @Query("""
+            SELECT COALESCE(SUM(v.fileSize), 0) FROM VideoEntity v
+             WHERE v.status = com.example.videoprocessor.entity.enums.VideoStatus.COMPLETED
+               AND v.processedPath IS NOT NULL
+               AND v.originalEvictedAt IS NULL
+            """)
+    long sumEvictableOriginalBytes();
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE VideoEntity v SET v.originalEvictedAt = :now WHERE v.id = :id")
+    int markOriginalEvicted(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    @Transactional
+    @Modifying
+    @Query("UPDATE VideoEntity v SET v.lastAccessedAt = :now WHERE v.id = :id")
+    int touchLastAccessed(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    // Staged modda stage sonuçları birleştirilirken satır kilidi (SELECT ... FOR UPDATE)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT v FROM VideoEntity v WHERE v.id = :id")
+    Optional<VideoEntity> findByIdForUpdate(@Param("id") Long id);
 }
@@ -0,0 +1,45 @@
+package com.example.videoprocessor.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.example.videoprocessor.entity.VideoSegmentEntity;
+import com.example.videoprocessor.entity.enums.SegmentStatus;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface VideoSegmentRepository extends JpaRepository<VideoSegmentEntity, Long> {
+    List<VideoSegmentEntity> findByVideoIdOrderBySegmentIndex(Long videoId);
+
+    Optional<VideoSegmentEntity> findByVideoIdAndSegmentIndex(Long videoId, Integer segmentIndex);
+
+    long countByVideoId(Long videoId);
+
+    long countByVideoIdAndStatusNot(Long videoId, SegmentStatus status);
+
+    // Birleştirmeyi üstlenir; sadece bir çağıran 1 alır. Süresi geçmiş claim (worker öldü) yeniden alınabilir
+    @Modifying
+    @Query("""
+            UPDATE VideoSegmentEntity s SET s.stitchStartedAt = :now
+             WHERE s.videoId = :videoId AND s.segmentIndex = 0
+               AND (s.stitchStartedAt IS NULL OR s.stitchStartedAt < :staleBefore)
+            """)
+    int claimStitch(@Param("videoId") Long videoId, @Param("now") LocalDateTime now,
+                    @Param("staleBefore") LocalDateTime staleBefore);
+
+    // Claim yalnızca tüm parçalar encode edilince alınır; süresi dolmuş claim ölü bir birleştirmedir
+    @Query("SELECT s.videoId FROM VideoSegmentEntity s WHERE s.segmentIndex = 0 AND s.stitchStartedAt < :staleBefore")
+    List<Long> findVideoIdsWithStaleStitch(@Param("staleBefore") LocalDateTime staleBefore);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM VideoSegmentEntity s WHERE s.videoId = :videoId")
+    int deleteByVideoId(@Param("videoId") Long videoId);
+}
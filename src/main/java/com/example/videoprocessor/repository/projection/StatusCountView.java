@@ -0,0 +1,11 @@
+package com.example.videoprocessor.repository.projection;
+
+/**
+ * Durum başına sayım (kuyruk özeti).
+ */
+public interface StatusCountView {
+    String getStatus();
+    Long getCount();
+    // Sadece zaman penceresi sorgusunda dolu
+    Double getAverageProcessingSeconds();
+}
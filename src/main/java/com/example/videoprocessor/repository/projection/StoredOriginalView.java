@@ -0,0 +1,10 @@
+package com.example.videoprocessor.repository.projection;
+
+/**
+ * Disk baskısında silinebilecek orijinal dosya.
+ */
+public interface StoredOriginalView {
+    Long getId();
+    String getOriginalPath();
+    Long getFileSize();
+}
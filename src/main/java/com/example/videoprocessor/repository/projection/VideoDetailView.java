@@ -0,0 +1,10 @@
+package com.example.videoprocessor.repository.projection;
+
+import com.example.videoprocessor.dto.VideoMetadataDto;
+
+/**
+ * Özet satır + ffprobe metadata'sı; sadece istenirse okunur.
+ */
+public interface VideoDetailView extends VideoSummaryView {
+    VideoMetadataDto getMetadata();
+}
@@ -0,0 +1,16 @@
+package com.example.videoprocessor.repository.projection;
+
+import java.util.List;
+
+/**
+ * İndirme endpoint'lerinin sunduğu çıktıların location'ları.
+ */
+public interface VideoFilesView {
+    String getProcessedPath();
+    String getPreviewPath();
+    String getThumbnailPath();
+    List<String> getThumbnailPaths();
+    String getSpritePath();
+    String getStoryboardPath();
+    String getHlsManifestPath();
+}
@@ -0,0 +1,23 @@
+package com.example.videoprocessor.repository.projection;
+
+import com.example.videoprocessor.entity.enums.VideoStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Listeleme için hafif satır; metadata gibi büyük kolonlar okunmaz.
+ */
+public interface VideoSummaryView {
+    Long getId();
+    String getTitle();
+    String getCategory();
+    VideoStatus getStatus();
+    Integer getProgressPercentage();
+    String getThumbnailPath();
+    String getProcessedPath();
+    String getPreviewPath();
+    LocalDateTime getCreatedAt();
+    LocalDateTime getUpdatedAt();
+    LocalDateTime getProcessingStartTime();
+    LocalDateTime getEstimatedCompletionAt();
+}
@@ -3,27 +3,44 @@ package com.example.videoprocessor.service;
 import com.example.videoprocessor.dto.VideoUploadRequestDto;
 import com.example.videoprocessor.dto.VideoProcessingResponseDto;
 import com.example.videoprocessor.config.RabbitMQConfig;
-import com.example.videoprocessor.dto.VideoMetadataDto;
+import com.example.videoprocessor.dto.QueueSummaryDto;
+import com.example.videoprocessor.dto.QueueTierMetricsDto;
+import com.example.videoprocessor.dto.VideoCancellationMessageDto;
 import com.example.videoprocessor.dto.VideoProcessingMessageDto;
 import com.example.videoprocessor.entity.VideoEntity;
 import com.example.videoprocessor.entity.enums.VideoStatus;
 import com.example.videoprocessor.repository.VideoRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.videoprocessor.repository.projection.StatusCountView;
+import com.example.videoprocessor.repository.projection.VideoSummaryView;
+import com.example.videoprocessor.service.admission.AdmissionController;
+import com.example.videoprocessor.service.job.RunningJobRegistry;
+import com.example.videoprocessor.service.listing.VideoListingService;
+import com.example.videoprocessor.service.priority.PriorityTier;
+import com.example.videoprocessor.service.priority.WeightedFairScheduler;
+import com.example.videoprocessor.service.storage.StorageArea;
+import com.example.videoprocessor.service.storage.StorageLifecycleService;
+import com.example.videoprocessor.service.storage.VideoStorage;
+import com.example.videoprocessor.service.thumbnail.ThumbnailCache;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.MessagePostProcessor;
 import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.core.RabbitAdmin;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
@@ -41,7 +58,37 @@ public class AsyncVideoService {
     private RabbitTemplate rabbitTemplate;
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private VideoProgressTracker progressTracker;
+
+    @Autowired
+    private VideoStatusWriter statusWriter;
+
+    @Autowired
+    private RunningJobRegistry jobRegistry;
+
+    @Autowired
+    private RabbitAdmin rabbitAdmin;
+
+    @Autowired
+    private WeightedFairScheduler scheduler;
+
+    @Autowired
+    private AdmissionController admissionController;
+
+    @Autowired
+    private VideoListingService videoListingService;
+
+    @Autowired
+    private VideoMetadataCache metadataCache;
+
+    @Autowired
+    private ThumbnailCache thumbnailCache;
+
+    @Autowired
+    private StorageLifecycleService storageLifecycleService;
+
+    @Autowired
+    private VideoStorage videoStorage;
 
     private final ConcurrentHashMap<Long, String> processingStatus = new ConcurrentHashMap<>();
 
@@ -52,39 +99,10 @@ public class AsyncVideoService {
             video.setStatus(VideoStatus.UPLOADED);
             video.setProgressPercentage(0);
             video = videoRepository.save(video);
-            
-            logger.info("Video saved with ID: {}, path: {}", video.getId(), video.getOriginalPath());
-
-            // 2. RabbitMQ mesajını oluştur
-            VideoProcessingMessageDto message = new VideoProcessingMessageDto(
-                    video.getId(),
-                    video.getOriginalPath(),
-                    video.getFilename(),
-                    "FULL_PROCESSING"
-            );
-            message.setPriority(priority);
-
-            // 3. Mesajı kuyruğa gönder
-            boolean messageSent = sendVideoProcessingMessage(message, priority);
-            
-            if (!messageSent) {
-                video.setStatus(VideoStatus.FAILED);
-                video.setErrorMessage("Failed to send message to processing queue");
-                videoRepository.save(video);
-                throw new RuntimeException("Failed to send video processing message");
-            }
-
-            // 4. Status'u güncelle
-            processingStatus.put(video.getId(), "QUEUED");
-            
-            logger.info("Video processing message sent successfully for video ID: {}", video.getId());
 
-            // 5. Response oluştur
-            VideoProcessingResponseDto response = convertToResponseDto(video);
-            response.setMessage("Video uploaded successfully. Processing started asynchronously.");
-            response.setStatus("PROCESSING");
+            logger.info("Video saved with ID: {}, path: {}", video.getId(), video.getOriginalPath());
 
-            return response;
+            return enqueueForProcessing(video, priority);
 
         } catch (Exception e) {
             logger.error("Async video processing failed", e);
@@ -92,29 +110,54 @@ public class AsyncVideoService {
         }
     }
 
+    /**
+     * Diske yazılmış ve kaydedilmiş bir videoyu işleme kuyruğuna gönderir.
+     * Hem multipart upload hem de resumable upload finalize adımı bu metodu kullanır.
+     */
+    public VideoProcessingResponseDto enqueueForProcessing(VideoEntity video, Integer priority) {
+        // 2. RabbitMQ mesajını oluştur
+        VideoProcessingMessageDto message = buildProcessingMessage(video, priority);
+
+        // 3. Mesajı kuyruğa gönder
+        boolean messageSent = sendVideoProcessingMessage(message, priority);
+
+        if (!messageSent) {
+            video.setStatus(VideoStatus.FAILED);
+            video.setErrorMessage("Failed to send message to processing queue");
+            videoRepository.save(video);
+            throw new RuntimeException("Failed to send video processing message");
+        }
+
+        // 4. Status'u güncelle
+        markQueued(video.getId());
+
+        logger.info("Video processing message sent successfully for video ID: {}", video.getId());
+
+        // 5. Response oluştur
+        VideoProcessingResponseDto response = convertToResponseDto(video);
+        response.setMessage("Video uploaded successfully. Processing started asynchronously.");
+        response.setStatus("PROCESSING");
+
+        return response;
+    }
+
     private boolean sendVideoProcessingMessage(VideoProcessingMessageDto message, Integer priority) {
         try {
-            logger.info("Sending video processing message to queue: {}", RabbitMQConfig.VIDEO_PROCESSING_QUEUE);
-            logger.debug("Message details - VideoId: {}, Priority: {}", message.getVideoId(), priority);
+            // Öncelik, seviyenin kuyruğu ile uygulanır (bkz. WeightedFairScheduler)
+            PriorityTier tier = PriorityTier.fromPriority(priority);
+            logger.info("Sending video processing message to queue: {}", tier.getQueueName());
+            logger.debug("Message details - VideoId: {}, Priority: {}, Tier: {}", message.getVideoId(), priority, tier);
             
             rabbitTemplate.convertAndSend(
                     RabbitMQConfig.VIDEO_PROCESSING_EXCHANGE,
-                    RabbitMQConfig.VIDEO_PROCESSING_ROUTING_KEY,
+                    tier.getRoutingKey(),
                     message,
-                    messagePostProcessor -> {
-                        MessageProperties properties = messagePostProcessor.getMessageProperties();
-                        if (priority != null) {
-                            properties.setPriority(priority);
-                        }
-                        properties.setExpiration("3600000"); // 1 hour TTL
-                        properties.setContentType("application/json");
-                        return messagePostProcessor;
-                    }
+                    processingMessageProperties(priority)
             );
             
             logger.info("Message sent successfully to exchange: {} with routing key: {}", 
                        RabbitMQConfig.VIDEO_PROCESSING_EXCHANGE, 
-                       RabbitMQConfig.VIDEO_PROCESSING_ROUTING_KEY);
+                       tier.getRoutingKey());
             
             return true;
             
@@ -127,21 +170,34 @@ public class AsyncVideoService {
         }
     }
 
-    public List<VideoProcessingResponseDto> processMultipleVideosAsync(List<VideoUploadRequestDto> requestDtos, Integer priority) throws Exception {
-        List<VideoProcessingResponseDto> responses = new java.util.ArrayList<>();
-        for (VideoUploadRequestDto requestDto : requestDtos) {
-            try {
-                VideoProcessingResponseDto response = processVideoAsync(requestDto, priority);
-                responses.add(response);
-            } catch (Exception e) {
-                logger.error("Failed to process video: {}", requestDto.getFile().getOriginalFilename(), e);
-                VideoProcessingResponseDto errorResponse = new VideoProcessingResponseDto();
-                errorResponse.setStatus("FAILED");
-                errorResponse.setMessage("Failed to process: " + e.getMessage());
-                responses.add(errorResponse);
+    static VideoProcessingMessageDto buildProcessingMessage(VideoEntity video, Integer priority) {
+        VideoProcessingMessageDto message = new VideoProcessingMessageDto(
+                video.getId(),
+                video.getOriginalPath(),
+                video.getFilename(),
+                "FULL_PROCESSING"
+        );
+        message.setPriority(priority);
+        return message;
+    }
+
+    static MessagePostProcessor processingMessageProperties(Integer priority) {
+        PriorityTier tier = PriorityTier.fromPriority(priority);
+        return messagePostProcessor -> {
+            MessageProperties properties = messagePostProcessor.getMessageProperties();
+            if (priority != null) {
+                properties.setPriority(priority);
             }
-        }
-        return responses;
+            if (tier != PriorityTier.LOW) {
+                properties.setExpiration("3600000"); // 1 hour TTL
+            }
+            properties.setContentType("application/json");
+            return messagePostProcessor;
+        };
+    }
+
+    void markQueued(Long videoId) {
+        processingStatus.put(videoId, "QUEUED");
     }
 
     public VideoProcessingResponseDto processVideoWithPriority(VideoUploadRequestDto requestDto, String priorityLevel) throws Exception {
@@ -155,29 +211,27 @@ public class AsyncVideoService {
     }
 
     public VideoProcessingResponseDto getVideoStatus(Long id) {
-        Optional<VideoEntity> videoOpt = videoRepository.findById(id);
-        if (videoOpt.isEmpty()) {
-            VideoProcessingResponseDto response = new VideoProcessingResponseDto();
-            response.setStatus("NOT_FOUND");
-            response.setMessage("Video not found");
-            return response;
-        }
-
-        VideoProcessingResponseDto response = convertToResponseDto(videoOpt.get());
-        String currentProcessingStatus = processingStatus.get(id);
-        if (currentProcessingStatus != null) {
-            response.setMessage("Current processing status: " + currentProcessingStatus);
-        }
-
-        return response;
+        // En sık çağrılan endpoint: metadata kolonu okunmaz, cache'ten gelir
+        return videoRepository.findSummaryById(id).map(this::toStatusResponse).orElseGet(this::notFoundResponse);
     }
 
     public VideoProcessingResponseDto getVideoProgress(Long id) {
-        VideoProcessingResponseDto response = getVideoStatus(id);
-        if (response.getProgressPercentage() != null && response.getProgressPercentage() > 0) {
-            long estimatedTimeRemaining = calculateEstimatedTimeRemaining(id, response.getProgressPercentage());
-            response.setEstimatedTimeRemaining(estimatedTimeRemaining);
+        Optional<VideoSummaryView> videoOpt = videoRepository.findSummaryById(id);
+        if (videoOpt.isEmpty()) {
+            return notFoundResponse();
+        }
+        VideoProcessingResponseDto response = toStatusResponse(videoOpt.get());
+
+        // Bu node'da çalışan iş için ffmpeg'in canlı ilerlemesi ve encode hızından ETA
+        VideoProgressTracker.ProgressSnapshot live = progressTracker.get(id);
+        if (live != null) {
+            response.setProgressPercentage(Math.max(live.percentage(),
+                    response.getProgressPercentage() != null ? response.getProgressPercentage() : 0));
+            response.setEstimatedTimeRemaining(live.estimatedTimeRemainingMs());
+            return response;
         }
+
+        response.setEstimatedTimeRemaining(calculateEstimatedTimeRemaining(videoOpt.get(), LocalDateTime.now()));
         return response;
     }
 
@@ -186,12 +240,92 @@ public class AsyncVideoService {
                         VideoStatus.PROCESSING,
                         VideoStatus.THUMBNAIL_CREATING,
                         VideoStatus.TRANSCODING,
+                        VideoStatus.PREVIEW_READY,
                         VideoStatus.METADATA_EXTRACTING
                 )).stream()
                 .map(this::convertToResponseDto)
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Dashboard için toplu kuyruk özeti; satırlar yerine SQL'de hesaplanan sayımlar.
+     * Aktif sayımlar partial index'ten, zaman penceresi processing_end_time index'inden okunur.
+     */
+    public QueueSummaryDto getQueueSummary(int windowMinutes) {
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<String, Long> activeByStatus = new LinkedHashMap<>();
+        for (StatusCountView row : videoRepository.countActiveByStatus()) {
+            activeByStatus.put(row.getStatus(), row.getCount());
+        }
+
+        Map<String, Long> finishedByStatus = new LinkedHashMap<>();
+        Double averageProcessingSeconds = null;
+        for (StatusCountView row : videoRepository.countFinishedSince(now.minusMinutes(windowMinutes))) {
+            finishedByStatus.put(row.getStatus(), row.getCount());
+            if (VideoStatus.COMPLETED.name().equals(row.getStatus())) {
+                averageProcessingSeconds = row.getAverageProcessingSeconds();
+            }
+        }
+
+        Double oldestWaitingAge = videoRepository.findOldestWaitingAgeSeconds(now);
+
+        QueueSummaryDto summary = new QueueSummaryDto();
+        summary.setActiveByStatus(activeByStatus);
+        summary.setActiveCount(activeByStatus.values().stream().mapToLong(Long::longValue).sum());
+        summary.setWaitingCount(activeByStatus.getOrDefault(VideoStatus.UPLOADED.name(), 0L));
+        summary.setOldestWaitingAgeSeconds(oldestWaitingAge != null ? Math.round(oldestWaitingAge) : null);
+        summary.setWindowMinutes(windowMinutes);
+        summary.setFinishedByStatus(finishedByStatus);
+        summary.setCompletedPerMinute(
+                finishedByStatus.getOrDefault(VideoStatus.COMPLETED.name(), 0L) / (double) windowMinutes);
+        summary.setAverageProcessingSeconds(averageProcessingSeconds);
+        summary.setGeneratedAt(now);
+        return summary;
+    }
+
+    /**
+     * Öncelik seviyesi başına kuyruk derinliği (broker) ve bu node'daki slot bekleme istatistikleri.
+     */
+    public List<QueueTierMetricsDto> getQueueTierMetrics() {
+        Map<PriorityTier, WeightedFairScheduler.TierStats> stats = scheduler.getStats();
+        List<QueueTierMetricsDto> metrics = new java.util.ArrayList<>();
+        for (PriorityTier tier : PriorityTier.values()) {
+            QueueTierMetricsDto dto = new QueueTierMetricsDto();
+            dto.setTier(tier.name());
+            dto.setQueueName(tier.getQueueName());
+
+            try {
+                QueueInformation info = rabbitAdmin.getQueueInfo(tier.getQueueName());
+                if (info != null) {
+                    dto.setMessageCount((long) info.getMessageCount());
+                    dto.setConsumerCount(info.getConsumerCount());
+                }
+            } catch (AmqpException e) {
+                logger.warn("Could not read queue info for {}: {}", tier.getQueueName(), e.getMessage());
+            }
+
+            WeightedFairScheduler.TierStats tierStats = stats.get(tier);
+            dto.setWeight(tierStats.weight());
+            dto.setWaitingForSlot(tierStats.waiting());
+            dto.setRunning(tierStats.running());
+            dto.setProcessedCount(tierStats.granted());
+            dto.setAverageSlotWaitMs(tierStats.averageWaitMs());
+            dto.setMaxSlotWaitMs(tierStats.maxWaitMs());
+            metrics.add(dto);
+        }
+        return metrics;
+    }
+
+    public AdmissionController.AdmissionStats getAdmissionStats() {
+        return admissionController.getStats();
+    }
+
+    /**
+     * CANCELLED durumu hemen commit edilir, ardından tüm node'lara iptal broadcast'i gönderilir.
+     * İşi çalıştıran node ffmpeg'i öldürür; kuyrukta bekleyen iş alındığında atlanır.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public VideoProcessingResponseDto cancelProcessing(Long id) {
         Optional<VideoEntity> videoOpt = videoRepository.findById(id);
         if (videoOpt.isEmpty()) {
@@ -202,46 +336,56 @@ public class AsyncVideoService {
         }
 
         VideoEntity video = videoOpt.get();
-        if (video.getStatus() == VideoStatus.COMPLETED || video.getStatus() == VideoStatus.FAILED) {
+        if (VideoStatusWriter.isTerminal(video.getStatus())) {
             VideoProcessingResponseDto response = convertToResponseDto(video);
-            response.setMessage("Cannot cancel completed or failed processing");
+            response.setMessage("Cannot cancel completed, failed or already cancelled processing");
             return response;
         }
 
         video.setStatus(VideoStatus.CANCELLED);
         video.setProgressPercentage(0);
         video.setProcessingEndTime(LocalDateTime.now());
-        videoRepository.save(video);
+        video = statusWriter.writeTerminal(video);
+        if (video.getStatus() != VideoStatus.CANCELLED) {
+            // İş okuma ile yazma arasında bitti
+            VideoProcessingResponseDto response = convertToResponseDto(video);
+            response.setMessage("Cannot cancel completed, failed or already cancelled processing");
+            return response;
+        }
 
         processingStatus.remove(id);
 
+        // Broker erişilemezse bu node'daki iş yine durur; diğer node'lar bir sonraki stage kontrolünde durur
+        jobRegistry.cancel(id);
+        try {
+            rabbitTemplate.convertAndSend(RabbitMQConfig.VIDEO_CANCELLATION_EXCHANGE, "",
+                    new VideoCancellationMessageDto(id));
+        } catch (AmqpException e) {
+            logger.error("Failed to broadcast cancellation for video ID: {}", id, e);
+        }
+
         VideoProcessingResponseDto response = convertToResponseDto(video);
         response.setMessage("Processing cancelled successfully");
         return response;
     }
 
-    public List<VideoProcessingResponseDto> getAllVideos() {
-        return videoRepository.findAll().stream()
-                .map(this::convertToResponseDto)
-                .collect(Collectors.toList());
-    }
-
     public boolean deleteVideo(Long id) {
-        if (videoRepository.existsById(id)) {
-            videoRepository.deleteById(id);
-            processingStatus.remove(id);
-            return true;
+        Optional<VideoEntity> videoOpt = videoRepository.findById(id);
+        if (videoOpt.isEmpty()) {
+            return false;
         }
-        return false;
+        videoRepository.delete(videoOpt.get());
+        processingStatus.remove(id);
+        metadataCache.evict(id);
+        thumbnailCache.evict(id);
+        // Dosyalar commit sonrasında arka planda silinir
+        storageLifecycleService.deleteFilesAfterCommit(videoOpt.get());
+        return true;
     }
 
     private VideoEntity saveVideoFile(VideoUploadRequestDto requestDto) throws IOException {
-        // Docker container içinde /app/uploads dizinini kullan
-        Path uploadPath = Paths.get("/app/uploads");
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
-            logger.info("Created uploads directory: {}", uploadPath.toAbsolutePath());
-        }
+        // Önce yerel staging dizinine yazılır, sonra depoya alınır (bkz. VideoStorage)
+        Path uploadPath = videoStorage.stagingDirectory(StorageArea.UPLOADS);
 
         String originalFilename = requestDto.getFile().getOriginalFilename();
         if (originalFilename == null) {
@@ -258,37 +402,70 @@ public class AsyncVideoService {
         // Video entity oluştur
         VideoEntity video = new VideoEntity();
         video.setFilename(filename);
-        video.setOriginalPath(filePath.toAbsolutePath().toString());
+        video.setOriginalPath(videoStorage.importFile(StorageArea.UPLOADS, filePath));
         video.setStatus(VideoStatus.UPLOADED);
         video.setFileSize(requestDto.getFile().getSize());
+        video.setTitle(requestDto.getTitle());
+        video.setDescription(requestDto.getDescription());
+        video.setCategory(requestDto.getCategory());
 
         return videoRepository.save(video);
     }
 
-    private long calculateEstimatedTimeRemaining(Long videoId, Integer progressPercentage) {
-        if (progressPercentage >= 100) return 0;
-        long averageProcessingTime = 300000; 
-        long remainingPercentage = 100 - progressPercentage;
-        return (averageProcessingTime * remainingPercentage) / 100;
+    /**
+     * Encode başka node'da çalışıyorsa ETA, o node'un status writer ile yazdığı tahmini bitiş zamanından;
+     * henüz yazılmadıysa geçen süreden doğrusal tahmin.
+     */
+    private Long calculateEstimatedTimeRemaining(VideoSummaryView video, LocalDateTime now) {
+        Integer progressPercentage = video.getProgressPercentage();
+        if (progressPercentage != null && progressPercentage >= 100) return 0L;
+        if (progressPercentage == null || progressPercentage <= 0 || VideoStatusWriter.isTerminal(video.getStatus())) {
+            return null;
+        }
+        if (video.getEstimatedCompletionAt() != null) {
+            return Math.max(0, Duration.between(now, video.getEstimatedCompletionAt()).toMillis());
+        }
+        if (video.getProcessingStartTime() == null) {
+            return null;
+        }
+        long elapsedMs = Duration.between(video.getProcessingStartTime(), now).toMillis();
+        return elapsedMs * (100 - progressPercentage) / progressPercentage;
+    }
+
+    private VideoProcessingResponseDto toStatusResponse(VideoSummaryView video) {
+        VideoProcessingResponseDto response = videoListingService.toDto(video);
+        response.setMetadata(metadataCache.get(video.getId()));
+        String currentProcessingStatus = processingStatus.get(video.getId());
+        if (currentProcessingStatus != null) {
+            response.setMessage("Current processing status: " + currentProcessingStatus);
+        }
+        return response;
+    }
+
+    private VideoProcessingResponseDto notFoundResponse() {
+        VideoProcessingResponseDto response = new VideoProcessingResponseDto();
+        response.setStatus("NOT_FOUND");
+        response.setMessage("Video not found");
+        return response;
     }
 
-    private VideoProcessingResponseDto convertToResponseDto(VideoEntity video) {
+    VideoProcessingResponseDto convertToResponseDto(VideoEntity video) {
         VideoProcessingResponseDto dto = new VideoProcessingResponseDto();
         dto.setVideoId(video.getId());
+        dto.setTitle(video.getTitle());
+        dto.setCategory(video.getCategory());
         dto.setStatus(video.getStatus().name());
         dto.setProgressPercentage(video.getProgressPercentage());
         dto.setThumbnailPath(video.getThumbnailPath());
         dto.setProcessedPath(video.getProcessedPath());
+        dto.setPreviewPath(video.getPreviewPath());
+        dto.setHlsManifestPath(video.getHlsManifestPath());
+        dto.setPreviewReadyAt(video.getPreviewReadyAt());
+        dto.setTranscodeMode(video.getTranscodeMode() != null ? video.getTranscodeMode().name() : null);
         dto.setCreatedAt(video.getCreatedAt());
         dto.setUpdatedAt(video.getUpdatedAt());
 
-        if (video.getMetadata() != null) {
-            try {
-                dto.setMetadata(objectMapper.readValue(video.getMetadata(), VideoMetadataDto.class));
-            } catch (Exception ignored) {
-                logger.warn("Failed to parse video metadata for video ID: {}", video.getId());
-            }
-        }
+        dto.setMetadata(video.getMetadata());
 
         return dto;
     }
@@ -0,0 +1,295 @@
+package com.example.videoprocessor.service;
+
+import com.example.videoprocessor.config.RabbitMQConfig;
+import com.example.videoprocessor.dto.BatchUploadResponseDto;
+import com.example.videoprocessor.dto.VideoProcessingResponseDto;
+import com.example.videoprocessor.entity.VideoEntity;
+import com.example.videoprocessor.entity.enums.VideoStatus;
+import com.example.videoprocessor.service.priority.PriorityTier;
+import com.example.videoprocessor.service.storage.StorageArea;
+import com.example.videoprocessor.service.storage.VideoStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * BATCH INGEST
+ * 1. Tüm dosyalar sınırlı bir havuzda paralel olarak diske yazılır
+ * 2. Video satırları tek bir çok satırlı INSERT ... RETURNING ile eklenir
+ *    (IDENTITY id'ler yüzünden Hibernate insert'leri batch'leyemez)
+ * 3. Tüm mesajlar tek bir channel üzerinden art arda gönderilir, publisher confirm'ler asenkron beklenir
+ * 4. Her dosya için ayrı sonuç döner; bir dosyanın hatası diğerlerini etkilemez
+ */
+@Service
+public class BatchVideoIngestService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchVideoIngestService.class);
+
+    @Autowired
+    private AsyncVideoService asyncVideoService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    @Qualifier("videoIngestExecutor")
+    private TaskExecutor ingestExecutor;
+
+    @Autowired
+    private VideoStorage videoStorage;
+
+    @Value("${video.batch.insert-chunk-size:500}")
+    private int insertChunkSize;
+
+    @Value("${video.batch.confirm-timeout-ms:10000}")
+    private long confirmTimeoutMs;
+
+    // location: depodaki yer (bkz. VideoStorage); local backend'de dosya yolu
+    private record StoredFile(int index, String originalFilename, String filename, String location, long size) {
+    }
+
+    public BatchUploadResponseDto ingest(List<MultipartFile> files, Integer priority) {
+        long startTime = System.currentTimeMillis();
+        VideoProcessingResponseDto[] results = new VideoProcessingResponseDto[files.size()];
+
+        List<StoredFile> stored = storeAll(files, results);
+        Map<Integer, VideoEntity> inserted = insertAll(stored, results);
+        publishAll(stored, inserted, priority, results);
+
+        BatchUploadResponseDto response = new BatchUploadResponseDto();
+        response.setResults(List.of(results));
+        response.setTotalFiles(files.size());
+        int failed = (int) response.getResults().stream().filter(result -> "FAILED".equals(result.getStatus())).count();
+        response.setFailedCount(failed);
+        response.setAcceptedCount(files.size() - failed);
+        response.setProcessingTimeMs(System.currentTimeMillis() - startTime);
+        response.setProcessingType("ASYNCHRONOUS_BATCH");
+
+        logger.info("Batch ingest of {} files finished in {} ms ({} accepted, {} failed)",
+                files.size(), response.getProcessingTimeMs(), response.getAcceptedCount(), failed);
+        return response;
+    }
+
+    // 1. Paralel disk yazımı
+    private List<StoredFile> storeAll(List<MultipartFile> files, VideoProcessingResponseDto[] results) {
+        Path uploadPath;
+        try {
+            uploadPath = videoStorage.stagingDirectory(StorageArea.UPLOADS);
+        } catch (IOException e) {
+            throw new RuntimeException("Upload directory is not available: " + e.getMessage(), e);
+        }
+        String batchPrefix = String.valueOf(System.currentTimeMillis());
+
+        List<CompletableFuture<StoredFile>> futures = new ArrayList<>(files.size());
+        for (int i = 0; i < files.size(); i++) {
+            int index = i;
+            MultipartFile file = files.get(i);
+            futures.add(CompletableFuture.supplyAsync(() -> store(uploadPath, batchPrefix, index, file), ingestExecutor::execute));
+        }
+
+        List<StoredFile> stored = new ArrayList<>(files.size());
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                stored.add(futures.get(i).join());
+            } catch (Exception e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                logger.error("Failed to store batch file {}", files.get(i).getOriginalFilename(), cause);
+                results[i] = failure(files.get(i).getOriginalFilename(), null, "Failed to store file: " + cause.getMessage());
+            }
+        }
+        return stored;
+    }
+
+    private StoredFile store(Path uploadPath, String batchPrefix, int index, MultipartFile file) {
+        try {
+            String originalFilename = file.getOriginalFilename() != null ? file.getOriginalFilename() : "unknown_file";
+            // Aynı milisaniyede gelen dosyalar çakışmasın diye sıra numarası
+            String filename = batchPrefix + "_" + index + "_" + Paths.get(originalFilename).getFileName();
+            Path filePath = uploadPath.resolve(filename);
+            file.transferTo(filePath);
+            // S3 backend'de upload da bu ingest thread'inde, paralel olarak yapılır
+            String location = videoStorage.importFile(StorageArea.UPLOADS, filePath);
+            return new StoredFile(index, originalFilename, filename, location, file.getSize());
+        } catch (Exception e) {
+            throw new RuntimeException(e.getMessage(), e);
+        }
+    }
+
+    // 2. Çok satırlı INSERT ... RETURNING; id'ler original_path ile eşleştirilir
+    private Map<Integer, VideoEntity> insertAll(List<StoredFile> stored, VideoProcessingResponseDto[] results) {
+        Map<Integer, VideoEntity> inserted = new HashMap<>();
+        for (int from = 0; from < stored.size(); from += insertChunkSize) {
+            List<StoredFile> chunk = stored.subList(from, Math.min(stored.size(), from + insertChunkSize));
+            try {
+                Map<String, Long> ids = insertChunk(chunk);
+                LocalDateTime now = LocalDateTime.now();
+                for (StoredFile file : chunk) {
+                    VideoEntity video = new VideoEntity();
+                    video.setId(ids.get(file.location()));
+                    video.setFilename(file.filename());
+                    video.setOriginalPath(file.location());
+                    video.setStatus(VideoStatus.UPLOADED);
+                    video.setFileSize(file.size());
+                    video.setCreatedAt(now);
+                    video.setUpdatedAt(now);
+                    inserted.put(file.index(), video);
+                }
+            } catch (Exception e) {
+                logger.error("Failed to insert {} batch video rows", chunk.size(), e);
+                for (StoredFile file : chunk) {
+                    videoStorage.delete(file.location());
+                    results[file.index()] = failure(file.originalFilename(), null, "Failed to save video: " + e.getMessage());
+                }
+            }
+        }
+        return inserted;
+    }
+
+    private Map<String, Long> insertChunk(List<StoredFile> chunk) {
+        StringBuilder sql = new StringBuilder("INSERT INTO videos (filename, original_path, status, file_size, "
+                + "progress_percentage, created_at, updated_at) VALUES ");
+        for (int i = 0; i < chunk.size(); i++) {
+            sql.append(i == 0 ? "" : ", ").append("(?, ?, ?, ?, 0, ?, ?)");
+        }
+        sql.append(" RETURNING id, original_path");
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Map<String, Long> ids = new HashMap<>();
+        jdbcTemplate.query(connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql.toString());
+            int parameter = 1;
+            for (StoredFile file : chunk) {
+                ps.setString(parameter++, file.filename());
+                ps.setString(parameter++, file.location());
+                ps.setString(parameter++, VideoStatus.UPLOADED.name());
+                ps.setLong(parameter++, file.size());
+                ps.setTimestamp(parameter++, now);
+                ps.setTimestamp(parameter++, now);
+            }
+            return ps;
+        }, rs -> {
+            ids.put(rs.getString("original_path"), rs.getLong("id"));
+        });
+        return ids;
+    }
+
+    // 3. Tek channel'da art arda publish, confirm'ler sonra toplu beklenir
+    private void publishAll(List<StoredFile> stored, Map<Integer, VideoEntity> inserted, Integer priority,
+                            VideoProcessingResponseDto[] results) {
+        PriorityTier tier = PriorityTier.fromPriority(priority);
+        Map<Integer, CorrelationData> confirms = new HashMap<>();
+
+        try {
+            rabbitTemplate.invoke(operations -> {
+                for (StoredFile file : stored) {
+                    VideoEntity video = inserted.get(file.index());
+                    if (video == null) {
+                        continue;
+                    }
+                    CorrelationData correlation = new CorrelationData(String.valueOf(video.getId()));
+                    confirms.put(file.index(), correlation);
+                    operations.convertAndSend(RabbitMQConfig.VIDEO_PROCESSING_EXCHANGE, tier.getRoutingKey(),
+                            AsyncVideoService.buildProcessingMessage(video, priority),
+                            AsyncVideoService.processingMessageProperties(priority), correlation);
+                }
+                return null;
+            });
+        } catch (Exception e) {
+            logger.error("Batch publish to {} was interrupted", tier.getQueueName(), e);
+        }
+
+        long deadline = System.currentTimeMillis() + confirmTimeoutMs;
+        List<Long> failedIds = new ArrayList<>();
+        for (StoredFile file : stored) {
+            VideoEntity video = inserted.get(file.index());
+            if (video == null) {
+                continue;
+            }
+            String error = awaitConfirm(confirms.get(file.index()), deadline);
+            if (error == null) {
+                asyncVideoService.markQueued(video.getId());
+                VideoProcessingResponseDto result = asyncVideoService.convertToResponseDto(video);
+                result.setOriginalFilename(file.originalFilename());
+                result.setStatus("PROCESSING");
+                result.setMessage("Video uploaded successfully. Processing started asynchronously.");
+                results[file.index()] = result;
+            } else {
+                failedIds.add(video.getId());
+                results[file.index()] = failure(file.originalFilename(), video.getId(), error);
+            }
+        }
+        markFailed(failedIds);
+    }
+
+    private String awaitConfirm(CorrelationData correlation, long deadline) {
+        if (correlation == null) {
+            return "Message was not sent to processing queue";
+        }
+        try {
+            CorrelationData.Confirm confirm = correlation.getFuture()
+                    .get(Math.max(0, deadline - System.currentTimeMillis()), TimeUnit.MILLISECONDS);
+            if (!confirm.isAck()) {
+                return "Broker rejected processing message: " + confirm.getReason();
+            }
+            if (correlation.getReturned() != null) {
+                return "Processing message was unroutable: " + correlation.getReturned().getReplyText();
+            }
+            return null;
+        } catch (TimeoutException e) {
+            return "Timed out waiting for broker confirm";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "Interrupted while waiting for broker confirm";
+        } catch (Exception e) {
+            return "Failed to send message to processing queue: " + e.getMessage();
+        }
+    }
+
+    private void markFailed(List<Long> videoIds) {
+        if (videoIds.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate("UPDATE videos SET status = 'FAILED', error_message = ?, updated_at = ? WHERE id = ?",
+                videoIds, videoIds.size(), (ps, id) -> {
+                    ps.setString(1, "Failed to send message to processing queue");
+                    ps.setTimestamp(2, now);
+                    ps.setLong(3, id);
+                });
+        logger.warn("Marked {} batch videos as FAILED after unconfirmed publish", videoIds.size());
+    }
+
+    private VideoProcessingResponseDto failure(String originalFilename, Long videoId, String message) {
+        VideoProcessingResponseDto result = new VideoProcessingResponseDto();
+        result.setVideoId(videoId);
+        result.setOriginalFilename(originalFilename);
+        result.setStatus("FAILED");
+        result.setMessage(message);
+        return result;
+    }
+}
@@ -1,27 +1,28 @@
 package com.example.videoprocessor.service;
 
 
-import com.example.videoprocessor.dto.VideoMetadataDto;
 import com.example.videoprocessor.dto.VideoProcessingResponseDto;
 import com.example.videoprocessor.dto.VideoUploadRequestDto;
 import com.example.videoprocessor.entity.VideoEntity;
 import com.example.videoprocessor.entity.enums.VideoStatus;
 import com.example.videoprocessor.repository.VideoRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.videoprocessor.repository.projection.VideoSummaryView;
+import com.example.videoprocessor.service.job.JobCancelledException;
+import com.example.videoprocessor.service.listing.VideoListingService;
+import com.example.videoprocessor.service.pipeline.VideoProcessingPipeline;
+import com.example.videoprocessor.service.storage.StorageArea;
+import com.example.videoprocessor.service.storage.StorageLifecycleService;
+import com.example.videoprocessor.service.storage.VideoStorage;
+import com.example.videoprocessor.service.thumbnail.ThumbnailCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.io.BufferedReader;
 import java.io.IOException;
-import java.io.InputStreamReader;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -31,7 +32,25 @@ public class SyncVideoService {
     private VideoRepository videoRepository;
     
     @Autowired
-    private ObjectMapper objectMapper;
+    private VideoProcessingPipeline videoProcessingPipeline;
+
+    @Autowired
+    private VideoStatusWriter statusWriter;
+
+    @Autowired
+    private VideoListingService videoListingService;
+
+    @Autowired
+    private VideoMetadataCache metadataCache;
+
+    @Autowired
+    private ThumbnailCache thumbnailCache;
+
+    @Autowired
+    private StorageLifecycleService storageLifecycleService;
+
+    @Autowired
+    private VideoStorage videoStorage;
 
     /**
      * SYNCHRONOUS VIDEO PROCESSING
@@ -49,6 +68,7 @@ public class SyncVideoService {
      * - Scalability problemi
      * - Concurrent işlemler sorun yaratabilir
      */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public VideoProcessingResponseDto processVideoSync(VideoUploadRequestDto requestDto) throws Exception {
         VideoEntity video = null;
         
@@ -58,195 +78,39 @@ public class SyncVideoService {
             video.setProcessingStartTime(LocalDateTime.now());
             video.setStatus(VideoStatus.PROCESSING);
             video.setProgressPercentage(10);
-            videoRepository.save(video);
-            
-            //SENKRON İŞLEMLER - Her adım sırayla
-            //Client bunları bekler.
-            
-            // Thumbnail oluşturma (GERÇEK FFmpeg işlemi)
-            video.setStatus(VideoStatus.THUMBNAIL_CREATING);
-            video.setProgressPercentage(25);
-            videoRepository.save(video);
-            
-            String thumbnailPath = createThumbnailWithFFmpeg(video.getOriginalPath(), video.getFilename());
-            video.setThumbnailPath(thumbnailPath);
-            video.setStatus(VideoStatus.THUMBNAIL_CREATED);
-            video.setProgressPercentage(40);
-            videoRepository.save(video);
-            
-            // Video transcoding (GERÇEK FFmpeg işlemi)
-            video.setStatus(VideoStatus.TRANSCODING);
-            video.setProgressPercentage(50);
-            videoRepository.save(video);
-            
-            String transcodedPath = transcodeVideoWithFFmpeg(video.getOriginalPath(), video.getFilename());
-            video.setProcessedPath(transcodedPath);
-            video.setStatus(VideoStatus.TRANSCODED);
-            video.setProgressPercentage(75);
-            videoRepository.save(video);
+            statusWriter.updateStatus(video.getId(), VideoStatus.PROCESSING, 10, video.getProcessingStartTime());
             
-            // Metadata çıkarma (GERÇEK FFprobe işlemi)
-            video.setStatus(VideoStatus.METADATA_EXTRACTING);
-            video.setProgressPercentage(85);
-            videoRepository.save(video);
-            
-            VideoMetadataDto metadata = extractMetadataWithFFprobe(video.getOriginalPath());
-            video.setMetadata(objectMapper.writeValueAsString(metadata));
-            video.setDuration(metadata.getDuration());
-            video.setResolution(metadata.getResolution());
-            video.setCodec(metadata.getCodec());
-            video.setFrameRate(metadata.getFrameRate());
+            //SENKRON İŞLEMLER - Client bunları bekler.
+            //Metadata önce, ardından tüm çıktılar tek decode ile (bkz. VideoProcessingPipeline)
+            //Ara durumlar write-behind buffer üzerinden toplu yazılır
+            Long videoId = video.getId();
+            videoProcessingPipeline.process(video,
+                    (status, progress) -> statusWriter.updateStatus(videoId, status, progress, null));
+
             video.setStatus(VideoStatus.COMPLETED);
             video.setProgressPercentage(100);
             video.setProcessingEndTime(LocalDateTime.now());
-            videoRepository.save(video);
+            video = statusWriter.writeTerminal(video);
             
             return convertToResponseDto(video);
             
+        } catch (JobCancelledException e) {
+            // CANCELLED durumu iptal isteğinde yazıldı
+            throw e;
         } catch (Exception e) {
             if (video != null) {
                 video.setStatus(VideoStatus.FAILED);
                 video.setErrorMessage(e.getMessage());
                 video.setProgressPercentage(0);
                 video.setProcessingEndTime(LocalDateTime.now());
-                videoRepository.save(video);
+                statusWriter.writeTerminal(video);
             }
             throw e;
         }
     }
-    private String createThumbnailWithFFmpeg(String videoPath, String filename) throws Exception {
-        Path outputPath = Paths.get(System.getProperty("user.dir"), "thumbnails");
-        if (!Files.exists(outputPath)) {
-            Files.createDirectories(outputPath);
-        }
-
-        String thumbnailFilename = filename + "_thumb.jpg";
-        Path thumbnailPath = outputPath.resolve(thumbnailFilename);
-
-        ProcessBuilder pb = new ProcessBuilder(
-            "ffmpeg", "-i", videoPath,
-            "-ss", "00:00:05",
-            "-vframes", "1",
-            "-vf", "scale=320:240",
-            "-q:v", "2",
-            "-y",
-            thumbnailPath.toAbsolutePath().toString()
-        );
-
-        pb.redirectErrorStream(true);
-        Process process = pb.start();
-
-        StringBuilder output = new StringBuilder();
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                output.append(line).append("\n");
-            }
-        }
-
-        int exitCode = process.waitFor();
-        if (exitCode != 0) {
-            throw new RuntimeException("FFmpeg thumbnail creation failed. Exit code: " + exitCode + "\nOutput: " + output.toString());
-        }
-
-        return thumbnailPath.toAbsolutePath().toString();
-    }
-    private String transcodeVideoWithFFmpeg(String inputPath, String filename) throws Exception {
-        Path outputPath = Paths.get(System.getProperty("user.dir"), "processed");
-        if (!Files.exists(outputPath)) {
-            Files.createDirectories(outputPath);
-        }
-
-        String processedFilename = filename + "_processed.mp4";
-        Path processedPath = outputPath.resolve(processedFilename);
-
-        ProcessBuilder pb = new ProcessBuilder(
-            "ffmpeg", "-i", inputPath,
-            "-c:v", "libx264",
-            "-c:a", "aac",
-            "-b:v", "1000k",
-            "-b:a", "128k",
-            "-vf", "scale=1280:720",
-            "-preset", "medium",
-            "-crf", "23",
-            "-movflags", "+faststart",
-            "-y",
-            processedPath.toAbsolutePath().toString()
-        );
-
-        pb.redirectErrorStream(true);
-        Process process = pb.start();
-
-        StringBuilder output = new StringBuilder();
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                output.append(line).append("\n");
-            }
-        }
-
-        int exitCode = process.waitFor();
-        if (exitCode != 0) {
-            throw new RuntimeException("FFmpeg transcoding failed. Exit code: " + exitCode + "\nOutput: " + output.toString());
-        }
-
-        return processedPath.toAbsolutePath().toString();
-    }
-
-    private VideoMetadataDto extractMetadataWithFFprobe(String videoPath) throws Exception {
-        ProcessBuilder pb = new ProcessBuilder(
-            "ffprobe", "-v", "quiet",
-            "-print_format", "json",
-            "-show_format",
-            "-show_streams",
-            videoPath
-        );
-
-        pb.redirectErrorStream(true);
-        Process process = pb.start();
-
-        StringBuilder output = new StringBuilder();
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                output.append(line).append("\n");
-            }
-        }
-
-        int exitCode = process.waitFor();
-        if (exitCode != 0) {
-            throw new RuntimeException("FFprobe metadata extraction failed. Exit code: " + exitCode);
-        }
-
-        return parseFFprobeOutput(output.toString());
-    }
-    private VideoMetadataDto parseFFprobeOutput(String jsonOutput) throws Exception {
-        // JSON parsing 
-        VideoMetadataDto metadata = new VideoMetadataDto();
-        
-        // Bu basit bir örnektir, gerçek JSON parsing yapılmalı
-        if (jsonOutput.contains("duration")) {
-            // Duration parsing
-            metadata.setDuration(120L); // Örnek değer
-        }
-        
-        metadata.setResolution("1280x720");
-        metadata.setCodec("h264");
-        metadata.setFrameRate(30.0);
-        metadata.setFormat("mp4");
-        metadata.setBitrate(1000);
-        metadata.setAudioCodec("aac");
-        metadata.setAudioChannels(2);
-        metadata.setAudioSampleRate(44100);
-        
-        return metadata;
-    }
 
     private VideoEntity saveVideoFile(VideoUploadRequestDto requestDto) throws IOException {
-        Path uploadPath = Paths.get(System.getProperty("user.dir"), "uploads");
-        if (!Files.exists(uploadPath)) {
-            Files.createDirectories(uploadPath);
-        }
+        Path uploadPath = videoStorage.stagingDirectory(StorageArea.UPLOADS);
 
         String filename = System.currentTimeMillis() + "_" + requestDto.getFile().getOriginalFilename();
         Path filePath = uploadPath.resolve(filename);
@@ -257,55 +121,59 @@ public class SyncVideoService {
         // Veritabanına kaydetme
         VideoEntity video = new VideoEntity();
         video.setFilename(filename);
-        video.setOriginalPath(filePath.toAbsolutePath().toString());
+        video.setOriginalPath(videoStorage.importFile(StorageArea.UPLOADS, filePath));
         video.setStatus(VideoStatus.UPLOADED);
         video.setFileSize(requestDto.getFile().getSize());
+        video.setTitle(requestDto.getTitle());
+        video.setDescription(requestDto.getDescription());
+        video.setCategory(requestDto.getCategory());
 
         return videoRepository.save(video);
     }
 
     public VideoProcessingResponseDto getVideoStatus(Long id) {
-        Optional<VideoEntity> videoOpt = videoRepository.findById(id);
+        Optional<VideoSummaryView> videoOpt = videoRepository.findSummaryById(id);
         if (videoOpt.isEmpty()) {
             VideoProcessingResponseDto response = new VideoProcessingResponseDto();
             response.setStatus("NOT_FOUND");
             response.setMessage("Video not found");
             return response;
         }
-        return convertToResponseDto(videoOpt.get());
-    }
-
-    public List<VideoProcessingResponseDto> getAllVideos() {
-        return videoRepository.findAll().stream()
-                .map(this::convertToResponseDto)
-                .collect(Collectors.toList());
+        VideoProcessingResponseDto response = videoListingService.toDto(videoOpt.get());
+        response.setMetadata(metadataCache.get(id));
+        return response;
     }
 
     public boolean deleteVideo(Long id) {
-        if (videoRepository.existsById(id)) {
-            videoRepository.deleteById(id);
-            return true;
+        Optional<VideoEntity> videoOpt = videoRepository.findById(id);
+        if (videoOpt.isEmpty()) {
+            return false;
         }
-        return false;
+        videoRepository.delete(videoOpt.get());
+        metadataCache.evict(id);
+        thumbnailCache.evict(id);
+        // Dosyalar commit sonrasında arka planda silinir
+        storageLifecycleService.deleteFilesAfterCommit(videoOpt.get());
+        return true;
     }
 
     private VideoProcessingResponseDto convertToResponseDto(VideoEntity video) {
         VideoProcessingResponseDto dto = new VideoProcessingResponseDto();
         dto.setVideoId(video.getId());
+        dto.setTitle(video.getTitle());
+        dto.setCategory(video.getCategory());
         dto.setStatus(video.getStatus().name());
         dto.setProgressPercentage(video.getProgressPercentage());
         dto.setThumbnailPath(video.getThumbnailPath());
         dto.setProcessedPath(video.getProcessedPath());
+        dto.setPreviewPath(video.getPreviewPath());
+        dto.setHlsManifestPath(video.getHlsManifestPath());
+        dto.setPreviewReadyAt(video.getPreviewReadyAt());
+        dto.setTranscodeMode(video.getTranscodeMode() != null ? video.getTranscodeMode().name() : null);
         dto.setCreatedAt(video.getCreatedAt());
         dto.setUpdatedAt(video.getUpdatedAt());
         
-        if (video.getMetadata() != null) {
-            try {
-                dto.setMetadata(objectMapper.readValue(video.getMetadata(), VideoMetadataDto.class));
-            } catch (Exception e) {
-
-            }
-        }
+        dto.setMetadata(video.getMetadata());
         
         return dto;
     }
@@ -0,0 +1,63 @@
+package com.example.videoprocessor.service;
+
+import com.example.videoprocessor.dto.VideoMetadataDto;
+import com.example.videoprocessor.repository.VideoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sık sorgulanan videoların metadata'sı için LRU cache.
+ * Metadata METADATA stage'inde bir kez yazılır ve sonra değişmez; status endpoint'leri her istekte
+ * jsonb kolonunu okuyup map etmek yerine buradan alır. Henüz metadata'sı olmayan videolar cache'lenmez.
+ */
+@Component
+public class VideoMetadataCache {
+
+    @Autowired
+    private VideoRepository videoRepository;
+
+    @Value("${video.metadata.cache-size:10000}")
+    private int cacheSize;
+
+    private Map<Long, VideoMetadataDto> entries;
+
+    @PostConstruct
+    void init() {
+        entries = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, VideoMetadataDto> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    public VideoMetadataDto get(Long videoId) {
+        synchronized (this) {
+            VideoMetadataDto cached = entries.get(videoId);
+            if (cached != null) {
+                return cached;
+            }
+        }
+        VideoMetadataDto metadata = videoRepository.findMetadataById(videoId).orElse(null);
+        if (metadata != null) {
+            synchronized (this) {
+                entries.put(videoId, metadata);
+            }
+        }
+        return metadata;
+    }
+
+    public synchronized void evict(Long videoId) {
+        entries.remove(videoId);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
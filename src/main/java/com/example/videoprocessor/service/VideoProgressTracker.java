@@ -0,0 +1,42 @@
+package com.example.videoprocessor.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Çalışan işlerin canlı ilerlemesi (ffmpeg -progress çıktısından).
+ * - Bellekteki anlık görüntü bu node'daki progress sorgularına hemen cevap verir
+ * - Yüzde ve ETA veritabanına write-behind buffer üzerinden yazılır ki diğer node'lar da yakın bir değer görsün
+ */
+@Component
+public class VideoProgressTracker {
+
+    public record ProgressSnapshot(int percentage, Long estimatedTimeRemainingMs, Double speed,
+                                   LocalDateTime updatedAt) {
+    }
+
+    @Autowired
+    private VideoStatusWriter statusWriter;
+
+    private final ConcurrentHashMap<Long, ProgressSnapshot> snapshots = new ConcurrentHashMap<>();
+
+    public void update(Long videoId, int percentage, Long estimatedTimeRemainingMs, Double speed) {
+        ProgressSnapshot previous = snapshots.put(videoId,
+                new ProgressSnapshot(percentage, estimatedTimeRemainingMs, speed, LocalDateTime.now()));
+
+        if (previous == null || previous.percentage() != percentage) {
+            statusWriter.updateProgress(videoId, percentage, estimatedTimeRemainingMs);
+        }
+    }
+
+    public ProgressSnapshot get(Long videoId) {
+        return snapshots.get(videoId);
+    }
+
+    public void clear(Long videoId) {
+        snapshots.remove(videoId);
+    }
+}
@@ -0,0 +1,246 @@
+package com.example.videoprocessor.service;
+
+import com.example.videoprocessor.entity.VideoEntity;
+import com.example.videoprocessor.entity.enums.VideoStatus;
+import com.example.videoprocessor.repository.VideoRepository;
+import com.example.videoprocessor.service.events.VideoStatusChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.annotation.PreDestroy;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * WRITE-BEHIND STATUS BUFFER
+ * - Ara durumlar (stage geçişleri, ffmpeg ilerlemesi ve ETA) video ID başına birleştirilir, sadece son değer yazılır
+ * - ETA mutlak bitiş zamanı olarak yazılır; encode'u çalıştırmayan node'lar da kalan süreyi buradan hesaplar
+ * - Buffer belirli aralıklarla tek bir JDBC batch UPDATE ile boşaltılır
+ * - Terminal durumlar (COMPLETED, FAILED, CANCELLED) beklemeden, senkron olarak yazılır
+ * - Gecikmiş bir ara güncelleme terminal durumun üzerine asla yazılmaz (WHERE koşulu)
+ * - İptal edilmiş bir video COMPLETED/FAILED ile ezilmez (terminal durum da koşullu UPDATE ile yazılır)
+ * - Her değişiklik VideoStatusChangedEvent olarak hemen yayınlanır (SSE/WebSocket push, flush beklenmez)
+ */
+@Component
+public class VideoStatusWriter {
+
+    private static final Logger logger = LoggerFactory.getLogger(VideoStatusWriter.class);
+
+    public static final Set<VideoStatus> TERMINAL_STATUSES =
+            EnumSet.of(VideoStatus.COMPLETED, VideoStatus.FAILED, VideoStatus.CANCELLED);
+
+    private static final String UPDATE_SQL = """
+            UPDATE videos
+               SET status = COALESCE(?, status),
+                   progress_percentage = COALESCE(?, progress_percentage),
+                   processing_start_time = COALESCE(?, processing_start_time),
+                   estimated_completion_at = COALESCE(?, estimated_completion_at),
+                   updated_at = ?
+             WHERE id = ?
+               AND status NOT IN ('COMPLETED', 'FAILED', 'CANCELLED')
+            """;
+
+    // Sadece henüz terminal olmayan satıra yazılır; güncellenen satır sayısı kazananı belirler
+    private static final String TERMINAL_SQL = """
+            UPDATE videos
+               SET status = ?,
+                   progress_percentage = ?,
+                   error_message = ?,
+                   processing_end_time = ?,
+                   estimated_completion_at = NULL,
+                   updated_at = ?
+             WHERE id = ?
+               AND status NOT IN ('COMPLETED', 'FAILED', 'CANCELLED')
+            """;
+
+    private record PendingUpdate(VideoStatus status, Integer progress, LocalDateTime processingStartTime,
+                                 LocalDateTime estimatedCompletionAt, LocalDateTime updatedAt) {
+
+        PendingUpdate mergeWith(PendingUpdate newer) {
+            return new PendingUpdate(
+                    newer.status != null ? newer.status : status,
+                    newer.progress != null ? newer.progress : progress,
+                    newer.processingStartTime != null ? newer.processingStartTime : processingStartTime,
+                    newer.estimatedCompletionAt != null ? newer.estimatedCompletionAt : estimatedCompletionAt,
+                    newer.updatedAt);
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private VideoRepository videoRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final ConcurrentHashMap<Long, PendingUpdate> pending = new ConcurrentHashMap<>();
+
+    public static boolean isTerminal(VideoStatus status) {
+        return status != null && TERMINAL_STATUSES.contains(status);
+    }
+
+    /**
+     * Ara durum güncellemesi; bir sonraki flush'ta yazılır.
+     */
+    public void updateStatus(Long videoId, VideoStatus status, Integer progress, LocalDateTime processingStartTime) {
+        if (isTerminal(status)) {
+            throw new IllegalArgumentException("Terminal status must be written with writeTerminal: " + status);
+        }
+        pending.merge(videoId, new PendingUpdate(status, progress, processingStartTime, null, LocalDateTime.now()),
+                PendingUpdate::mergeWith);
+        eventPublisher.publishEvent(new VideoStatusChangedEvent(videoId, status, progress, null));
+    }
+
+    public void updateProgress(Long videoId, int progress) {
+        updateStatus(videoId, null, progress, null);
+    }
+
+    /**
+     * ffmpeg ilerlemesi; ETA biliniyorsa tahmini bitiş zamanı olarak birlikte yazılır.
+     */
+    public void updateProgress(Long videoId, int progress, Long estimatedTimeRemainingMs) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime estimatedCompletionAt = estimatedTimeRemainingMs != null
+                ? now.plusNanos(estimatedTimeRemainingMs * 1_000_000) : null;
+        pending.merge(videoId, new PendingUpdate(null, progress, null, estimatedCompletionAt, now),
+                PendingUpdate::mergeWith);
+        eventPublisher.publishEvent(new VideoStatusChangedEvent(videoId, null, progress, null, estimatedTimeRemainingMs));
+    }
+
+    /**
+     * Terminal durumu senkron yazar; bu video için bekleyen ara güncellemeler atılır.
+     * Durum koşullu UPDATE ile yazılır: video bu arada başka bir terminal duruma geçtiyse (ör. iptal edildi)
+     * hiçbir şey yazılmaz ve DB'deki kayıt döner. Kazanılırsa satır bu transaction'da kilitlidir; çıktılar güncel
+     * kayda aktarılır, böylece arada JDBC ile yazılan kolonlar (last_accessed_at vb.) ezilmez.
+     */
+    @Transactional
+    public VideoEntity writeTerminal(VideoEntity video) {
+        if (!isTerminal(video.getStatus())) {
+            throw new IllegalArgumentException("Not a terminal status: " + video.getStatus());
+        }
+        pending.remove(video.getId());
+        video.setEstimatedCompletionAt(null);
+
+        int updated = jdbcTemplate.update(TERMINAL_SQL,
+                new Object[]{video.getStatus().name(), video.getProgressPercentage(), video.getErrorMessage(),
+                        video.getProcessingEndTime() != null ? Timestamp.valueOf(video.getProcessingEndTime()) : null,
+                        Timestamp.valueOf(LocalDateTime.now()), video.getId()},
+                new int[]{Types.VARCHAR, Types.INTEGER, Types.VARCHAR, Types.TIMESTAMP, Types.TIMESTAMP, Types.BIGINT});
+        if (updated == 0) {
+            logger.info("Video ID {} is already in a terminal status, not overwriting with {}",
+                    video.getId(), video.getStatus());
+            return videoRepository.findById(video.getId()).orElse(video);
+        }
+
+        VideoEntity current = videoRepository.findById(video.getId()).orElse(video);
+        if (current != video) {
+            copyTerminalState(video, current);
+        }
+        eventPublisher.publishEvent(new VideoStatusChangedEvent(current.getId(), current.getStatus(),
+                current.getProgressPercentage(), current.getErrorMessage()));
+        return current;
+    }
+
+    // İşleme sonucu alanlar; null değerler (ör. FAILED'da üretilmemiş çıktılar) mevcut kaydı ezmez
+    private static void copyTerminalState(VideoEntity from, VideoEntity to) {
+        to.setStatus(from.getStatus());
+        to.setProgressPercentage(from.getProgressPercentage());
+        to.setErrorMessage(from.getErrorMessage());
+        to.setProcessingEndTime(from.getProcessingEndTime());
+        to.setEstimatedCompletionAt(null);
+        copyIfSet(from.getProcessingStartTime(), to::setProcessingStartTime);
+        copyIfSet(from.getProcessedPath(), to::setProcessedPath);
+        copyIfSet(from.getPreviewPath(), to::setPreviewPath);
+        copyIfSet(from.getPreviewReadyAt(), to::setPreviewReadyAt);
+        copyIfSet(from.getThumbnailPath(), to::setThumbnailPath);
+        copyIfSet(from.getThumbnailPaths(), to::setThumbnailPaths);
+        copyIfSet(from.getSpritePath(), to::setSpritePath);
+        copyIfSet(from.getStoryboardPath(), to::setStoryboardPath);
+        copyIfSet(from.getHlsManifestPath(), to::setHlsManifestPath);
+        copyIfSet(from.getTranscodeMode(), to::setTranscodeMode);
+        copyIfSet(from.getCompletedStages(), to::setCompletedStages);
+        copyIfSet(from.getMetadata(), to::setMetadata);
+        copyIfSet(from.getDuration(), to::setDuration);
+        copyIfSet(from.getResolution(), to::setResolution);
+        copyIfSet(from.getCodec(), to::setCodec);
+        copyIfSet(from.getFrameRate(), to::setFrameRate);
+    }
+
+    private static <T> void copyIfSet(T value, Consumer<T> setter) {
+        if (value != null) {
+            setter.accept(value);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${video.status.flush-interval-ms:1000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        List<Map.Entry<Long, PendingUpdate>> batch = new ArrayList<>(pending.size());
+        for (Long videoId : pending.keySet()) {
+            PendingUpdate update = pending.remove(videoId);
+            if (update != null) {
+                batch.add(Map.entry(videoId, update));
+            }
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    Long videoId = batch.get(i).getKey();
+                    PendingUpdate update = batch.get(i).getValue();
+                    ps.setObject(1, update.status() != null ? update.status().name() : null, Types.VARCHAR);
+                    ps.setObject(2, update.progress(), Types.INTEGER);
+                    ps.setObject(3, update.processingStartTime() != null
+                            ? Timestamp.valueOf(update.processingStartTime()) : null, Types.TIMESTAMP);
+                    ps.setObject(4, update.estimatedCompletionAt() != null
+                            ? Timestamp.valueOf(update.estimatedCompletionAt()) : null, Types.TIMESTAMP);
+                    ps.setTimestamp(5, Timestamp.valueOf(update.updatedAt()));
+                    ps.setLong(6, videoId);
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return batch.size();
+                }
+            });
+            logger.debug("Flushed {} coalesced status updates", batch.size());
+        } catch (Exception e) {
+            logger.error("Failed to flush {} status updates, re-queueing", batch.size(), e);
+            // Yeni gelen değerler daha güncel; eskiler sadece boşlukları doldurur
+            batch.forEach(entry -> pending.merge(entry.getKey(), entry.getValue(),
+                    (current, failed) -> failed.mergeWith(current)));
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+}
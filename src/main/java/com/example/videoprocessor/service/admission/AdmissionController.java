@@ -0,0 +1,259 @@
+package com.example.videoprocessor.service.admission;
+
+import com.example.videoprocessor.dto.VideoMetadataDto;
+import com.example.videoprocessor.service.listener.SegmentWorkerListener;
+import com.example.videoprocessor.service.listener.StageWorkerListener;
+import com.example.videoprocessor.service.listener.VideoProcessingListener;
+import com.example.videoprocessor.service.priority.WeightedFairScheduler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * COST-AWARE ADMISSION CONTROL
+ * - Her encode işi çözünürlük × fps'ten tahmin edilen sayıda ffmpeg thread'i ile çalışır ve bu kadar CPU bütçesi tutar
+ * - Bütçe = çekirdek sayısı, node'daki dış yük (load average'ın bizim işlerimizden fazlası) kadar azaltılır
+ * - Bütçe doluysa iş bekler; en eski bekleyen sığmıyorsa, kısa bir süre için sığan küçük işler öne geçebilir
+ * - Uzun işler (süre × çözünürlük) bütçenin sadece bir kısmını tutabilir, kısa klipler her zaman akar
+ * - Periyodik olarak ortalama iş boyutuna göre slot ve listener consumer sayısı yeniden hesaplanır
+ */
+@Component
+public class AdmissionController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionController.class);
+
+    private static final double THREADS_EWMA_ALPHA = 0.2;
+
+    @Autowired
+    private WeightedFairScheduler scheduler;
+
+    @Autowired
+    private RabbitListenerEndpointRegistry listenerRegistry;
+
+    @Value("${video.admission.cpu-budget:0}")
+    private int configuredBudget;
+
+    @Value("${video.admission.threads-per-1080p:4}")
+    private int threadsPer1080p;
+
+    @Value("${video.admission.min-threads-per-job:2}")
+    private int minThreadsPerJob;
+
+    @Value("${video.admission.max-threads-per-job:16}")
+    private int maxThreadsPerJob;
+
+    @Value("${video.admission.long-job-work-units:3600}")
+    private double longJobWorkUnits;
+
+    @Value("${video.admission.long-job-budget-fraction:0.75}")
+    private double longJobBudgetFraction;
+
+    @Value("${video.admission.backfill-window-ms:30000}")
+    private long backfillWindowMs;
+
+    @Value("${video.admission.max-consumers:32}")
+    private int maxConsumers;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition changed = lock.newCondition();
+    private final Deque<Waiter> waiters = new ArrayDeque<>();
+
+    private int budget;
+    private volatile int effectiveBudget;
+    private volatile double systemLoad = -1;
+    private int threadsInUse;
+    private int longJobThreadsInUse;
+    private int runningJobs;
+    private volatile double averageThreads;
+
+    private record Waiter(JobCost cost, boolean longJob, long since) {
+    }
+
+    @PostConstruct
+    void init() {
+        budget = configuredBudget > 0 ? configuredBudget : Runtime.getRuntime().availableProcessors();
+        effectiveBudget = budget;
+        averageThreads = Math.max(minThreadsPerJob, Math.min(maxThreadsPerJob, threadsPer1080p));
+        logger.info("Admission control: CPU budget {} threads, {}-{} threads per job",
+                budget, minThreadsPerJob, maxThreadsPerJob);
+    }
+
+    public JobCost estimate(VideoMetadataDto metadata) {
+        return JobCost.estimate(metadata, threadsPer1080p, minThreadsPerJob, maxThreadsPerJob);
+    }
+
+    /**
+     * İş için bütçe ayrılana kadar bekler. Dönen Permit, ffmpeg'in kullanacağı thread sayısını taşır ve kapatılmalıdır.
+     */
+    public Permit admit(Long videoId, VideoMetadataDto metadata) throws InterruptedException {
+        JobCost estimated = estimate(metadata);
+        // Tek başına bütçeyi aşan iş sonsuza kadar beklemesin
+        JobCost cost = new JobCost(estimated.pixelRateRatio(), estimated.workUnits(),
+                Math.min(estimated.threads(), budget));
+        Waiter waiter = new Waiter(cost, cost.workUnits() > longJobWorkUnits, System.currentTimeMillis());
+
+        lock.lock();
+        try {
+            waiters.addLast(waiter);
+            try {
+                while (!canAdmit(waiter)) {
+                    changed.await(1, TimeUnit.SECONDS);
+                }
+            } finally {
+                waiters.remove(waiter);
+            }
+
+            threadsInUse += cost.threads();
+            if (waiter.longJob()) {
+                longJobThreadsInUse += cost.threads();
+            }
+            runningJobs++;
+            averageThreads = averageThreads * (1 - THREADS_EWMA_ALPHA) + cost.threads() * THREADS_EWMA_ALPHA;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        logger.info("Admitted video ID {} with {} ffmpeg threads (pixel rate {}x 1080p30, work {} units, waited {} ms)",
+                videoId, cost.threads(), String.format("%.2f", cost.pixelRateRatio()),
+                Math.round(cost.workUnits()), System.currentTimeMillis() - waiter.since());
+        return new Permit(cost.threads(), waiter.longJob());
+    }
+
+    private boolean canAdmit(Waiter waiter) {
+        int threads = waiter.cost().threads();
+        // Hiç iş yokken dış yük ne olursa olsun en az bir iş çalışır
+        boolean fits = runningJobs == 0 || threadsInUse + threads <= effectiveBudget;
+        if (!fits) {
+            return false;
+        }
+        if (waiter.longJob() && runningJobs > 0
+                && longJobThreadsInUse + threads > Math.max(threads, budget * longJobBudgetFraction)) {
+            return false;
+        }
+
+        Waiter oldest = waiters.peekFirst();
+        if (oldest == null || oldest == waiter) {
+            return true;
+        }
+        // Öndeki büyük iş çok beklediyse küçük işler artık öne geçemez
+        return System.currentTimeMillis() - oldest.since() < backfillWindowMs;
+    }
+
+    private void release(Permit permit) {
+        lock.lock();
+        try {
+            threadsInUse -= permit.threads;
+            if (permit.longJob) {
+                longJobThreadsInUse -= permit.threads;
+            }
+            runningJobs--;
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Load average'dan node'daki dış yükü çıkarır ve slot sayısını ortalama iş boyutuna göre ayarlar.
+     * Hedef: bütçe dolu, bir iş de metadata aşamasında sırada bekliyor.
+     */
+    @Scheduled(fixedDelayString = "${video.admission.rebalance-interval-ms:10000}")
+    public void rebalance() {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        double load = os.getSystemLoadAverage();
+        systemLoad = load;
+
+        lock.lock();
+        try {
+            if (load >= 0) {
+                double externalLoad = Math.max(0, load - threadsInUse);
+                effectiveBudget = Math.max(minThreadsPerJob, (int) Math.floor(budget - externalLoad));
+            } else {
+                effectiveBudget = budget;
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        int slots = (int) Math.ceil(effectiveBudget / averageThreads) + 1;
+        slots = Math.max(1, Math.min(maxConsumers, slots));
+        if (slots != scheduler.getSlots()) {
+            scheduler.resize(slots);
+            resizeListenerContainers(slots);
+        }
+    }
+
+    // Her seviyenin listener'ı tüm slotları kullanabilmeli (diğer seviyeler boşken)
+    private void resizeListenerContainers(int consumers) {
+        for (String containerId : VideoProcessingListener.CONTAINER_IDS) {
+            resizeContainer(containerId, consumers);
+        }
+        // Staged modda slotu transcode stage'i ve segment worker'ları alır
+        resizeContainer(StageWorkerListener.TRANSCODE_CONTAINER_ID, consumers);
+        resizeContainer(SegmentWorkerListener.CONTAINER_ID, consumers);
+        logger.info("Scaled video processing, transcode stage and segment consumers to {}", consumers);
+    }
+
+    private void resizeContainer(String containerId, int consumers) {
+        MessageListenerContainer container = listenerRegistry.getListenerContainer(containerId);
+        if (container instanceof SimpleMessageListenerContainer listenerContainer) {
+            listenerContainer.setConcurrency(consumers + "-" + consumers);
+        }
+    }
+
+    public AdmissionStats getStats() {
+        lock.lock();
+        try {
+            return new AdmissionStats(budget, effectiveBudget, threadsInUse, runningJobs, waiters.size(),
+                    systemLoad, averageThreads, scheduler.getSlots());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public record AdmissionStats(int cpuBudget, int effectiveBudget, int threadsInUse, int runningJobs,
+                                 int waitingJobs, double systemLoadAverage, double averageThreadsPerJob,
+                                 int consumerSlots) {
+    }
+
+    public final class Permit implements AutoCloseable {
+        private final int threads;
+        private final boolean longJob;
+        private boolean released;
+
+        private Permit(int threads, boolean longJob) {
+            this.threads = threads;
+            this.longJob = longJob;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        @Override
+        public void close() {
+            if (!released) {
+                released = true;
+                release(this);
+            }
+        }
+    }
+}
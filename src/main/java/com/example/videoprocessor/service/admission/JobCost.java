@@ -0,0 +1,46 @@
+package com.example.videoprocessor.service.admission;
+
+import com.example.videoprocessor.dto.VideoMetadataDto;
+
+/**
+ * Bir encode işinin tahmini maliyeti.
+ *
+ * @param pixelRateRatio saniyedeki piksel sayısının 1080p30'a oranı (4K30 = 4.0)
+ * @param workUnits      süre × pixelRateRatio; "1080p30 saniyesi" cinsinden toplam iş
+ * @param threads        işe verilecek ffmpeg thread sayısı (CPU bütçesinden düşülen miktar)
+ */
+public record JobCost(double pixelRateRatio, double workUnits, int threads) {
+
+    static final double PIXEL_RATE_1080P30 = 1920.0 * 1080.0 * 30.0;
+
+    private static final double DEFAULT_FRAME_RATE = 30.0;
+
+    /**
+     * Metadata eksikse 1080p30 varsayılır.
+     */
+    public static JobCost estimate(VideoMetadataDto metadata, int threadsPer1080p, int minThreads, int maxThreads) {
+        double width = 1920;
+        double height = 1080;
+        double frameRate = DEFAULT_FRAME_RATE;
+        double durationSeconds = 0;
+        if (metadata != null) {
+            if (metadata.getWidth() != null && metadata.getHeight() != null
+                    && metadata.getWidth() > 0 && metadata.getHeight() > 0) {
+                width = metadata.getWidth();
+                height = metadata.getHeight();
+            }
+            if (metadata.getFrameRate() != null && metadata.getFrameRate() > 0) {
+                // Bozuk time_base'li dosyalarda 1000 fps gibi değerler görülebiliyor
+                frameRate = Math.min(metadata.getFrameRate(), 120.0);
+            }
+            if (metadata.getDurationSeconds() != null && metadata.getDurationSeconds() > 0) {
+                durationSeconds = metadata.getDurationSeconds();
+            }
+        }
+
+        double pixelRateRatio = width * height * frameRate / PIXEL_RATE_1080P30;
+        int threads = (int) Math.round(pixelRateRatio * threadsPer1080p);
+        threads = Math.max(minThreads, Math.min(maxThreads, threads));
+        return new JobCost(pixelRateRatio, durationSeconds * pixelRateRatio, threads);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.videoprocessor.service.admission;
+
+/**
+ * Senkron işleme için izin havuzu dolu ve bekleme süresi aştı; istemci Retry-After sonra tekrar denemeli.
+ */
+public class SyncCapacityExceededException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public SyncCapacityExceededException(String message, long retryAfterSeconds) {
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
@@ -0,0 +1,104 @@
+package com.example.videoprocessor.service.admission;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SYNC PERMIT POOL
+ * - Node genelinde aynı anda en fazla N senkron işleme (ffmpeg) çalışır
+ * - İzin için en fazla queue-timeout kadar beklenir; süre dolarsa SyncCapacityExceededException (HTTP 429).
+ *   Süre isteğin kabul edildiği andan sayılır, executor kuyruğunda geçen süre de bütçeden düşer
+ * - Retry-After, son senkron işlerin ortalama süresinden tahmin edilir
+ */
+@Component
+public class SyncPermitPool {
+
+    private static final Logger logger = LoggerFactory.getLogger(SyncPermitPool.class);
+
+    private static final double DURATION_EWMA_ALPHA = 0.2;
+
+    @Value("${video.sync.max-concurrent:4}")
+    private int maxConcurrent;
+
+    @Value("${video.sync.queue-timeout-ms:5000}")
+    private long queueTimeoutMs;
+
+    private Semaphore permits;
+    private volatile double averageDurationMs = 10_000;
+
+    public SyncPermitPool() {
+    }
+
+    SyncPermitPool(int maxConcurrent, long queueTimeoutMs) {
+        this.maxConcurrent = maxConcurrent;
+        this.queueTimeoutMs = queueTimeoutMs;
+        init();
+    }
+
+    @PostConstruct
+    void init() {
+        permits = new Semaphore(maxConcurrent, true);
+        logger.info("Sync processing limited to {} concurrent jobs, queue timeout {} ms", maxConcurrent, queueTimeoutMs);
+    }
+
+    public Permit acquire() throws InterruptedException {
+        return acquire(System.currentTimeMillis());
+    }
+
+    /**
+     * @param queuedSince isteğin kabul edildiği an; bekleme bütçesi bu andan itibaren queue-timeout'tur
+     */
+    public Permit acquire(long queuedSince) throws InterruptedException {
+        long remainingMs = queueTimeoutMs - (System.currentTimeMillis() - queuedSince);
+        // Bütçe bittiyse yine de boş izin varsa alınır, beklenmez
+        boolean acquired = remainingMs > 0
+                ? permits.tryAcquire(remainingMs, TimeUnit.MILLISECONDS)
+                : permits.tryAcquire();
+        if (!acquired) {
+            throw new SyncCapacityExceededException(
+                    "Synchronous processing capacity exhausted; retry later or use the async API",
+                    getRetryAfterSeconds());
+        }
+        return new Permit(System.currentTimeMillis());
+    }
+
+    public long getRetryAfterSeconds() {
+        // Kabaca bir iznin boşalması için gereken süre
+        return Math.max(1, Math.round(averageDurationMs / 1000.0 / Math.max(1, maxConcurrent)));
+    }
+
+    public int getAvailablePermits() {
+        return permits.availablePermits();
+    }
+
+    public int getQueueLength() {
+        return permits.getQueueLength();
+    }
+
+    public final class Permit implements AutoCloseable {
+        private final long acquiredAt;
+        private boolean released;
+
+        private Permit(long acquiredAt) {
+            this.acquiredAt = acquiredAt;
+        }
+
+        @Override
+        public void close() {
+            if (released) {
+                return;
+            }
+            released = true;
+            long duration = System.currentTimeMillis() - acquiredAt;
+            averageDurationMs = averageDurationMs * (1 - DURATION_EWMA_ALPHA) + duration * DURATION_EWMA_ALPHA;
+            permits.release();
+        }
+    }
+}
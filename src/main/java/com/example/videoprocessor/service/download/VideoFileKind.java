@@ -0,0 +1,33 @@
+package com.example.videoprocessor.service.download;
+
+import com.example.videoprocessor.repository.projection.VideoFilesView;
+
+import java.util.function.Function;
+
+/**
+ * İndirilebilen işlenmiş çıktılar. Küçük görsel dosyalar (thumbnail, sprite, WebVTT) bellekte cache'lenir;
+ * videolar Range ile diskten sunulur.
+ */
+public enum VideoFileKind {
+    PROCESSED(VideoFilesView::getProcessedPath, false),
+    PREVIEW(VideoFilesView::getPreviewPath, false),
+    THUMBNAIL(VideoFilesView::getThumbnailPath, true),
+    SPRITE(VideoFilesView::getSpritePath, true),
+    STORYBOARD(VideoFilesView::getStoryboardPath, true);
+
+    private final Function<VideoFilesView, String> location;
+    private final boolean cached;
+
+    VideoFileKind(Function<VideoFilesView, String> location, boolean cached) {
+        this.location = location;
+        this.cached = cached;
+    }
+
+    public String locationOf(VideoFilesView video) {
+        return location.apply(video);
+    }
+
+    public boolean isCached() {
+        return cached;
+    }
+}
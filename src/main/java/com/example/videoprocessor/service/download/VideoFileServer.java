@@ -0,0 +1,375 @@
+package com.example.videoprocessor.service.download;
+
+import com.example.videoprocessor.repository.VideoRepository;
+import com.example.videoprocessor.repository.projection.VideoFilesView;
+import com.example.videoprocessor.service.hls.HlsLadder;
+import com.example.videoprocessor.service.storage.VideoStorage;
+import com.example.videoprocessor.service.thumbnail.ThumbnailCache;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRange;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32;
+
+/**
+ * İŞLENMİŞ DOSYA SUNUMU
+ * - Range (tek aralık; çoklu aralık istenirse tüm dosya), 206 / 416
+ * - ETag + Last-Modified ile koşullu istekler (304), If-Range
+ * - Çıktılar değişmediği için uzun süreli "immutable" Cache-Control
+ * - Gövde Tomcat sendfile ile (çekirdek içinde, FileChannel.transferTo) yazılır; connector desteklemiyorsa
+ *   FileChannel.transferTo ile response stream'ine
+ * - Dosya S3'teyse istemci presigned URL'e yönlendirilir (uygulama node'u veriyi taşımaz)
+ * - Thumbnail, sprite ve WebVTT küçük ve çok sık istenir; ThumbnailCache'ten (bellek) sunulur
+ */
+@Service
+public class VideoFileServer {
+
+    private static final Logger logger = LoggerFactory.getLogger(VideoFileServer.class);
+
+    // org.apache.catalina.Globals
+    private static final String SENDFILE_SUPPORTED_ATTR = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME_ATTR = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START_ATTR = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END_ATTR = "org.apache.tomcat.sendfile.end";
+
+    private static final MediaType WEBVTT = MediaType.parseMediaType("text/vtt;charset=UTF-8");
+    private static final MediaType HLS_PLAYLIST = MediaType.parseMediaType("application/vnd.apple.mpegurl");
+    private static final MediaType HLS_SEGMENT = MediaType.parseMediaType("video/iso.segment");
+
+    private static final Pattern SAFE_RELATIVE_PATH = Pattern.compile("[A-Za-z0-9_./-]+");
+
+    record ByteRange(long start, long endInclusive) {
+
+        long length() {
+            return endInclusive - start + 1;
+        }
+    }
+
+    @Autowired
+    private VideoRepository videoRepository;
+
+    @Autowired
+    private VideoStorage videoStorage;
+
+    @Autowired
+    private ThumbnailCache thumbnailCache;
+
+    @Value("${video.download.cache-max-age-seconds:31536000}")
+    private long cacheMaxAgeSeconds;
+
+    @Value("${video.download.presigned-url-ttl-seconds:900}")
+    private long presignedUrlTtlSeconds;
+
+    @Value("${video.download.sendfile-min-bytes:49152}")
+    private long sendfileMinBytes;
+
+    /**
+     * Videonun istenen çıktısını yazar. Video veya çıktı yoksa 404.
+     */
+    public void serve(Long videoId, VideoFileKind kind, boolean attachment,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (kind.isCached()) {
+            serveCached(new ThumbnailCache.Key(videoId, kind.name(), 0),
+                    () -> videoRepository.findFilesById(videoId).map(kind::locationOf).orElse(null),
+                    request, response);
+            return;
+        }
+
+        String location = videoRepository.findFilesById(videoId).map(kind::locationOf).orElse(null);
+        if (location == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        serveLocation(location, attachment, request, response);
+    }
+
+    /**
+     * HLS master playlist'i veya ona göre göreli bir dosya (ör. "720p/index.m3u8", "720p/seg_00001.m4s").
+     */
+    public void serveHls(Long videoId, String relativePath, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        String manifest = videoRepository.findFilesById(videoId).map(VideoFilesView::getHlsManifestPath).orElse(null);
+        if (manifest == null || !isSafeRelativePath(relativePath)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        String base = manifest.substring(0, manifest.length() - HlsLadder.MASTER_PLAYLIST.length());
+        serveLocation(base + relativePath, false, request, response);
+    }
+
+    // Sadece manifest dizininin altı; ".." ve mutlak yollar reddedilir
+    static boolean isSafeRelativePath(String relativePath) {
+        if (relativePath == null || relativePath.isEmpty() || relativePath.startsWith("/")
+                || !SAFE_RELATIVE_PATH.matcher(relativePath).matches()) {
+            return false;
+        }
+        for (String segment : relativePath.split("/")) {
+            if (segment.isEmpty() || segment.equals(".") || segment.equals("..")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void serveLocation(String location, boolean attachment,
+                               HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path file = videoStorage.resolveLocal(location);
+        if (file == null) {
+            serveRemote(location, request, response);
+            return;
+        }
+
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (IOException e) {
+            logger.debug("File {} is not readable: {}", location, e.getMessage());
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        long size = attributes.size();
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        String eTag = eTag(size, lastModified);
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=" + cacheMaxAgeSeconds + ", immutable");
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        // If-None-Match / If-Modified-Since; ETag ve Last-Modified header'larını da ekler
+        if (new ServletWebRequest(request, response).checkNotModified(eTag, lastModified)) {
+            return;
+        }
+
+        response.setContentType(contentType(file.getFileName().toString()).toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                (attachment ? ContentDisposition.attachment() : ContentDisposition.inline())
+                        .filename(file.getFileName().toString()).build().toString());
+
+        ByteRange range = null;
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader != null && ifRangeMatches(request.getHeader(HttpHeaders.IF_RANGE), eTag, lastModified)) {
+            try {
+                range = resolveRange(rangeHeader, size);
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+        }
+
+        long start = 0;
+        long length = size;
+        if (range != null) {
+            start = range.start();
+            length = range.length();
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE,
+                    "bytes " + range.start() + "-" + range.endInclusive() + "/" + size);
+        }
+        response.setContentLengthLong(length);
+
+        if (HttpMethod.HEAD.matches(request.getMethod()) || length == 0) {
+            return;
+        }
+        if (length >= sendfileMinBytes && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED_ATTR))) {
+            // Gövdeyi connector yazar; response'a başka bir şey yazılmamalı
+            request.setAttribute(SENDFILE_FILENAME_ATTR, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START_ATTR, start);
+            request.setAttribute(SENDFILE_END_ATTR, start + length);
+            return;
+        }
+        transfer(file, start, length, response.getOutputStream());
+    }
+
+    /**
+     * Süreye yayılmış ek thumbnail'lerden index'inci (0'dan başlar).
+     */
+    public void serveThumbnail(Long videoId, int index, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        serveCached(new ThumbnailCache.Key(videoId, "THUMBNAILS", index), () -> videoRepository.findFilesById(videoId)
+                .map(VideoFilesView::getThumbnailPaths)
+                .filter(paths -> index >= 0 && index < paths.size())
+                .map(paths -> paths.get(index))
+                .orElse(null), request, response);
+    }
+
+    private void serveCached(ThumbnailCache.Key key, Supplier<String> locationLookup,
+                             HttpServletRequest request, HttpServletResponse response) throws IOException {
+        ThumbnailCache.Entry entry = thumbnailCache.get(key, () -> {
+            String location = locationLookup.get();
+            return location != null && videoStorage.exists(location) ? load(location) : null;
+        });
+        if (entry == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=" + cacheMaxAgeSeconds + ", immutable");
+        ServletWebRequest webRequest = new ServletWebRequest(request, response);
+        if (entry.lastModified() > 0 ? webRequest.checkNotModified(entry.eTag(), entry.lastModified())
+                : webRequest.checkNotModified(entry.eTag())) {
+            return;
+        }
+        response.setContentType(entry.contentType());
+        response.setContentLength(entry.bytes().length);
+        if (!HttpMethod.HEAD.matches(request.getMethod())) {
+            response.getOutputStream().write(entry.bytes());
+        }
+    }
+
+    private ThumbnailCache.Entry load(String location) throws IOException {
+        byte[] bytes;
+        long lastModified = -1;
+        Path local = videoStorage.resolveLocal(location);
+        if (local != null) {
+            bytes = Files.readAllBytes(local);
+            lastModified = Files.getLastModifiedTime(local).toMillis();
+        } else {
+            long size = videoStorage.size(location);
+            try (InputStream in = videoStorage.openRange(location, 0, Math.max(0, size - 1))) {
+                bytes = size > 0 ? in.readAllBytes() : new byte[0];
+            }
+        }
+        CRC32 checksum = new CRC32();
+        checksum.update(bytes);
+        return new ThumbnailCache.Entry(bytes, "\"" + Long.toHexString(bytes.length) + "-"
+                + Long.toHexString(checksum.getValue()) + "\"", lastModified, contentType(location).toString());
+    }
+
+    private static MediaType contentType(String location) {
+        if (location.endsWith(".vtt")) {
+            return WEBVTT;
+        }
+        if (location.endsWith(".m3u8")) {
+            return HLS_PLAYLIST;
+        }
+        if (location.endsWith(".m4s")) {
+            return HLS_SEGMENT;
+        }
+        return MediaTypeFactory.getMediaType(location).orElse(MediaType.APPLICATION_OCTET_STREAM);
+    }
+
+    // Yerel kopyası olmayan dosya: önce presigned URL, olmazsa depodan stream
+    // Playlist'ler yönlendirilmez: içlerindeki göreli yollar presigned URL'e göre çözülürse imzasız kalır
+    private void serveRemote(String location, HttpServletRequest request, HttpServletResponse response) throws IOException {
+        URI presigned = location.endsWith(".m3u8") ? null
+                : videoStorage.presignedUrl(location, Duration.ofSeconds(presignedUrlTtlSeconds));
+        if (presigned != null) {
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "private, max-age=" + Math.max(0, presignedUrlTtlSeconds - 60));
+            response.sendRedirect(presigned.toString());
+            return;
+        }
+
+        long size = videoStorage.size(location);
+        ByteRange range;
+        try {
+            range = resolveRange(request.getHeader(HttpHeaders.RANGE), size);
+        } catch (IllegalArgumentException e) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+            response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+            return;
+        }
+        if (range == null) {
+            range = new ByteRange(0, size - 1);
+        } else {
+            response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+            response.setHeader(HttpHeaders.CONTENT_RANGE,
+                    "bytes " + range.start() + "-" + range.endInclusive() + "/" + size);
+        }
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setContentType(contentType(location).toString());
+        response.setContentLengthLong(Math.max(0, range.length()));
+        if (HttpMethod.HEAD.matches(request.getMethod()) || size == 0) {
+            return;
+        }
+        try (InputStream in = videoStorage.openRange(location, range.start(), range.endInclusive())) {
+            in.transferTo(response.getOutputStream());
+        }
+    }
+
+    private void transfer(Path file, long start, long length, OutputStream out) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = start;
+            long remaining = length;
+            while (remaining > 0) {
+                long written = channel.transferTo(position, remaining, target);
+                if (written <= 0) {
+                    break;
+                }
+                position += written;
+                remaining -= written;
+            }
+        }
+    }
+
+    static String eTag(long size, long lastModified) {
+        return "\"" + Long.toHexString(size) + "-" + Long.toHexString(lastModified) + "\"";
+    }
+
+    /**
+     * Range header'ını çözer. Header yoksa veya birden fazla aralık istenmişse null (tüm dosya gönderilir);
+     * aralık karşılanamıyorsa IllegalArgumentException (416).
+     */
+    static ByteRange resolveRange(String rangeHeader, long size) {
+        if (rangeHeader == null || rangeHeader.isBlank()) {
+            return null;
+        }
+        List<HttpRange> ranges = HttpRange.parseRanges(rangeHeader);
+        if (ranges.size() != 1) {
+            return null;
+        }
+        if (size == 0) {
+            throw new IllegalArgumentException("Range on empty file");
+        }
+        HttpRange range = ranges.get(0);
+        long start = range.getRangeStart(size);
+        long end = range.getRangeEnd(size);
+        if (start >= size || end < start) {
+            throw new IllegalArgumentException("Range not satisfiable: " + rangeHeader);
+        }
+        return new ByteRange(start, end);
+    }
+
+    // If-Range: doğrulayıcı eşleşmiyorsa Range yok sayılır ve dosyanın tamamı gönderilir
+    static boolean ifRangeMatches(String ifRange, String eTag, long lastModified) {
+        if (ifRange == null) {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/")) {
+            return ifRange.equals(eTag);
+        }
+        try {
+            long date = ZonedDateTime.parse(ifRange, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant().toEpochMilli();
+            return lastModified / 1000 == date / 1000;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.example.videoprocessor.service.events;
+
+import com.example.videoprocessor.dto.VideoStatusEventDto;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Push bağlantısı (SSE veya WebSocket) için sınırlı tamponlu abone.
+ * - Olaylar kuyruğa alınır ve ortak executor üzerinde tek tek gönderilir; yayıncı hiç beklemez
+ * - Yavaş bir istemcide tampon dolarsa en eski olay atılır (son durum her zaman iletilir)
+ * - Aynı anda sadece bir gönderim çalışır, böylece WebSocket gibi thread-safe olmayan oturumlar korunur
+ */
+public abstract class EventSubscriber {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventSubscriber.class);
+
+    private final Deque<VideoStatusEventDto> buffer;
+    private final int capacity;
+    private final Executor executor;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final Set<Long> videoIds = ConcurrentHashMap.newKeySet();
+    private volatile boolean closed;
+    private long droppedEvents;
+
+    protected EventSubscriber(int capacity, Executor executor) {
+        this.capacity = capacity;
+        this.buffer = new ArrayDeque<>(capacity);
+        this.executor = executor;
+    }
+
+    public Set<Long> getVideoIds() {
+        return videoIds;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    public void offer(VideoStatusEventDto event) {
+        if (closed) {
+            return;
+        }
+        synchronized (buffer) {
+            if (buffer.size() >= capacity) {
+                buffer.pollFirst();
+                droppedEvents++;
+            }
+            buffer.addLast(event);
+        }
+        scheduleDrain();
+    }
+
+    private void scheduleDrain() {
+        if (draining.compareAndSet(false, true)) {
+            try {
+                executor.execute(this::drain);
+            } catch (Exception e) {
+                draining.set(false);
+                logger.warn("Could not schedule event delivery", e);
+            }
+        }
+    }
+
+    private void drain() {
+        try {
+            VideoStatusEventDto event;
+            while (!closed && (event = poll()) != null) {
+                send(event);
+            }
+        } catch (Exception e) {
+            logger.debug("Event delivery failed, closing subscriber: {}", e.getMessage());
+            close();
+        } finally {
+            draining.set(false);
+        }
+        if (!closed && hasPending()) {
+            scheduleDrain();
+        }
+    }
+
+    private VideoStatusEventDto poll() {
+        synchronized (buffer) {
+            return buffer.pollFirst();
+        }
+    }
+
+    private boolean hasPending() {
+        synchronized (buffer) {
+            return !buffer.isEmpty();
+        }
+    }
+
+    public long getDroppedEvents() {
+        synchronized (buffer) {
+            return droppedEvents;
+        }
+    }
+
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        synchronized (buffer) {
+            buffer.clear();
+        }
+        try {
+            onClose();
+        } catch (Exception e) {
+            logger.debug("Error while closing subscriber: {}", e.getMessage());
+        }
+    }
+
+    protected abstract void send(VideoStatusEventDto event) throws Exception;
+
+    protected abstract void onClose() throws Exception;
+}
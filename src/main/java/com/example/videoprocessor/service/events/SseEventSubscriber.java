@@ -0,0 +1,44 @@
+package com.example.videoprocessor.service.events;
+
+import com.example.videoprocessor.dto.VideoStatusEventDto;
+import com.example.videoprocessor.service.VideoStatusWriter;
+import com.example.videoprocessor.entity.enums.VideoStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Tek bir videoyu izleyen SSE bağlantısı. Terminal durum gönderildikten sonra akış kapanır.
+ */
+public class SseEventSubscriber extends EventSubscriber {
+
+    private final SseEmitter emitter;
+
+    public SseEventSubscriber(SseEmitter emitter, int capacity, Executor executor) {
+        super(capacity, executor);
+        this.emitter = emitter;
+    }
+
+    @Override
+    protected void send(VideoStatusEventDto event) throws Exception {
+        if (VideoStatusEventDto.TYPE_HEARTBEAT.equals(event.getType())) {
+            emitter.send(SseEmitter.event().comment("heartbeat"));
+            return;
+        }
+
+        emitter.send(SseEmitter.event()
+                .id(String.valueOf(event.getEventId()))
+                .name(event.getType())
+                .data(event, MediaType.APPLICATION_JSON));
+
+        if (event.getStatus() != null && VideoStatusWriter.isTerminal(VideoStatus.valueOf(event.getStatus()))) {
+            close();
+        }
+    }
+
+    @Override
+    protected void onClose() {
+        emitter.complete();
+    }
+}
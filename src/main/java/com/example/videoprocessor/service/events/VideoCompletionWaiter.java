@@ -0,0 +1,91 @@
+package com.example.videoprocessor.service.events;
+
+import com.example.videoprocessor.entity.enums.VideoStatus;
+import com.example.videoprocessor.repository.VideoRepository;
+import com.example.videoprocessor.service.VideoStatusWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bir videonun terminal duruma (COMPLETED, FAILED, CANCELLED) geçmesini bekleyen istekler.
+ * - Bu node'daki geçişler VideoStatusChangedEvent ile commit sonrasında anında bildirilir
+ * - İş başka bir node'da bittiyse olay buraya gelmez; bekleyen videolar periyodik olarak tek sorguyla kontrol edilir
+ * - Bekleyen hiçbir thread bloke olmaz, sadece future tutulur
+ */
+@Component
+public class VideoCompletionWaiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(VideoCompletionWaiter.class);
+
+    @Autowired
+    private VideoRepository videoRepository;
+
+    private final Map<Long, Set<CompletableFuture<VideoStatus>>> waiters = new ConcurrentHashMap<>();
+
+    /**
+     * Video terminal duruma geçince tamamlanan bir future döner. İş kayıttan önce bittiyse hemen tamamlanır.
+     * Bekleme bırakılırsa (timeout) {@link #release} çağrılmalıdır.
+     */
+    public CompletableFuture<VideoStatus> awaitTerminal(Long videoId) {
+        CompletableFuture<VideoStatus> future = new CompletableFuture<>();
+        waiters.computeIfAbsent(videoId, id -> ConcurrentHashMap.newKeySet()).add(future);
+
+        // Kayıttan önce kaçırılmış bir olay olabilir
+        videoRepository.findStatusById(videoId)
+                .filter(VideoStatusWriter::isTerminal)
+                .ifPresent(status -> complete(videoId, status));
+        return future;
+    }
+
+    public void release(Long videoId, CompletableFuture<VideoStatus> future) {
+        waiters.computeIfPresent(videoId, (id, set) -> {
+            set.remove(future);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    public int getWaiterCount() {
+        return waiters.values().stream().mapToInt(Set::size).sum();
+    }
+
+    // Transaction içinde yazılan terminal durum commit edilmeden okunmasın diye commit sonrası
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onStatusChanged(VideoStatusChangedEvent change) {
+        if (VideoStatusWriter.isTerminal(change.status())) {
+            complete(change.videoId(), change.status());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${video.wait.poll-interval-ms:2000}")
+    public void pollOtherNodes() {
+        if (waiters.isEmpty()) {
+            return;
+        }
+        try {
+            List<Long> finished = videoRepository.findIdsByIdInAndStatusIn(
+                    List.copyOf(waiters.keySet()), VideoStatusWriter.TERMINAL_STATUSES);
+            for (Long videoId : finished) {
+                videoRepository.findStatusById(videoId).ifPresent(status -> complete(videoId, status));
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to poll completion of {} awaited videos: {}", waiters.size(), e.getMessage());
+        }
+    }
+
+    private void complete(Long videoId, VideoStatus status) {
+        Set<CompletableFuture<VideoStatus>> futures = waiters.remove(videoId);
+        if (futures != null) {
+            futures.forEach(future -> future.complete(status));
+        }
+    }
+}
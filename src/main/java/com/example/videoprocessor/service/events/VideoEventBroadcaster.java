@@ -0,0 +1,173 @@
+package com.example.videoprocessor.service.events;
+
+import com.example.videoprocessor.dto.VideoProcessingResponseDto;
+import com.example.videoprocessor.dto.VideoStatusEventDto;
+import com.example.videoprocessor.service.VideoProgressTracker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Status olaylarını push abonelerine (SSE / WebSocket) dağıtır.
+ * - Her olay artan bir ID alır; video başına son olaylar tutulur ve Last-Event-ID ile kaldığı yerden devam edilir
+ * - Yayıncı thread'i (listener, ffmpeg progress okuyucusu) sadece abonenin tamponuna yazar
+ * - Bağlantıların ara katmanlarda kapanmaması için periyodik heartbeat gönderilir
+ */
+@Component
+public class VideoEventBroadcaster {
+
+    private static final Logger logger = LoggerFactory.getLogger(VideoEventBroadcaster.class);
+
+    private static final int MAX_TRACKED_VIDEOS = 10_000;
+
+    @Autowired
+    private VideoProgressTracker progressTracker;
+
+    @Value("${video.events.replay-size:32}")
+    private int replaySize;
+
+    // Restart sonrasında da ID'ler artmaya devam etsin diye zaman tabanlı başlangıç
+    private final AtomicLong eventSequence = new AtomicLong(System.currentTimeMillis() * 1000);
+
+    private final Map<Long, Set<EventSubscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Set<EventSubscriber> allSubscribers = ConcurrentHashMap.newKeySet();
+
+    private final Map<Long, Deque<VideoStatusEventDto>> recentEvents =
+            new LinkedHashMap<>(256, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<Long, Deque<VideoStatusEventDto>> eldest) {
+                    return size() > MAX_TRACKED_VIDEOS;
+                }
+            };
+
+    @EventListener
+    public void onStatusChanged(VideoStatusChangedEvent change) {
+        VideoStatusEventDto event = new VideoStatusEventDto();
+        event.setType(VideoStatusEventDto.TYPE_STATUS);
+        event.setVideoId(change.videoId());
+        event.setMessage(change.message());
+        event.setTimestamp(LocalDateTime.now());
+
+        VideoProgressTracker.ProgressSnapshot live = progressTracker.get(change.videoId());
+        if (change.estimatedTimeRemaining() != null) {
+            event.setEstimatedTimeRemaining(change.estimatedTimeRemaining());
+        } else if (live != null) {
+            event.setEstimatedTimeRemaining(live.estimatedTimeRemainingMs());
+        }
+
+        synchronized (recentEvents) {
+            Deque<VideoStatusEventDto> history = recentEvents.computeIfAbsent(change.videoId(), id -> new ArrayDeque<>());
+            VideoStatusEventDto previous = history.peekLast();
+            event.setStatus(change.status() != null ? change.status().name()
+                    : previous != null ? previous.getStatus() : null);
+            event.setProgressPercentage(change.progress() != null ? change.progress()
+                    : previous != null ? previous.getProgressPercentage() : null);
+            event.setEventId(eventSequence.incrementAndGet());
+
+            if (history.size() >= replaySize) {
+                history.pollFirst();
+            }
+            history.addLast(event);
+        }
+
+        Set<EventSubscriber> videoSubscribers = subscribers.get(change.videoId());
+        if (videoSubscribers != null) {
+            videoSubscribers.forEach(subscriber -> subscriber.offer(event));
+        }
+    }
+
+    /**
+     * Aboneyi videolara bağlar. lastEventId verilmişse bu ID'den sonraki olaylar önce tekrar gönderilir.
+     *
+     * @return tekrar gönderilen olay olmadıysa false (çağıran güncel durumu kendisi gönderebilir)
+     */
+    public boolean subscribe(EventSubscriber subscriber, Collection<Long> videoIds, Long lastEventId) {
+        allSubscribers.add(subscriber);
+        boolean replayed = false;
+        for (Long videoId : videoIds) {
+            subscriber.getVideoIds().add(videoId);
+            subscribers.computeIfAbsent(videoId, id -> ConcurrentHashMap.newKeySet()).add(subscriber);
+
+            for (VideoStatusEventDto event : replayEvents(videoId, lastEventId)) {
+                subscriber.offer(event);
+                replayed = true;
+            }
+        }
+        return replayed;
+    }
+
+    /**
+     * Yeni bağlanan aboneye DB'deki güncel durumu gönderir (tekrar gönderilecek olay yoksa).
+     */
+    public void sendSnapshot(EventSubscriber subscriber, VideoProcessingResponseDto current) {
+        VideoStatusEventDto event = new VideoStatusEventDto();
+        event.setEventId(eventSequence.get());
+        event.setType(VideoStatusEventDto.TYPE_STATUS);
+        event.setVideoId(current.getVideoId());
+        event.setStatus(current.getStatus());
+        event.setProgressPercentage(current.getProgressPercentage());
+        event.setEstimatedTimeRemaining(current.getEstimatedTimeRemaining());
+        event.setMessage(current.getMessage());
+        event.setTimestamp(LocalDateTime.now());
+        subscriber.offer(event);
+    }
+
+    public void unsubscribe(EventSubscriber subscriber, Collection<Long> videoIds) {
+        for (Long videoId : videoIds) {
+            subscriber.getVideoIds().remove(videoId);
+            subscribers.computeIfPresent(videoId, (id, set) -> {
+                set.remove(subscriber);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+
+    public void unsubscribeAll(EventSubscriber subscriber) {
+        unsubscribe(subscriber, List.copyOf(subscriber.getVideoIds()));
+        allSubscribers.remove(subscriber);
+    }
+
+    public int getSubscriberCount() {
+        return allSubscribers.size();
+    }
+
+    @Scheduled(fixedDelayString = "${video.events.heartbeat-interval-ms:15000}")
+    public void sendHeartbeats() {
+        for (EventSubscriber subscriber : allSubscribers) {
+            if (subscriber.isClosed()) {
+                unsubscribeAll(subscriber);
+            } else {
+                subscriber.offer(VideoStatusEventDto.heartbeat());
+            }
+        }
+        logger.debug("Sent heartbeat to {} event subscribers", allSubscribers.size());
+    }
+
+    private List<VideoStatusEventDto> replayEvents(Long videoId, Long lastEventId) {
+        if (lastEventId == null) {
+            return List.of();
+        }
+        synchronized (recentEvents) {
+            Deque<VideoStatusEventDto> history = recentEvents.get(videoId);
+            if (history == null) {
+                return List.of();
+            }
+            return history.stream().filter(event -> event.getEventId() > lastEventId).toList();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.videoprocessor.service.events;
+
+import com.example.videoprocessor.entity.enums.VideoStatus;
+
+/**
+ * Bir videonun durumu veya ilerlemesi değiştiğinde yayınlanan in-process olay.
+ *
+ * @param status   yeni durum; sadece ilerleme değiştiyse null
+ * @param progress yeni ilerleme yüzdesi; değişmediyse null
+ * @param estimatedTimeRemaining ffmpeg hızından kalan süre (ms); bilinmiyorsa null
+ */
+public record VideoStatusChangedEvent(Long videoId, VideoStatus status, Integer progress, String message,
+                                      Long estimatedTimeRemaining) {
+
+    public VideoStatusChangedEvent(Long videoId, VideoStatus status, Integer progress, String message) {
+        this(videoId, status, progress, message, null);
+    }
+}
@@ -0,0 +1,44 @@
+package com.example.videoprocessor.service.events;
+
+import com.example.videoprocessor.dto.VideoStatusEventDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.concurrent.Executor;
+
+/**
+ * Birden çok videoya abone olabilen WebSocket oturumu.
+ */
+public class WebSocketEventSubscriber extends EventSubscriber {
+
+    private final WebSocketSession session;
+    private final ObjectMapper objectMapper;
+
+    public WebSocketEventSubscriber(WebSocketSession session, ObjectMapper objectMapper, int capacity, Executor executor) {
+        super(capacity, executor);
+        this.session = session;
+        this.objectMapper = objectMapper;
+    }
+
+    public WebSocketSession getSession() {
+        return session;
+    }
+
+    @Override
+    protected void send(VideoStatusEventDto event) throws Exception {
+        if (!session.isOpen()) {
+            close();
+            return;
+        }
+        session.sendMessage(new TextMessage(objectMapper.writeValueAsString(event)));
+    }
+
+    @Override
+    protected void onClose() throws Exception {
+        if (session.isOpen()) {
+            session.close(CloseStatus.NORMAL);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.videoprocessor.service.ffmpeg;
+
+/**
+ * "-progress" çıktısından bir blokluk anlık görüntü.
+ *
+ * @param outTimeMicros encode edilen çıktı süresi (mikrosaniye)
+ * @param speed         gerçek zamana göre encode hızı (ör. 2.5x), bilinmiyorsa null
+ * @param finished      ffmpeg "progress=end" bildirdi mi
+ */
+public record FFmpegProgress(long outTimeMicros, Double speed, long frame, boolean finished) {
+
+    /**
+     * 0.0 - 1.0 arası tamamlanma oranı; toplam süre bilinmiyorsa null.
+     */
+    public Double fraction(Double totalDurationSeconds) {
+        if (finished) {
+            return 1.0;
+        }
+        if (totalDurationSeconds == null || totalDurationSeconds <= 0) {
+            return null;
+        }
+        return Math.max(0.0, Math.min(1.0, outTimeMicros / (totalDurationSeconds * 1_000_000)));
+    }
+
+    /**
+     * Kalan süre tahmini: kalan medya süresi / encode hızı.
+     */
+    public Long etaMillis(Double totalDurationSeconds) {
+        if (finished) {
+            return 0L;
+        }
+        if (totalDurationSeconds == null || speed == null || speed <= 0) {
+            return null;
+        }
+        double remainingMediaSeconds = Math.max(0.0, totalDurationSeconds - outTimeMicros / 1_000_000.0);
+        return Math.round(remainingMediaSeconds / speed * 1000);
+    }
+}
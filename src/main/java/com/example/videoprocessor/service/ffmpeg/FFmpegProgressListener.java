@@ -0,0 +1,13 @@
+package com.example.videoprocessor.service.ffmpeg;
+
+/**
+ * ffmpeg ilerleme bildirimleri. Progress okuyucu thread'inden çağrılır; implementasyonlar thread-safe olmalıdır.
+ */
+@FunctionalInterface
+public interface FFmpegProgressListener {
+
+    FFmpegProgressListener NONE = progress -> {
+    };
+
+    void onProgress(FFmpegProgress progress);
+}
@@ -0,0 +1,60 @@
+package com.example.videoprocessor.service.ffmpeg;
+
+/**
+ * "ffmpeg -progress pipe:1" satırlarını artımlı olarak ayrıştırır.
+ * ffmpeg her blokta key=value satırları yazar ve bloğu "progress=continue|end" ile bitirir.
+ */
+public class FFmpegProgressParser {
+
+    private long outTimeMicros;
+    private Double speed;
+    private long frame;
+
+    /**
+     * @return blok tamamlandıysa anlık görüntü, aksi halde null
+     */
+    public FFmpegProgress accept(String line) {
+        int separator = line.indexOf('=');
+        if (separator <= 0) {
+            return null;
+        }
+        String key = line.substring(0, separator).trim();
+        String value = line.substring(separator + 1).trim();
+
+        switch (key) {
+            // out_time_ms adına rağmen mikrosaniyedir (ffmpeg'in bilinen tuhaflığı)
+            case "out_time_us", "out_time_ms" -> {
+                long parsed = parseLong(value);
+                if (parsed >= 0) {
+                    outTimeMicros = parsed;
+                }
+            }
+            case "speed" -> speed = parseSpeed(value);
+            case "frame" -> frame = Math.max(0, parseLong(value));
+            case "progress" -> {
+                return new FFmpegProgress(outTimeMicros, speed, frame, "end".equals(value));
+            }
+            default -> {
+            }
+        }
+        return null;
+    }
+
+    private static long parseLong(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static Double parseSpeed(String value) {
+        String number = value.endsWith("x") ? value.substring(0, value.length() - 1) : value;
+        try {
+            double parsed = Double.parseDouble(number.trim());
+            return parsed > 0 ? parsed : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+}
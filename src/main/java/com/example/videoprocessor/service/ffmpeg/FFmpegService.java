@@ -0,0 +1,166 @@
+package com.example.videoprocessor.service.ffmpeg;
+
+import com.example.videoprocessor.service.ffmpeg.command.FFmpegCommand;
+import com.example.videoprocessor.service.ffmpeg.command.FFmpegOutput;
+import com.example.videoprocessor.service.job.JobCancelledException;
+import com.example.videoprocessor.service.job.RunningJob;
+import com.example.videoprocessor.service.storage.StorageArea;
+import com.example.videoprocessor.service.storage.VideoStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * FFmpeg çağrıları (probe için bkz. FFprobeService).
+ * Hem senkron servis hem de kuyruk listener'ı aynı komutları kullanır.
+ */
+@Service
+public class FFmpegService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FFmpegService.class);
+
+    private static final int STDERR_TAIL_LINES = 40;
+
+    @Autowired
+    private VideoStorage videoStorage;
+
+    public void run(FFmpegCommand command) throws Exception {
+        run(command, FFmpegProgressListener.NONE);
+    }
+
+    /**
+     * Tüm çıktıları tek bir ffmpeg process'i ile üretir; girdi sadece bir kez decode edilir.
+     * ffmpeg "-progress pipe:1" ile başlatılır; stdout ayrı bir thread'de okunup listener'a iletilir,
+     * stderr bu thread'de boşaltılır ve hata mesajı için son satırları tutulur.
+     */
+    public void run(FFmpegCommand command, FFmpegProgressListener listener) throws Exception {
+        run(command, listener, null);
+    }
+
+    /**
+     * Process, verilen işe bağlanır; iş iptal edilirse process ağacı öldürülür ve JobCancelledException fırlatılır.
+     */
+    public void run(FFmpegCommand command, FFmpegProgressListener listener, RunningJob job) throws Exception {
+        for (FFmpegOutput output : command.getOutputs()) {
+            if (job != null) {
+                job.addOutputPath(output.getPath());
+            }
+            Path parent = Paths.get(output.getPath()).getParent();
+            if (parent != null && !Files.exists(parent)) {
+                Files.createDirectories(parent);
+            }
+        }
+
+        List<String> args = new ArrayList<>(command.toArgs());
+        args.addAll(1, List.of("-progress", "pipe:1", "-nostats"));
+
+        Process process = new ProcessBuilder(args).start();
+        if (job != null) {
+            job.attach(process);
+        }
+
+        Thread progressReader = new Thread(() -> readProgress(process, listener),
+                "ffmpeg-progress-" + process.pid());
+        progressReader.setDaemon(true);
+        progressReader.start();
+
+        Deque<String> stderrTail = new ArrayDeque<>(STDERR_TAIL_LINES);
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getErrorStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (stderrTail.size() == STDERR_TAIL_LINES) {
+                    stderrTail.removeFirst();
+                }
+                stderrTail.addLast(line);
+            }
+        }
+
+        int exitCode = process.waitFor();
+        progressReader.join(5000);
+        if (job != null) {
+            job.detach(process);
+            if (job.isCancelled()) {
+                throw new JobCancelledException(job.getVideoId());
+            }
+        }
+
+        if (exitCode != 0) {
+            throw new RuntimeException("ffmpeg failed with exit code: " + exitCode
+                    + "\nOutput: " + String.join("\n", stderrTail));
+        }
+        logger.debug("FFmpeg finished for {}: {}", command.getInput(), stderrTail.peekLast());
+    }
+
+    private void readProgress(Process process, FFmpegProgressListener listener) {
+        FFmpegProgressParser parser = new FFmpegProgressParser();
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                FFmpegProgress progress = parser.accept(line);
+                if (progress != null) {
+                    try {
+                        listener.onProgress(progress);
+                    } catch (Exception e) {
+                        logger.warn("FFmpeg progress listener failed", e);
+                    }
+                }
+            }
+        } catch (Exception e) {
+            logger.debug("FFmpeg progress stream closed: {}", e.getMessage());
+        }
+    }
+
+    // Çıktılar önce yerel staging dizinine yazılır; depoya almak pipeline'ın işi (bkz. VideoStorage)
+    public String thumbnailPath(String filename) {
+        return outputPath(StorageArea.THUMBNAILS, filename + "_thumb.jpg");
+    }
+
+    public String thumbnailPath(String filename, int index) {
+        return outputPath(StorageArea.THUMBNAILS, filename + "_thumb_" + index + ".jpg");
+    }
+
+    public String spritePath(String filename) {
+        return outputPath(StorageArea.THUMBNAILS, filename + "_sprite.jpg");
+    }
+
+    public String storyboardPath(String filename) {
+        return outputPath(StorageArea.THUMBNAILS, filename + "_storyboard.vtt");
+    }
+
+    public String processedPath(String filename) {
+        return outputPath(StorageArea.PROCESSED, filename + "_processed.mp4");
+    }
+
+    public String previewPath(String filename) {
+        return outputPath(StorageArea.PROCESSED, filename + "_preview.mp4");
+    }
+
+    // HLS basamakları, segmentler ve master playlist bu dizine yazılır
+    public String hlsDirectory(String filename) {
+        return outputPath(StorageArea.PROCESSED, filename + "_hls");
+    }
+
+    private String outputPath(StorageArea area, String name) {
+        try {
+            return videoStorage.stagingDirectory(area).resolve(name).toString();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Output directory is not available: " + e.getMessage(), e);
+        }
+    }
+}
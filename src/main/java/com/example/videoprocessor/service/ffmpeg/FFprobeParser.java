@@ -0,0 +1,247 @@
+package com.example.videoprocessor.service.ffmpeg;
+
+import com.example.videoprocessor.dto.VideoMetadataDto;
+import com.example.videoprocessor.dto.VideoStreamDto;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * "ffprobe -print_format json -show_format -show_streams" çıktısını akış halinde okur.
+ * Çıktının tamamı belleğe alınmaz; ihtiyaç duyulmayan alanlar skipChildren ile atlanır.
+ */
+public class FFprobeParser {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    public VideoMetadataDto parse(InputStream input) throws IOException {
+        List<VideoStreamDto> streams = new ArrayList<>();
+        FormatInfo format = new FormatInfo();
+
+        try (JsonParser parser = JSON_FACTORY.createParser(input)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("ffprobe output is not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("streams".equals(field) && value == JsonToken.START_ARRAY) {
+                    while (parser.nextToken() == JsonToken.START_OBJECT) {
+                        streams.add(readStream(parser));
+                    }
+                } else if ("format".equals(field) && value == JsonToken.START_OBJECT) {
+                    readFormat(parser, format);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+
+        return toMetadata(streams, format);
+    }
+
+    private VideoStreamDto readStream(JsonParser parser) throws IOException {
+        VideoStreamDto stream = new VideoStreamDto();
+        String avgFrameRate = null;
+        String realFrameRate = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "index" -> stream.setIndex(parser.getValueAsInt());
+                case "codec_type" -> stream.setCodecType(parser.getValueAsString());
+                case "codec_name" -> stream.setCodecName(parser.getValueAsString());
+                case "profile" -> stream.setProfile(parser.getValueAsString());
+                case "width" -> stream.setWidth(parser.getValueAsInt());
+                case "height" -> stream.setHeight(parser.getValueAsInt());
+                case "pix_fmt" -> stream.setPixelFormat(parser.getValueAsString());
+                case "avg_frame_rate" -> avgFrameRate = parser.getValueAsString();
+                case "r_frame_rate" -> realFrameRate = parser.getValueAsString();
+                case "bit_rate" -> stream.setBitrate(parseLong(parser.getValueAsString()));
+                case "channels" -> stream.setChannels(parser.getValueAsInt());
+                case "sample_rate" -> stream.setSampleRate(parseInt(parser.getValueAsString()));
+                case "duration" -> stream.setDurationSeconds(parseDouble(parser.getValueAsString()));
+                case "tags" -> readStreamTags(parser, stream);
+                case "disposition" -> readDisposition(parser, stream);
+                case "side_data_list" -> readSideData(parser, stream);
+                default -> {
+                    if (value.isStructStart()) {
+                        parser.skipChildren();
+                    }
+                }
+            }
+        }
+
+        Double frameRate = parseRational(avgFrameRate);
+        stream.setFrameRate(frameRate != null ? frameRate : parseRational(realFrameRate));
+        return stream;
+    }
+
+    private void readStreamTags(JsonParser parser, VideoStreamDto stream) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("language".equals(field)) {
+                stream.setLanguage(parser.getValueAsString());
+            } else if ("rotate".equals(field) && stream.getRotation() == null) {
+                stream.setRotation(parseInt(parser.getValueAsString()));
+            } else if (value.isStructStart()) {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private void readDisposition(JsonParser parser, VideoStreamDto stream) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("attached_pic".equals(field)) {
+                stream.setAttachedPicture(parser.getValueAsInt() == 1);
+            } else if (value.isStructStart()) {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private void readSideData(JsonParser parser, VideoStreamDto stream) throws IOException {
+        if (parser.currentToken() != JsonToken.START_ARRAY) {
+            parser.skipChildren();
+            return;
+        }
+        while (parser.nextToken() == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("rotation".equals(field)) {
+                    stream.setRotation(parser.getValueAsInt());
+                } else if (value.isStructStart()) {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    private void readFormat(JsonParser parser, FormatInfo format) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "format_name" -> format.name = parser.getValueAsString();
+                case "format_long_name" -> format.longName = parser.getValueAsString();
+                case "duration" -> format.duration = parseDouble(parser.getValueAsString());
+                case "size" -> format.size = parseLong(parser.getValueAsString());
+                case "bit_rate" -> format.bitrate = parseLong(parser.getValueAsString());
+                default -> {
+                    if (value.isStructStart()) {
+                        parser.skipChildren();
+                    }
+                }
+            }
+        }
+    }
+
+    private VideoMetadataDto toMetadata(List<VideoStreamDto> streams, FormatInfo format) {
+        VideoMetadataDto metadata = new VideoMetadataDto();
+        metadata.setStreams(streams);
+        metadata.setFormat(format.name);
+        metadata.setFormatLongName(format.longName);
+        metadata.setFileSize(format.size);
+        if (format.bitrate != null) {
+            metadata.setBitrate((int) (format.bitrate / 1000));
+        }
+
+        VideoStreamDto video = streams.stream()
+                .filter(s -> "video".equals(s.getCodecType()) && !s.isAttachedPicture())
+                .findFirst().orElse(null);
+        VideoStreamDto audio = streams.stream()
+                .filter(s -> "audio".equals(s.getCodecType()))
+                .findFirst().orElse(null);
+
+        Double duration = format.duration;
+        if (video != null) {
+            metadata.setCodec(video.getCodecName());
+            metadata.setVideoProfile(video.getProfile());
+            metadata.setWidth(video.getWidth());
+            metadata.setHeight(video.getHeight());
+            if (video.getWidth() != null && video.getHeight() != null) {
+                metadata.setResolution(video.getWidth() + "x" + video.getHeight());
+            }
+            metadata.setPixelFormat(video.getPixelFormat());
+            metadata.setFrameRate(video.getFrameRate());
+            metadata.setVideoBitrate(video.getBitrate());
+            metadata.setRotation(video.getRotation());
+            if (duration == null) {
+                duration = video.getDurationSeconds();
+            }
+        }
+        if (audio != null) {
+            metadata.setAudioCodec(audio.getCodecName());
+            metadata.setAudioChannels(audio.getChannels());
+            metadata.setAudioSampleRate(audio.getSampleRate());
+            metadata.setAudioBitrate(audio.getBitrate());
+            if (duration == null) {
+                duration = audio.getDurationSeconds();
+            }
+        }
+
+        if (duration != null) {
+            metadata.setDurationSeconds(duration);
+            metadata.setDuration(Math.round(duration));
+        }
+        return metadata;
+    }
+
+    /**
+     * "30000/1001" gibi ffprobe oranlarını çözer; "0/0" için null döner.
+     */
+    static Double parseRational(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        int slash = value.indexOf('/');
+        if (slash < 0) {
+            return parseDouble(value);
+        }
+        Double numerator = parseDouble(value.substring(0, slash));
+        Double denominator = parseDouble(value.substring(slash + 1));
+        if (numerator == null || denominator == null || denominator == 0 || numerator == 0) {
+            return null;
+        }
+        return Math.round(numerator / denominator * 1000.0) / 1000.0;
+    }
+
+    private static Double parseDouble(String value) {
+        if (value == null || value.isBlank() || "N/A".equals(value)) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static Long parseLong(String value) {
+        Double parsed = parseDouble(value);
+        return parsed != null ? parsed.longValue() : null;
+    }
+
+    private static Integer parseInt(String value) {
+        Double parsed = parseDouble(value);
+        return parsed != null ? parsed.intValue() : null;
+    }
+
+    private static class FormatInfo {
+        private String name;
+        private String longName;
+        private Double duration;
+        private Long size;
+        private Long bitrate;
+    }
+}
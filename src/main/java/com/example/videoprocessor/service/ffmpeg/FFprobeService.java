@@ -0,0 +1,97 @@
+package com.example.videoprocessor.service.ffmpeg;
+
+import com.example.videoprocessor.dto.VideoMetadataDto;
+import com.example.videoprocessor.service.storage.LocalFile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * ffprobe çalıştırır ve sonucu cache'ler.
+ * Aynı dosyanın tekrar probe edilmesi (retry, yeniden işleme) process başlatmadan cache'ten döner.
+ */
+@Service
+public class FFprobeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FFprobeService.class);
+
+    @Value("${video.probe.cache-size:1000}")
+    private int cacheSize;
+
+    private final FFprobeParser parser = new FFprobeParser();
+
+    private ProbeCache cache;
+
+    @PostConstruct
+    void initCache() {
+        cache = new ProbeCache(cacheSize);
+    }
+
+    public VideoMetadataDto probe(String videoPath) throws Exception {
+        return probe(new LocalFile(Paths.get(videoPath), false));
+    }
+
+    /**
+     * Depodan alınmış dosyayı probe eder. Uzak depodan indirilen kopyalar kopya yoluyla değil
+     * depo adresi + ETag ile cache'lenir; aynı nesnenin sonraki indirmeleri ffprobe çalıştırmaz.
+     */
+    public VideoMetadataDto probe(LocalFile input) throws Exception {
+        ProbeCache.Key key = cacheKey(input);
+        String videoPath = input.getPath().toString();
+
+        VideoMetadataDto cached = cache.get(key);
+        if (cached != null) {
+            logger.debug("ffprobe cache hit for {}", key.source());
+            return cached;
+        }
+
+        VideoMetadataDto metadata = runFFprobe(videoPath);
+        cache.put(key, metadata);
+        return metadata;
+    }
+
+    static ProbeCache.Key cacheKey(LocalFile input) throws IOException {
+        Path path = input.getPath();
+        long size = Files.size(path);
+        if (input.getVersion() != null) {
+            return new ProbeCache.Key(input.getLocation(), size, input.getVersion());
+        }
+        return new ProbeCache.Key(path.toAbsolutePath().toString(), size,
+                String.valueOf(Files.getLastModifiedTime(path).toMillis()));
+    }
+
+    private VideoMetadataDto runFFprobe(String videoPath) throws Exception {
+        ProcessBuilder pb = new ProcessBuilder(
+                "ffprobe", "-v", "quiet",
+                "-print_format", "json",
+                "-show_format",
+                "-show_streams",
+                videoPath
+        );
+        pb.redirectError(ProcessBuilder.Redirect.DISCARD);
+        Process process = pb.start();
+
+        VideoMetadataDto metadata;
+        try (InputStream output = process.getInputStream()) {
+            metadata = parser.parse(output);
+        } catch (Exception e) {
+            process.destroyForcibly();
+            throw new RuntimeException("FFprobe output could not be parsed for " + videoPath, e);
+        }
+
+        int exitCode = process.waitFor();
+        if (exitCode != 0) {
+            throw new RuntimeException("FFprobe metadata extraction failed with exit code: " + exitCode);
+        }
+        return metadata;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.videoprocessor.service.ffmpeg;
+
+import com.example.videoprocessor.dto.VideoMetadataDto;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ffprobe sonuçları için LRU cache.
+ * Anahtar kaynak + boyut + versiyondur: yerel dosyada mutlak yol ve değişiklik zamanı, S3'te nesne adresi ve ETag.
+ * Dosya değişirse kayıt kendiliğinden geçersizleşir; S3'ten her seferinde farklı yola indirilen kopyalar da isabet eder.
+ * DTO değiştirilebilir olduğu için kopyası saklanır ve her çağırana ayrı bir kopya döner.
+ */
+public class ProbeCache {
+
+    public record Key(String source, long size, String version) {
+    }
+
+    private final Map<Key, VideoMetadataDto> entries;
+
+    public ProbeCache(int maxEntries) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, VideoMetadataDto> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public synchronized VideoMetadataDto get(Key key) {
+        VideoMetadataDto metadata = entries.get(key);
+        return metadata != null ? metadata.copy() : null;
+    }
+
+    public synchronized void put(Key key, VideoMetadataDto metadata) {
+        entries.put(key, metadata.copy());
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.videoprocessor.service.ffmpeg.command;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Bildirimsel çıktı listesini tek bir ffmpeg process'ine derler.
+ *
+ * Girdi bir kez okunup decode edilir; video akışı filter_complex içinde split ile
+ * her çıktıya ayrılır:
+ *
+ *   ffmpeg -i in.mp4 -filter_complex "[0:v]split=2[s0][s1];[s0]scale=1280:720[v0];[s1]trim=start=5,scale=320:240[v1]"
+ *          -map [v0] -map 0:a? ... out.mp4  -map [v1] -frames:v 1 ... thumb.jpg
+ *
+ * Stream copy çıktıları (bkz. FFmpegOutput#isVideoCopy) graph'a girmez, "-map 0:v:0" ile doğrudan alınır.
+ * Input seek isteyen çıktılar (bkz. FFmpegOutput#getInputSeekSeconds) aynı process'te girdiyi ayrıca
+ * "-ss T -noaccurate_seek -i in.mp4" ile açar; sadece o keyframe decode edilir.
+ * Ses ayrı bir dosyadan alınabilir (bkz. Builder#audioFrom); segment birleştirmede video parçalardan,
+ * ses orijinal dosyadan gelir.
+ */
+public class FFmpegCommand {
+
+    private final String input;
+    private final List<String> globalArgs;
+    private final List<String> inputArgs;
+    private final String audioInput;
+    private final List<FFmpegOutput> outputs;
+    private final int threads;
+    private final boolean keyframesOnly;
+
+    private FFmpegCommand(String input, List<String> globalArgs, List<String> inputArgs, String audioInput,
+                          List<FFmpegOutput> outputs, int threads, boolean keyframesOnly) {
+        this.input = input;
+        this.globalArgs = globalArgs;
+        this.inputArgs = inputArgs;
+        this.audioInput = audioInput;
+        this.outputs = outputs;
+        this.threads = threads;
+        this.keyframesOnly = keyframesOnly;
+    }
+
+    public static Builder builder(String input) {
+        return new Builder(input);
+    }
+
+    public String getInput() {
+        return input;
+    }
+
+    public List<FFmpegOutput> getOutputs() {
+        return outputs;
+    }
+
+    public int getThreads() {
+        return threads;
+    }
+
+    public List<String> toArgs() {
+        List<String> args = new ArrayList<>();
+        args.add("ffmpeg");
+        args.add("-hide_banner");
+        args.addAll(globalArgs);
+        args.add("-y");
+
+        // Ortak decode edilen girdi (input 0); sadece seek'li çıktılar varsa hiç açılmaz
+        if (usesSharedInput()) {
+            if (keyframesOnly) {
+                // Decoder keyframe dışındaki kareleri atlar (sprite/thumbnail için yeterli, çok daha hızlı)
+                args.add("-skip_frame");
+                args.add("nokey");
+            }
+            if (threads > 0) {
+                // Decoder thread'leri (input seçeneği)
+                args.add("-threads");
+                args.add(String.valueOf(threads));
+            }
+            args.addAll(inputArgs);
+            args.add("-i");
+            args.add(input);
+        }
+        int inputCount = usesSharedInput() ? 1 : 0;
+        for (FFmpegOutput output : outputs) {
+            if (output.getInputSeekSeconds() != null) {
+                args.add("-ss");
+                args.add(String.valueOf(output.getInputSeekSeconds()));
+                args.add("-noaccurate_seek");
+                args.add("-i");
+                args.add(input);
+                inputCount++;
+            }
+        }
+        // Ayrı ses girdisi seek girdilerinden sonra gelir; graph'taki girdi indeksleri değişmez
+        String audioMap = "0:a?";
+        if (audioInput != null) {
+            args.add("-i");
+            args.add(audioInput);
+            audioMap = inputCount + ":a?";
+        }
+
+        String filterGraph = buildFilterGraph();
+        if (!filterGraph.isEmpty()) {
+            if (threads > 0) {
+                args.add("-filter_complex_threads");
+                args.add(String.valueOf(threads));
+            }
+            args.add("-filter_complex");
+            args.add(filterGraph);
+        }
+
+        for (int i = 0; i < outputs.size(); i++) {
+            FFmpegOutput output = outputs.get(i);
+            args.add("-map");
+            args.add(output.isVideoCopy() ? "0:v:0" : "[v" + i + "]");
+            if (output.isIncludeAudio() && output.getInputSeekSeconds() == null) {
+                // "?" - kaynakta ses yoksa hata verme
+                args.add("-map");
+                args.add(audioMap);
+            }
+            args.addAll(output.getOutputArgs());
+            if (threads > 0) {
+                // Encoder thread'leri (output seçeneği)
+                args.add("-threads");
+                args.add(String.valueOf(threads));
+            }
+            args.add(output.getPath());
+        }
+        return args;
+    }
+
+    String buildFilterGraph() {
+        List<Integer> shared = new ArrayList<>();
+        for (int i = 0; i < outputs.size(); i++) {
+            if (outputs.get(i).getInputSeekSeconds() == null && !outputs.get(i).isVideoCopy()) {
+                shared.add(i);
+            }
+        }
+
+        List<String> chains = new ArrayList<>();
+        if (shared.size() == 1) {
+            int i = shared.get(0);
+            chains.add("[0:v]" + filterOrPassthrough(outputs.get(i)) + "[v" + i + "]");
+        } else if (shared.size() > 1) {
+            StringBuilder split = new StringBuilder("[0:v]split=").append(shared.size());
+            shared.forEach(i -> split.append("[s").append(i).append("]"));
+            chains.add(split.toString());
+            shared.forEach(i -> chains.add("[s" + i + "]" + filterOrPassthrough(outputs.get(i)) + "[v" + i + "]"));
+        }
+
+        // Seek'li çıktıların her biri kendi girdisinden beslenir
+        int seekInput = usesSharedInput() ? 1 : 0;
+        for (int i = 0; i < outputs.size(); i++) {
+            if (outputs.get(i).getInputSeekSeconds() != null) {
+                chains.add("[" + seekInput++ + ":v]" + filterOrPassthrough(outputs.get(i)) + "[v" + i + "]");
+            }
+        }
+        return String.join(";", chains);
+    }
+
+    private boolean usesSharedInput() {
+        return outputs.stream().anyMatch(output -> output.getInputSeekSeconds() == null);
+    }
+
+    private String filterOrPassthrough(FFmpegOutput output) {
+        String filter = output.getVideoFilter();
+        return filter == null || filter.isBlank() ? "null" : filter;
+    }
+
+    public static class Builder {
+        private final String input;
+        private final List<String> globalArgs = new ArrayList<>();
+        private final List<String> inputArgs = new ArrayList<>();
+        private String audioInput;
+        private final List<FFmpegOutput> outputs = new ArrayList<>();
+        private int threads;
+        private boolean keyframesOnly;
+
+        private Builder(String input) {
+            this.input = input;
+        }
+
+        public Builder globalArgs(String... args) {
+            Collections.addAll(globalArgs, args);
+            return this;
+        }
+
+        /**
+         * Ortak girdinin "-i"sinden hemen önce gelen seçenekler, ör. "-f concat -safe 0".
+         */
+        public Builder inputArgs(String... args) {
+            Collections.addAll(inputArgs, args);
+            return this;
+        }
+
+        /**
+         * Ses içeren çıktılar sesi ortak girdi yerine bu dosyadan alır.
+         */
+        public Builder audioFrom(String audioInput) {
+            this.audioInput = audioInput;
+            return this;
+        }
+
+        /**
+         * Decode, filter graph ve her encoder için thread sayısı; 0 = ffmpeg varsayılanı (tüm çekirdekler).
+         */
+        public Builder threads(int threads) {
+            this.threads = threads;
+            return this;
+        }
+
+        /**
+         * Ortak girdide sadece keyframe'ler decode edilir; encode edilen video çıktılarıyla birlikte kullanılmamalı.
+         */
+        public Builder keyframesOnly() {
+            this.keyframesOnly = true;
+            return this;
+        }
+
+        public Builder output(FFmpegOutput output) {
+            outputs.add(output);
+            return this;
+        }
+
+        public FFmpegCommand build() {
+            if (outputs.isEmpty()) {
+                throw new IllegalStateException("FFmpeg command needs at least one output");
+            }
+            return new FFmpegCommand(input, List.copyOf(globalArgs), List.copyOf(inputArgs), audioInput,
+                    List.copyOf(outputs), threads, keyframesOnly);
+        }
+    }
+}
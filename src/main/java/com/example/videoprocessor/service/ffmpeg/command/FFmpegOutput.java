@@ -0,0 +1,42 @@
+package com.example.videoprocessor.service.ffmpeg.command;
+
+import java.util.List;
+
+/**
+ * Tek bir ffmpeg çıktısının bildirimsel tanımı.
+ * Her çıktı, ortak decode edilen video akışının split ile ayrılmış bir kolunu alır.
+ */
+public interface FFmpegOutput {
+
+    /**
+     * Bu çıktının video koluna uygulanacak filtre zinciri, ör. "scale=1280:720".
+     */
+    String getVideoFilter();
+
+    /**
+     * Kaynaktaki ses akışı (varsa) bu çıktıya eklensin mi?
+     */
+    boolean isIncludeAudio();
+
+    /**
+     * Codec ve muxer argümanları (map ve dosya yolu hariç).
+     */
+    List<String> getOutputArgs();
+
+    String getPath();
+
+    /**
+     * Null değilse bu çıktı ortak decode'dan ayrılmaz; girdi kendi için "-ss" ile açılır ve ffmpeg
+     * doğrudan bu anın öncesindeki keyframe'e atlar (tek kare çıktılar için, öncesi decode edilmez).
+     */
+    default Double getInputSeekSeconds() {
+        return null;
+    }
+
+    /**
+     * True ise video akışı filter graph'a girmez, girdiden doğrudan map edilir (stream copy).
+     */
+    default boolean isVideoCopy() {
+        return false;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.videoprocessor.service.ffmpeg.command;
+
+import java.util.List;
+
+import lombok.Getter;
+
+/**
+ * Tam kalite encode'dan önce yayınlanan düşük çözünürlüklü sürüm; ultrafast preset ile gerçek zamanın
+ * çok üstünde encode edilir, kalite yerine ilk oynatılabilir ana kadar geçen süre hedeflenir.
+ */
+@Getter
+public class FastPreviewOutput implements FFmpegOutput {
+
+    private final String path;
+    private final int height;
+
+    public FastPreviewOutput(String path, int height) {
+        this.path = path;
+        this.height = height;
+    }
+
+    @Override
+    public String getVideoFilter() {
+        return "scale=-2:" + height;
+    }
+
+    @Override
+    public boolean isIncludeAudio() {
+        return true;
+    }
+
+    @Override
+    public List<String> getOutputArgs() {
+        return List.of(
+                "-c:v", "libx264",
+                "-preset", "ultrafast",
+                "-crf", "30",
+                "-c:a", "aac",
+                "-b:a", "96k",
+                "-movflags", "+faststart"
+        );
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.videoprocessor.service.ffmpeg.command;
+
+import java.nio.file.Paths;
+import java.util.List;
+
+import lombok.Getter;
+
+/**
+ * ABR merdiveninin bir basamağı: fMP4 segmentli HLS media playlist'i (path = .../720p/index.m3u8).
+ * Tüm basamaklarda keyframe'ler aynı anlara zorlanır ki player segment sınırlarında basamak değiştirebilsin.
+ */
+@Getter
+public class HlsRenditionOutput implements FFmpegOutput {
+
+    public static final String CODECS = "avc1.640029,mp4a.40.2"; // High@4.1 + AAC-LC
+
+    private final String path;
+    private final int height;
+    private final int videoKbps;
+    private final int audioKbps;
+    private final int segmentSeconds;
+    private final String preset;
+
+    public HlsRenditionOutput(String path, int height, int videoKbps, int audioKbps, int segmentSeconds, String preset) {
+        this.path = path;
+        this.height = height;
+        this.videoKbps = videoKbps;
+        this.audioKbps = audioKbps;
+        this.segmentSeconds = segmentSeconds;
+        this.preset = preset;
+    }
+
+    @Override
+    public String getVideoFilter() {
+        return "scale=-2:" + height;
+    }
+
+    @Override
+    public boolean isIncludeAudio() {
+        return true;
+    }
+
+    @Override
+    public List<String> getOutputArgs() {
+        String segmentPattern = Paths.get(path).resolveSibling("seg_%05d.m4s").toString();
+        return List.of(
+                "-c:v", "libx264",
+                "-preset", preset,
+                "-profile:v", "high",
+                "-level:v", "4.1",
+                "-b:v", videoKbps + "k",
+                "-maxrate", maxrateKbps() + "k",
+                "-bufsize", (videoKbps * 3 / 2) + "k",
+                "-force_key_frames", "expr:gte(t,n_forced*" + segmentSeconds + ")",
+                "-sc_threshold", "0",
+                "-c:a", "aac",
+                "-b:a", audioKbps + "k",
+                "-ac", "2",
+                "-f", "hls",
+                "-hls_time", String.valueOf(segmentSeconds),
+                "-hls_playlist_type", "vod",
+                "-hls_segment_type", "fmp4",
+                "-hls_fmp4_init_filename", "init.mp4",
+                "-hls_segment_filename", segmentPattern
+        );
+    }
+
+    public int maxrateKbps() {
+        return videoKbps * 107 / 100;
+    }
+}
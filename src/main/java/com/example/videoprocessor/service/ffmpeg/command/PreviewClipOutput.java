@@ -0,0 +1,45 @@
+package com.example.videoprocessor.service.ffmpeg.command;
+
+import java.util.List;
+
+import lombok.Getter;
+
+/**
+ * Videonun ilk N saniyesinden düşük çözünürlüklü, hızlı encode edilmiş önizleme klibi.
+ */
+@Getter
+public class PreviewClipOutput implements FFmpegOutput {
+
+    private final String path;
+    private final int durationSeconds;
+    private final int height;
+
+    public PreviewClipOutput(String path, int durationSeconds, int height) {
+        this.path = path;
+        this.durationSeconds = durationSeconds;
+        this.height = height;
+    }
+
+    @Override
+    public String getVideoFilter() {
+        return "trim=duration=" + durationSeconds + ",setpts=PTS-STARTPTS,scale=-2:" + height;
+    }
+
+    @Override
+    public boolean isIncludeAudio() {
+        return true;
+    }
+
+    @Override
+    public List<String> getOutputArgs() {
+        return List.of(
+                "-t", String.valueOf(durationSeconds),
+                "-c:v", "libx264",
+                "-preset", "veryfast",
+                "-crf", "28",
+                "-c:a", "aac",
+                "-b:a", "96k",
+                "-movflags", "+faststart"
+        );
+    }
+}
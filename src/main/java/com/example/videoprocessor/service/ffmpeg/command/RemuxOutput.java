@@ -0,0 +1,51 @@
+package com.example.videoprocessor.service.ffmpeg.command;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import lombok.Getter;
+
+/**
+ * Video akışı decode edilmeden (stream copy) mp4'e paketlenir; ses kopyalanır veya AAC'ye encode edilir.
+ * Hedef formattaki girdiler için dakikalar yerine saniyeler sürer.
+ */
+@Getter
+public class RemuxOutput implements FFmpegOutput {
+
+    private final String path;
+    private final boolean reencodeAudio;
+    private final String audioBitrate;
+
+    public RemuxOutput(String path, boolean reencodeAudio, String audioBitrate) {
+        this.path = path;
+        this.reencodeAudio = reencodeAudio;
+        this.audioBitrate = audioBitrate;
+    }
+
+    @Override
+    public String getVideoFilter() {
+        return null;
+    }
+
+    @Override
+    public boolean isVideoCopy() {
+        return true;
+    }
+
+    @Override
+    public boolean isIncludeAudio() {
+        return true;
+    }
+
+    @Override
+    public List<String> getOutputArgs() {
+        List<String> args = new ArrayList<>(List.of("-c:v", "copy"));
+        if (reencodeAudio) {
+            args.addAll(List.of("-c:a", "aac", "-b:a", audioBitrate));
+        } else {
+            args.addAll(List.of("-c:a", "copy"));
+        }
+        args.addAll(List.of("-movflags", "+faststart"));
+        return args;
+    }
+}
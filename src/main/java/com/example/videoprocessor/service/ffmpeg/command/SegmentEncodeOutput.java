@@ -0,0 +1,43 @@
+package com.example.videoprocessor.service.ffmpeg.command;
+
+import java.util.List;
+
+import lombok.Getter;
+
+/**
+ * Segment-paralel encode'da tek bir parçanın videosu; hedefle aynı encoder ayarları, ses yok.
+ * MPEG-TS parçalar concat demuxer ile yeniden encode edilmeden birleştirilir, ses orijinalden alınır.
+ */
+@Getter
+public class SegmentEncodeOutput implements FFmpegOutput {
+
+    private final String path;
+    private final TranscodeOutput target;
+
+    public SegmentEncodeOutput(String path, TranscodeOutput target) {
+        this.path = path;
+        this.target = target;
+    }
+
+    @Override
+    public String getVideoFilter() {
+        return target.getVideoFilter();
+    }
+
+    @Override
+    public boolean isIncludeAudio() {
+        return false;
+    }
+
+    @Override
+    public List<String> getOutputArgs() {
+        return List.of(
+                "-c:v", "libx264",
+                "-b:v", target.getVideoBitrate(),
+                "-preset", target.getPreset(),
+                "-crf", String.valueOf(target.getCrf()),
+                "-an",
+                "-f", "mpegts"
+        );
+    }
+}
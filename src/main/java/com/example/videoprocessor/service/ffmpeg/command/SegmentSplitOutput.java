@@ -0,0 +1,52 @@
+package com.example.videoprocessor.service.ffmpeg.command;
+
+import java.util.List;
+
+import lombok.Getter;
+
+/**
+ * Girdiyi decode etmeden (stream copy) yaklaşık segmentSeconds uzunluğunda parçalara böler.
+ * Segment muxer sadece keyframe'lerde keser; her parça keyframe ile başlar ve bağımsız encode edilebilir.
+ * Parçaların gerçek başlangıç/bitiş zamanları CSV listesine yazılır (bkz. SegmentPlan#parseSegmentList).
+ */
+@Getter
+public class SegmentSplitOutput implements FFmpegOutput {
+
+    private final String path; // ör. .../src_%05d.mkv
+    private final int segmentSeconds;
+    private final String listPath;
+
+    public SegmentSplitOutput(String path, int segmentSeconds, String listPath) {
+        this.path = path;
+        this.segmentSeconds = segmentSeconds;
+        this.listPath = listPath;
+    }
+
+    @Override
+    public String getVideoFilter() {
+        return null;
+    }
+
+    @Override
+    public boolean isVideoCopy() {
+        return true;
+    }
+
+    @Override
+    public boolean isIncludeAudio() {
+        return true;
+    }
+
+    @Override
+    public List<String> getOutputArgs() {
+        return List.of(
+                "-c", "copy",
+                "-f", "segment",
+                "-segment_format", "matroska",
+                "-segment_time", String.valueOf(segmentSeconds),
+                "-reset_timestamps", "1",
+                "-segment_list", listPath,
+                "-segment_list_type", "csv"
+        );
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.videoprocessor.service.ffmpeg.command;
+
+import java.util.List;
+
+import lombok.Getter;
+
+/**
+ * Scrub önizlemesi için sprite sheet: her intervalSeconds'ta bir kare, columns x rows ızgarada tek JPEG.
+ */
+@Getter
+public class SpriteSheetOutput implements FFmpegOutput {
+
+    private final String path;
+    private final double intervalSeconds;
+    private final int columns;
+    private final int rows;
+    private final int tileWidth;
+    private final int tileHeight;
+
+    public SpriteSheetOutput(String path, double intervalSeconds, int columns, int rows, int tileWidth, int tileHeight) {
+        this.path = path;
+        this.intervalSeconds = intervalSeconds;
+        this.columns = columns;
+        this.rows = rows;
+        this.tileWidth = tileWidth;
+        this.tileHeight = tileHeight;
+    }
+
+    @Override
+    public String getVideoFilter() {
+        return "fps=1/" + intervalSeconds + ",scale=" + tileWidth + ":" + tileHeight + ",tile=" + columns + "x" + rows;
+    }
+
+    @Override
+    public boolean isIncludeAudio() {
+        return false;
+    }
+
+    @Override
+    public List<String> getOutputArgs() {
+        return List.of("-frames:v", "1", "-q:v", "4");
+    }
+}
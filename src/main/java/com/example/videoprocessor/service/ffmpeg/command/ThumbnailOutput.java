@@ -0,0 +1,60 @@
+package com.example.videoprocessor.service.ffmpeg.command;
+
+import java.util.List;
+
+import lombok.Getter;
+
+/**
+ * Belirli bir andan alınan tek kare JPEG.
+ *
+ * Ortak decode içinde (trim ile) veya {@link #keyframeAt} ile girdiyi o ana seek ederek üretilir;
+ * ikincisinde sadece en yakın önceki keyframe decode edilir.
+ */
+@Getter
+public class ThumbnailOutput implements FFmpegOutput {
+
+    private final String path;
+    private final double atSeconds;
+    private final int width;
+    private final int height;
+    private final boolean inputSeek;
+
+    public ThumbnailOutput(String path, double atSeconds, int width, int height) {
+        this(path, atSeconds, width, height, false);
+    }
+
+    private ThumbnailOutput(String path, double atSeconds, int width, int height, boolean inputSeek) {
+        this.path = path;
+        this.atSeconds = atSeconds;
+        this.width = width;
+        this.height = height;
+        this.inputSeek = inputSeek;
+    }
+
+    public static ThumbnailOutput keyframeAt(String path, double atSeconds, int width, int height) {
+        return new ThumbnailOutput(path, atSeconds, width, height, true);
+    }
+
+    @Override
+    public String getVideoFilter() {
+        if (inputSeek) {
+            return "scale=" + width + ":" + height;
+        }
+        return "trim=start=" + atSeconds + ",scale=" + width + ":" + height;
+    }
+
+    @Override
+    public boolean isIncludeAudio() {
+        return false;
+    }
+
+    @Override
+    public List<String> getOutputArgs() {
+        return List.of("-frames:v", "1", "-q:v", "2");
+    }
+
+    @Override
+    public Double getInputSeekSeconds() {
+        return inputSeek ? atSeconds : null;
+    }
+}
@@ -0,0 +1,61 @@
+package com.example.videoprocessor.service.ffmpeg.command;
+
+import java.util.List;
+
+import lombok.Getter;
+
+/**
+ * H.264/AAC mp4 hedef çıktısı.
+ */
+@Getter
+public class TranscodeOutput implements FFmpegOutput {
+
+    private final String path;
+    private final int width;
+    private final int height;
+    private final String videoBitrate;
+    private final String audioBitrate;
+    private final String preset;
+    private final int crf;
+
+    public TranscodeOutput(String path, int width, int height, String videoBitrate, String audioBitrate,
+                           String preset, int crf) {
+        this.path = path;
+        this.width = width;
+        this.height = height;
+        this.videoBitrate = videoBitrate;
+        this.audioBitrate = audioBitrate;
+        this.preset = preset;
+        this.crf = crf;
+    }
+
+    /**
+     * Mevcut varsayılan hedef: 1280x720, 1000k video, 128k ses, preset medium, crf 23.
+     */
+    public static TranscodeOutput defaultMp4(String path) {
+        return new TranscodeOutput(path, 1280, 720, "1000k", "128k", "medium", 23);
+    }
+
+    @Override
+    public String getVideoFilter() {
+        return "scale=" + width + ":" + height;
+    }
+
+    @Override
+    public boolean isIncludeAudio() {
+        return true;
+    }
+
+    @Override
+    public List<String> getOutputArgs() {
+        return List.of(
+                "-c:v", "libx264",
+                "-c:a", "aac",
+                "-b:v", videoBitrate,
+                "-b:a", audioBitrate,
+                "-preset", preset,
+                "-crf", String.valueOf(crf),
+                "-movflags", "+faststart"
+        );
+    }
+}
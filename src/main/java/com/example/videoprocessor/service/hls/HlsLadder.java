@@ -0,0 +1,96 @@
+package com.example.videoprocessor.service.hls;
+
+import com.example.videoprocessor.dto.VideoMetadataDto;
+import com.example.videoprocessor.service.ffmpeg.command.HlsRenditionOutput;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * ABR merdiveni ("1080:5000,720:2800,480:1400,360:800" - yükseklik:video kbps) ve master playlist.
+ */
+public final class HlsLadder {
+
+    public static final String MASTER_PLAYLIST = "master.m3u8";
+    public static final String MEDIA_PLAYLIST = "index.m3u8";
+
+    public record Rung(int height, int videoKbps) {
+
+        public String directoryName() {
+            return height + "p";
+        }
+    }
+
+    private HlsLadder() {
+    }
+
+    public static List<Rung> parse(String ladder) {
+        List<Rung> rungs = new ArrayList<>();
+        for (String entry : ladder.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            String[] parts = trimmed.split(":");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid HLS ladder entry: " + trimmed);
+            }
+            rungs.add(new Rung(Integer.parseInt(parts[0].trim()),
+                    Integer.parseInt(parts[1].trim().toLowerCase().replace("k", ""))));
+        }
+        rungs.sort(Comparator.comparingInt(Rung::height).reversed());
+        return rungs;
+    }
+
+    /**
+     * Kaynaktan büyük basamaklar atlanır (upscale bant genişliği israfı); hiçbiri uymuyorsa en küçüğü kalır.
+     */
+    public static List<Rung> forSource(List<Rung> ladder, VideoMetadataDto metadata) {
+        Integer sourceHeight = displaySize(metadata)[1];
+        if (sourceHeight == null || ladder.isEmpty()) {
+            return ladder;
+        }
+        List<Rung> selected = ladder.stream().filter(rung -> rung.height() <= sourceHeight).toList();
+        return selected.isEmpty() ? List.of(ladder.get(ladder.size() - 1)) : selected;
+    }
+
+    /**
+     * Her basamak için EXT-X-STREAM-INF; BANDWIDTH tepe (maxrate + ses) bit/s.
+     */
+    public static String masterPlaylist(List<HlsRenditionOutput> renditions, VideoMetadataDto metadata) {
+        StringBuilder playlist = new StringBuilder("#EXTM3U\n#EXT-X-VERSION:7\n#EXT-X-INDEPENDENT-SEGMENTS\n");
+        for (HlsRenditionOutput rendition : renditions) {
+            long bandwidth = (rendition.maxrateKbps() + (long) rendition.getAudioKbps()) * 1000;
+            long averageBandwidth = ((long) rendition.getVideoKbps() + rendition.getAudioKbps()) * 1000;
+            playlist.append("#EXT-X-STREAM-INF:BANDWIDTH=").append(bandwidth)
+                    .append(",AVERAGE-BANDWIDTH=").append(averageBandwidth);
+            Integer width = scaledWidth(rendition.getHeight(), metadata);
+            if (width != null) {
+                playlist.append(",RESOLUTION=").append(width).append('x').append(rendition.getHeight());
+            }
+            playlist.append(",CODECS=\"").append(HlsRenditionOutput.CODECS).append("\"\n")
+                    .append(rendition.getHeight()).append("p/").append(MEDIA_PLAYLIST).append('\n');
+        }
+        return playlist.toString();
+    }
+
+    // scale=-2:H ile aynı: en-boy oranı korunur, çift sayıya yuvarlanır
+    static Integer scaledWidth(int height, VideoMetadataDto metadata) {
+        Integer[] size = displaySize(metadata);
+        if (size[0] == null || size[1] == null || size[1] == 0) {
+            return null;
+        }
+        return (int) Math.round((double) height * size[0] / (size[1] * 2.0)) * 2;
+    }
+
+    // ffmpeg rotation'ı otomatik uygular; 90/270 derecede genişlik ve yükseklik yer değiştirir
+    private static Integer[] displaySize(VideoMetadataDto metadata) {
+        if (metadata == null || metadata.getWidth() == null || metadata.getHeight() == null) {
+            return new Integer[]{null, null};
+        }
+        boolean rotated = metadata.getRotation() != null && Math.abs(metadata.getRotation()) % 180 == 90;
+        return rotated ? new Integer[]{metadata.getHeight(), metadata.getWidth()}
+                : new Integer[]{metadata.getWidth(), metadata.getHeight()};
+    }
+}
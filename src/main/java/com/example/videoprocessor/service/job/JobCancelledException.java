@@ -0,0 +1,18 @@
+package com.example.videoprocessor.service.job;
+
+/**
+ * İşlenmekte olan video iptal edildiğinde pipeline'ı durdurmak için fırlatılır.
+ */
+public class JobCancelledException extends RuntimeException {
+
+    private final Long videoId;
+
+    public JobCancelledException(Long videoId) {
+        super("Processing cancelled for video ID: " + videoId);
+        this.videoId = videoId;
+    }
+
+    public Long getVideoId() {
+        return videoId;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.videoprocessor.service.job;
+
+import com.example.videoprocessor.service.storage.LocalVideoStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Bu node'da işlenen bir videonun canlı process'leri ve yazmakta olduğu çıktı dosyaları.
+ */
+public class RunningJob {
+
+    private static final Logger logger = LoggerFactory.getLogger(RunningJob.class);
+
+    private final Long videoId;
+    private final Set<Process> processes = ConcurrentHashMap.newKeySet();
+    private final Set<String> outputPaths = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelled;
+
+    RunningJob(Long videoId) {
+        this.videoId = videoId;
+    }
+
+    public Long getVideoId() {
+        return videoId;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    public void throwIfCancelled() {
+        if (cancelled) {
+            throw new JobCancelledException(videoId);
+        }
+    }
+
+    /**
+     * Process'i işe bağlar. İş bu arada iptal edildiyse process hemen öldürülür.
+     */
+    public void attach(Process process) {
+        processes.add(process);
+        if (cancelled) {
+            destroyTree(process);
+        }
+    }
+
+    public void detach(Process process) {
+        processes.remove(process);
+    }
+
+    public void addOutputPath(String path) {
+        outputPaths.add(path);
+    }
+
+    void cancel() {
+        cancelled = true;
+        processes.forEach(RunningJob::destroyTree);
+    }
+
+    /**
+     * İptal sonrası yarım kalmış çıktıları siler.
+     */
+    public void deleteOutputs() {
+        for (String path : outputPaths) {
+            try {
+                Path output = Paths.get(path);
+                // HLS gibi dizin çıktıları içindekilerle birlikte silinir
+                if (Files.isDirectory(output) ? LocalVideoStorage.deleteTree(output) : Files.deleteIfExists(output)) {
+                    logger.info("Deleted partial output of cancelled video ID {}: {}", videoId, path);
+                }
+            } catch (IOException e) {
+                logger.warn("Could not delete partial output {}: {}", path, e.getMessage());
+            }
+        }
+        outputPaths.clear();
+    }
+
+    // ffmpeg'in başlattığı alt process'ler de dahil tüm ağacı öldür
+    private static void destroyTree(Process process) {
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+    }
+}
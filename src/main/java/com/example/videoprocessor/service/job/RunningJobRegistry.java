@@ -0,0 +1,71 @@
+package com.example.videoprocessor.service.job;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * RUNNING JOB REGISTRY
+ * - Bu node'da çalışan işler ve ffmpeg process handle'ları (staged modda aynı videonun birden fazla stage'i olabilir)
+ * - İptal broadcast'i geldiğinde işi çalıştıran node process ağacını öldürür
+ * - Henüz kayıt olmamış bir iş için gelen iptal hatırlanır, iş başlarken hemen iptal edilir
+ */
+@Component
+public class RunningJobRegistry {
+
+    private static final Logger logger = LoggerFactory.getLogger(RunningJobRegistry.class);
+
+    private static final int MAX_REMEMBERED_CANCELLATIONS = 1000;
+
+    private final Map<Long, Set<RunningJob>> jobs = new ConcurrentHashMap<>();
+
+    private final Map<Long, Boolean> recentCancellations = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+            return size() > MAX_REMEMBERED_CANCELLATIONS;
+        }
+    };
+
+    public RunningJob register(Long videoId) {
+        RunningJob job = new RunningJob(videoId);
+        jobs.computeIfAbsent(videoId, id -> ConcurrentHashMap.newKeySet()).add(job);
+        synchronized (recentCancellations) {
+            if (recentCancellations.remove(videoId) != null) {
+                job.cancel();
+            }
+        }
+        return job;
+    }
+
+    public void unregister(RunningJob job) {
+        jobs.computeIfPresent(job.getVideoId(), (id, set) -> {
+            set.remove(job);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    /**
+     * @return iş bu node'da çalışıyorsa true
+     */
+    public boolean cancel(Long videoId) {
+        Set<RunningJob> running = jobs.get(videoId);
+        if (running == null || running.isEmpty()) {
+            synchronized (recentCancellations) {
+                recentCancellations.put(videoId, Boolean.TRUE);
+            }
+            return false;
+        }
+        running.forEach(RunningJob::cancel);
+        logger.info("Killed running processes for cancelled video ID: {}", videoId);
+        return true;
+    }
+
+    public int getRunningCount() {
+        return jobs.values().stream().mapToInt(Set::size).sum();
+    }
+}
@@ -0,0 +1,162 @@
+package com.example.videoprocessor.service.listener;
+
+import com.example.videoprocessor.config.RabbitMQConfig;
+import com.example.videoprocessor.dto.SegmentTaskMessageDto;
+import com.example.videoprocessor.entity.VideoEntity;
+import com.example.videoprocessor.entity.VideoSegmentEntity;
+import com.example.videoprocessor.entity.enums.SegmentStatus;
+import com.example.videoprocessor.repository.VideoRepository;
+import com.example.videoprocessor.repository.VideoSegmentRepository;
+import com.example.videoprocessor.service.VideoStatusWriter;
+import com.example.videoprocessor.service.job.JobCancelledException;
+import com.example.videoprocessor.service.priority.PriorityTier;
+import com.example.videoprocessor.service.priority.WeightedFairScheduler;
+import com.example.videoprocessor.service.segment.SegmentCoordinator;
+import com.example.videoprocessor.service.segment.SegmentedTranscoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+import com.rabbitmq.client.Channel;
+
+/**
+ * Segment-paralel encode worker'ları (bkz. SegmentCoordinator). Transcode node'larında çalışır;
+ * son parçayı bitiren worker birleştirmeyi de yapar. Her parça encode'u işin öncelik seviyesinden slot alır.
+ */
+@Component
+public class SegmentWorkerListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SegmentWorkerListener.class);
+
+    public static final String CONTAINER_ID = "videoSegment";
+
+    @Autowired
+    private VideoRepository videoRepository;
+
+    @Autowired
+    private VideoSegmentRepository segmentRepository;
+
+    @Autowired
+    private SegmentCoordinator segmentCoordinator;
+
+    @Autowired
+    private SegmentedTranscoder segmentedTranscoder;
+
+    @Autowired
+    private WeightedFairScheduler scheduler;
+
+    @Value("${video.segments.max-attempts:3}")
+    private int maxAttempts;
+
+    @RabbitListener(
+        id = CONTAINER_ID,
+        queues = RabbitMQConfig.VIDEO_SEGMENT_QUEUE,
+        containerFactory = "rabbitListenerContainerFactory",
+        concurrency = "${video.segments.consumers:2}-${video.segments.consumers:2}",
+        autoStartup = "${video.stages.transcode.enabled:true}"
+    )
+    public void onSegment(SegmentTaskMessageDto task, Channel channel,
+                          @Header(AmqpHeaders.DELIVERY_TAG) long deliveryTag) {
+        PriorityTier tier = PriorityTier.fromPriority(task.getPriority());
+        try {
+            scheduler.acquire(tier);
+        } catch (InterruptedException e) {
+            // Container kapanıyor; mesaj başka bir consumer'a geri dönsün
+            Thread.currentThread().interrupt();
+            try {
+                channel.basicNack(deliveryTag, false, true);
+            } catch (Exception nackException) {
+                logger.error("Failed to requeue message", nackException);
+            }
+            return;
+        }
+        try {
+            handleSegment(task, channel, deliveryTag);
+        } finally {
+            scheduler.release(tier);
+        }
+    }
+
+    private void handleSegment(SegmentTaskMessageDto task, Channel channel, long deliveryTag) {
+        Long videoId = task.getVideoId();
+        int index = task.getSegmentIndex();
+        logger.debug("Received segment {} of video ID: {}", index, videoId);
+
+        try {
+            VideoEntity video = videoRepository.findById(videoId).orElse(null);
+            if (video == null || VideoStatusWriter.isTerminal(video.getStatus())) {
+                logger.info("Skipping segment {} of video ID {}: {}", index, videoId,
+                        video == null ? "not found" : video.getStatus());
+                segmentCoordinator.discard(videoId);
+                channel.basicAck(deliveryTag, false);
+                return;
+            }
+            VideoSegmentEntity segment = segmentRepository.findByVideoIdAndSegmentIndex(videoId, index).orElse(null);
+            if (segment == null) {
+                // Parçalar atıldı (transcode yeniden başladı veya iş bitti)
+                channel.basicAck(deliveryTag, false);
+                return;
+            }
+
+            boolean last;
+            if (segment.getStatus() == SegmentStatus.ENCODED) {
+                // Birleştirme öncesinde kopan worker'ın mesajı tekrar geldi
+                // Birleştirme başka bir worker'daysa mesaj onaylanıp bırakılır; o worker ölürse
+                // SegmentCoordinator süresi dolan claim'i yeniden kuyruğa verir
+                last = segmentCoordinator.markEncoded(videoId, index, segment.getOutputPath(), null);
+            } else {
+                try {
+                    SegmentedTranscoder.EncodedSegment encoded = segmentedTranscoder.encode(video, segment);
+                    last = segmentCoordinator.markEncoded(videoId, index, encoded.outputPath(), encoded.previewPath());
+                } catch (JobCancelledException e) {
+                    logger.info("Segment {} cancelled for video ID: {}", index, videoId);
+                    channel.basicAck(deliveryTag, false);
+                    return;
+                } catch (Exception e) {
+                    int attempts = segmentCoordinator.recordFailure(videoId, index);
+                    if (attempts < maxAttempts) {
+                        logger.warn("Segment {} of video ID {} failed (attempt {}/{}), retrying: {}",
+                                index, videoId, attempts, maxAttempts, e.getMessage());
+                        channel.basicNack(deliveryTag, false, true);
+                        return;
+                    }
+                    logger.error("Segment {} of video ID {} failed after {} attempts", index, videoId, attempts, e);
+                    segmentCoordinator.fail(videoId, task.getPriority(), "Segment " + index + " failed: " + e.getMessage());
+                    channel.basicAck(deliveryTag, false);
+                    return;
+                }
+            }
+
+            if (last) {
+                stitch(video, task);
+            }
+            channel.basicAck(deliveryTag, false);
+
+        } catch (Exception e) {
+            // Sonuç kaydedilemedi; parça başka bir worker'da tekrar denensin
+            logger.error("Segment {} could not be recorded for video ID: {}", index, videoId, e);
+            try {
+                channel.basicNack(deliveryTag, false, true);
+            } catch (Exception nackException) {
+                logger.error("Failed to nack message", nackException);
+            }
+        }
+    }
+
+    private void stitch(VideoEntity video, SegmentTaskMessageDto task) {
+        try {
+            String processedPath = segmentedTranscoder.stitch(video, segmentCoordinator.segments(video.getId()));
+            segmentCoordinator.complete(video.getId(), task.getPriority(), processedPath);
+        } catch (JobCancelledException e) {
+            logger.info("Stitching cancelled for video ID: {}", video.getId());
+            segmentCoordinator.discard(video.getId());
+        } catch (Exception e) {
+            logger.error("Stitching failed for video ID: {}", video.getId(), e);
+            segmentCoordinator.fail(video.getId(), task.getPriority(), e.getMessage());
+        }
+    }
+}
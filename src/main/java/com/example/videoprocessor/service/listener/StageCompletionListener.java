@@ -0,0 +1,49 @@
+package com.example.videoprocessor.service.listener;
+
+import com.example.videoprocessor.config.RabbitMQConfig;
+import com.example.videoprocessor.dto.StageCompletedMessageDto;
+import com.example.videoprocessor.service.stage.StageCoordinator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+import com.rabbitmq.client.Channel;
+
+/**
+ * Stage sonuçlarını koordinatöre iletir (join). Birleştirme satır kilidi ile yapıldığı için
+ * birden fazla node'da güvenle çalışabilir.
+ */
+@Component
+public class StageCompletionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(StageCompletionListener.class);
+
+    @Autowired
+    private StageCoordinator stageCoordinator;
+
+    @RabbitListener(
+        queues = RabbitMQConfig.VIDEO_STAGE_COMPLETED_QUEUE,
+        containerFactory = "rabbitListenerContainerFactory"
+    )
+    public void onStageCompleted(StageCompletedMessageDto result,
+                                 Channel channel,
+                                 @Header(AmqpHeaders.DELIVERY_TAG) long deliveryTag,
+                                 @Header(AmqpHeaders.REDELIVERED) boolean redelivered) {
+        try {
+            stageCoordinator.onStageCompleted(result);
+            channel.basicAck(deliveryTag, false);
+        } catch (Exception e) {
+            // Bir kez tekrar dene (ör. kilit zaman aşımı); ikinci hatada mesajı bırak
+            logger.error("Failed to join stage {} for video ID: {} (redelivered: {})",
+                    result.getStage(), result.getVideoId(), redelivered, e);
+            try {
+                channel.basicNack(deliveryTag, false, !redelivered);
+            } catch (Exception nackException) {
+                logger.error("Failed to nack message", nackException);
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.videoprocessor.service.listener;
+
+import com.example.videoprocessor.config.RabbitMQConfig;
+import com.example.videoprocessor.dto.StageCompletedMessageDto;
+import com.example.videoprocessor.dto.StageTaskMessageDto;
+import com.example.videoprocessor.dto.VideoMetadataDto;
+import com.example.videoprocessor.entity.VideoEntity;
+import com.example.videoprocessor.entity.enums.VideoStatus;
+import com.example.videoprocessor.repository.VideoRepository;
+import com.example.videoprocessor.service.job.JobCancelledException;
+import com.example.videoprocessor.service.pipeline.ProcessingContext;
+import com.example.videoprocessor.service.pipeline.VideoProcessingPipeline;
+import com.example.videoprocessor.service.priority.PriorityTier;
+import com.example.videoprocessor.service.priority.WeightedFairScheduler;
+import com.example.videoprocessor.service.segment.SegmentedTranscoder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+import com.rabbitmq.client.Channel;
+
+import java.util.Optional;
+
+/**
+ * Staged modda stage worker'ları. Her stage'in kendi kuyruğu, consumer sayısı ve açma/kapama ayarı vardır;
+ * böylece küçük node'larda sadece metadata/thumbnail, büyük node'larda transcode çalıştırılabilir:
+ *
+ *   video.stages.transcode.enabled=false   (küçük node)
+ *   video.stages.metadata.enabled=false, video.stages.thumbnail.enabled=false   (transcode node'u)
+ *
+ * Transcode stage'i monolitik moddaki gibi WeightedFairScheduler'dan öncelik seviyesine göre slot alır;
+ * consumer sayısı AdmissionController tarafından slot sayısına göre ayarlanır.
+ */
+@Component
+public class StageWorkerListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(StageWorkerListener.class);
+
+    public static final String TRANSCODE_CONTAINER_ID = "videoStageTranscode";
+
+    @Autowired
+    private VideoRepository videoRepository;
+
+    @Autowired
+    private VideoProcessingPipeline videoProcessingPipeline;
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    private SegmentedTranscoder segmentedTranscoder;
+
+    @Autowired
+    private WeightedFairScheduler scheduler;
+
+    @RabbitListener(
+        queues = RabbitMQConfig.VIDEO_STAGE_METADATA_QUEUE,
+        containerFactory = "rabbitListenerContainerFactory",
+        concurrency = "${video.stages.metadata.consumers:4}-${video.stages.metadata.consumers:4}",
+        autoStartup = "${video.stages.metadata.enabled:true}"
+    )
+    public void runMetadataStage(StageTaskMessageDto task, Channel channel,
+                                 @Header(AmqpHeaders.DELIVERY_TAG) long deliveryTag) {
+        runStage(task, channel, deliveryTag);
+    }
+
+    @RabbitListener(
+        queues = RabbitMQConfig.VIDEO_STAGE_THUMBNAIL_QUEUE,
+        containerFactory = "rabbitListenerContainerFactory",
+        concurrency = "${video.stages.thumbnail.consumers:4}-${video.stages.thumbnail.consumers:4}",
+        autoStartup = "${video.stages.thumbnail.enabled:true}"
+    )
+    public void runThumbnailStage(StageTaskMessageDto task, Channel channel,
+                                  @Header(AmqpHeaders.DELIVERY_TAG) long deliveryTag) {
+        runStage(task, channel, deliveryTag);
+    }
+
+    @RabbitListener(
+        id = TRANSCODE_CONTAINER_ID,
+        queues = RabbitMQConfig.VIDEO_STAGE_TRANSCODE_QUEUE,
+        containerFactory = "rabbitListenerContainerFactory",
+        concurrency = "${video.stages.transcode.consumers:2}-${video.stages.transcode.consumers:2}",
+        autoStartup = "${video.stages.transcode.enabled:true}"
+    )
+    public void runTranscodeStage(StageTaskMessageDto task, Channel channel,
+                                  @Header(AmqpHeaders.DELIVERY_TAG) long deliveryTag) {
+        PriorityTier tier = PriorityTier.fromPriority(task.getPriority());
+        try {
+            scheduler.acquire(tier);
+        } catch (InterruptedException e) {
+            // Container kapanıyor; mesaj başka bir consumer'a geri dönsün
+            Thread.currentThread().interrupt();
+            try {
+                channel.basicNack(deliveryTag, false, true);
+            } catch (Exception nackException) {
+                logger.error("Failed to requeue message", nackException);
+            }
+            return;
+        }
+        try {
+            runStage(task, channel, deliveryTag);
+        } finally {
+            scheduler.release(tier);
+        }
+    }
+
+    private void runStage(StageTaskMessageDto task, Channel channel, long deliveryTag) {
+        logger.info("Received stage {} for video ID: {}", task.getStage(), task.getVideoId());
+
+        try {
+            Optional<VideoEntity> videoOpt = videoRepository.findById(task.getVideoId());
+            if (videoOpt.isEmpty()) {
+                logger.error("Video not found with ID: {}", task.getVideoId());
+                channel.basicNack(deliveryTag, false, false);
+                return;
+            }
+            VideoEntity video = videoOpt.get();
+            if (video.getStatus() == VideoStatus.CANCELLED) {
+                logger.info("Skipping stage {} of cancelled video ID: {}", task.getStage(), video.getId());
+                channel.basicAck(deliveryTag, false);
+                return;
+            }
+
+            StageCompletedMessageDto result = execute(task, video);
+            if (result != null) {
+                rabbitTemplate.convertAndSend(RabbitMQConfig.VIDEO_PROCESSING_EXCHANGE,
+                        RabbitMQConfig.VIDEO_STAGE_COMPLETED_ROUTING_KEY, result);
+            }
+            channel.basicAck(deliveryTag, false);
+
+        } catch (Exception e) {
+            // Sonuç gönderilemedi; stage başka bir worker'da tekrar denensin
+            logger.error("Stage {} could not be reported for video ID: {}", task.getStage(), task.getVideoId(), e);
+            try {
+                channel.basicNack(deliveryTag, false, true);
+            } catch (Exception nackException) {
+                logger.error("Failed to nack message", nackException);
+            }
+        }
+    }
+
+    /**
+     * @return stage sonucu; uzun video segment kuyruğuna dağıtıldıysa null (sonucu birleştiren worker gönderir)
+     */
+    private StageCompletedMessageDto execute(StageTaskMessageDto task, VideoEntity video) {
+        StageCompletedMessageDto result = new StageCompletedMessageDto();
+        result.setVideoId(video.getId());
+        result.setStage(task.getStage());
+        result.setPriority(task.getPriority());
+
+        long startTime = System.currentTimeMillis();
+        try {
+            if (VideoProcessingPipeline.TRANSCODE_STAGE.equals(task.getStage()) && segmentedTranscoder.accepts(video)) {
+                segmentedTranscoder.split(video, task.getPriority());
+                return null;
+            }
+            ProcessingContext context = videoProcessingPipeline.executeStage(task.getStage(), video, readMetadata(video));
+            result.setSuccess(true);
+            result.setMetadata(VideoProcessingPipeline.METADATA_STAGE.equals(task.getStage()) ? context.getMetadata() : null);
+            result.setThumbnailPath(context.getThumbnailPath());
+            result.setProcessedPath(context.getProcessedPath());
+            result.setPreviewPath(context.getPreviewPath());
+            result.setThumbnailPaths(context.getThumbnailPaths());
+            result.setSpritePath(context.getSpritePath());
+            result.setStoryboardPath(context.getStoryboardPath());
+            result.setTranscodeMode(context.getTranscodeMode());
+            result.setHlsManifestPath(context.getHlsManifestPath());
+        } catch (JobCancelledException e) {
+            logger.info("Stage {} cancelled for video ID: {}", task.getStage(), video.getId());
+            result.setCancelled(true);
+        } catch (Exception e) {
+            logger.error("Stage {} failed for video ID: {}", task.getStage(), video.getId(), e);
+            result.setErrorMessage(e.getMessage());
+        }
+        result.setDurationMs(System.currentTimeMillis() - startTime);
+        return result;
+    }
+
+    private VideoMetadataDto readMetadata(VideoEntity video) {
+        return video.getMetadata();
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.videoprocessor.service.listener;
+
+import com.example.videoprocessor.dto.VideoCancellationMessageDto;
+import com.example.videoprocessor.service.job.RunningJobRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+import com.rabbitmq.client.Channel;
+
+/**
+ * İptal broadcast'ini dinler. Her node mesajı alır, sadece işi çalıştıran node process'i öldürür.
+ */
+@Component
+public class VideoCancellationListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(VideoCancellationListener.class);
+
+    @Autowired
+    private RunningJobRegistry jobRegistry;
+
+    @RabbitListener(
+        queues = "#{videoCancellationQueue.name}",
+        containerFactory = "rabbitListenerContainerFactory"
+    )
+    public void onCancellation(VideoCancellationMessageDto message,
+                               Channel channel,
+                               @Header(AmqpHeaders.DELIVERY_TAG) long deliveryTag) throws Exception {
+        try {
+            if (jobRegistry.cancel(message.getVideoId())) {
+                logger.info("Cancelled running job for video ID: {}", message.getVideoId());
+            } else {
+                logger.debug("Video ID {} is not running on this node", message.getVideoId());
+            }
+        } finally {
+            channel.basicAck(deliveryTag, false);
+        }
+    }
+}
@@ -2,31 +2,37 @@ package com.example.videoprocessor.service.listener;
 
 import com.example.videoprocessor.dto.VideoProcessingMessageDto;
 import com.example.videoprocessor.config.RabbitMQConfig; // Package ismini düzelttim
-import com.example.videoprocessor.dto.VideoMetadataDto;
 import com.example.videoprocessor.entity.VideoEntity;
 import com.example.videoprocessor.entity.enums.VideoStatus;
 import com.example.videoprocessor.repository.VideoRepository;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.example.videoprocessor.service.VideoStatusWriter;
+import com.example.videoprocessor.service.job.JobCancelledException;
+import com.example.videoprocessor.service.priority.PriorityTier;
+import com.example.videoprocessor.service.priority.WeightedFairScheduler;
+import com.example.videoprocessor.service.stage.StageCoordinator;
+import com.example.videoprocessor.service.pipeline.VideoProcessingPipeline;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
 import org.springframework.amqp.support.AmqpHeaders;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 import com.rabbitmq.client.Channel;
 
-import java.io.BufferedReader;
-import java.io.InputStreamReader;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.time.LocalDateTime;
 import java.util.Optional;
 
+/**
+ * Her status yazımı kendi kısa transaction'ında yapılır (sınıf seviyesinde @Transactional yok);
+ * aksi halde ara durumlar iş bitene kadar commit edilmez ve write-behind güncellemeleri satır kilidinde bekler.
+ *
+ * Her öncelik seviyesinin kuyruğu ayrı dinlenir; iş başlamadan önce WeightedFairScheduler'dan slot alınır.
+ * video.pipeline.mode=staged ise iş burada çalıştırılmaz, StageCoordinator ile stage kuyruklarına dağıtılır;
+ * dağıtım slot tutmaz, slotu transcode stage'i ve segment worker'ları alır.
+ */
 @Component
-@Transactional
 public class VideoProcessingListener {
 
     private static final Logger logger = LoggerFactory.getLogger(VideoProcessingListener.class);
@@ -35,17 +41,94 @@ public class VideoProcessingListener {
     private VideoRepository videoRepository;
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private VideoProcessingPipeline videoProcessingPipeline;
+
+    @Autowired
+    private VideoStatusWriter statusWriter;
+
+    public static final String HIGH_CONTAINER_ID = "videoProcessingHigh";
+    public static final String MEDIUM_CONTAINER_ID = "videoProcessingMedium";
+    public static final String LOW_CONTAINER_ID = "videoProcessingLow";
+    public static final String[] CONTAINER_IDS = {HIGH_CONTAINER_ID, MEDIUM_CONTAINER_ID, LOW_CONTAINER_ID};
+
+    @Autowired
+    private WeightedFairScheduler scheduler;
+
+    @Autowired
+    private StageCoordinator stageCoordinator;
+
+    @Value("${video.pipeline.mode:monolithic}")
+    private String pipelineMode;
+
+    @RabbitListener(
+        id = HIGH_CONTAINER_ID,
+        queues = RabbitMQConfig.VIDEO_PROCESSING_HIGH_QUEUE,
+        containerFactory = "rabbitListenerContainerFactory",
+        concurrency = "${video.priority.slots:5}-${video.priority.slots:5}"
+    )
+    public void processHighPriorityVideo(VideoProcessingMessageDto message,
+                                         Channel channel,
+                                         @Header(AmqpHeaders.DELIVERY_TAG) long deliveryTag) {
+        processWithSlot(PriorityTier.HIGH, message, channel, deliveryTag);
+    }
 
     @RabbitListener(
-        queues = RabbitMQConfig.VIDEO_PROCESSING_QUEUE, 
-        containerFactory = "rabbitListenerContainerFactory"
+        id = MEDIUM_CONTAINER_ID,
+        queues = RabbitMQConfig.VIDEO_PROCESSING_QUEUE,
+        containerFactory = "rabbitListenerContainerFactory",
+        concurrency = "${video.priority.slots:5}-${video.priority.slots:5}"
     )
     public void processVideo(VideoProcessingMessageDto message, 
                            Channel channel, 
                            @Header(AmqpHeaders.DELIVERY_TAG) long deliveryTag) {
+        processWithSlot(PriorityTier.MEDIUM, message, channel, deliveryTag);
+    }
+
+    @RabbitListener(
+        id = LOW_CONTAINER_ID,
+        queues = RabbitMQConfig.VIDEO_PROCESSING_LOW_QUEUE,
+        containerFactory = "rabbitListenerContainerFactory",
+        concurrency = "${video.priority.slots:5}-${video.priority.slots:5}"
+    )
+    public void processLowPriorityVideo(VideoProcessingMessageDto message,
+                                        Channel channel,
+                                        @Header(AmqpHeaders.DELIVERY_TAG) long deliveryTag) {
+        processWithSlot(PriorityTier.LOW, message, channel, deliveryTag);
+    }
+
+    private void processWithSlot(PriorityTier tier, VideoProcessingMessageDto message,
+                                 Channel channel, long deliveryTag) {
+        if (isStaged()) {
+            handleMessage(tier, message, channel, deliveryTag);
+            return;
+        }
+        try {
+            scheduler.acquire(tier);
+        } catch (InterruptedException e) {
+            // Container kapanıyor; mesaj başka bir consumer'a geri dönsün
+            Thread.currentThread().interrupt();
+            try {
+                channel.basicNack(deliveryTag, false, true);
+            } catch (Exception nackException) {
+                logger.error("Failed to requeue message", nackException);
+            }
+            return;
+        }
+        try {
+            handleMessage(tier, message, channel, deliveryTag);
+        } finally {
+            scheduler.release(tier);
+        }
+    }
+
+    private boolean isStaged() {
+        return "staged".equalsIgnoreCase(pipelineMode);
+    }
+
+    private void handleMessage(PriorityTier tier, VideoProcessingMessageDto message,
+                               Channel channel, long deliveryTag) {
         
-        logger.info("Received video processing message for video ID: {}", message.getVideoId());
+        logger.info("Received {} priority video processing message for video ID: {}", tier, message.getVideoId());
 
         try {
             Optional<VideoEntity> videoOpt = videoRepository.findById(message.getVideoId());
@@ -56,10 +139,32 @@ public class VideoProcessingListener {
             }
 
             VideoEntity video = videoOpt.get();
+            // Kuyrukta beklerken iptal edilmiş iş
+            if (video.getStatus() == VideoStatus.CANCELLED) {
+                logger.info("Skipping cancelled video ID: {}", video.getId());
+                channel.basicAck(deliveryTag, false);
+                return;
+            }
+
+            if (isStaged()) {
+                stageCoordinator.start(video.getId(), message.getPriority());
+                channel.basicAck(deliveryTag, false);
+                logger.info("Video ID {} fanned out to stage queues", video.getId());
+                return;
+            }
+
             processVideoInternal(video);
             channel.basicAck(deliveryTag, false);
             logger.info("Video processing completed and acknowledged for video ID: {}", video.getId());
 
+        } catch (JobCancelledException e) {
+            // Durum zaten CANCELLED; ffmpeg öldürüldü ve yarım çıktılar silindi
+            logger.info("Video processing cancelled for video ID: {}", message.getVideoId());
+            try {
+                channel.basicAck(deliveryTag, false);
+            } catch (Exception ackException) {
+                logger.error("Failed to ack cancelled message", ackException);
+            }
         } catch (Exception e) {
             logger.error("Video processing failed for video ID: {}", message.getVideoId(), e);
             
@@ -83,34 +188,11 @@ public class VideoProcessingListener {
         
         updateVideoStatus(video, VideoStatus.PROCESSING, 10, null);
 
-        // 1. Thumbnail oluştur
-        logger.info("Creating thumbnail for video ID: {}", video.getId());
-        updateVideoStatus(video, VideoStatus.THUMBNAIL_CREATING, 25, null);
-        
-        String thumbnailPath = createThumbnailWithFFmpeg(video.getOriginalPath(), video.getFilename());
-        video.setThumbnailPath(thumbnailPath);
-        updateVideoStatus(video, VideoStatus.THUMBNAIL_CREATED, 40, null);
+        // Metadata önce, ardından tüm çıktılar tek decode ile (bkz. VideoProcessingPipeline)
+        videoProcessingPipeline.process(video,
+                (status, progress) -> updateVideoStatus(video, status, progress, null));
 
-        // 2. Video transcode et
-        logger.info("Transcoding video ID: {}", video.getId());
-        updateVideoStatus(video, VideoStatus.TRANSCODING, 50, null);
-        
-        String transcodedPath = transcodeVideoWithFFmpeg(video.getOriginalPath(), video.getFilename());
-        video.setProcessedPath(transcodedPath);
-        updateVideoStatus(video, VideoStatus.TRANSCODED, 75, null);
-
-        // 3. Metadata çıkar
-        logger.info("Extracting metadata for video ID: {}", video.getId());
-        updateVideoStatus(video, VideoStatus.METADATA_EXTRACTING, 85, null);
-        
-        VideoMetadataDto metadata = extractMetadataWithFFprobe(video.getOriginalPath());
-        video.setMetadata(objectMapper.writeValueAsString(metadata));
-        video.setDuration(metadata.getDuration());
-        video.setResolution(metadata.getResolution());
-        video.setCodec(metadata.getCodec());
-        video.setFrameRate(metadata.getFrameRate());
-
-        // 4. Tamamla
+        // Tamamla
         video.setProcessingEndTime(LocalDateTime.now());
         updateVideoStatus(video, VideoStatus.COMPLETED, 100, null);
         
@@ -127,132 +209,14 @@ public class VideoProcessingListener {
             if (status == VideoStatus.PROCESSING) {
                 video.setProcessingStartTime(LocalDateTime.now());
             }
-            videoRepository.save(video);
+            if (VideoStatusWriter.isTerminal(status)) {
+                statusWriter.writeTerminal(video);
+            } else {
+                statusWriter.updateStatus(video.getId(), status, progress, video.getProcessingStartTime());
+            }
             logger.debug("Updated video status: {} - Progress: {}%", status, progress);
         } catch (Exception e) {
             logger.error("Failed to update video status", e);
         }
     }
-
-    private String createThumbnailWithFFmpeg(String videoPath, String filename) throws Exception {
-        String outputDir = "/app/thumbnails/";
-        Path outputPath = Paths.get(outputDir);
-        if (!Files.exists(outputPath)) {
-            Files.createDirectories(outputPath);
-        }
-
-        String thumbnailPath = outputDir + filename + "_thumb.jpg";
-
-        ProcessBuilder pb = new ProcessBuilder(
-                "ffmpeg", "-i", videoPath,
-                "-ss", "00:00:05",
-                "-vframes", "1",
-                "-vf", "scale=320:240",
-                "-q:v", "2",
-                "-y", thumbnailPath
-        );
-
-        pb.redirectErrorStream(true);
-        Process process = pb.start();
-
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-            String line;
-            StringBuilder output = new StringBuilder();
-            while ((line = reader.readLine()) != null) {
-                output.append(line).append("\n");
-            }
-            logger.debug("FFmpeg thumbnail output: {}", output.toString());
-        }
-
-        int exitCode = process.waitFor();
-        if (exitCode != 0) {
-            throw new RuntimeException("FFmpeg thumbnail creation failed with exit code: " + exitCode);
-        }
-
-        return thumbnailPath;
-    }
-
-    private String transcodeVideoWithFFmpeg(String inputPath, String filename) throws Exception {
-        String outputDir = "/app/processed/";
-        Path outputPath = Paths.get(outputDir);
-        if (!Files.exists(outputPath)) {
-            Files.createDirectories(outputPath);
-        }
-
-        String processedPath = outputDir + filename + "_processed.mp4";
-
-        ProcessBuilder pb = new ProcessBuilder(
-                "ffmpeg", "-i", inputPath,
-                "-c:v", "libx264",
-                "-c:a", "aac",
-                "-b:v", "1000k",
-                "-b:a", "128k",
-                "-vf", "scale=1280:720",
-                "-preset", "medium",
-                "-crf", "23",
-                "-movflags", "+faststart",
-                "-y", processedPath
-        );
-
-        pb.redirectErrorStream(true);
-        Process process = pb.start();
-
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-            String line;
-            StringBuilder output = new StringBuilder();
-            while ((line = reader.readLine()) != null) {
-                output.append(line).append("\n");
-            }
-            logger.debug("FFmpeg transcoding output: {}", output.toString());
-        }
-
-        int exitCode = process.waitFor();
-        if (exitCode != 0) {
-            throw new RuntimeException("FFmpeg transcoding failed with exit code: " + exitCode);
-        }
-
-        return processedPath;
-    }
-
-    private VideoMetadataDto extractMetadataWithFFprobe(String videoPath) throws Exception {
-        ProcessBuilder pb = new ProcessBuilder(
-                "ffprobe", "-v", "quiet",
-                "-print_format", "json",
-                "-show_format",
-                "-show_streams",
-                videoPath
-        );
-
-        pb.redirectErrorStream(true);
-        Process process = pb.start();
-
-        StringBuilder output = new StringBuilder();
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
-            String line;
-            while ((line = reader.readLine()) != null) {
-                output.append(line).append("\n");
-            }
-        }
-
-        int exitCode = process.waitFor();
-        if (exitCode != 0) {
-            throw new RuntimeException("FFprobe metadata extraction failed with exit code: " + exitCode);
-        }
-
-        return parseFFprobeOutput(output.toString());
-    }
-
-    private VideoMetadataDto parseFFprobeOutput(String jsonOutput) {
-        VideoMetadataDto metadata = new VideoMetadataDto();
-        metadata.setDuration(120L);
-        metadata.setResolution("1280x720");
-        metadata.setCodec("h264");
-        metadata.setFrameRate(30.0);
-        metadata.setFormat("mp4");
-        metadata.setBitrate(1000);
-        metadata.setAudioCodec("aac");
-        metadata.setAudioChannels(2);
-        metadata.setAudioSampleRate(44100);
-        return metadata;
-    }
 }
\ No newline at end of file
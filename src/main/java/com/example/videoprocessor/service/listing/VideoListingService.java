@@ -0,0 +1,153 @@
+package com.example.videoprocessor.service.listing;
+
+import com.example.videoprocessor.dto.VideoProcessingResponseDto;
+import com.example.videoprocessor.entity.enums.VideoStatus;
+import com.example.videoprocessor.repository.VideoRepository;
+import com.example.videoprocessor.repository.projection.VideoDetailView;
+import com.example.videoprocessor.repository.projection.VideoSummaryView;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * VIDEO LISTING
+ * - (created_at, id) üzerinden keyset sayfalama; OFFSET yok, her sayfa index'ten okunur
+ * - Satırlar entity yerine projection olarak okunur; metadata sadece includeMetadata ile
+ * - JSON doğrudan response stream'ine yazılır; bellek kullanımı sayfa boyutundan bağımsız sabit kalır
+ */
+@Service
+public class VideoListingService {
+
+    @Autowired
+    private VideoRepository videoRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${video.listing.default-page-size:50}")
+    private int defaultPageSize;
+
+    @Value("${video.listing.max-page-size:1000}")
+    private int maxPageSize;
+
+    // Stream edilen listelerde DB'den bir seferde okunan satır sayısı
+    @Value("${video.listing.fetch-size:500}")
+    private int fetchSize;
+
+    public int resolvePageSize(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return defaultPageSize;
+        }
+        return Math.min(requested, maxPageSize);
+    }
+
+    /**
+     * Tek sayfa: {"items": [...], "nextCursor": "..."}; son sayfada nextCursor null.
+     * Sayfa, fetchSize'lık parçalar halinde okunup yazılır.
+     */
+    public void writePage(OutputStream out, VideoStatus status, String category, VideoPageCursor after,
+                          int pageSize, boolean includeMetadata) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("items");
+            VideoPageCursor next = writeRows(generator, status, category, after, pageSize, includeMetadata);
+            generator.writeEndArray();
+            generator.writeStringField("nextCursor", next != null ? next.encode() : null);
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Tüm videolar tek JSON dizisi olarak; /all endpoint'lerinin eski response şekli korunur.
+     */
+    public void writeAll(OutputStream out, boolean includeMetadata) throws IOException {
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            generator.writeStartArray();
+            writeRows(generator, null, null, null, Integer.MAX_VALUE, includeMetadata);
+            generator.writeEndArray();
+        }
+    }
+
+    // Yazılan son satırın cursor'ını döner; daha fazla satır yoksa null
+    private VideoPageCursor writeRows(JsonGenerator generator, VideoStatus status, String category,
+                                      VideoPageCursor after, int limit, boolean includeMetadata) throws IOException {
+        int written = 0;
+        VideoPageCursor last = after;
+        while (written < limit) {
+            int chunk = Math.min(fetchSize, limit - written);
+            // Bir fazla satır istenir ki sonraki sayfa olup olmadığı bilinsin
+            List<? extends VideoSummaryView> rows = fetch(status, category, last, chunk + 1, includeMetadata);
+            int count = Math.min(rows.size(), chunk);
+            for (int i = 0; i < count; i++) {
+                VideoSummaryView row = rows.get(i);
+                generator.writeObject(toDto(row));
+                last = new VideoPageCursor(row.getCreatedAt(), row.getId());
+            }
+            written += count;
+            generator.flush();
+            if (rows.size() <= chunk) {
+                return null;
+            }
+        }
+        return last;
+    }
+
+    private List<? extends VideoSummaryView> fetch(VideoStatus status, String category, VideoPageCursor after,
+                                                   int limit, boolean includeMetadata) {
+        if (includeMetadata) {
+            return videoRepository.findDetailPage(status, category,
+                    after != null ? after.createdAt() : null, after != null ? after.id() : null, Limit.of(limit));
+        }
+        return videoRepository.findSummaryPage(status, category,
+                after != null ? after.createdAt() : null, after != null ? after.id() : null, Limit.of(limit));
+    }
+
+    /**
+     * Metadata alanlarına göre arama (jsonb containment, GIN index). Filtre boşsa hiçbir şey dönmez.
+     *
+     * @param filter ör. {"codec": "h264", "height": 1080}
+     */
+    public List<VideoProcessingResponseDto> searchByMetadata(Map<String, Object> filter, Integer limit)
+            throws JsonProcessingException {
+        if (filter.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = videoRepository.findIdsByMetadataContaining(
+                objectMapper.writeValueAsString(filter), resolvePageSize(limit));
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return videoRepository.findDetailsByIdIn(ids).stream().map(this::toDto).toList();
+    }
+
+    /**
+     * Projection satırından response; metadata sadece VideoDetailView ise doldurulur.
+     */
+    public VideoProcessingResponseDto toDto(VideoSummaryView row) {
+        VideoProcessingResponseDto dto = new VideoProcessingResponseDto();
+        dto.setVideoId(row.getId());
+        dto.setTitle(row.getTitle());
+        dto.setCategory(row.getCategory());
+        dto.setStatus(row.getStatus().name());
+        dto.setProgressPercentage(row.getProgressPercentage());
+        dto.setThumbnailPath(row.getThumbnailPath());
+        dto.setProcessedPath(row.getProcessedPath());
+        dto.setPreviewPath(row.getPreviewPath());
+        dto.setCreatedAt(row.getCreatedAt());
+        dto.setUpdatedAt(row.getUpdatedAt());
+
+        if (row instanceof VideoDetailView detail) {
+            dto.setMetadata(detail.getMetadata());
+        }
+        return dto;
+    }
+}
@@ -0,0 +1,53 @@
+package com.example.videoprocessor.service.pipeline;
+
+import com.example.videoprocessor.dto.VideoMetadataDto;
+import com.example.videoprocessor.entity.enums.TranscodeMode;
+import com.example.videoprocessor.service.job.RunningJob;
+import com.example.videoprocessor.service.storage.LocalFile;
+
+import java.util.List;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Bir videonun stage'leri arasında paylaşılan durum.
+ * Stage'ler sonuçlarını buraya yazar; entity'ye birleştirme tüm stage'ler bittikten sonra yapılır.
+ */
+@Getter
+@Setter
+public class ProcessingContext {
+
+    private final Long videoId;
+    private final String inputPath;
+    private final String filename;
+    private final RunningJob job;
+    // Depodaki kaynak (ffprobe cache anahtarı için); test ve yerel yol ile oluşturulduysa null
+    private final LocalFile input;
+
+    private volatile VideoMetadataDto metadata;
+    private volatile String thumbnailPath;
+    private volatile String processedPath;
+    private volatile String previewPath;
+    private volatile List<String> thumbnailPaths;
+    private volatile String spritePath;
+    private volatile String storyboardPath;
+    private volatile TranscodeMode transcodeMode;
+    private volatile String hlsManifestPath;
+
+    public ProcessingContext(Long videoId, String inputPath, String filename, RunningJob job) {
+        this(videoId, inputPath, null, filename, job);
+    }
+
+    public ProcessingContext(Long videoId, LocalFile input, String filename, RunningJob job) {
+        this(videoId, input.getPath().toString(), input, filename, job);
+    }
+
+    private ProcessingContext(Long videoId, String inputPath, LocalFile input, String filename, RunningJob job) {
+        this.videoId = videoId;
+        this.inputPath = inputPath;
+        this.input = input;
+        this.filename = filename;
+        this.job = job;
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.videoprocessor.service.pipeline;
+
+import java.util.Set;
+
+/**
+ * Stage graph içindeki tek bir işlem adımı.
+ * Bir stage, bağımlı olduğu tüm stage'ler tamamlandıktan sonra çalıştırılır.
+ */
+public interface ProcessingStage {
+
+    String getName();
+
+    Set<String> getDependencies();
+
+    void execute(ProcessingContext context) throws Exception;
+
+    static ProcessingStage of(String name, Set<String> dependencies, StageAction action) {
+        return new ProcessingStage() {
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public Set<String> getDependencies() {
+                return dependencies;
+            }
+
+            @Override
+            public void execute(ProcessingContext context) throws Exception {
+                action.execute(context);
+            }
+
+            @Override
+            public String toString() {
+                return name;
+            }
+        };
+    }
+
+    @FunctionalInterface
+    interface StageAction {
+        void execute(ProcessingContext context) throws Exception;
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.videoprocessor.service.pipeline;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Stage'leri bağımlılık grafiğine göre çalıştırır.
+ * - Bağımsız stage'ler sınırlı havuzda paralel çalışır
+ * - Zamanlama (hangi stage hazır, listener callback'leri) çağıran thread üzerinde yapılır
+ * - Bir stage hata verirse yeni stage başlatılmaz, çalışanlar bitince ilk hata fırlatılır
+ */
+@Component
+public class StageGraphExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(StageGraphExecutor.class);
+
+    @Autowired
+    @Qualifier("videoStageExecutor")
+    private TaskExecutor taskExecutor;
+
+    public void execute(List<ProcessingStage> stages, ProcessingContext context, StageListener listener) throws Exception {
+        Map<String, ProcessingStage> pending = new LinkedHashMap<>();
+        for (ProcessingStage stage : stages) {
+            if (pending.put(stage.getName(), stage) != null) {
+                throw new IllegalArgumentException("Duplicate stage name: " + stage.getName());
+            }
+        }
+        for (ProcessingStage stage : stages) {
+            for (String dependency : stage.getDependencies()) {
+                if (!pending.containsKey(dependency)) {
+                    throw new IllegalArgumentException("Stage " + stage.getName() + " depends on unknown stage " + dependency);
+                }
+            }
+        }
+
+        Set<String> completed = new HashSet<>();
+        BlockingQueue<StageOutcome> outcomes = new LinkedBlockingQueue<>();
+        int running = 0;
+        Exception failure = null;
+
+        while (!pending.isEmpty() || running > 0) {
+            if (failure == null) {
+                for (ProcessingStage stage : readyStages(pending, completed)) {
+                    pending.remove(stage.getName());
+                    listener.onStageStarted(stage);
+                    logger.debug("Starting stage {} for video ID: {}", stage.getName(), context.getVideoId());
+                    taskExecutor.execute(() -> runStage(stage, context, outcomes));
+                    running++;
+                }
+                if (running == 0 && !pending.isEmpty()) {
+                    throw new IllegalStateException("Stage graph has unresolvable dependencies: " + pending.keySet());
+                }
+            } else if (running == 0) {
+                break;
+            }
+
+            StageOutcome outcome = outcomes.take();
+            running--;
+
+            if (outcome.error() != null) {
+                logger.error("Stage {} failed for video ID: {}", outcome.stage().getName(), context.getVideoId());
+                if (failure == null) {
+                    failure = outcome.error();
+                } else {
+                    failure.addSuppressed(outcome.error());
+                }
+                continue;
+            }
+
+            completed.add(outcome.stage().getName());
+            if (failure == null) {
+                listener.onStageCompleted(outcome.stage());
+            }
+        }
+
+        if (failure != null) {
+            throw failure;
+        }
+    }
+
+    private List<ProcessingStage> readyStages(Map<String, ProcessingStage> pending, Set<String> completed) {
+        List<ProcessingStage> ready = new ArrayList<>();
+        for (ProcessingStage stage : pending.values()) {
+            if (completed.containsAll(stage.getDependencies())) {
+                ready.add(stage);
+            }
+        }
+        return ready;
+    }
+
+    private void runStage(ProcessingStage stage, ProcessingContext context, BlockingQueue<StageOutcome> outcomes) {
+        long startTime = System.currentTimeMillis();
+        try {
+            stage.execute(context);
+            logger.info("Stage {} finished for video ID: {} in {} ms",
+                    stage.getName(), context.getVideoId(), System.currentTimeMillis() - startTime);
+            outcomes.add(new StageOutcome(stage, null));
+        } catch (Exception e) {
+            outcomes.add(new StageOutcome(stage, e));
+        } catch (Throwable t) {
+            outcomes.add(new StageOutcome(stage, new RuntimeException(t)));
+        }
+    }
+
+    private record StageOutcome(ProcessingStage stage, Exception error) {
+    }
+}
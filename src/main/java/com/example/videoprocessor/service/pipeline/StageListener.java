@@ -0,0 +1,14 @@
+package com.example.videoprocessor.service.pipeline;
+
+/**
+ * Stage geçişlerini bildirir. Callback'ler her zaman executor'ı çağıran thread üzerinde çalışır,
+ * bu yüzden JPA entity'leri burada güvenle güncellenebilir.
+ */
+public interface StageListener {
+
+    default void onStageStarted(ProcessingStage stage) {
+    }
+
+    default void onStageCompleted(ProcessingStage stage) {
+    }
+}
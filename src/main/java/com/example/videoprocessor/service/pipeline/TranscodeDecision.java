@@ -0,0 +1,56 @@
+package com.example.videoprocessor.service.pipeline;
+
+import com.example.videoprocessor.dto.VideoMetadataDto;
+import com.example.videoprocessor.entity.enums.TranscodeMode;
+
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * ffprobe sonucuna göre transcode yolunu seçer.
+ * Video zaten hedef formattaysa (H.264, 8-bit 4:2:0, hedef çözünürlük ve bitrate sınırları içinde)
+ * video stream copy yapılır; ses AAC değilse sadece ses encode edilir.
+ */
+public final class TranscodeDecision {
+
+    private static final Set<String> COPYABLE_PIXEL_FORMATS = Set.of("yuv420p", "yuvj420p");
+
+    private TranscodeDecision() {
+    }
+
+    /**
+     * @param maxLongSide     hedefin uzun kenarı (1280); dikey videolar için yön dikkate alınmaz
+     * @param maxShortSide    hedefin kısa kenarı (720)
+     * @param maxVideoKbps    bu bitrate'in üstündeki videolar küçültmek için yeniden encode edilir; 0 = sınırsız
+     */
+    public static TranscodeMode decide(VideoMetadataDto metadata, int maxLongSide, int maxShortSide, long maxVideoKbps) {
+        if (metadata == null || !canCopyVideo(metadata, maxLongSide, maxShortSide, maxVideoKbps)) {
+            return TranscodeMode.FULL_TRANSCODE;
+        }
+        String audioCodec = metadata.getAudioCodec();
+        if (audioCodec == null || "aac".equalsIgnoreCase(audioCodec)) {
+            return TranscodeMode.REMUX;
+        }
+        return TranscodeMode.AUDIO_REENCODE;
+    }
+
+    private static boolean canCopyVideo(VideoMetadataDto metadata, int maxLongSide, int maxShortSide, long maxVideoKbps) {
+        if (!"h264".equalsIgnoreCase(metadata.getCodec())) {
+            return false;
+        }
+        if (metadata.getPixelFormat() == null
+                || !COPYABLE_PIXEL_FORMATS.contains(metadata.getPixelFormat().toLowerCase(Locale.ROOT))) {
+            return false;
+        }
+        Integer width = metadata.getWidth();
+        Integer height = metadata.getHeight();
+        if (width == null || height == null || width <= 0 || height <= 0) {
+            return false;
+        }
+        if (Math.max(width, height) > maxLongSide || Math.min(width, height) > maxShortSide) {
+            return false;
+        }
+        return maxVideoKbps <= 0 || metadata.getVideoBitrate() == null
+                || metadata.getVideoBitrate() <= maxVideoKbps * 1000;
+    }
+}
@@ -0,0 +1,490 @@
+package com.example.videoprocessor.service.pipeline;
+
+import com.example.videoprocessor.dto.VideoMetadataDto;
+import com.example.videoprocessor.entity.VideoEntity;
+import com.example.videoprocessor.entity.enums.TranscodeMode;
+import com.example.videoprocessor.entity.enums.VideoStatus;
+import com.example.videoprocessor.repository.VideoRepository;
+import com.example.videoprocessor.service.VideoProgressTracker;
+import com.example.videoprocessor.service.admission.AdmissionController;
+import com.example.videoprocessor.service.ffmpeg.FFmpegProgressListener;
+import com.example.videoprocessor.service.ffmpeg.FFmpegService;
+import com.example.videoprocessor.service.ffmpeg.FFprobeService;
+import com.example.videoprocessor.service.ffmpeg.command.FFmpegCommand;
+import com.example.videoprocessor.service.ffmpeg.command.FastPreviewOutput;
+import com.example.videoprocessor.service.ffmpeg.command.HlsRenditionOutput;
+import com.example.videoprocessor.service.ffmpeg.command.PreviewClipOutput;
+import com.example.videoprocessor.service.ffmpeg.command.RemuxOutput;
+import com.example.videoprocessor.service.ffmpeg.command.TranscodeOutput;
+import com.example.videoprocessor.service.hls.HlsLadder;
+import com.example.videoprocessor.service.job.JobCancelledException;
+import com.example.videoprocessor.service.job.RunningJob;
+import com.example.videoprocessor.service.job.RunningJobRegistry;
+import com.example.videoprocessor.service.storage.LocalFile;
+import com.example.videoprocessor.service.storage.LocalVideoStorage;
+import com.example.videoprocessor.service.storage.StorageArea;
+import com.example.videoprocessor.service.storage.StorageLifecycleService;
+import com.example.videoprocessor.service.storage.VideoStorage;
+import com.example.videoprocessor.service.thumbnail.ThumbnailCache;
+import com.example.videoprocessor.service.thumbnail.ThumbnailEngine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Video işleme stage grafiği (monolithic mod, tek node):
+ *
+ *   METADATA (ffprobe) ──┬──> THUMBNAIL   (sadece keyframe'ler decode edilir, saniyeler sürer)
+ *                        └──> TRANSCODING (tek ffmpeg process: mp4 [+ HLS, önizleme klibi])
+ *
+ * Staged modda aynı stage'ler ayrı kuyruklarda, ayrı worker'larda çalışır (bkz. StageCoordinator).
+ * Hızlı önizleme açıksa orada PREVIEW stage'i tam kalite encode'dan önce düşük çözünürlüklü
+ * oynatılabilir bir sürüm üretir (video PREVIEW_READY olur).
+ *
+ * ffprobe önce çalışır ki sonraki stage'ler sonuçlarını kullanabilsin (ör. thumbnail zamanı).
+ * Thumbnail ve transcode paralel çalışır; thumbnail'ler transcode'u beklemeden hazır olur (bkz. ThumbnailEngine).
+ * Transcode çıktıları tek decode ile üretilir, bkz. FFmpegCommand.
+ * İş RunningJobRegistry'ye kaydedilir; iptal edilirse her stage öncesinde durur, ffmpeg öldürülür
+ * ve yarım kalan çıktılar silinir (JobCancelledException).
+ * Girdi ffmpeg için yerel diske alınır (VideoStorage.localize); çıktılar staging'e yazılıp iş bitince depoya aktarılır.
+ */
+@Component
+public class VideoProcessingPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(VideoProcessingPipeline.class);
+
+    public static final String METADATA_STAGE = "METADATA";
+    public static final String THUMBNAIL_STAGE = "THUMBNAIL";
+    public static final String TRANSCODE_STAGE = "TRANSCODING";
+    public static final String PREVIEW_STAGE = "PREVIEW";
+
+    private static final int START_PROGRESS = 10;
+    private static final int ENCODE_START_PROGRESS = START_PROGRESS + 10;
+
+    @Autowired
+    private StageGraphExecutor stageGraphExecutor;
+
+    @Autowired
+    private FFmpegService ffmpegService;
+
+    @Autowired
+    private FFprobeService ffprobeService;
+
+    @Autowired
+    private VideoProgressTracker progressTracker;
+
+    @Autowired
+    private RunningJobRegistry jobRegistry;
+
+    @Autowired
+    private VideoRepository videoRepository;
+
+    @Autowired
+    private AdmissionController admissionController;
+
+    @Autowired
+    private StorageLifecycleService storageLifecycleService;
+
+    @Autowired
+    private VideoStorage videoStorage;
+
+    @Autowired
+    private ThumbnailEngine thumbnailEngine;
+
+    @Autowired
+    private ThumbnailCache thumbnailCache;
+
+    // Hedef formattaki girdiler yeniden encode edilmez (bkz. TranscodeDecision)
+    @Value("${video.transcode.remux-enabled:true}")
+    private boolean remuxEnabled;
+
+    @Value("${video.transcode.remux-max-video-kbps:8000}")
+    private long remuxMaxVideoKbps;
+
+    // HLS (fMP4) ABR merdiveni; mp4 çıktısına ek olarak üretilir
+    @Value("${video.hls.enabled:false}")
+    private boolean hlsEnabled;
+
+    @Value("${video.hls.ladder:1080:5000,720:2800,480:1400,360:800}")
+    private String hlsLadder;
+
+    @Value("${video.hls.segment-seconds:4}")
+    private int hlsSegmentSeconds;
+
+    @Value("${video.hls.audio-kbps:128}")
+    private int hlsAudioKbps;
+
+    @Value("${video.hls.preset:veryfast}")
+    private String hlsPreset;
+
+    @Value("${video.preview.clip-seconds:0}")
+    private int previewClipSeconds;
+
+    @Value("${video.preview.height:360}")
+    private int previewHeight;
+
+    // Staged modda tam kalite encode'dan önce yayınlanan hızlı önizleme (bkz. StageCoordinator)
+    @Value("${video.preview.fast.enabled:true}")
+    private boolean fastPreviewEnabled;
+
+    @Value("${video.preview.fast.height:360}")
+    private int fastPreviewHeight;
+
+    // 0 = tüm video; N > 0 = sadece ilk N saniye (girdi "-t" ile kesilir, sonrası okunmaz)
+    @Value("${video.preview.fast.clip-seconds:0}")
+    private int fastPreviewClipSeconds;
+
+    @FunctionalInterface
+    public interface StatusCallback {
+        void update(VideoStatus status, int progress);
+    }
+
+    /**
+     * Tüm stage'leri çalıştırır ve sonuçları entity'ye yazar. Status callback'leri çağıran thread'de çalışır.
+     * Entity'yi COMPLETED yapmak çağıranın sorumluluğundadır.
+     */
+    public void process(VideoEntity video, StatusCallback callback) throws Exception {
+        RunningJob job = jobRegistry.register(video.getId());
+        storageLifecycleService.touch(video.getId());
+
+        ProcessingContext context;
+        try (LocalFile input = videoStorage.localize(video.getOriginalPath())) {
+            context = new ProcessingContext(video.getId(), input, video.getFilename(), job);
+            stageGraphExecutor.execute(buildStages(), context, new StageListener() {
+                private final List<String> running = new ArrayList<>();
+                private int progress = START_PROGRESS;
+
+                @Override
+                public void onStageStarted(ProcessingStage stage) {
+                    running.add(stage.getName());
+                    callback.update(runningStatus(stage.getName()), progress);
+                }
+
+                @Override
+                public void onStageCompleted(ProcessingStage stage) {
+                    running.remove(stage.getName());
+                    progress += stageWeight(stage.getName());
+                    // Paralel stage hâlâ çalışıyorsa durum onu gösterir (ör. thumbnail transcode'dan önce biter)
+                    callback.update(running.isEmpty() ? completedStatus(stage.getName())
+                            : runningStatus(running.get(running.size() - 1)), progress);
+                }
+            });
+            job.throwIfCancelled();
+            publishOutputs(context);
+        } catch (JobCancelledException e) {
+            job.deleteOutputs();
+            throw e;
+        } finally {
+            jobRegistry.unregister(job);
+        }
+
+        applyResults(video, context);
+    }
+
+    public List<ProcessingStage> buildStages() {
+        return List.of(
+                ProcessingStage.of(METADATA_STAGE, Set.of(), cancellable(this::extractMetadata)),
+                ProcessingStage.of(THUMBNAIL_STAGE, Set.of(METADATA_STAGE), cancellable(this::createThumbnail)),
+                ProcessingStage.of(TRANSCODE_STAGE, Set.of(METADATA_STAGE), cancellable(context -> encode(context, true)))
+        );
+    }
+
+    /**
+     * Staged modda tek bir stage'i çalıştırır. Sonuçlar dönen context'tedir; entity'ye yazmak koordinatörün işidir.
+     *
+     * @param metadata METADATA stage'inin daha önce ürettiği sonuç (yoksa null)
+     */
+    public ProcessingContext executeStage(String stageName, VideoEntity video, VideoMetadataDto metadata) throws Exception {
+        RunningJob job = jobRegistry.register(video.getId());
+        storageLifecycleService.touch(video.getId());
+
+        ProcessingStage.StageAction action = switch (stageName) {
+            case METADATA_STAGE -> this::extractMetadata;
+            case THUMBNAIL_STAGE -> this::createThumbnail;
+            case PREVIEW_STAGE -> this::createFastPreview;
+            case TRANSCODE_STAGE -> stageContext -> encode(stageContext, false);
+            default -> throw new IllegalArgumentException("Unknown stage: " + stageName);
+        };
+
+        ProcessingContext context;
+        try (LocalFile input = videoStorage.localize(video.getOriginalPath())) {
+            context = new ProcessingContext(video.getId(), input, video.getFilename(), job);
+            context.setMetadata(metadata);
+            cancellable(action).execute(context);
+            job.throwIfCancelled();
+            publishOutputs(context);
+        } catch (JobCancelledException e) {
+            job.deleteOutputs();
+            throw e;
+        } finally {
+            jobRegistry.unregister(job);
+        }
+        return context;
+    }
+
+    private void extractMetadata(ProcessingContext context) throws Exception {
+        context.setMetadata(context.getInput() != null
+                ? ffprobeService.probe(context.getInput())
+                : ffprobeService.probe(context.getInputPath()));
+    }
+
+    // Sadece thumbnail'ler ve sprite; keyframe'ler decode edilir, encode kuyruğunu beklemez
+    private void createThumbnail(ProcessingContext context) throws Exception {
+        thumbnailEngine.generate(context);
+    }
+
+    private void createFastPreview(ProcessingContext context) throws Exception {
+        String previewPath = ffmpegService.previewPath(context.getFilename());
+        FFmpegCommand.Builder command = FFmpegCommand.builder(context.getInputPath());
+        if (fastPreviewClipSeconds > 0) {
+            command.inputArgs("-t", String.valueOf(fastPreviewClipSeconds));
+        }
+        command.output(new FastPreviewOutput(previewPath, fastPreviewHeight));
+        // Diğer encode'lar gibi CPU bütçesinden pay alır; maliyet klibin süresi ve önizleme yüksekliğinden
+        try (AdmissionController.Permit permit = admissionController.admit(context.getVideoId(),
+                previewCostMetadata(context.getMetadata(), fastPreviewHeight, fastPreviewClipSeconds))) {
+            if (context.getJob() != null) {
+                context.getJob().throwIfCancelled();
+            }
+            command.threads(permit.getThreads());
+            ffmpegService.run(command.build(), FFmpegProgressListener.NONE, context.getJob());
+        }
+        context.setPreviewPath(previewPath);
+    }
+
+    /**
+     * Önizleme encode'unun maliyeti için metadata: 16:9 varsayılan önizleme çözünürlüğü, kaynağın fps'i ve
+     * klip süresi (klip sınırı yoksa kaynağın süresi). PREVIEW, METADATA'yı beklemediği için kaynak null olabilir.
+     */
+    static VideoMetadataDto previewCostMetadata(VideoMetadataDto source, int height, int clipSeconds) {
+        VideoMetadataDto preview = new VideoMetadataDto();
+        preview.setHeight(height);
+        preview.setWidth((int) Math.round(height * 16 / 9.0));
+        if (source != null) {
+            preview.setFrameRate(source.getFrameRate());
+            preview.setDurationSeconds(source.getDurationSeconds());
+        }
+        if (clipSeconds > 0 && (preview.getDurationSeconds() == null || preview.getDurationSeconds() > clipSeconds)) {
+            preview.setDurationSeconds((double) clipSeconds);
+        }
+        return preview;
+    }
+
+    // İptal edilmiş işte sıradaki stage hiç başlamaz; broadcast kaçırılmışsa DB'deki durum da kontrol edilir
+    private ProcessingStage.StageAction cancellable(ProcessingStage.StageAction action) {
+        return context -> {
+            if (context.getJob() != null) {
+                context.getJob().throwIfCancelled();
+                if (videoRepository.findStatusById(context.getVideoId()).orElse(null) == VideoStatus.CANCELLED) {
+                    jobRegistry.cancel(context.getVideoId());
+                    context.getJob().throwIfCancelled();
+                }
+            }
+            action.execute(context);
+        };
+    }
+
+    /**
+     * Girdinin hedefe nasıl getirileceği (bkz. TranscodeDecision); remux kapalıysa her zaman FULL_TRANSCODE.
+     */
+    public TranscodeMode transcodeMode(VideoMetadataDto metadata) {
+        if (!remuxEnabled) {
+            return TranscodeMode.FULL_TRANSCODE;
+        }
+        TranscodeOutput target = TranscodeOutput.defaultMp4("");
+        return TranscodeDecision.decide(metadata, target.getWidth(), target.getHeight(), remuxMaxVideoKbps);
+    }
+
+    // Staged modda PREVIEW stage'i grafa eklenir (bkz. StageCoordinator)
+    public boolean isFastPreviewEnabled() {
+        return fastPreviewEnabled;
+    }
+
+    /**
+     * @param monolithic staged modda önizleme klibini hızlı önizleme açıksa PREVIEW stage'i üretir
+     */
+    private void encode(ProcessingContext context, boolean monolithic) throws Exception {
+        String processedPath = ffmpegService.processedPath(context.getFilename());
+        TranscodeOutput target = TranscodeOutput.defaultMp4(processedPath);
+        TranscodeMode mode = transcodeMode(context.getMetadata());
+        context.setTranscodeMode(mode);
+
+        FFmpegCommand.Builder command = FFmpegCommand.builder(context.getInputPath())
+                .output(mode == TranscodeMode.FULL_TRANSCODE ? target
+                        : new RemuxOutput(processedPath, mode == TranscodeMode.AUDIO_REENCODE, target.getAudioBitrate()));
+
+        String previewPath = null;
+        // Staged modda önizlemeyi PREVIEW stage'i üretmişse klip tekrar üretilip üzerine yazılmaz
+        if (previewClipSeconds > 0 && (monolithic || !fastPreviewEnabled)) {
+            previewPath = ffmpegService.previewPath(context.getFilename());
+            command.output(new PreviewClipOutput(previewPath, previewClipSeconds, previewHeight));
+        }
+
+        VideoMetadataDto metadata = context.getMetadata();
+        // ABR merdiveni aynı decode'dan, split ile her basamağa ayrılır
+        List<HlsRenditionOutput> renditions = new ArrayList<>();
+        Path hlsDirectory = null;
+        if (hlsEnabled) {
+            hlsDirectory = Paths.get(ffmpegService.hlsDirectory(context.getFilename()));
+            LocalVideoStorage.deleteTree(hlsDirectory);
+            if (context.getJob() != null) {
+                context.getJob().addOutputPath(hlsDirectory.toString());
+            }
+            for (HlsLadder.Rung rung : HlsLadder.forSource(HlsLadder.parse(hlsLadder), metadata)) {
+                HlsRenditionOutput rendition = new HlsRenditionOutput(
+                        hlsDirectory.resolve(rung.directoryName()).resolve(HlsLadder.MEDIA_PLAYLIST).toString(),
+                        rung.height(), rung.videoKbps(), hlsAudioKbps, hlsSegmentSeconds, hlsPreset);
+                renditions.add(rendition);
+                command.output(rendition);
+            }
+        }
+        boolean encodesVideo = mode == TranscodeMode.FULL_TRANSCODE || !renditions.isEmpty();
+
+        Double durationSeconds = metadata != null ? metadata.getDurationSeconds() : null;
+        FFmpegProgressListener listener = progress -> {
+            Double fraction = progress.fraction(durationSeconds);
+            if (fraction != null) {
+                int percentage = ENCODE_START_PROGRESS + (int) (fraction * (100 - ENCODE_START_PROGRESS));
+                progressTracker.update(context.getVideoId(), Math.min(percentage, 99),
+                        progress.etaMillis(durationSeconds), progress.speed());
+            }
+        };
+
+        try {
+            if (!encodesVideo) {
+                // Stream copy IO ağırlıklı; CPU bütçesinden pay ayrılmaz
+                ffmpegService.run(command.build(), listener, context.getJob());
+            } else {
+                // CPU bütçesinden işin maliyeti kadar thread ayrılır; ffmpeg de bu kadar thread ile çalışır
+                try (AdmissionController.Permit permit = admissionController.admit(context.getVideoId(), metadata)) {
+                    if (context.getJob() != null) {
+                        context.getJob().throwIfCancelled();
+                    }
+                    command.threads(permit.getThreads());
+                    ffmpegService.run(command.build(), listener, context.getJob());
+                }
+            }
+        } finally {
+            progressTracker.clear(context.getVideoId());
+        }
+        logger.info("Video ID {} encoded with {}", context.getVideoId(), mode);
+
+        context.setProcessedPath(processedPath);
+        context.setPreviewPath(previewPath);
+        if (!renditions.isEmpty()) {
+            Path master = hlsDirectory.resolve(HlsLadder.MASTER_PLAYLIST);
+            Files.writeString(master, HlsLadder.masterPlaylist(renditions, metadata), StandardCharsets.UTF_8);
+            context.setHlsManifestPath(master.toString());
+        }
+    }
+
+    // Staging'deki çıktıları kalıcı depoya alır; context'teki yollar location ile değiştirilir
+    private void publishOutputs(ProcessingContext context) throws IOException {
+        if (context.getProcessedPath() != null) {
+            context.setProcessedPath(videoStorage.importFile(StorageArea.PROCESSED, Paths.get(context.getProcessedPath())));
+        }
+        if (context.getPreviewPath() != null) {
+            context.setPreviewPath(videoStorage.importFile(StorageArea.PROCESSED, Paths.get(context.getPreviewPath())));
+        }
+        if (context.getThumbnailPath() != null) {
+            context.setThumbnailPath(videoStorage.importFile(StorageArea.THUMBNAILS, Paths.get(context.getThumbnailPath())));
+        }
+        if (context.getThumbnailPaths() != null) {
+            List<String> locations = new ArrayList<>();
+            for (String path : context.getThumbnailPaths()) {
+                locations.add(videoStorage.importFile(StorageArea.THUMBNAILS, Paths.get(path)));
+            }
+            context.setThumbnailPaths(locations);
+        }
+        if (context.getSpritePath() != null) {
+            context.setSpritePath(videoStorage.importFile(StorageArea.THUMBNAILS, Paths.get(context.getSpritePath())));
+        }
+        if (context.getStoryboardPath() != null) {
+            context.setStoryboardPath(videoStorage.importFile(StorageArea.THUMBNAILS, Paths.get(context.getStoryboardPath())));
+        }
+        if (context.getHlsManifestPath() != null) {
+            Path master = Paths.get(context.getHlsManifestPath());
+            context.setHlsManifestPath(videoStorage.importDirectory(StorageArea.PROCESSED, master.getParent())
+                    + "/" + master.getFileName());
+        }
+    }
+
+    /**
+     * Context'teki sonuçları entity'ye yazar; staged modda her stage sadece kendi alanlarını doldurduğu için
+     * null değerler mevcut alanları ezmez.
+     */
+    public void applyResults(VideoEntity video, ProcessingContext context) throws Exception {
+        if (context.getThumbnailPath() != null) {
+            video.setThumbnailPath(context.getThumbnailPath());
+            // Yeniden işlenen videonun eski thumbnail'leri sunulmasın
+            thumbnailCache.evict(video.getId());
+        }
+        if (context.getThumbnailPaths() != null) {
+            video.setThumbnailPaths(context.getThumbnailPaths());
+        }
+        if (context.getSpritePath() != null) {
+            video.setSpritePath(context.getSpritePath());
+        }
+        if (context.getStoryboardPath() != null) {
+            video.setStoryboardPath(context.getStoryboardPath());
+        }
+        if (context.getProcessedPath() != null) {
+            video.setProcessedPath(context.getProcessedPath());
+        }
+        if (context.getPreviewPath() != null) {
+            video.setPreviewPath(context.getPreviewPath());
+        }
+
+        if (context.getTranscodeMode() != null) {
+            video.setTranscodeMode(context.getTranscodeMode());
+        }
+        if (context.getHlsManifestPath() != null) {
+            video.setHlsManifestPath(context.getHlsManifestPath());
+        }
+
+        VideoMetadataDto metadata = context.getMetadata();
+        if (metadata != null) {
+            video.setMetadata(metadata);
+            video.setDuration(metadata.getDuration());
+            video.setResolution(metadata.getResolution());
+            video.setCodec(metadata.getCodec());
+            video.setFrameRate(metadata.getFrameRate());
+        }
+    }
+
+    public static VideoStatus runningStatus(String stageName) {
+        return switch (stageName) {
+            case METADATA_STAGE -> VideoStatus.METADATA_EXTRACTING;
+            case THUMBNAIL_STAGE -> VideoStatus.THUMBNAIL_CREATING;
+            default -> VideoStatus.TRANSCODING;
+        };
+    }
+
+    public static VideoStatus completedStatus(String stageName) {
+        return switch (stageName) {
+            case METADATA_STAGE -> VideoStatus.METADATA_EXTRACTED;
+            case THUMBNAIL_STAGE -> VideoStatus.THUMBNAIL_CREATED;
+            case PREVIEW_STAGE -> VideoStatus.PREVIEW_READY;
+            default -> VideoStatus.TRANSCODED;
+        };
+    }
+
+    // Toplam: START_PROGRESS (10) + 10 + 10 + 70 = 100 (StageCoordinator ile aynı ölçek)
+    private int stageWeight(String stageName) {
+        return switch (stageName) {
+            case METADATA_STAGE, THUMBNAIL_STAGE -> 10;
+            default -> 70;
+        };
+    }
+}
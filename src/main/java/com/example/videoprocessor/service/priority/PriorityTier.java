@@ -0,0 +1,44 @@
+package com.example.videoprocessor.service.priority;
+
+import com.example.videoprocessor.config.RabbitMQConfig;
+
+/**
+ * İşleme öncelik seviyeleri. Her seviyenin kendi kuyruğu vardır; MEDIUM mevcut ana kuyruktur.
+ */
+public enum PriorityTier {
+    HIGH(RabbitMQConfig.VIDEO_PROCESSING_HIGH_QUEUE, RabbitMQConfig.VIDEO_PROCESSING_HIGH_ROUTING_KEY),
+    MEDIUM(RabbitMQConfig.VIDEO_PROCESSING_QUEUE, RabbitMQConfig.VIDEO_PROCESSING_ROUTING_KEY),
+    LOW(RabbitMQConfig.VIDEO_PROCESSING_LOW_QUEUE, RabbitMQConfig.VIDEO_PROCESSING_LOW_ROUTING_KEY);
+
+    private final String queueName;
+    private final String routingKey;
+
+    PriorityTier(String queueName, String routingKey) {
+        this.queueName = queueName;
+        this.routingKey = routingKey;
+    }
+
+    public String getQueueName() {
+        return queueName;
+    }
+
+    public String getRoutingKey() {
+        return routingKey;
+    }
+
+    /**
+     * API'deki sayısal önceliği (HIGH=10, MEDIUM=5, LOW=1) seviyeye çevirir.
+     */
+    public static PriorityTier fromPriority(Integer priority) {
+        if (priority == null) {
+            return MEDIUM;
+        }
+        if (priority >= 7) {
+            return HIGH;
+        }
+        if (priority <= 3) {
+            return LOW;
+        }
+        return MEDIUM;
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.videoprocessor.service.priority;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * WEIGHTED FAIR SCHEDULER
+ * Her seviyenin listener'ı işe başlamadan önce buradan slot alır (node başına sınırlı sayıda eş zamanlı iş).
+ * - Slot boşaldığında bekleyen seviyeler arasından stride scheduling ile seçim yapılır:
+ *   her seviye ağırlığıyla ters orantılı "pass" biriktirir, en düşük pass'e sahip seviye slotu alır
+ * - Sadece bekleyen seviyeler yarışır; LOW tek başınaysa tüm slotları kullanabilir (work-conserving)
+ * - Çekişme altında LOW da ağırlığı oranında slot alır, açlık olmaz
+ * - HIGH için ayrılmış slotlar diğer seviyelere verilmez; HIGH işi en fazla bir iş süresi bekler
+ */
+@Component
+public class WeightedFairScheduler {
+
+    private static final Logger logger = LoggerFactory.getLogger(WeightedFairScheduler.class);
+
+    private static final long STRIDE_BASE = 1_000_000L;
+
+    @Value("${video.priority.slots:5}")
+    private int slots;
+
+    @Value("${video.priority.high-reserved-slots:1}")
+    private int highReservedSlots;
+
+    @Value("${video.priority.weight.high:6}")
+    private int highWeight;
+
+    @Value("${video.priority.weight.medium:3}")
+    private int mediumWeight;
+
+    @Value("${video.priority.weight.low:1}")
+    private int lowWeight;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<PriorityTier, TierState> tiers = new EnumMap<>(PriorityTier.class);
+    private int reservedForHigh;
+    private int available;
+    private long virtualTime;
+
+    public WeightedFairScheduler() {
+    }
+
+    WeightedFairScheduler(int slots, int highReservedSlots, int highWeight, int mediumWeight, int lowWeight) {
+        this.slots = slots;
+        this.highReservedSlots = highReservedSlots;
+        this.highWeight = highWeight;
+        this.mediumWeight = mediumWeight;
+        this.lowWeight = lowWeight;
+        init();
+    }
+
+    @PostConstruct
+    void init() {
+        available = slots;
+        reservedForHigh = Math.min(highReservedSlots, slots - 1);
+        tiers.put(PriorityTier.HIGH, new TierState(highWeight));
+        tiers.put(PriorityTier.MEDIUM, new TierState(mediumWeight));
+        tiers.put(PriorityTier.LOW, new TierState(lowWeight));
+        logger.info("Weighted fair scheduler: {} slots ({} reserved for HIGH), weights HIGH={} MEDIUM={} LOW={}",
+                slots, reservedForHigh, highWeight, mediumWeight, lowWeight);
+    }
+
+    public int getSlots() {
+        lock.lock();
+        try {
+            return slots;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Slot sayısını değiştirir (bkz. AdmissionController). Küçülmede çalışan işler kesilmez,
+     * bitenlerin slotu geri verilmez.
+     */
+    public void resize(int newSlots) {
+        if (newSlots < 1) {
+            throw new IllegalArgumentException("Slot count must be positive: " + newSlots);
+        }
+        lock.lock();
+        try {
+            if (newSlots == slots) {
+                return;
+            }
+            logger.info("Resizing weighted fair scheduler from {} to {} slots", slots, newSlots);
+            available += newSlots - slots;
+            slots = newSlots;
+            reservedForHigh = Math.min(highReservedSlots, slots - 1);
+            signalNext();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Bu seviyeye slot verilene kadar bekler.
+     */
+    public void acquire(PriorityTier tier) throws InterruptedException {
+        long waitStart = System.nanoTime();
+        TierState state = tiers.get(tier);
+        lock.lock();
+        try {
+            if (state.waiting == 0) {
+                // Boşta kalan seviye geçmiş payını biriktirip diğerlerini bastıramasın
+                state.pass = Math.max(state.pass, virtualTime);
+            }
+            state.waiting++;
+            try {
+                while (!(canRun(tier) && selectNext() == tier)) {
+                    state.turn.await();
+                }
+            } finally {
+                state.waiting--;
+            }
+
+            available--;
+            state.running++;
+            virtualTime = state.pass;
+            state.pass += state.stride;
+
+            long waitedNanos = System.nanoTime() - waitStart;
+            state.granted++;
+            state.totalWaitNanos += waitedNanos;
+            state.maxWaitNanos = Math.max(state.maxWaitNanos, waitedNanos);
+
+            signalNext();
+        } catch (InterruptedException e) {
+            signalNext();
+            throw e;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void release(PriorityTier tier) {
+        lock.lock();
+        try {
+            tiers.get(tier).running--;
+            available++;
+            signalNext();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public Map<PriorityTier, TierStats> getStats() {
+        lock.lock();
+        try {
+            Map<PriorityTier, TierStats> stats = new EnumMap<>(PriorityTier.class);
+            tiers.forEach((tier, state) -> stats.put(tier, new TierStats(
+                    state.weight, state.waiting, state.running, state.granted,
+                    state.granted > 0 ? TimeUnit.NANOSECONDS.toMillis(state.totalWaitNanos / state.granted) : 0,
+                    TimeUnit.NANOSECONDS.toMillis(state.maxWaitNanos))));
+            return stats;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean canRun(PriorityTier tier) {
+        return tier == PriorityTier.HIGH ? available > 0 : available > reservedForHigh;
+    }
+
+    // Çalışabilecek bekleyen seviyeler arasında en küçük pass; eşitlikte yüksek seviye
+    private PriorityTier selectNext() {
+        PriorityTier next = null;
+        long minPass = Long.MAX_VALUE;
+        for (Map.Entry<PriorityTier, TierState> entry : tiers.entrySet()) {
+            TierState state = entry.getValue();
+            if (state.waiting > 0 && canRun(entry.getKey()) && state.pass < minPass) {
+                minPass = state.pass;
+                next = entry.getKey();
+            }
+        }
+        return next;
+    }
+
+    private void signalNext() {
+        PriorityTier next = selectNext();
+        if (next != null) {
+            tiers.get(next).turn.signal();
+        }
+    }
+
+    public record TierStats(int weight, int waiting, int running, long granted, long averageWaitMs, long maxWaitMs) {
+    }
+
+    private final class TierState {
+        final int weight;
+        final long stride;
+        final Condition turn = lock.newCondition();
+        long pass;
+        int waiting;
+        int running;
+        long granted;
+        long totalWaitNanos;
+        long maxWaitNanos;
+
+        TierState(int weight) {
+            this.weight = Math.max(1, weight);
+            this.stride = STRIDE_BASE / this.weight;
+        }
+    }
+}
@@ -0,0 +1,274 @@
+package com.example.videoprocessor.service.segment;
+
+import com.example.videoprocessor.config.RabbitMQConfig;
+import com.example.videoprocessor.dto.SegmentTaskMessageDto;
+import com.example.videoprocessor.dto.StageCompletedMessageDto;
+import com.example.videoprocessor.entity.VideoEntity;
+import com.example.videoprocessor.entity.VideoSegmentEntity;
+import com.example.videoprocessor.entity.enums.SegmentStatus;
+import com.example.videoprocessor.entity.enums.TranscodeMode;
+import com.example.videoprocessor.repository.VideoRepository;
+import com.example.videoprocessor.repository.VideoSegmentRepository;
+import com.example.videoprocessor.service.VideoStatusWriter;
+import com.example.videoprocessor.service.events.VideoStatusChangedEvent;
+import com.example.videoprocessor.service.pipeline.VideoProcessingPipeline;
+import com.example.videoprocessor.service.storage.VideoStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SEGMENT-PARALEL ENCODE (staged mod, uzun videolar)
+ *
+ *   TRANSCODING ──> split (stream copy, keyframe'lerden) ──> N x segment encode (herhangi bir node) ──> concat + ses
+ *
+ * - Transcode stage worker'ı girdiyi böler, parçaları depoya alır; her parça için bir satır ve bir kuyruk mesajı
+ *   oluşturulur. Stage sonucunu o worker değil, birleştirmeyi yapan worker gönderir
+ * - Segment worker'ları encode edilen parçayı video satırı kilitliyken (SELECT ... FOR UPDATE) işaretler;
+ *   son parçayı işaretleyen worker birleştirmeyi atomik olarak üstlenir (claim), süreyi doğrular ve TRANSCODING
+ *   sonucunu completion kuyruğuna yazar. Tekrar gelen mesajlar ikinci bir birleştirme başlatmaz; üstlenen worker
+ *   ölürse süresi dolan claim periyodik olarak tespit edilir ve segment 0 mesajı yeniden gönderilir
+ * - Bir parça max-attempts kez başarısız olursa veya süre tutmazsa stage hata ile sonuçlanır (video FAILED)
+ * - Parçalar ve satırlar iş bitince (başarılı ya da değil) silinir
+ */
+@Component
+public class SegmentCoordinator {
+
+    private static final Logger logger = LoggerFactory.getLogger(SegmentCoordinator.class);
+
+    // StageCoordinator ile aynı ölçek: başlangıç + metadata 20, transcode 70
+    private static final int TRANSCODE_START_PROGRESS = 20;
+    private static final int TRANSCODE_WEIGHT = 70;
+
+    @Autowired
+    private VideoRepository videoRepository;
+
+    @Autowired
+    private VideoSegmentRepository segmentRepository;
+
+    @Autowired
+    private VideoStorage videoStorage;
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${video.segments.stitch-lease-minutes:60}")
+    private long stitchLeaseMinutes;
+
+    /**
+     * Parça satırlarını oluşturur ve commit sonrası segment kuyruğuna gönderir.
+     *
+     * @param directoryLocation split çıktılarının depodaki dizini (bkz. VideoStorage#importDirectory)
+     * @return video bu arada iptal edildiyse / bittiyse false (parçalar çağıran tarafından silinmeli)
+     */
+    @Transactional
+    public boolean register(Long videoId, List<SegmentPlan.Span> spans, String directoryLocation, Integer priority) {
+        VideoEntity video = videoRepository.findByIdForUpdate(videoId).orElse(null);
+        if (video == null || VideoStatusWriter.isTerminal(video.getStatus())) {
+            return false;
+        }
+
+        // Yeniden denenen transcode stage'inin eski parçaları
+        segmentRepository.findByVideoIdOrderBySegmentIndex(videoId).forEach(this::deleteOutput);
+        segmentRepository.deleteByVideoId(videoId);
+        segmentRepository.flush();
+
+        List<VideoSegmentEntity> segments = new ArrayList<>();
+        for (int i = 0; i < spans.size(); i++) {
+            SegmentPlan.Span span = spans.get(i);
+            VideoSegmentEntity segment = new VideoSegmentEntity();
+            segment.setVideoId(videoId);
+            segment.setSegmentIndex(i);
+            segment.setSourcePath(directoryLocation + "/" + span.fileName());
+            segment.setStartSeconds(span.startSeconds());
+            segment.setDurationSeconds(span.durationSeconds());
+            segment.setStatus(SegmentStatus.PENDING);
+            segments.add(segment);
+        }
+        segmentRepository.saveAll(segments);
+
+        int count = segments.size();
+        afterCommit(() -> {
+            for (int i = 0; i < count; i++) {
+                sendSegmentTask(videoId, i, priority);
+            }
+        });
+        logger.info("Dispatched {} segments for video ID: {}", count, videoId);
+        return true;
+    }
+
+    /**
+     * Parçayı ENCODED yapar; segment 0'ın önizleme klibi hemen videoya yazılır.
+     *
+     * @return tüm parçalar encode edildiyse ve birleştirmeyi bu çağıran üstlendiyse true (çağıran birleştirmeyi yapar)
+     */
+    @Transactional
+    public boolean markEncoded(Long videoId, int segmentIndex, String outputPath, String previewPath) {
+        VideoEntity video = videoRepository.findByIdForUpdate(videoId).orElse(null);
+        if (video == null || VideoStatusWriter.isTerminal(video.getStatus())) {
+            return false;
+        }
+        VideoSegmentEntity segment = segmentRepository.findByVideoIdAndSegmentIndex(videoId, segmentIndex).orElse(null);
+        if (segment == null) {
+            return false;
+        }
+        if (segment.getStatus() != SegmentStatus.ENCODED) {
+            segment.setStatus(SegmentStatus.ENCODED);
+            segment.setOutputPath(outputPath);
+            segmentRepository.saveAndFlush(segment);
+        }
+        if (previewPath != null) {
+            video.setPreviewPath(previewPath);
+        }
+
+        long total = segmentRepository.countByVideoId(videoId);
+        long remaining = segmentRepository.countByVideoIdAndStatusNot(videoId, SegmentStatus.ENCODED);
+        int progress = TRANSCODE_START_PROGRESS + (int) (TRANSCODE_WEIGHT * (total - remaining) / Math.max(total, 1));
+        video.setProgressPercentage(Math.min(99, Math.max(progress,
+                video.getProgressPercentage() != null ? video.getProgressPercentage() : 0)));
+        eventPublisher.publishEvent(new VideoStatusChangedEvent(videoId, video.getStatus(),
+                video.getProgressPercentage(), null));
+        logger.debug("Segment {} of video ID {} encoded, {} remaining", segmentIndex, videoId, remaining);
+        if (remaining > 0) {
+            return false;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        boolean claimed = segmentRepository.claimStitch(videoId, now, now.minusMinutes(stitchLeaseMinutes)) == 1;
+        if (!claimed) {
+            logger.info("Stitching of video ID {} is already in progress, segment {} not stitching again",
+                    videoId, segmentIndex);
+        }
+        return claimed;
+    }
+
+    /**
+     * Birleştirmeyi üstlenen worker öldüyse (claim stitch-lease'ten eski) segment 0 mesajını yeniden gönderir;
+     * mesajı alan worker claim'i devralıp birleştirir. İş önceliği segment satırlarında tutulmaz, MEDIUM kullanılır.
+     */
+    @Scheduled(fixedDelayString = "${video.segments.stitch-check-interval-ms:300000}")
+    public void resumeStaleStitches() {
+        try {
+            List<Long> stale = segmentRepository.findVideoIdsWithStaleStitch(
+                    LocalDateTime.now().minusMinutes(stitchLeaseMinutes));
+            for (Long videoId : stale) {
+                logger.warn("Stitching of video ID {} exceeded its lease, dispatching it again", videoId);
+                sendSegmentTask(videoId, 0, null);
+            }
+        } catch (Exception e) {
+            logger.warn("Failed to check for stale stitches: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return parçanın şimdiye kadarki başarısız deneme sayısı
+     */
+    @Transactional
+    public int recordFailure(Long videoId, int segmentIndex) {
+        VideoSegmentEntity segment = segmentRepository.findByVideoIdAndSegmentIndex(videoId, segmentIndex).orElse(null);
+        if (segment == null) {
+            return Integer.MAX_VALUE;
+        }
+        segment.setAttempts(segment.getAttempts() + 1);
+        return segmentRepository.save(segment).getAttempts();
+    }
+
+    public List<VideoSegmentEntity> segments(Long videoId) {
+        return segmentRepository.findByVideoIdOrderBySegmentIndex(videoId);
+    }
+
+    /**
+     * Birleştirilmiş çıktıyı TRANSCODING stage sonucu olarak koordinatöre gönderir ve parçaları siler.
+     */
+    public void complete(Long videoId, Integer priority, String processedPath) {
+        StageCompletedMessageDto result = result(videoId, priority);
+        result.setSuccess(true);
+        result.setProcessedPath(processedPath);
+        result.setTranscodeMode(TranscodeMode.SEGMENTED_TRANSCODE);
+        rabbitTemplate.convertAndSend(RabbitMQConfig.VIDEO_PROCESSING_EXCHANGE,
+                RabbitMQConfig.VIDEO_STAGE_COMPLETED_ROUTING_KEY, result);
+        discard(videoId);
+    }
+
+    public void fail(Long videoId, Integer priority, String errorMessage) {
+        StageCompletedMessageDto result = result(videoId, priority);
+        result.setErrorMessage(errorMessage);
+        rabbitTemplate.convertAndSend(RabbitMQConfig.VIDEO_PROCESSING_EXCHANGE,
+                RabbitMQConfig.VIDEO_STAGE_COMPLETED_ROUTING_KEY, result);
+        discard(videoId);
+    }
+
+    /**
+     * Parça dosyalarını ve satırlarını siler (iş bitti, başarısız oldu veya iptal edildi).
+     */
+    @Transactional
+    public void discard(Long videoId) {
+        List<VideoSegmentEntity> segments = segmentRepository.findByVideoIdOrderBySegmentIndex(videoId);
+        if (segments.isEmpty()) {
+            return;
+        }
+        segments.forEach(this::deleteOutput);
+        String source = segments.get(0).getSourcePath();
+        videoStorage.deleteDirectory(source.substring(0, source.lastIndexOf('/')));
+        segmentRepository.deleteByVideoId(videoId);
+        logger.info("Discarded {} segments of video ID: {}", segments.size(), videoId);
+    }
+
+    private StageCompletedMessageDto result(Long videoId, Integer priority) {
+        StageCompletedMessageDto result = new StageCompletedMessageDto();
+        result.setVideoId(videoId);
+        result.setStage(VideoProcessingPipeline.TRANSCODE_STAGE);
+        result.setPriority(priority);
+        // Split'ten birleştirmeye kadar geçen süre
+        result.setDurationMs(segmentRepository.findByVideoIdAndSegmentIndex(videoId, 0)
+                .map(first -> Duration.between(first.getCreatedAt(), LocalDateTime.now()).toMillis())
+                .orElse(null));
+        return result;
+    }
+
+    private void deleteOutput(VideoSegmentEntity segment) {
+        if (segment.getOutputPath() != null) {
+            videoStorage.delete(segment.getOutputPath());
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private void sendSegmentTask(Long videoId, int segmentIndex, Integer priority) {
+        rabbitTemplate.convertAndSend(RabbitMQConfig.VIDEO_PROCESSING_EXCHANGE, RabbitMQConfig.VIDEO_SEGMENT_ROUTING_KEY,
+                new SegmentTaskMessageDto(videoId, segmentIndex, priority),
+                message -> {
+                    if (priority != null) {
+                        message.getMessageProperties().setPriority(priority);
+                    }
+                    message.getMessageProperties().setContentType("application/json");
+                    return message;
+                });
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.videoprocessor.service.segment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Segment-paralel encode'un saf yardımcıları: bölme listesi, concat listesi ve süre doğrulaması.
+ */
+public final class SegmentPlan {
+
+    /**
+     * Segment muxer'ının CSV listesindeki bir satır: dosya adı, başlangıç ve bitiş (saniye).
+     */
+    public record Span(String fileName, double startSeconds, double endSeconds) {
+
+        public double durationSeconds() {
+            return endSeconds - startSeconds;
+        }
+    }
+
+    private SegmentPlan() {
+    }
+
+    /**
+     * "src_00000.mkv,0.000000,60.060000" satırlarını okur; boş satırlar atlanır.
+     */
+    public static List<Span> parseSegmentList(List<String> lines) {
+        List<Span> spans = new ArrayList<>();
+        for (String line : lines) {
+            if (line.isBlank()) {
+                continue;
+            }
+            // Dosya adında virgül olabilir; son iki alan zamanlardır
+            int endComma = line.lastIndexOf(',');
+            int startComma = endComma > 0 ? line.lastIndexOf(',', endComma - 1) : -1;
+            if (startComma <= 0) {
+                throw new IllegalArgumentException("Invalid segment list entry: " + line);
+            }
+            spans.add(new Span(unquote(line.substring(0, startComma).trim()),
+                    Double.parseDouble(line.substring(startComma + 1, endComma).trim()),
+                    Double.parseDouble(line.substring(endComma + 1).trim())));
+        }
+        return spans;
+    }
+
+    /**
+     * concat demuxer girdisi; yollar tek tırnak içinde, içlerindeki tırnaklar kaçışlı.
+     */
+    public static String concatList(List<String> paths) {
+        StringBuilder list = new StringBuilder();
+        for (String path : paths) {
+            list.append("file '").append(path.replace("'", "'\\''")).append("'\n");
+        }
+        return list.toString();
+    }
+
+    /**
+     * Birleştirilmiş çıktının süresi kaynağınkinden tolerans kadar sapıyorsa parça kaybı/çakışması vardır.
+     */
+    public static void verifyDuration(Double expectedSeconds, Double actualSeconds, double toleranceSeconds) {
+        if (expectedSeconds == null) {
+            return;
+        }
+        if (actualSeconds == null || Math.abs(actualSeconds - expectedSeconds) > toleranceSeconds) {
+            throw new IllegalStateException(String.format(
+                    "Segmented transcode duration mismatch: expected %.3f s, got %s s",
+                    expectedSeconds, actualSeconds == null ? "unknown" : String.format("%.3f", actualSeconds)));
+        }
+    }
+
+    // CSV'de özel karakterli adlar çift tırnakla yazılır ("" kaçışlı)
+    private static String unquote(String field) {
+        if (field.length() >= 2 && field.startsWith("\"") && field.endsWith("\"")) {
+            return field.substring(1, field.length() - 1).replace("\"\"", "\"");
+        }
+        return field;
+    }
+}
@@ -0,0 +1,243 @@
+package com.example.videoprocessor.service.segment;
+
+import com.example.videoprocessor.dto.VideoMetadataDto;
+import com.example.videoprocessor.entity.VideoEntity;
+import com.example.videoprocessor.entity.VideoSegmentEntity;
+import com.example.videoprocessor.entity.enums.TranscodeMode;
+import com.example.videoprocessor.service.admission.AdmissionController;
+import com.example.videoprocessor.service.ffmpeg.FFmpegProgressListener;
+import com.example.videoprocessor.service.ffmpeg.FFmpegService;
+import com.example.videoprocessor.service.ffmpeg.FFprobeService;
+import com.example.videoprocessor.service.ffmpeg.command.FFmpegCommand;
+import com.example.videoprocessor.service.ffmpeg.command.PreviewClipOutput;
+import com.example.videoprocessor.service.ffmpeg.command.RemuxOutput;
+import com.example.videoprocessor.service.ffmpeg.command.SegmentEncodeOutput;
+import com.example.videoprocessor.service.ffmpeg.command.SegmentSplitOutput;
+import com.example.videoprocessor.service.ffmpeg.command.TranscodeOutput;
+import com.example.videoprocessor.service.job.JobCancelledException;
+import com.example.videoprocessor.service.job.RunningJob;
+import com.example.videoprocessor.service.job.RunningJobRegistry;
+import com.example.videoprocessor.service.pipeline.VideoProcessingPipeline;
+import com.example.videoprocessor.service.storage.LocalFile;
+import com.example.videoprocessor.service.storage.LocalVideoStorage;
+import com.example.videoprocessor.service.storage.StorageArea;
+import com.example.videoprocessor.service.storage.StorageLifecycleService;
+import com.example.videoprocessor.service.storage.VideoStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Segment-paralel encode'un ffmpeg tarafı: bölme, parça encode ve birleştirme (akış için bkz. SegmentCoordinator).
+ * Parçalar VideoStorage üzerinden paylaşılır; local backend'de segment dizini tüm node'lardan erişilebilir olmalı.
+ */
+@Component
+public class SegmentedTranscoder {
+
+    private static final Logger logger = LoggerFactory.getLogger(SegmentedTranscoder.class);
+
+    @Autowired
+    private FFmpegService ffmpegService;
+
+    @Autowired
+    private FFprobeService ffprobeService;
+
+    @Autowired
+    private VideoStorage videoStorage;
+
+    @Autowired
+    private RunningJobRegistry jobRegistry;
+
+    @Autowired
+    private AdmissionController admissionController;
+
+    @Autowired
+    private StorageLifecycleService storageLifecycleService;
+
+    @Autowired
+    private VideoProcessingPipeline videoProcessingPipeline;
+
+    @Autowired
+    private SegmentCoordinator segmentCoordinator;
+
+    @Value("${video.segments.enabled:true}")
+    private boolean enabled;
+
+    @Value("${video.segments.min-duration-seconds:600}")
+    private double minDurationSeconds;
+
+    @Value("${video.segments.segment-seconds:60}")
+    private int segmentSeconds;
+
+    @Value("${video.segments.duration-tolerance-seconds:1.0}")
+    private double durationToleranceSeconds;
+
+    // HLS basamakları tek decode'dan üretilir; segment yolu sadece mp4 hedefi için
+    @Value("${video.hls.enabled:false}")
+    private boolean hlsEnabled;
+
+    @Value("${video.preview.clip-seconds:0}")
+    private int previewClipSeconds;
+
+    @Value("${video.preview.height:360}")
+    private int previewHeight;
+
+    public record EncodedSegment(String outputPath, String previewPath) {
+    }
+
+    /**
+     * Uzun ve tam encode gerektiren videolar parçalanır; remux yolu zaten saniyeler sürer.
+     */
+    public boolean accepts(VideoEntity video) {
+        VideoMetadataDto metadata = video.getMetadata();
+        return enabled && !hlsEnabled && metadata != null && metadata.getDurationSeconds() != null
+                && metadata.getDurationSeconds() >= minDurationSeconds
+                && videoProcessingPipeline.transcodeMode(metadata) == TranscodeMode.FULL_TRANSCODE;
+    }
+
+    /**
+     * Girdiyi keyframe'lerden stream copy ile böler, parçaları depoya alır ve segment kuyruğuna dağıtır.
+     */
+    public void split(VideoEntity video, Integer priority) throws Exception {
+        RunningJob job = jobRegistry.register(video.getId());
+        storageLifecycleService.touch(video.getId());
+        long startTime = System.currentTimeMillis();
+
+        Path directory = videoStorage.stagingDirectory(StorageArea.SEGMENTS).resolve(video.getFilename() + "_segments");
+        try (LocalFile input = videoStorage.localize(video.getOriginalPath())) {
+            LocalVideoStorage.deleteTree(directory);
+            job.addOutputPath(directory.toString());
+            Path list = directory.resolve("segments.csv");
+            ffmpegService.run(FFmpegCommand.builder(input.getPath().toString())
+                    .output(new SegmentSplitOutput(directory.resolve("src_%05d.mkv").toString(), segmentSeconds,
+                            list.toString()))
+                    .build(), FFmpegProgressListener.NONE, job);
+            job.throwIfCancelled();
+
+            List<SegmentPlan.Span> spans = SegmentPlan.parseSegmentList(Files.readAllLines(list, StandardCharsets.UTF_8));
+            Files.delete(list);
+            if (spans.isEmpty()) {
+                throw new IllegalStateException("Segment split produced no segments");
+            }
+            String location = videoStorage.importDirectory(StorageArea.SEGMENTS, directory);
+            if (!segmentCoordinator.register(video.getId(), spans, location, priority)) {
+                videoStorage.deleteDirectory(location);
+                return;
+            }
+            logger.info("Split video ID {} into {} segments in {} ms",
+                    video.getId(), spans.size(), System.currentTimeMillis() - startTime);
+        } catch (JobCancelledException e) {
+            job.deleteOutputs();
+            throw e;
+        } finally {
+            jobRegistry.unregister(job);
+        }
+    }
+
+    /**
+     * Tek bir parçayı hedef ayarlarla encode eder (ses hariç); ilk parça önizleme klibini de üretir.
+     */
+    public EncodedSegment encode(VideoEntity video, VideoSegmentEntity segment) throws Exception {
+        RunningJob job = jobRegistry.register(video.getId());
+        try (LocalFile source = videoStorage.localize(segment.getSourcePath())) {
+            Path output = videoStorage.stagingDirectory(StorageArea.SEGMENTS)
+                    .resolve(String.format("%s_enc_%05d.ts", video.getFilename(), segment.getSegmentIndex()));
+            TranscodeOutput target = TranscodeOutput.defaultMp4(ffmpegService.processedPath(video.getFilename()));
+            FFmpegCommand.Builder command = FFmpegCommand.builder(source.getPath().toString())
+                    .output(new SegmentEncodeOutput(output.toString(), target));
+
+            String previewPath = null;
+            // Hızlı önizleme açıksa PREVIEW stage'i önizlemeyi zaten üretti
+            if (segment.getSegmentIndex() == 0 && previewClipSeconds > 0 && !videoProcessingPipeline.isFastPreviewEnabled()) {
+                previewPath = ffmpegService.previewPath(video.getFilename());
+                command.output(new PreviewClipOutput(previewPath, previewClipSeconds, previewHeight));
+            }
+
+            // Bütçeden parçanın maliyeti kadar pay ayrılır; uzun iş sayılmaz
+            try (AdmissionController.Permit permit = admissionController.admit(video.getId(),
+                    segmentMetadata(video.getMetadata(), segment))) {
+                job.throwIfCancelled();
+                command.threads(permit.getThreads());
+                ffmpegService.run(command.build(), FFmpegProgressListener.NONE, job);
+            }
+            job.throwIfCancelled();
+
+            return new EncodedSegment(videoStorage.importFile(StorageArea.SEGMENTS, output),
+                    previewPath != null ? videoStorage.importFile(StorageArea.PROCESSED, Paths.get(previewPath)) : null);
+        } catch (JobCancelledException e) {
+            job.deleteOutputs();
+            throw e;
+        } finally {
+            jobRegistry.unregister(job);
+        }
+    }
+
+    /**
+     * Parçaları concat demuxer ile yeniden encode etmeden birleştirir, sesi orijinalden AAC olarak ekler
+     * ve çıktı süresini kaynakla karşılaştırır.
+     *
+     * @return işlenmiş videonun location'ı
+     */
+    public String stitch(VideoEntity video, List<VideoSegmentEntity> segments) throws Exception {
+        RunningJob job = jobRegistry.register(video.getId());
+        long startTime = System.currentTimeMillis();
+        Path concatList = videoStorage.stagingDirectory(StorageArea.SEGMENTS).resolve(video.getFilename() + "_concat.txt");
+        String processedPath = ffmpegService.processedPath(video.getFilename());
+        List<LocalFile> parts = new ArrayList<>();
+
+        try (LocalFile original = videoStorage.localize(video.getOriginalPath())) {
+            List<String> partPaths = new ArrayList<>();
+            for (VideoSegmentEntity segment : segments) {
+                LocalFile part = videoStorage.localize(segment.getOutputPath());
+                parts.add(part);
+                partPaths.add(part.getPath().toAbsolutePath().toString());
+            }
+            Files.writeString(concatList, SegmentPlan.concatList(partPaths), StandardCharsets.UTF_8);
+
+            TranscodeOutput target = TranscodeOutput.defaultMp4(processedPath);
+            ffmpegService.run(FFmpegCommand.builder(concatList.toString())
+                    .inputArgs("-f", "concat", "-safe", "0")
+                    .audioFrom(original.getPath().toString())
+                    .output(new RemuxOutput(processedPath, true, target.getAudioBitrate()))
+                    .build(), FFmpegProgressListener.NONE, job);
+            job.throwIfCancelled();
+
+            VideoMetadataDto stitched = ffprobeService.probe(processedPath);
+            SegmentPlan.verifyDuration(video.getMetadata() != null ? video.getMetadata().getDurationSeconds() : null,
+                    stitched.getDurationSeconds(), durationToleranceSeconds);
+
+            String location = videoStorage.importFile(StorageArea.PROCESSED, Paths.get(processedPath));
+            logger.info("Stitched {} segments of video ID {} in {} ms",
+                    segments.size(), video.getId(), System.currentTimeMillis() - startTime);
+            return location;
+        } catch (Exception e) {
+            Files.deleteIfExists(Paths.get(processedPath));
+            throw e;
+        } finally {
+            parts.forEach(LocalFile::close);
+            Files.deleteIfExists(concatList);
+            jobRegistry.unregister(job);
+        }
+    }
+
+    // Admission maliyeti parçanın süresiyle hesaplanır
+    private static VideoMetadataDto segmentMetadata(VideoMetadataDto metadata, VideoSegmentEntity segment) {
+        VideoMetadataDto scaled = new VideoMetadataDto();
+        if (metadata != null) {
+            scaled.setWidth(metadata.getWidth());
+            scaled.setHeight(metadata.getHeight());
+            scaled.setFrameRate(metadata.getFrameRate());
+        }
+        scaled.setDurationSeconds(segment.getDurationSeconds());
+        return scaled;
+    }
+}
@@ -0,0 +1,305 @@
+package com.example.videoprocessor.service.stage;
+
+import com.example.videoprocessor.config.RabbitMQConfig;
+import com.example.videoprocessor.dto.StageCompletedMessageDto;
+import com.example.videoprocessor.dto.StageTaskMessageDto;
+import com.example.videoprocessor.entity.VideoEntity;
+import com.example.videoprocessor.entity.enums.VideoStatus;
+import com.example.videoprocessor.repository.VideoRepository;
+import com.example.videoprocessor.service.VideoStatusWriter;
+import com.example.videoprocessor.service.events.VideoStatusChangedEvent;
+import com.example.videoprocessor.service.pipeline.ProcessingContext;
+import com.example.videoprocessor.service.pipeline.VideoProcessingPipeline;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * STAGE COORDINATOR (video.pipeline.mode=staged)
+ *
+ *   PREVIEW                        (hızlı önizleme, transcode node'larında öncelikli; video.preview.fast.enabled)
+ *   METADATA ──┬──> THUMBNAIL      (küçük node'lar, saniyeler içinde)
+ *              └──> TRANSCODING    (büyük node'lar, ayrı ölçeklenir; önizleme açıksa düşük öncelikle)
+ *
+ * - Bağımlılığı olmayan stage'ler hemen kendi kuyruklarına gönderilir
+ * - Worker'lar sonucu completion kuyruğuna yazar; koordinatör video satırını kilitleyip (SELECT ... FOR UPDATE)
+ *   sonucu birleştirir ve bağımlılıkları tamamlanan stage'leri gönderir
+ * - Tüm stage'ler bitince video COMPLETED, herhangi biri hata verirse FAILED olur
+ * - Önizleme hazır olunca video COMPLETED olana kadar PREVIEW_READY kalır; önizleme hatası videoyu düşürmez
+ * - Stage mesajları transaction commit edildikten sonra gönderilir; worker her zaman güncel satırı görür
+ * - Uzun videolarda TRANSCODING parçalara bölünüp segment kuyruğunda paralel encode edilir; sonucu
+ *   birleştirmeyi yapan worker gönderir (bkz. SegmentCoordinator)
+ */
+@Component
+public class StageCoordinator {
+
+    private static final Logger logger = LoggerFactory.getLogger(StageCoordinator.class);
+
+    static final Map<String, Set<String>> STAGE_DEPENDENCIES = new LinkedHashMap<>();
+    // Hızlı önizleme açıkken: PREVIEW hiçbir şeyi beklemez, METADATA ile birlikte hemen gönderilir
+    static final Map<String, Set<String>> PREVIEW_FIRST_STAGE_DEPENDENCIES = new LinkedHashMap<>();
+    private static final Map<String, Integer> STAGE_WEIGHTS = Map.of(
+            VideoProcessingPipeline.METADATA_STAGE, 10,
+            VideoProcessingPipeline.THUMBNAIL_STAGE, 10,
+            VideoProcessingPipeline.TRANSCODE_STAGE, 70);
+    private static final int START_PROGRESS = 10;
+    // API'deki MEDIUM önceliği (bkz. PriorityTier)
+    private static final int DEFAULT_PRIORITY = 5;
+
+    static {
+        STAGE_DEPENDENCIES.put(VideoProcessingPipeline.METADATA_STAGE, Set.of());
+        STAGE_DEPENDENCIES.put(VideoProcessingPipeline.THUMBNAIL_STAGE, Set.of(VideoProcessingPipeline.METADATA_STAGE));
+        STAGE_DEPENDENCIES.put(VideoProcessingPipeline.TRANSCODE_STAGE, Set.of(VideoProcessingPipeline.METADATA_STAGE));
+
+        PREVIEW_FIRST_STAGE_DEPENDENCIES.put(VideoProcessingPipeline.METADATA_STAGE, Set.of());
+        PREVIEW_FIRST_STAGE_DEPENDENCIES.put(VideoProcessingPipeline.PREVIEW_STAGE, Set.of());
+        PREVIEW_FIRST_STAGE_DEPENDENCIES.putAll(STAGE_DEPENDENCIES);
+    }
+
+    @Autowired
+    private VideoRepository videoRepository;
+
+    @Autowired
+    private VideoProcessingPipeline videoProcessingPipeline;
+
+    @Autowired
+    private VideoStatusWriter statusWriter;
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    // Önizlemeler kuyrukta bekleyen tam kalite encode'ların önüne geçsin diye transcode mesajının önceliği düşürülür
+    @Value("${video.preview.fast.transcode-priority-drop:4}")
+    private int transcodePriorityDrop;
+
+    /**
+     * İşi stage kuyruklarına dağıtır. Kuyruktan alınan FULL_PROCESSING mesajı için çağrılır.
+     */
+    @Transactional
+    public void start(Long videoId, Integer priority) {
+        VideoEntity video = videoRepository.findByIdForUpdate(videoId).orElse(null);
+        if (video == null || VideoStatusWriter.isTerminal(video.getStatus())) {
+            logger.info("Not starting stages for video ID {}: {}", videoId, video == null ? "not found" : video.getStatus());
+            return;
+        }
+
+        List<String> ready = readyStages(stageGraph(), Set.of(), null);
+        video.setCompletedStages(null);
+        video.setPreviewReadyAt(null);
+        video.setProcessingStartTime(LocalDateTime.now());
+        video.setStatus(VideoProcessingPipeline.runningStatus(ready.get(0)));
+        video.setProgressPercentage(START_PROGRESS);
+        publishStatus(video);
+        dispatchAfterCommit(videoId, ready, priority);
+        logger.info("Dispatched stages {} for video ID: {}", ready, videoId);
+    }
+
+    @Transactional
+    public void onStageCompleted(StageCompletedMessageDto result) throws Exception {
+        VideoEntity video = videoRepository.findByIdForUpdate(result.getVideoId()).orElse(null);
+        if (video == null) {
+            logger.warn("Stage {} completed for unknown video ID: {}", result.getStage(), result.getVideoId());
+            return;
+        }
+        if (VideoStatusWriter.isTerminal(video.getStatus())) {
+            logger.info("Ignoring stage {} result for video ID {} in status {}",
+                    result.getStage(), video.getId(), video.getStatus());
+            return;
+        }
+
+        Set<String> completed = parseStages(video.getCompletedStages());
+        if (completed.contains(result.getStage())) {
+            logger.debug("Duplicate completion of stage {} for video ID {}", result.getStage(), video.getId());
+            return;
+        }
+
+        if (result.isCancelled()) {
+            // CANCELLED durumu iptal isteğinde yazıldı
+            return;
+        }
+        boolean previewStage = VideoProcessingPipeline.PREVIEW_STAGE.equals(result.getStage());
+        if (!result.isSuccess() && previewStage) {
+            // Önizleme sadece bekleme süresini kısaltır; tam kalite encode yine de tamamlanır
+            logger.warn("Preview failed for video ID {}, waiting for full transcode: {}",
+                    video.getId(), result.getErrorMessage());
+        } else if (!result.isSuccess()) {
+            logger.error("Stage {} failed for video ID {}: {}", result.getStage(), video.getId(), result.getErrorMessage());
+            video.setStatus(VideoStatus.FAILED);
+            video.setErrorMessage(result.getErrorMessage());
+            video.setProgressPercentage(0);
+            video.setProcessingEndTime(LocalDateTime.now());
+            statusWriter.writeTerminal(video);
+            return;
+        }
+
+        ProcessingContext context = new ProcessingContext(video.getId(), video.getOriginalPath(), video.getFilename(), null);
+        context.setMetadata(result.getMetadata());
+        context.setThumbnailPath(result.getThumbnailPath());
+        context.setProcessedPath(result.getProcessedPath());
+        context.setPreviewPath(result.getPreviewPath());
+        context.setThumbnailPaths(result.getThumbnailPaths());
+        context.setSpritePath(result.getSpritePath());
+        context.setStoryboardPath(result.getStoryboardPath());
+        context.setTranscodeMode(result.getTranscodeMode());
+        context.setHlsManifestPath(result.getHlsManifestPath());
+        videoProcessingPipeline.applyResults(video, context);
+
+        completed.add(result.getStage());
+        video.setCompletedStages(String.join(",", completed));
+        logger.info("Stage {} completed for video ID {} in {} ms", result.getStage(), video.getId(), result.getDurationMs());
+        if (previewStage && result.getPreviewPath() != null) {
+            video.setPreviewReadyAt(LocalDateTime.now());
+            logger.info("Preview of video ID {} playable {} ms after upload", video.getId(),
+                    Duration.between(video.getCreatedAt(), video.getPreviewReadyAt()).toMillis());
+        }
+
+        Map<String, Set<String>> graph = stageGraph();
+        if (completed.containsAll(graph.keySet())) {
+            video.setStatus(VideoStatus.COMPLETED);
+            video.setProgressPercentage(100);
+            video.setProcessingEndTime(LocalDateTime.now());
+            statusWriter.writeTerminal(video);
+            logger.info("All stages completed for video ID: {}", video.getId());
+            return;
+        }
+
+        List<String> ready = readyStages(graph, completed, result.getStage());
+        List<String> running = runningStages(graph, completed);
+        if (video.getPreviewReadyAt() != null && completed.contains(VideoProcessingPipeline.PREVIEW_STAGE)) {
+            video.setStatus(VideoStatus.PREVIEW_READY);
+        } else {
+            video.setStatus(running.isEmpty()
+                    ? VideoProcessingPipeline.completedStatus(result.getStage())
+                    : VideoProcessingPipeline.runningStatus(running.get(running.size() - 1)));
+        }
+        int progress = START_PROGRESS + completed.stream().mapToInt(stage -> STAGE_WEIGHTS.getOrDefault(stage, 0)).sum();
+        video.setProgressPercentage(Math.max(progress,
+                video.getProgressPercentage() != null ? video.getProgressPercentage() : 0));
+        publishStatus(video);
+
+        if (!ready.isEmpty()) {
+            dispatchAfterCommit(video.getId(), ready, result.getPriority());
+            logger.info("Dispatched stages {} for video ID: {}", ready, video.getId());
+        }
+    }
+
+    /**
+     * Bağımlılıkları tamamlanmış, henüz bitmemiş stage'ler. justCompleted verilirse sadece ona bağlı olanlar
+     * (daha önce gönderilmiş stage'ler tekrar gönderilmez).
+     */
+    static List<String> readyStages(Set<String> completed, String justCompleted) {
+        return readyStages(STAGE_DEPENDENCIES, completed, justCompleted);
+    }
+
+    static List<String> readyStages(Map<String, Set<String>> graph, Set<String> completed, String justCompleted) {
+        List<String> ready = new ArrayList<>();
+        graph.forEach((stage, dependencies) -> {
+            if (!completed.contains(stage) && completed.containsAll(dependencies)
+                    && (justCompleted == null ? dependencies.isEmpty() : dependencies.contains(justCompleted))) {
+                ready.add(stage);
+            }
+        });
+        return ready;
+    }
+
+    static List<String> runningStages(Set<String> completed) {
+        return runningStages(STAGE_DEPENDENCIES, completed);
+    }
+
+    static List<String> runningStages(Map<String, Set<String>> graph, Set<String> completed) {
+        List<String> running = new ArrayList<>();
+        graph.forEach((stage, dependencies) -> {
+            if (!completed.contains(stage) && completed.containsAll(dependencies)) {
+                running.add(stage);
+            }
+        });
+        return running;
+    }
+
+    static Set<String> parseStages(String stages) {
+        Set<String> parsed = new LinkedHashSet<>();
+        if (stages != null && !stages.isBlank()) {
+            parsed.addAll(Arrays.asList(stages.split(",")));
+        }
+        return parsed;
+    }
+
+    /**
+     * Transcode mesajı, önizleme açıkken kuyrukta düşük öncelikle gönderilir; diğer stage'ler işin kendi önceliğini korur.
+     * Sadece broker'daki mesaj önceliğidir: mesajın taşıdığı iş önceliği (scheduler seviyesi) değişmez.
+     */
+    static Integer stagePriority(String stage, Integer priority, boolean fastPreview, int transcodePriorityDrop) {
+        if (!fastPreview || !VideoProcessingPipeline.TRANSCODE_STAGE.equals(stage)) {
+            return priority;
+        }
+        return Math.max(0, (priority != null ? priority : DEFAULT_PRIORITY) - transcodePriorityDrop);
+    }
+
+    private Map<String, Set<String>> stageGraph() {
+        return videoProcessingPipeline.isFastPreviewEnabled() ? PREVIEW_FIRST_STAGE_DEPENDENCIES : STAGE_DEPENDENCIES;
+    }
+
+    private void publishStatus(VideoEntity video) {
+        eventPublisher.publishEvent(new VideoStatusChangedEvent(video.getId(), video.getStatus(),
+                video.getProgressPercentage(), null));
+    }
+
+    private void dispatchAfterCommit(Long videoId, List<String> stages, Integer priority) {
+        boolean fastPreview = videoProcessingPipeline.isFastPreviewEnabled();
+        Runnable dispatch = () -> stages.forEach(stage -> sendStageTask(videoId, stage, priority,
+                stagePriority(stage, priority, fastPreview, transcodePriorityDrop)));
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dispatch.run();
+                }
+            });
+        } else {
+            dispatch.run();
+        }
+    }
+
+    private void sendStageTask(Long videoId, String stage, Integer priority, Integer messagePriority) {
+        rabbitTemplate.convertAndSend(RabbitMQConfig.VIDEO_PROCESSING_EXCHANGE, routingKey(stage),
+                new StageTaskMessageDto(videoId, stage, priority),
+                message -> {
+                    if (messagePriority != null) {
+                        message.getMessageProperties().setPriority(messagePriority);
+                    }
+                    message.getMessageProperties().setContentType("application/json");
+                    return message;
+                });
+    }
+
+    private String routingKey(String stage) {
+        return switch (stage) {
+            case VideoProcessingPipeline.METADATA_STAGE -> RabbitMQConfig.VIDEO_STAGE_METADATA_ROUTING_KEY;
+            case VideoProcessingPipeline.THUMBNAIL_STAGE -> RabbitMQConfig.VIDEO_STAGE_THUMBNAIL_ROUTING_KEY;
+            // Önizleme transcode worker'larında, bekleyen tam kalite encode'lardan önce çalışır
+            case VideoProcessingPipeline.TRANSCODE_STAGE, VideoProcessingPipeline.PREVIEW_STAGE ->
+                    RabbitMQConfig.VIDEO_STAGE_TRANSCODE_ROUTING_KEY;
+            default -> throw new IllegalArgumentException("Unknown stage: " + stage);
+        };
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.videoprocessor.service.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * İşleme için yerel diskte erişilebilen dosya. Uzak depodan indirilmiş geçici bir kopyaysa close() ile silinir.
+ * Kopyanın yolu her seferinde farklıdır; dosyayı kalıcı olarak tanımlamak için location + version kullanılır
+ * (S3'te ETag; yerel dosyalarda version null, dosyanın kendisi belirleyicidir).
+ */
+public class LocalFile implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(LocalFile.class);
+
+    private final Path path;
+    private final boolean temporary;
+    private final String location;
+    private final String version;
+
+    public LocalFile(Path path, boolean temporary) {
+        this(path, temporary, path.toString(), null);
+    }
+
+    public LocalFile(Path path, boolean temporary, String location, String version) {
+        this.path = path;
+        this.temporary = temporary;
+        this.location = location;
+        this.version = version;
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public boolean isTemporary() {
+        return temporary;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public String getVersion() {
+        return version;
+    }
+
+    @Override
+    public void close() {
+        if (!temporary) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            logger.warn("Could not delete temporary copy {}: {}", path, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.example.videoprocessor.service.storage;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Paylaşılan volume veya tek node için yerel dosya sistemi deposu; dosyalar staging dizinlerinde kalır.
+ */
+@Component
+@ConditionalOnProperty(name = "video.storage.backend", havingValue = "local", matchIfMissing = true)
+public class LocalVideoStorage implements VideoStorage {
+
+    @Value("${video.upload.dir}")
+    private String uploadDir;
+
+    @Value("${video.processed.dir}")
+    private String processedDir;
+
+    @Value("${video.thumbnail.dir}")
+    private String thumbnailDir;
+
+    @Value("${video.segments.dir:/app/segments/}")
+    private String segmentDir;
+
+    @Override
+    public Path stagingDirectory(StorageArea area) throws IOException {
+        Path directory = Paths.get(switch (area) {
+            case UPLOADS -> uploadDir;
+            case PROCESSED -> processedDir;
+            case THUMBNAILS -> thumbnailDir;
+            case SEGMENTS -> segmentDir;
+        }).toAbsolutePath();
+        Files.createDirectories(directory);
+        return directory;
+    }
+
+    @Override
+    public String importFile(StorageArea area, Path localFile) {
+        return localFile.toAbsolutePath().toString();
+    }
+
+    @Override
+    public String importDirectory(StorageArea area, Path localDirectory) {
+        return localDirectory.toAbsolutePath().toString();
+    }
+
+    @Override
+    public LocalFile localize(String location) {
+        return new LocalFile(Paths.get(location), false);
+    }
+
+    @Override
+    public InputStream openRange(String location, long start, long endInclusive) throws IOException {
+        return openFileRange(Paths.get(location), start, endInclusive);
+    }
+
+    @Override
+    public long size(String location) throws IOException {
+        return Files.size(Paths.get(location));
+    }
+
+    @Override
+    public boolean exists(String location) {
+        return Files.isRegularFile(Paths.get(location));
+    }
+
+    @Override
+    public boolean delete(String location) {
+        try {
+            return Files.deleteIfExists(Paths.get(location));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean deleteDirectory(String location) {
+        try {
+            return deleteTree(Paths.get(location));
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Dizini içindekilerle birlikte siler; yoksa false.
+     */
+    public static boolean deleteTree(Path root) throws IOException {
+        if (!Files.exists(root)) {
+            return false;
+        }
+        try (Stream<Path> paths = Files.walk(root)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public Path resolveLocal(String location) {
+        return Paths.get(location);
+    }
+
+    @Override
+    public URI presignedUrl(String location, Duration ttl) {
+        return null;
+    }
+
+    @Override
+    public boolean usesLocalDisk() {
+        return true;
+    }
+
+    static InputStream openFileRange(Path path, long start, long endInclusive) throws IOException {
+        InputStream in = Files.newInputStream(path);
+        try {
+            in.skipNBytes(start);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+        long length = endInclusive - start + 1;
+        return new FilterInputStream(in) {
+            private long remaining = length;
+
+            @Override
+            public int read() throws IOException {
+                if (remaining <= 0) {
+                    return -1;
+                }
+                int b = super.read();
+                if (b >= 0) {
+                    remaining--;
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] buffer, int offset, int len) throws IOException {
+                if (remaining <= 0) {
+                    return -1;
+                }
+                int read = super.read(buffer, offset, (int) Math.min(len, remaining));
+                if (read > 0) {
+                    remaining -= read;
+                }
+                return read;
+            }
+        };
+    }
+}
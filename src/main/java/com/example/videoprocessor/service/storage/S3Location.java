@@ -0,0 +1,30 @@
+package com.example.videoprocessor.service.storage;
+
+/**
+ * "s3://bucket/key" biçimindeki location.
+ */
+public record S3Location(String bucket, String key) {
+
+    public static final String SCHEME = "s3://";
+
+    public static boolean isS3(String location) {
+        return location != null && location.startsWith(SCHEME);
+    }
+
+    public static S3Location parse(String location) {
+        if (!isS3(location)) {
+            throw new IllegalArgumentException("Not an S3 location: " + location);
+        }
+        String rest = location.substring(SCHEME.length());
+        int slash = rest.indexOf('/');
+        if (slash <= 0 || slash == rest.length() - 1) {
+            throw new IllegalArgumentException("Invalid S3 location: " + location);
+        }
+        return new S3Location(rest.substring(0, slash), rest.substring(slash + 1));
+    }
+
+    @Override
+    public String toString() {
+        return SCHEME + bucket + "/" + key;
+    }
+}
@@ -0,0 +1,448 @@
+package com.example.videoprocessor.service.storage;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.stereotype.Component;
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.ResponseInputStream;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.http.apache.ApacheHttpClient;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3Configuration;
+import software.amazon.awssdk.services.s3.model.CompletedPart;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectResponse;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Response;
+import software.amazon.awssdk.services.s3.model.NoSuchBucketException;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
+import software.amazon.awssdk.services.s3.model.S3Exception;
+import software.amazon.awssdk.services.s3.presigner.S3Presigner;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.stream.Stream;
+
+/**
+ * S3 uyumlu nesne deposu (AWS S3, MinIO...). Node'ların ortak volume'a ihtiyacı kalmaz.
+ * - part-size'dan büyük dosyalar multipart upload ile, part'lar paralel gönderilir
+ * - Worker'lar girdiyi paralel ranged GET'lerle yerel scratch dizinine indirir (ffmpeg seek için dosya ister)
+ * - DB'de eski yerel yollar varsa (s3:// ile başlamayan) yerel dosya olarak ele alınır
+ */
+@Component
+@ConditionalOnProperty(name = "video.storage.backend", havingValue = "s3")
+public class S3VideoStorage implements VideoStorage {
+
+    private static final Logger logger = LoggerFactory.getLogger(S3VideoStorage.class);
+
+    // S3'ün kabul ettiği en küçük part boyutu (son part hariç)
+    private static final long MIN_PART_SIZE = 5L * 1024 * 1024;
+
+    /**
+     * Dosyanın bir parçası; part numaraları 1'den başlar.
+     */
+    record Part(int number, long offset, long length) {
+    }
+
+    @Autowired
+    @Qualifier("storageTransferExecutor")
+    private TaskExecutor transferExecutor;
+
+    @Value("${video.storage.s3.endpoint:}")
+    private String endpoint;
+
+    @Value("${video.storage.s3.region:us-east-1}")
+    private String region;
+
+    @Value("${video.storage.s3.bucket}")
+    private String bucket;
+
+    @Value("${video.storage.s3.key-prefix:}")
+    private String keyPrefix;
+
+    @Value("${video.storage.s3.access-key:}")
+    private String accessKey;
+
+    @Value("${video.storage.s3.secret-key:}")
+    private String secretKey;
+
+    // MinIO ve çoğu S3 uyumlu servis path-style adres ister
+    @Value("${video.storage.s3.path-style:true}")
+    private boolean pathStyle;
+
+    @Value("${video.storage.s3.create-bucket:false}")
+    private boolean createBucket;
+
+    @Value("${video.storage.s3.part-size-mb:16}")
+    private long partSizeMb;
+
+    @Value("${video.storage.transfer-threads:8}")
+    private int transferThreads;
+
+    @Value("${video.storage.scratch-dir:/tmp/videoprocessor}")
+    private String scratchDir;
+
+    private S3Client s3;
+    private S3Presigner presigner;
+    private long partSize;
+
+    @PostConstruct
+    void init() {
+        partSize = Math.max(MIN_PART_SIZE, partSizeMb * 1024 * 1024);
+        AwsCredentialsProvider credentials = accessKey.isBlank()
+                ? DefaultCredentialsProvider.builder().build()
+                : StaticCredentialsProvider.create(AwsBasicCredentials.create(accessKey, secretKey));
+        S3Configuration serviceConfiguration = S3Configuration.builder().pathStyleAccessEnabled(pathStyle).build();
+
+        var clientBuilder = S3Client.builder()
+                .region(Region.of(region))
+                .credentialsProvider(credentials)
+                .serviceConfiguration(serviceConfiguration)
+                // Paralel part'lar aynı anda bağlantı ister
+                .httpClientBuilder(ApacheHttpClient.builder().maxConnections(Math.max(50, transferThreads * 2)));
+        var presignerBuilder = S3Presigner.builder()
+                .region(Region.of(region))
+                .credentialsProvider(credentials)
+                .serviceConfiguration(serviceConfiguration);
+        if (!endpoint.isBlank()) {
+            clientBuilder.endpointOverride(URI.create(endpoint));
+            presignerBuilder.endpointOverride(URI.create(endpoint));
+        }
+        s3 = clientBuilder.build();
+        presigner = presignerBuilder.build();
+
+        if (createBucket) {
+            try {
+                s3.headBucket(request -> request.bucket(bucket));
+            } catch (NoSuchBucketException e) {
+                s3.createBucket(request -> request.bucket(bucket));
+                logger.info("Created bucket {}", bucket);
+            }
+        }
+        logger.info("S3 video storage: bucket {}, endpoint {}, part size {} MB", bucket,
+                endpoint.isBlank() ? "default" : endpoint, partSize / (1024 * 1024));
+    }
+
+    @PreDestroy
+    void close() {
+        s3.close();
+        presigner.close();
+    }
+
+    @Override
+    public Path stagingDirectory(StorageArea area) throws IOException {
+        Path directory = Paths.get(scratchDir, area.getPrefix()).toAbsolutePath();
+        Files.createDirectories(directory);
+        return directory;
+    }
+
+    @Override
+    public String importFile(StorageArea area, Path localFile) throws IOException {
+        String key = areaKey(area) + localFile.getFileName();
+        long size = Files.size(localFile);
+        long startTime = System.currentTimeMillis();
+
+        upload(localFile, key, size);
+        Files.deleteIfExists(localFile);
+
+        logger.info("Uploaded {} ({} bytes) to s3://{}/{} in {} ms", localFile.getFileName(), size, bucket, key,
+                System.currentTimeMillis() - startTime);
+        return new S3Location(bucket, key).toString();
+    }
+
+    // Segmentler küçük ve çok sayıda; küçük dosyalar havuzda paralel yüklenir. Büyük dosyalar çağıran thread'de
+    // multipart yüklenir: part'ları aynı havuzda çalışır ve havuz thread'i başka bir havuz işini beklememeli
+    @Override
+    public String importDirectory(StorageArea area, Path localDirectory) throws IOException {
+        String baseKey = areaKey(area) + localDirectory.getFileName();
+        long startTime = System.currentTimeMillis();
+        List<Path> files;
+        try (Stream<Path> paths = Files.walk(localDirectory)) {
+            files = paths.filter(Files::isRegularFile).toList();
+        }
+
+        List<CompletableFuture<Void>> futures = new ArrayList<>();
+        try {
+            for (Path file : files) {
+                String key = baseKey + "/" + localDirectory.relativize(file).toString().replace('\\', '/');
+                long size = Files.size(file);
+                if (size > partSize) {
+                    multipartUpload(file, key, size);
+                    continue;
+                }
+                futures.add(CompletableFuture.runAsync(() ->
+                        s3.putObject(request -> request.bucket(bucket).key(key), RequestBody.fromFile(file)),
+                        transferExecutor::execute));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (IOException | RuntimeException e) {
+            // Başlatılmış yüklemeler bitmeden dönülmez; çağıran dizini hemen temizleyebilir
+            futures.forEach(future -> future.exceptionally(ignored -> null).join());
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            throw new IOException("Upload of " + localDirectory + " failed: " + cause.getMessage(), cause);
+        }
+        LocalVideoStorage.deleteTree(localDirectory);
+
+        logger.info("Uploaded {} files of {} to s3://{}/{} in {} ms", files.size(), localDirectory.getFileName(),
+                bucket, baseKey, System.currentTimeMillis() - startTime);
+        return new S3Location(bucket, baseKey).toString();
+    }
+
+    private String areaKey(StorageArea area) {
+        return (keyPrefix.isBlank() ? "" : keyPrefix + "/") + area.getPrefix() + "/";
+    }
+
+    private void upload(Path localFile, String key, long size) throws IOException {
+        if (size <= partSize) {
+            s3.putObject(request -> request.bucket(bucket).key(key), RequestBody.fromFile(localFile));
+        } else {
+            multipartUpload(localFile, key, size);
+        }
+    }
+
+    private void multipartUpload(Path localFile, String key, long size) throws IOException {
+        String uploadId = s3.createMultipartUpload(request -> request.bucket(bucket).key(key)).uploadId();
+        try (FileChannel channel = FileChannel.open(localFile, StandardOpenOption.READ)) {
+            List<CompletableFuture<CompletedPart>> futures = new ArrayList<>();
+            for (Part part : partRanges(size, partSize)) {
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    ByteBuffer buffer = readPart(channel, part);
+                    String eTag = s3.uploadPart(request -> request.bucket(bucket).key(key)
+                                    .uploadId(uploadId).partNumber(part.number()).contentLength(part.length()),
+                            RequestBody.fromByteBuffer(buffer)).eTag();
+                    return CompletedPart.builder().partNumber(part.number()).eTag(eTag).build();
+                }, transferExecutor::execute));
+            }
+
+            List<CompletedPart> completed = new ArrayList<>(futures.size());
+            for (CompletableFuture<CompletedPart> future : futures) {
+                completed.add(future.join());
+            }
+            completed.sort(Comparator.comparing(CompletedPart::partNumber));
+            s3.completeMultipartUpload(request -> request.bucket(bucket).key(key).uploadId(uploadId)
+                    .multipartUpload(upload -> upload.parts(completed)));
+        } catch (RuntimeException e) {
+            // Yarım kalan part'lar bucket'ta ücretli olarak durmasın
+            s3.abortMultipartUpload(request -> request.bucket(bucket).key(key).uploadId(uploadId));
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            throw new IOException("Multipart upload of " + localFile + " failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    private ByteBuffer readPart(FileChannel channel, Part part) {
+        ByteBuffer buffer = ByteBuffer.allocate((int) part.length());
+        try {
+            long position = part.offset();
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    throw new IOException("Unexpected end of file at " + position);
+                }
+                position += read;
+            }
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+        return buffer.flip();
+    }
+
+    @Override
+    public LocalFile localize(String location) throws IOException {
+        if (!S3Location.isS3(location)) {
+            return new LocalFile(Paths.get(location), false);
+        }
+        S3Location object = S3Location.parse(location);
+        HeadObjectResponse head;
+        try {
+            head = s3.headObject(request -> request.bucket(object.bucket()).key(object.key()));
+        } catch (S3Exception e) {
+            throw new IOException("Could not read size of " + location + ": " + e.getMessage(), e);
+        }
+        long size = head.contentLength();
+        Path directory = Paths.get(scratchDir, "inputs");
+        Files.createDirectories(directory);
+        Path target = directory.resolve(UUID.randomUUID() + "_" + Paths.get(object.key()).getFileName());
+        long startTime = System.currentTimeMillis();
+
+        try (FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            List<CompletableFuture<Void>> futures = new ArrayList<>();
+            for (Part part : partRanges(size, partSize)) {
+                futures.add(CompletableFuture.runAsync(() -> downloadPart(object, part, channel), transferExecutor::execute));
+            }
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).join();
+        } catch (RuntimeException e) {
+            Files.deleteIfExists(target);
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            throw new IOException("Download of " + location + " failed: " + cause.getMessage(), cause);
+        }
+
+        logger.debug("Downloaded {} ({} bytes) in {} ms", location, size, System.currentTimeMillis() - startTime);
+        // ETag nesne değişince değişir; kopyanın sonuçları (ör. ffprobe) bununla cache'lenebilir
+        return new LocalFile(target, true, location, head.eTag());
+    }
+
+    // Her part kendi offset'ine yazılır; sıralama gerekmez
+    private void downloadPart(S3Location object, Part part, FileChannel channel) {
+        try (ResponseInputStream<GetObjectResponse> in = s3.getObject(request -> request
+                .bucket(object.bucket()).key(object.key()).range(rangeHeader(part)))) {
+            byte[] array = new byte[64 * 1024];
+            long position = part.offset();
+            int read;
+            while ((read = in.read(array)) > 0) {
+                ByteBuffer buffer = ByteBuffer.wrap(array, 0, read);
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+            }
+        } catch (IOException e) {
+            throw new CompletionException(e);
+        }
+    }
+
+    @Override
+    public InputStream openRange(String location, long start, long endInclusive) throws IOException {
+        if (!S3Location.isS3(location)) {
+            return LocalVideoStorage.openFileRange(Paths.get(location), start, endInclusive);
+        }
+        S3Location object = S3Location.parse(location);
+        return s3.getObject(request -> request.bucket(object.bucket()).key(object.key())
+                .range("bytes=" + start + "-" + endInclusive));
+    }
+
+    @Override
+    public long size(String location) throws IOException {
+        if (!S3Location.isS3(location)) {
+            return Files.size(Paths.get(location));
+        }
+        S3Location object = S3Location.parse(location);
+        try {
+            return s3.headObject(request -> request.bucket(object.bucket()).key(object.key())).contentLength();
+        } catch (S3Exception e) {
+            throw new IOException("Could not read size of " + location + ": " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    public boolean exists(String location) {
+        if (!S3Location.isS3(location)) {
+            return Files.isRegularFile(Paths.get(location));
+        }
+        S3Location object = S3Location.parse(location);
+        try {
+            s3.headObject(request -> request.bucket(object.bucket()).key(object.key()));
+            return true;
+        } catch (NoSuchKeyException e) {
+            return false;
+        } catch (S3Exception e) {
+            return e.statusCode() != 404 && e.statusCode() / 100 != 4;
+        }
+    }
+
+    @Override
+    public boolean delete(String location) {
+        try {
+            if (!S3Location.isS3(location)) {
+                return Files.deleteIfExists(Paths.get(location));
+            }
+            S3Location object = S3Location.parse(location);
+            s3.deleteObject(request -> request.bucket(object.bucket()).key(object.key()));
+            return true;
+        } catch (IOException | S3Exception e) {
+            logger.warn("Failed to delete {}: {}", location, e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public boolean deleteDirectory(String location) {
+        try {
+            if (!S3Location.isS3(location)) {
+                return LocalVideoStorage.deleteTree(Paths.get(location));
+            }
+            S3Location root = S3Location.parse(location);
+            String prefix = root.key() + "/";
+            for (ListObjectsV2Response page : s3.listObjectsV2Paginator(request -> request.bucket(root.bucket()).prefix(prefix))) {
+                List<ObjectIdentifier> objects = page.contents().stream()
+                        .map(object -> ObjectIdentifier.builder().key(object.key()).build())
+                        .toList();
+                if (!objects.isEmpty()) {
+                    // Sayfa başına en fazla 1000 anahtar; DeleteObjects sınırıyla aynı
+                    s3.deleteObjects(request -> request.bucket(root.bucket()).delete(delete -> delete.objects(objects)));
+                }
+            }
+            return true;
+        } catch (IOException | S3Exception e) {
+            logger.warn("Failed to delete directory {}: {}", location, e.getMessage());
+            return false;
+        }
+    }
+
+    @Override
+    public Path resolveLocal(String location) {
+        return S3Location.isS3(location) ? null : Paths.get(location);
+    }
+
+    @Override
+    public URI presignedUrl(String location, Duration ttl) {
+        if (!S3Location.isS3(location)) {
+            return null;
+        }
+        S3Location object = S3Location.parse(location);
+        try {
+            return presigner.presignGetObject(request -> request.signatureDuration(ttl)
+                    .getObjectRequest(get -> get.bucket(object.bucket()).key(object.key()))).url().toURI();
+        } catch (Exception e) {
+            logger.warn("Could not presign {}: {}", location, e.getMessage());
+            return null;
+        }
+    }
+
+    @Override
+    public boolean usesLocalDisk() {
+        return false;
+    }
+
+    static List<Part> partRanges(long size, long partSize) {
+        List<Part> parts = new ArrayList<>();
+        if (size == 0) {
+            parts.add(new Part(1, 0, 0));
+            return parts;
+        }
+        int number = 1;
+        for (long offset = 0; offset < size; offset += partSize) {
+            parts.add(new Part(number++, offset, Math.min(partSize, size - offset)));
+        }
+        return parts;
+    }
+
+    private static String rangeHeader(Part part) {
+        return "bytes=" + part.offset() + "-" + (part.offset() + part.length() - 1);
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.videoprocessor.service.storage;
+
+/**
+ * Depodaki dosya grupları; local'de ayrı dizinler, S3'te key prefix'leri.
+ */
+public enum StorageArea {
+    UPLOADS("uploads"),
+    PROCESSED("processed"),
+    THUMBNAILS("thumbnails"),
+    // Segment-paralel encode'un geçici parçaları; birleştirme bitince silinir
+    SEGMENTS("segments");
+
+    private final String prefix;
+
+    StorageArea(String prefix) {
+        this.prefix = prefix;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+}
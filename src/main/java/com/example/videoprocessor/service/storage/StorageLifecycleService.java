@@ -0,0 +1,359 @@
+package com.example.videoprocessor.service.storage;
+
+import com.example.videoprocessor.dto.StorageStatsDto;
+import com.example.videoprocessor.entity.VideoEntity;
+import com.example.videoprocessor.repository.VideoRepository;
+import com.example.videoprocessor.repository.projection.StoredOriginalView;
+import com.example.videoprocessor.service.hls.HlsLadder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.FileStore;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * STORAGE LIFECYCLE
+ * - Silinen videoların dosyaları (orijinal, mp4, thumbnail, önizleme) commit sonrasında arka planda silinir
+ * - Upload / processed / thumbnail dizinleri periyodik olarak tabloyla karşılaştırılır; karşılığı olmayan
+ *   dosyalar (grace süresinden eskiyse) silinir
+ * - Disk kullanımı high-water mark'ı aşarsa, tamamlanmış videoların en uzun süredir erişilmeyen orijinalleri
+ *   low-water mark'a inene kadar silinir (işlenmiş çıktılar kalır)
+ */
+@Service
+public class StorageLifecycleService {
+
+    private static final Logger logger = LoggerFactory.getLogger(StorageLifecycleService.class);
+
+    // FFmpegService'in çıktı adlandırması: <filename><suffix>
+    private static final List<String> OUTPUT_SUFFIXES = List.of("_processed.mp4", "_preview.mp4", "_thumb.jpg",
+            "_sprite.jpg", "_storyboard.vtt");
+    private static final Pattern NUMBERED_THUMBNAIL = Pattern.compile("(.+)_thumb_\\d+\\.jpg");
+
+    private static final int RECONCILE_BATCH_SIZE = 500;
+    private static final int EVICTION_BATCH_SIZE = 100;
+
+    @Autowired
+    private VideoRepository videoRepository;
+
+    @Autowired
+    @Qualifier("storageLifecycleExecutor")
+    private TaskExecutor storageExecutor;
+
+    @Autowired
+    private VideoStorage videoStorage;
+
+    // Resumable upload'lar finalize edilene kadar satırsız dosyadır; oturum süresinden uzun tutulmalı
+    @Value("${video.storage.orphan-grace-minutes:1500}")
+    private long orphanGraceMinutes;
+
+    @Value("${video.storage.high-water-mark:0.85}")
+    private double highWaterMark;
+
+    @Value("${video.storage.low-water-mark:0.75}")
+    private double lowWaterMark;
+
+    private final AtomicInteger pendingDeletes = new AtomicInteger();
+    private final AtomicLong deletedFileCount = new AtomicLong();
+    private final AtomicLong reclaimedBytes = new AtomicLong();
+    private final AtomicLong evictedOriginalCount = new AtomicLong();
+    private final AtomicLong evictedOriginalBytes = new AtomicLong();
+
+    private volatile List<StorageStatsDto.DirectoryStats> lastDirectoryStats = List.of();
+    private volatile LocalDateTime lastReconcileAt;
+
+    /**
+     * Videonun tüm dosyalarını siler. Transaction içindeyse commit'ten sonra (rollback olursa dosyalar kalır).
+     */
+    public void deleteFilesAfterCommit(VideoEntity video) {
+        List<String> paths = Stream.concat(
+                        Stream.of(video.getOriginalPath(), video.getProcessedPath(), video.getThumbnailPath(),
+                                video.getPreviewPath(), video.getSpritePath(), video.getStoryboardPath(),
+                                video.getHlsManifestPath()),
+                        video.getThumbnailPaths() != null ? video.getThumbnailPaths().stream() : Stream.empty())
+                .filter(Objects::nonNull)
+                .toList();
+        if (paths.isEmpty()) {
+            return;
+        }
+
+        Runnable schedule = () -> deleteAsync(paths);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    schedule.run();
+                }
+            });
+        } else {
+            schedule.run();
+        }
+    }
+
+    public void deleteAsync(List<String> paths) {
+        pendingDeletes.incrementAndGet();
+        storageExecutor.execute(() -> {
+            try {
+                paths.forEach(this::deleteLocation);
+            } finally {
+                pendingDeletes.decrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Orijinal dosyanın okunduğunu kaydeder; eviction sırası buna göre belirlenir.
+     */
+    public void touch(Long videoId) {
+        try {
+            videoRepository.touchLastAccessed(videoId, LocalDateTime.now());
+        } catch (Exception e) {
+            logger.debug("Could not update last access time of video ID {}: {}", videoId, e.getMessage());
+        }
+    }
+
+    @Scheduled(initialDelayString = "${video.storage.reconcile-initial-delay-ms:300000}",
+            fixedDelayString = "${video.storage.reconcile-interval-ms:3600000}")
+    public void reconcile() {
+        Instant graceLimit = Instant.now().minusSeconds(orphanGraceMinutes * 60);
+        List<StorageStatsDto.DirectoryStats> stats = new ArrayList<>();
+        // Sadece yerel staging dizinleri taranır; S3'teki nesneler video silinirken temizlenir
+        for (StorageArea area : StorageArea.values()) {
+            try {
+                stats.add(reconcileDirectory(area.getPrefix(), videoStorage.stagingDirectory(area), graceLimit));
+            } catch (IOException e) {
+                logger.warn("Storage directory for {} is not available: {}", area, e.getMessage());
+            }
+        }
+        lastDirectoryStats = stats;
+        lastReconcileAt = LocalDateTime.now();
+    }
+
+    private StorageStatsDto.DirectoryStats reconcileDirectory(String name, Path directory, Instant graceLimit) {
+        StorageStatsDto.DirectoryStats stats = new StorageStatsDto.DirectoryStats();
+        stats.setName(name);
+        stats.setPath(directory.toAbsolutePath().toString());
+        long fileCount = 0;
+        long totalBytes = 0;
+        long orphanCount = 0;
+        long orphanBytes = 0;
+
+        if (Files.isDirectory(directory)) {
+            // Dosya adı -> (boyut, eski mi); DB'ye 500'lük gruplar halinde sorulur
+            Map<String, Long> candidates = new HashMap<>();
+            try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+                for (Path file : files) {
+                    BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+                    if (!attributes.isRegularFile()) {
+                        continue;
+                    }
+                    fileCount++;
+                    totalBytes += attributes.size();
+                    if (attributes.lastModifiedTime().toInstant().isBefore(graceLimit)) {
+                        candidates.put(file.getFileName().toString(), attributes.size());
+                    }
+                    if (candidates.size() >= RECONCILE_BATCH_SIZE) {
+                        long[] removed = removeOrphans(directory, candidates);
+                        orphanCount += removed[0];
+                        orphanBytes += removed[1];
+                        candidates.clear();
+                    }
+                }
+            } catch (IOException e) {
+                logger.warn("Failed to scan storage directory {}: {}", directory, e.getMessage());
+            }
+            long[] removed = removeOrphans(directory, candidates);
+            orphanCount += removed[0];
+            orphanBytes += removed[1];
+        }
+
+        stats.setFileCount(fileCount - orphanCount);
+        stats.setTotalBytes(totalBytes - orphanBytes);
+        stats.setOrphanFileCount(orphanCount);
+        stats.setOrphanBytes(orphanBytes);
+        if (orphanCount > 0) {
+            logger.info("Removed {} orphan files ({} bytes) from {}", orphanCount, orphanBytes, directory);
+        }
+        return stats;
+    }
+
+    // {silinen dosya sayısı, byte}
+    private long[] removeOrphans(Path directory, Map<String, Long> candidates) {
+        if (candidates.isEmpty()) {
+            return new long[]{0, 0};
+        }
+        Map<String, String> baseNames = new HashMap<>();
+        candidates.keySet().forEach(fileName -> baseNames.put(fileName, baseFilename(fileName)));
+        Set<String> existing = new HashSet<>(videoRepository.findExistingFilenames(new HashSet<>(baseNames.values())));
+
+        long count = 0;
+        long bytes = 0;
+        for (Map.Entry<String, Long> candidate : candidates.entrySet()) {
+            if (!existing.contains(baseNames.get(candidate.getKey()))
+                    && deleteQuietly(directory.resolve(candidate.getKey()))) {
+                count++;
+                bytes += candidate.getValue();
+            }
+        }
+        return new long[]{count, bytes};
+    }
+
+    /**
+     * Çıktı dosyasının ait olduğu videonun filename'i (ör. "123_a.mp4_thumb.jpg" -> "123_a.mp4").
+     */
+    static String baseFilename(String fileName) {
+        Matcher numbered = NUMBERED_THUMBNAIL.matcher(fileName);
+        if (numbered.matches()) {
+            return numbered.group(1);
+        }
+        for (String suffix : OUTPUT_SUFFIXES) {
+            if (fileName.endsWith(suffix) && fileName.length() > suffix.length()) {
+                return fileName.substring(0, fileName.length() - suffix.length());
+            }
+        }
+        return fileName;
+    }
+
+    @Scheduled(fixedDelayString = "${video.storage.check-interval-ms:60000}")
+    public void enforceHighWaterMark() {
+        // Nesne deposunda disk dolmaz; yerel disk sadece geçici kopyalar için kullanılır
+        if (!videoStorage.usesLocalDisk()) {
+            return;
+        }
+        Path uploads;
+        try {
+            uploads = videoStorage.stagingDirectory(StorageArea.UPLOADS);
+        } catch (IOException e) {
+            logger.warn("Upload directory is not available: {}", e.getMessage());
+            return;
+        }
+        try {
+            FileStore store = Files.getFileStore(uploads);
+            if (usedFraction(store) < highWaterMark) {
+                return;
+            }
+            logger.warn("Disk usage {} above high-water mark {}, evicting originals of completed videos",
+                    String.format("%.2f", usedFraction(store)), highWaterMark);
+
+            while (usedFraction(store) > lowWaterMark) {
+                List<StoredOriginalView> candidates = videoRepository.findEvictableOriginals(Limit.of(EVICTION_BATCH_SIZE));
+                if (candidates.isEmpty()) {
+                    logger.warn("No more evictable originals, disk usage still {}", String.format("%.2f", usedFraction(store)));
+                    return;
+                }
+                for (StoredOriginalView candidate : candidates) {
+                    evictOriginal(candidate);
+                    if (usedFraction(store) <= lowWaterMark) {
+                        break;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to check disk usage of {}: {}", uploads, e.getMessage());
+        }
+    }
+
+    private void evictOriginal(StoredOriginalView candidate) {
+        String original = candidate.getOriginalPath();
+        long size = 0;
+        try {
+            size = videoStorage.exists(original) ? videoStorage.size(original) : 0;
+        } catch (IOException ignored) {
+        }
+        deleteLocation(original);
+        // Dosya zaten yoksa da işaretlenir, aksi halde her seferinde tekrar aday olur
+        videoRepository.markOriginalEvicted(candidate.getId(), LocalDateTime.now());
+        evictedOriginalCount.incrementAndGet();
+        evictedOriginalBytes.addAndGet(size);
+        logger.info("Evicted original of video ID {} ({} bytes)", candidate.getId(), size);
+    }
+
+    private double usedFraction(FileStore store) throws IOException {
+        long total = store.getTotalSpace();
+        return total > 0 ? 1.0 - (double) store.getUsableSpace() / total : 0;
+    }
+
+    private void deleteLocation(String location) {
+        // HLS çıktısı bir dizindir; master playlist ile birlikte tüm basamaklar silinir
+        if (location.endsWith("/" + HlsLadder.MASTER_PLAYLIST)) {
+            if (videoStorage.deleteDirectory(location.substring(0, location.lastIndexOf('/')))) {
+                deletedFileCount.incrementAndGet();
+            }
+            return;
+        }
+        if (!S3Location.isS3(location)) {
+            deleteQuietly(Paths.get(location));
+            return;
+        }
+        if (videoStorage.delete(location)) {
+            deletedFileCount.incrementAndGet();
+        }
+    }
+
+    private boolean deleteQuietly(Path path) {
+        try {
+            long size = Files.exists(path) ? Files.size(path) : 0;
+            if (Files.deleteIfExists(path)) {
+                deletedFileCount.incrementAndGet();
+                reclaimedBytes.addAndGet(size);
+                return true;
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to delete {}: {}", path, e.getMessage());
+        }
+        return false;
+    }
+
+    public StorageStatsDto getStats() {
+        StorageStatsDto stats = new StorageStatsDto();
+        try {
+            Path uploads = videoStorage.stagingDirectory(StorageArea.UPLOADS);
+            if (Files.exists(uploads)) {
+                FileStore store = Files.getFileStore(uploads);
+                stats.setDiskTotalBytes(store.getTotalSpace());
+                stats.setDiskUsableBytes(store.getUsableSpace());
+                stats.setDiskUsedFraction(usedFraction(store));
+            }
+        } catch (IOException e) {
+            logger.warn("Failed to read disk usage: {}", e.getMessage());
+        }
+        stats.setHighWaterMark(highWaterMark);
+        stats.setLowWaterMark(lowWaterMark);
+        stats.setEvictableOriginalBytes(videoRepository.sumEvictableOriginalBytes());
+        stats.setEvictedOriginalCount(evictedOriginalCount.get());
+        stats.setEvictedOriginalBytes(evictedOriginalBytes.get());
+        stats.setPendingDeletes(pendingDeletes.get());
+        stats.setDeletedFileCount(deletedFileCount.get());
+        stats.setReclaimedBytes(reclaimedBytes.get());
+        stats.setDirectories(lastDirectoryStats);
+        stats.setLastReconcileAt(lastReconcileAt);
+        return stats;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.videoprocessor.service.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Video dosyalarının kalıcı deposu (video.storage.backend: local | s3).
+ *
+ * Dosyalar her zaman önce yerel bir staging dizinine yazılır (upload, ffmpeg çıktısı), sonra
+ * {@link #importFile} ile depoya alınır; dönen "location" DB'ye yazılır. Local backend'de location dosyanın
+ * kendi yoludur, S3'te "s3://bucket/key".
+ */
+public interface VideoStorage {
+
+    /**
+     * Yeni dosyaların yazılacağı yerel dizin (yoksa oluşturulur).
+     */
+    Path stagingDirectory(StorageArea area) throws IOException;
+
+    /**
+     * Staging'deki dosyayı kalıcı depoya alır ve location'ını döner.
+     */
+    String importFile(StorageArea area, Path localFile) throws IOException;
+
+    /**
+     * Staging'deki bir dizini (ör. HLS playlist + segmentler) göreli yolları koruyarak depoya alır.
+     * Dönen location'a "/" + göreli yol eklenerek içindeki dosyalara erişilir.
+     */
+    String importDirectory(StorageArea area, Path localDirectory) throws IOException;
+
+    /**
+     * ffmpeg/ffprobe için yerel erişim. Uzak depodaysa geçici bir kopyaya indirilir; iş bitince kapatılmalı.
+     */
+    LocalFile localize(String location) throws IOException;
+
+    /**
+     * [start, endInclusive] aralığını okur.
+     */
+    InputStream openRange(String location, long start, long endInclusive) throws IOException;
+
+    long size(String location) throws IOException;
+
+    boolean exists(String location);
+
+    boolean delete(String location);
+
+    /**
+     * importDirectory ile alınmış dizini içindekilerle birlikte siler.
+     */
+    boolean deleteDirectory(String location);
+
+    /**
+     * Dosya bu node'un diskindeyse yolu, değilse null.
+     */
+    Path resolveLocal(String location);
+
+    /**
+     * İstemcinin dosyayı doğrudan depodan indirebileceği süreli adres; desteklenmiyorsa null.
+     */
+    URI presignedUrl(String location, Duration ttl);
+
+    /**
+     * Kalıcı dosyalar bu node'un diskinde mi (disk high-water mark yönetimi sadece bu durumda anlamlı).
+     */
+    boolean usesLocalDisk();
+}
@@ -0,0 +1,61 @@
+package com.example.videoprocessor.service.thumbnail;
+
+import java.util.Locale;
+
+/**
+ * Sprite sheet ızgarası ve ona karşılık gelen WebVTT indeksi.
+ * Kare i, [i * interval, (i + 1) * interval) aralığını temsil eder.
+ */
+public record StoryboardLayout(double intervalSeconds, int count, int columns, int rows,
+                               int tileWidth, int tileHeight, double durationSeconds) {
+
+    /**
+     * Süreye göre aralığı seçer: en fazla maxTiles kare, kareler arası en az minIntervalSeconds.
+     * Süre bilinmiyorsa null.
+     */
+    public static StoryboardLayout plan(Double durationSeconds, Integer sourceWidth, Integer sourceHeight,
+                                        int tileWidth, int maxColumns, int maxTiles, double minIntervalSeconds) {
+        if (durationSeconds == null || durationSeconds <= 0 || maxTiles <= 0) {
+            return null;
+        }
+        // fps filtresine verilecek değer; milisaniyeye yuvarlanır
+        double interval = Math.ceil(Math.max(minIntervalSeconds, durationSeconds / maxTiles) * 1000) / 1000.0;
+        int count = (int) Math.min(maxTiles, Math.max(1, Math.ceil(durationSeconds / interval)));
+        int columns = Math.min(maxColumns, count);
+        int rows = (count + columns - 1) / columns;
+        return new StoryboardLayout(interval, count, columns, rows, tileWidth,
+                tileHeight(tileWidth, sourceWidth, sourceHeight), durationSeconds);
+    }
+
+    // Kaynağın en-boy oranı korunur; bilinmiyorsa 16:9. Çift sayı (yuv420)
+    static int tileHeight(int tileWidth, Integer sourceWidth, Integer sourceHeight) {
+        double ratio = sourceWidth != null && sourceHeight != null && sourceWidth > 0 && sourceHeight > 0
+                ? (double) sourceHeight / sourceWidth : 9.0 / 16.0;
+        int height = (int) Math.round(tileWidth * ratio);
+        return Math.max(2, height - height % 2);
+    }
+
+    /**
+     * Her kare için "sprite#xywh=x,y,w,h" cue'su; spriteUrl VTT dosyasına göre göreli olabilir.
+     */
+    public String toWebVtt(String spriteUrl) {
+        StringBuilder vtt = new StringBuilder("WEBVTT\n");
+        for (int i = 0; i < count; i++) {
+            double start = i * intervalSeconds;
+            double end = i == count - 1 ? Math.max(durationSeconds, start) : (i + 1) * intervalSeconds;
+            vtt.append('\n')
+                    .append(timestamp(start)).append(" --> ").append(timestamp(end)).append('\n')
+                    .append(spriteUrl).append("#xywh=")
+                    .append((i % columns) * tileWidth).append(',')
+                    .append((i / columns) * tileHeight).append(',')
+                    .append(tileWidth).append(',').append(tileHeight).append('\n');
+        }
+        return vtt.toString();
+    }
+
+    static String timestamp(double seconds) {
+        long millis = Math.round(seconds * 1000);
+        return String.format(Locale.ROOT, "%02d:%02d:%02d.%03d",
+                millis / 3_600_000, (millis / 60_000) % 60, (millis / 1000) % 60, millis % 1000);
+    }
+}
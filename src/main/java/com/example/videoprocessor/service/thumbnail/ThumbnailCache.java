@@ -0,0 +1,93 @@
+package com.example.videoprocessor.service.thumbnail;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Thumbnail, sprite ve WebVTT dosyaları için bellek içi LRU; sınır toplam byte'tır.
+ * Scrub sırasında aynı küçük dosyalar çok sık istenir; her istekte diske / S3'e gidilmez.
+ */
+@Component
+public class ThumbnailCache {
+
+    public record Key(Long videoId, String kind, int index) {
+    }
+
+    public record Entry(byte[] bytes, String eTag, long lastModified, String contentType) {
+    }
+
+    @FunctionalInterface
+    public interface Loader {
+        Entry load() throws IOException;
+    }
+
+    private final long maxBytes;
+    private long currentBytes;
+
+    private final LinkedHashMap<Key, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+
+    public ThumbnailCache(@Value("${video.thumbnail.cache-max-bytes:67108864}") long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Yoksa loader ile yükler. Loader null dönerse (dosya yok) hiçbir şey saklanmaz.
+     * Bütçenin dörtte birinden büyük dosyalar saklanmadan döner.
+     */
+    public Entry get(Key key, Loader loader) throws IOException {
+        synchronized (entries) {
+            Entry cached = entries.get(key);
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        // Yükleme kilit dışında; aynı anahtar iki kez yüklenebilir, sonuç aynıdır
+        Entry loaded = loader.load();
+        if (loaded == null || loaded.bytes().length > maxBytes / 4) {
+            return loaded;
+        }
+        synchronized (entries) {
+            Entry previous = entries.put(key, loaded);
+            if (previous != null) {
+                currentBytes -= previous.bytes().length;
+            }
+            currentBytes += loaded.bytes().length;
+            var iterator = entries.entrySet().iterator();
+            while (currentBytes > maxBytes && iterator.hasNext()) {
+                currentBytes -= iterator.next().getValue().bytes().length;
+                iterator.remove();
+            }
+        }
+        return loaded;
+    }
+
+    public void evict(Long videoId) {
+        synchronized (entries) {
+            var iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<Key, Entry> entry = iterator.next();
+                if (entry.getKey().videoId().equals(videoId)) {
+                    currentBytes -= entry.getValue().bytes().length;
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    public long getCurrentBytes() {
+        synchronized (entries) {
+            return currentBytes;
+        }
+    }
+
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.example.videoprocessor.service.thumbnail;
+
+import com.example.videoprocessor.dto.VideoMetadataDto;
+import com.example.videoprocessor.service.ffmpeg.FFmpegProgressListener;
+import com.example.videoprocessor.service.ffmpeg.FFmpegService;
+import com.example.videoprocessor.service.ffmpeg.command.FFmpegCommand;
+import com.example.videoprocessor.service.ffmpeg.command.FFmpegOutput;
+import com.example.videoprocessor.service.ffmpeg.command.SpriteSheetOutput;
+import com.example.videoprocessor.service.ffmpeg.command.ThumbnailOutput;
+import com.example.videoprocessor.service.pipeline.ProcessingContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * THUMBNAIL ENGINE
+ * - Ana thumbnail ve N adet ek thumbnail, girdiye "-ss" ile keyframe seek yapılarak alınır (öncesi decode edilmez)
+ * - Konumlar ffprobe süresine göre seçilir; kısa kliplerde de videonun içinde kalır
+ * - Scrub önizlemesi için sprite sheet + WebVTT indeksi; hepsi aynı ffmpeg process'inde üretilir
+ *
+ * Her iki modda da kendi THUMBNAIL stage'inde sadece keyframe'ler decode edilerek çalışır;
+ * transcode ile paralel yürür ve onu beklemez.
+ */
+@Service
+public class ThumbnailEngine {
+
+    public static final String SPRITE_URL = "sprite";
+
+    private static final double DEFAULT_THUMBNAIL_SECONDS = 5.0;
+    private static final int THUMBNAIL_WIDTH = 320;
+    private static final int THUMBNAIL_HEIGHT = 240;
+
+    @Autowired
+    private FFmpegService ffmpegService;
+
+    @Value("${video.thumbnail.count:5}")
+    private int thumbnailCount;
+
+    @Value("${video.thumbnail.sprite.enabled:true}")
+    private boolean spriteEnabled;
+
+    @Value("${video.thumbnail.sprite.tile-width:160}")
+    private int tileWidth;
+
+    @Value("${video.thumbnail.sprite.columns:10}")
+    private int spriteColumns;
+
+    @Value("${video.thumbnail.sprite.max-tiles:100}")
+    private int maxTiles;
+
+    @Value("${video.thumbnail.sprite.min-interval-seconds:2}")
+    private double minIntervalSeconds;
+
+    /**
+     * Üretilecek dosyalar; komut çalıştıktan sonra {@link #complete} ile context'e yazılır.
+     */
+    public record Plan(List<FFmpegOutput> outputs, String thumbnailPath, List<String> thumbnailPaths,
+                       String spritePath, StoryboardLayout layout) {
+
+        public FFmpegCommand.Builder addTo(FFmpegCommand.Builder command) {
+            outputs.forEach(command::output);
+            return command;
+        }
+    }
+
+    public Plan plan(ProcessingContext context) {
+        Double duration = durationSeconds(context.getMetadata());
+        List<FFmpegOutput> outputs = new ArrayList<>();
+
+        String thumbnailPath = ffmpegService.thumbnailPath(context.getFilename());
+        outputs.add(ThumbnailOutput.keyframeAt(thumbnailPath, thumbnailSeconds(duration), THUMBNAIL_WIDTH, THUMBNAIL_HEIGHT));
+
+        List<String> thumbnailPaths = new ArrayList<>();
+        List<Double> positions = positions(duration, thumbnailCount);
+        for (int i = 0; i < positions.size(); i++) {
+            String path = ffmpegService.thumbnailPath(context.getFilename(), i);
+            outputs.add(ThumbnailOutput.keyframeAt(path, positions.get(i), THUMBNAIL_WIDTH, THUMBNAIL_HEIGHT));
+            thumbnailPaths.add(path);
+        }
+
+        String spritePath = null;
+        StoryboardLayout layout = null;
+        if (spriteEnabled) {
+            VideoMetadataDto metadata = context.getMetadata();
+            layout = StoryboardLayout.plan(duration, metadata != null ? metadata.getWidth() : null,
+                    metadata != null ? metadata.getHeight() : null, tileWidth, spriteColumns, maxTiles, minIntervalSeconds);
+        }
+        if (layout != null) {
+            spritePath = ffmpegService.spritePath(context.getFilename());
+            outputs.add(new SpriteSheetOutput(spritePath, layout.intervalSeconds(), layout.columns(), layout.rows(),
+                    layout.tileWidth(), layout.tileHeight()));
+        }
+        return new Plan(List.copyOf(outputs), thumbnailPath, List.copyOf(thumbnailPaths), spritePath, layout);
+    }
+
+    /**
+     * THUMBNAIL stage'i: sadece keyframe'ler decode edilir.
+     */
+    public void generate(ProcessingContext context) throws Exception {
+        Plan plan = plan(context);
+        ffmpegService.run(plan.addTo(FFmpegCommand.builder(context.getInputPath()).keyframesOnly()).build(),
+                FFmpegProgressListener.NONE, context.getJob());
+        complete(plan, context);
+    }
+
+    /**
+     * WebVTT indeksini yazar ve üretilen yolları context'e aktarır.
+     */
+    public void complete(Plan plan, ProcessingContext context) throws IOException {
+        context.setThumbnailPath(plan.thumbnailPath());
+        context.setThumbnailPaths(plan.thumbnailPaths().isEmpty() ? null : plan.thumbnailPaths());
+        if (plan.spritePath() != null && Files.exists(Paths.get(plan.spritePath()))) {
+            String storyboardPath = ffmpegService.storyboardPath(context.getFilename());
+            Files.writeString(Paths.get(storyboardPath), plan.layout().toWebVtt(SPRITE_URL), StandardCharsets.UTF_8);
+            context.setSpritePath(plan.spritePath());
+            context.setStoryboardPath(storyboardPath);
+        }
+    }
+
+    // 5. saniye; kısa kliplerde videonun ortası
+    static double thumbnailSeconds(Double durationSeconds) {
+        if (durationSeconds == null || durationSeconds <= 0) {
+            return 0;
+        }
+        return Math.min(DEFAULT_THUMBNAIL_SECONDS, durationSeconds / 2.0);
+    }
+
+    // Süreye eşit aralıklı; baş ve son (siyah kare, jenerik) hariç
+    static List<Double> positions(Double durationSeconds, int count) {
+        List<Double> positions = new ArrayList<>();
+        if (durationSeconds == null || durationSeconds <= 0) {
+            return positions;
+        }
+        for (int i = 1; i <= count; i++) {
+            positions.add(Math.round(durationSeconds * i / (count + 1) * 1000) / 1000.0);
+        }
+        return positions;
+    }
+
+    private static Double durationSeconds(VideoMetadataDto metadata) {
+        if (metadata == null) {
+            return null;
+        }
+        if (metadata.getDurationSeconds() != null) {
+            return metadata.getDurationSeconds();
+        }
+        return metadata.getDuration() != null ? metadata.getDuration().doubleValue() : null;
+    }
+}
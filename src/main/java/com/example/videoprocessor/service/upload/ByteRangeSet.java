@@ -0,0 +1,65 @@
+package com.example.videoprocessor.service.upload;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Alınan byte aralıklarını birleştirilmiş halde tutar.
+ * Aralıklar [start, end) şeklindedir; çakışan ve bitişik aralıklar tek aralığa indirgenir.
+ */
+public class ByteRangeSet {
+
+    private final TreeMap<Long, Long> ranges = new TreeMap<>();
+
+    public synchronized void add(long start, long endExclusive) {
+        if (endExclusive <= start) {
+            return;
+        }
+        long newStart = start;
+        long newEnd = endExclusive;
+
+        Map.Entry<Long, Long> floor = ranges.floorEntry(newStart);
+        if (floor != null && floor.getValue() >= newStart) {
+            newStart = floor.getKey();
+            newEnd = Math.max(newEnd, floor.getValue());
+        }
+
+        Map.Entry<Long, Long> next = ranges.ceilingEntry(newStart);
+        while (next != null && next.getKey() <= newEnd) {
+            newEnd = Math.max(newEnd, next.getValue());
+            ranges.remove(next.getKey());
+            next = ranges.ceilingEntry(newStart);
+        }
+
+        ranges.put(newStart, newEnd);
+    }
+
+    public synchronized boolean covers(long totalSize) {
+        if (totalSize == 0) {
+            return true;
+        }
+        Map.Entry<Long, Long> first = ranges.firstEntry();
+        return first != null && first.getKey() == 0 && first.getValue() >= totalSize;
+    }
+
+    public synchronized long receivedBytes() {
+        long total = 0;
+        for (Map.Entry<Long, Long> range : ranges.entrySet()) {
+            total += range.getValue() - range.getKey();
+        }
+        return total;
+    }
+
+    /**
+     * HTTP Range gösterimiyle (inclusive) aralık listesi, ör. "0-1048575".
+     */
+    public synchronized List<String> toRangeStrings() {
+        List<String> result = new ArrayList<>(ranges.size());
+        for (Map.Entry<Long, Long> range : ranges.entrySet()) {
+            result.add(range.getKey() + "-" + (range.getValue() - 1));
+        }
+        return result;
+    }
+}
@@ -0,0 +1,215 @@
+package com.example.videoprocessor.service.upload;
+
+import com.example.videoprocessor.dto.UploadSessionDto;
+import com.example.videoprocessor.dto.UploadSessionRequestDto;
+import com.example.videoprocessor.dto.VideoProcessingResponseDto;
+import com.example.videoprocessor.entity.VideoEntity;
+import com.example.videoprocessor.entity.enums.VideoStatus;
+import com.example.videoprocessor.repository.VideoRepository;
+import com.example.videoprocessor.service.AsyncVideoService;
+import com.example.videoprocessor.service.storage.StorageArea;
+import com.example.videoprocessor.service.storage.VideoStorage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * RESUMABLE (CHUNKED) UPLOAD
+ * - Parçalar servlet multipart katmanında tamponlanmadan doğrudan nihai dosyaya yazılır
+ * - FileChannel pozisyonel yazma ile parçalar herhangi bir sırada gelebilir
+ * - Kopan bağlantıda client sadece eksik aralıkları tekrar gönderir
+ * - VideoEntity ve kuyruk mesajı sadece finalize adımında oluşturulur
+ *
+ * Oturumlar bellekte tutulur; aynı oturumun parçaları aynı node'a gelmelidir (sticky routing).
+ */
+@Service
+public class ResumableUploadService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResumableUploadService.class);
+
+    private static final int CHUNK_BUFFER_SIZE = 1024 * 1024;
+
+    @Autowired
+    private VideoRepository videoRepository;
+
+    @Autowired
+    private AsyncVideoService asyncVideoService;
+
+    @Autowired
+    private VideoStorage videoStorage;
+
+    @Value("${video.upload.session-timeout-minutes:1440}")
+    private long sessionTimeoutMinutes;
+
+    private final ConcurrentHashMap<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    public UploadSessionDto createSession(UploadSessionRequestDto requestDto) throws IOException {
+        Path uploadPath = videoStorage.stagingDirectory(StorageArea.UPLOADS);
+
+        String originalFilename = Paths.get(requestDto.getFilename()).getFileName().toString();
+        String filename = System.currentTimeMillis() + "_" + originalFilename;
+        Path filePath = uploadPath.resolve(filename);
+
+        FileChannel channel = FileChannel.open(filePath,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE, StandardOpenOption.READ);
+
+        UploadSession session = new UploadSession(UUID.randomUUID().toString(), filename, filePath,
+                requestDto.getTotalSize(), channel);
+        session.setTitle(requestDto.getTitle());
+        session.setDescription(requestDto.getDescription());
+        session.setCategory(requestDto.getCategory());
+        session.setPriority(requestDto.getPriority());
+        sessions.put(session.getUploadId(), session);
+
+        logger.info("Created upload session {} for file {} ({} bytes)",
+                session.getUploadId(), filename, requestDto.getTotalSize());
+
+        return toDto(session);
+    }
+
+    /**
+     * Bir byte aralığını doğrudan dosyadaki offset'ine yazar.
+     *
+     * @param start      aralığın ilk byte'ı (inclusive)
+     * @param endInclusive aralığın son byte'ı (inclusive)
+     */
+    public UploadSessionDto writeChunk(String uploadId, long start, long endInclusive, InputStream body) throws IOException {
+        UploadSession session = getSession(uploadId);
+        if (session.isFinalized()) {
+            throw new IllegalStateException("Upload session already finalized: " + uploadId);
+        }
+        if (start < 0 || endInclusive < start || endInclusive >= session.getTotalSize()) {
+            throw new IllegalArgumentException("Invalid byte range " + start + "-" + endInclusive
+                    + " for total size " + session.getTotalSize());
+        }
+
+        long expected = endInclusive - start + 1;
+        long position = start;
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(CHUNK_BUFFER_SIZE, expected));
+        byte[] array = buffer.array();
+
+        try {
+            while (position <= endInclusive) {
+                int toRead = (int) Math.min(array.length, endInclusive - position + 1);
+                int read = body.read(array, 0, toRead);
+                if (read < 0) {
+                    break;
+                }
+                buffer.clear().limit(read);
+                while (buffer.hasRemaining()) {
+                    position += session.getChannel().write(buffer, position);
+                }
+            }
+        } finally {
+            // Bağlantı yarıda kopsa bile yazılan kısım kaydedilir, client oradan devam eder
+            session.getReceivedRanges().add(start, position);
+            session.touch();
+        }
+
+        if (position - start != expected) {
+            throw new IllegalArgumentException("Chunk body shorter than declared range: received "
+                    + (position - start) + " of " + expected + " bytes");
+        }
+
+        return toDto(session);
+    }
+
+    public UploadSessionDto getStatus(String uploadId) {
+        return toDto(getSession(uploadId));
+    }
+
+    public VideoProcessingResponseDto finalizeUpload(String uploadId) throws IOException {
+        UploadSession session = getSession(uploadId);
+        synchronized (session) {
+            if (session.isFinalized()) {
+                throw new IllegalStateException("Upload session already finalized: " + uploadId);
+            }
+            if (!session.isComplete()) {
+                throw new IllegalStateException("Upload incomplete: received "
+                        + session.getReceivedRanges().receivedBytes() + " of " + session.getTotalSize() + " bytes");
+            }
+
+            session.getChannel().force(true);
+            session.closeChannel();
+            session.setFinalized(true);
+        }
+        sessions.remove(uploadId);
+
+        VideoEntity video = new VideoEntity();
+        video.setFilename(session.getFilename());
+        video.setOriginalPath(videoStorage.importFile(StorageArea.UPLOADS, session.getFilePath()));
+        video.setTitle(session.getTitle());
+        video.setDescription(session.getDescription());
+        video.setCategory(session.getCategory());
+        video.setStatus(VideoStatus.UPLOADED);
+        video.setFileSize(session.getTotalSize());
+        video.setProgressPercentage(0);
+        video = videoRepository.save(video);
+
+        logger.info("Upload session {} finalized as video ID: {}", uploadId, video.getId());
+
+        return asyncVideoService.enqueueForProcessing(video, session.getPriority());
+    }
+
+    public void abort(String uploadId) throws IOException {
+        UploadSession session = sessions.remove(uploadId);
+        if (session == null) {
+            throw new NoSuchElementException("Upload session not found: " + uploadId);
+        }
+        session.closeChannel();
+        Files.deleteIfExists(session.getFilePath());
+        logger.info("Upload session {} aborted", uploadId);
+    }
+
+    @Scheduled(fixedDelayString = "${video.upload.session-cleanup-interval-ms:600000}")
+    public void expireIdleSessions() {
+        LocalDateTime threshold = LocalDateTime.now().minusMinutes(sessionTimeoutMinutes);
+        sessions.values().stream()
+                .filter(session -> session.getLastActivityAt().isBefore(threshold))
+                .forEach(session -> {
+                    try {
+                        abort(session.getUploadId());
+                        logger.info("Expired idle upload session {}", session.getUploadId());
+                    } catch (Exception e) {
+                        logger.warn("Failed to expire upload session {}", session.getUploadId(), e);
+                    }
+                });
+    }
+
+    private UploadSession getSession(String uploadId) {
+        UploadSession session = sessions.get(uploadId);
+        if (session == null) {
+            throw new NoSuchElementException("Upload session not found: " + uploadId);
+        }
+        return session;
+    }
+
+    private UploadSessionDto toDto(UploadSession session) {
+        UploadSessionDto dto = new UploadSessionDto();
+        dto.setUploadId(session.getUploadId());
+        dto.setFilename(session.getFilename());
+        dto.setTotalSize(session.getTotalSize());
+        dto.setReceivedBytes(session.getReceivedRanges().receivedBytes());
+        dto.setReceivedRanges(session.getReceivedRanges().toRangeStrings());
+        dto.setComplete(session.isComplete());
+        dto.setCreatedAt(session.getCreatedAt());
+        dto.setLastActivityAt(session.getLastActivityAt());
+        return dto;
+    }
+}
@@ -0,0 +1,59 @@
+package com.example.videoprocessor.service.upload;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Devam ettirilebilir (resumable) bir yüklemenin sunucu tarafı durumu.
+ * Parçalar doğrudan nihai dosyaya, kendi offset'lerine yazılır.
+ */
+@Getter
+@Setter
+public class UploadSession {
+
+    private final String uploadId;
+    private final String filename;
+    private final Path filePath;
+    private final long totalSize;
+    private final FileChannel channel;
+    private final ByteRangeSet receivedRanges = new ByteRangeSet();
+    private final LocalDateTime createdAt = LocalDateTime.now();
+
+    private String title;
+    private String description;
+    private String category;
+    private Integer priority;
+
+    private volatile LocalDateTime lastActivityAt = LocalDateTime.now();
+    private volatile boolean finalized;
+
+    public UploadSession(String uploadId, String filename, Path filePath, long totalSize, FileChannel channel) {
+        this.uploadId = uploadId;
+        this.filename = filename;
+        this.filePath = filePath;
+        this.totalSize = totalSize;
+        this.channel = channel;
+    }
+
+    public boolean isComplete() {
+        return receivedRanges.covers(totalSize);
+    }
+
+    public void touch() {
+        lastActivityAt = LocalDateTime.now();
+    }
+
+    public void closeChannel() {
+        try {
+            if (channel.isOpen()) {
+                channel.close();
+            }
+        } catch (IOException ignored) {
+        }
+    }
+}
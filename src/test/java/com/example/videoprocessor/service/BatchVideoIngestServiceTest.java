@@ -0,0 +1,193 @@
+package com.example.videoprocessor.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.videoprocessor.dto.BatchUploadResponseDto;
+import com.example.videoprocessor.dto.VideoProcessingResponseDto;
+import com.example.videoprocessor.entity.VideoEntity;
+import com.example.videoprocessor.service.storage.StorageArea;
+import com.example.videoprocessor.service.storage.VideoStorage;
+
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitOperations;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+public class BatchVideoIngestServiceTest {
+
+    private static final String BUCKET_PREFIX = "s3://videos/uploads/";
+
+    @TempDir
+    Path uploads;
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+    private final AsyncVideoService asyncVideoService = mock(AsyncVideoService.class);
+    private final VideoStorage videoStorage = mock(VideoStorage.class);
+    private final BatchVideoIngestService service = new BatchVideoIngestService();
+    private final List<Integer> insertChunkSizes = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        ReflectionTestUtils.setField(service, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(service, "rabbitTemplate", rabbitTemplate);
+        ReflectionTestUtils.setField(service, "asyncVideoService", asyncVideoService);
+        ReflectionTestUtils.setField(service, "videoStorage", videoStorage);
+        ReflectionTestUtils.setField(service, "ingestExecutor", new SyncTaskExecutor());
+        ReflectionTestUtils.setField(service, "insertChunkSize", 2);
+        ReflectionTestUtils.setField(service, "confirmTimeoutMs", 200L);
+
+        when(videoStorage.stagingDirectory(StorageArea.UPLOADS)).thenReturn(uploads);
+        when(videoStorage.importFile(eq(StorageArea.UPLOADS), any(Path.class)))
+                .thenAnswer(invocation -> BUCKET_PREFIX + invocation.<Path>getArgument(1).getFileName());
+        when(asyncVideoService.convertToResponseDto(any(VideoEntity.class))).thenAnswer(invocation -> {
+            VideoProcessingResponseDto response = new VideoProcessingResponseDto();
+            response.setVideoId(invocation.<VideoEntity>getArgument(0).getId());
+            return response;
+        });
+        stubInsertReturningRowsInReverseOrder();
+    }
+
+    @Test
+    void matchesReturnedIdsByOriginalPathAcrossChunks() {
+        stubConfirms(id -> new CorrelationData.Confirm(true, null));
+
+        BatchUploadResponseDto response = service.ingest(files(5), 5);
+
+        // 5 dosya, 2'lik parçalar: 3 INSERT
+        assertEquals(List.of(2, 2, 1), insertChunkSizes);
+        assertEquals(5, response.getAcceptedCount());
+        for (int i = 0; i < 5; i++) {
+            VideoProcessingResponseDto result = response.getResults().get(i);
+            assertEquals("clip" + i + ".mp4", result.getOriginalFilename());
+            assertEquals(expectedId(i), result.getVideoId());
+            assertEquals("PROCESSING", result.getStatus());
+        }
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+    }
+
+    @Test
+    void unconfirmedPublishesMarkOnlyTheirRowsFailed() {
+        long nacked = expectedId(1);
+        long unconfirmed = expectedId(3);
+        stubConfirms(id -> id == nacked ? new CorrelationData.Confirm(false, "queue full")
+                : id == unconfirmed ? null
+                : new CorrelationData.Confirm(true, null));
+
+        BatchUploadResponseDto response = service.ingest(files(4), 5);
+
+        assertEquals(2, response.getAcceptedCount());
+        assertEquals(2, response.getFailedCount());
+        assertTrue(response.getResults().get(1).getMessage().contains("queue full"));
+        assertEquals("Timed out waiting for broker confirm", response.getResults().get(3).getMessage());
+        assertEquals("PROCESSING", response.getResults().get(0).getStatus());
+        assertEquals("PROCESSING", response.getResults().get(2).getStatus());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<Long>> failedIds = ArgumentCaptor.forClass(Collection.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), failedIds.capture(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        assertEquals(Set.of(nacked, unconfirmed), Set.copyOf(failedIds.getValue()));
+        verify(asyncVideoService, times(2)).markQueued(any());
+        verify(asyncVideoService, never()).markQueued(nacked);
+        verify(asyncVideoService, never()).markQueued(unconfirmed);
+    }
+
+    // Dosya sırası ile uyumsuz olsun diye id'ler dosya indeksinden türetilir ve satırlar ters sırada döner
+    private void stubInsertReturningRowsInReverseOrder() throws Exception {
+        doAnswer(invocation -> {
+            PreparedStatementCreator creator = invocation.getArgument(0);
+            RowCallbackHandler handler = invocation.getArgument(1);
+
+            List<String> locations = new ArrayList<>();
+            PreparedStatement statement = mock(PreparedStatement.class);
+            doAnswer(set -> {
+                if ((int) set.getArgument(0) % 6 == 2) {
+                    locations.add(set.getArgument(1));
+                }
+                return null;
+            }).when(statement).setString(anyInt(), anyString());
+            Connection connection = mock(Connection.class);
+            when(connection.prepareStatement(anyString())).thenReturn(statement);
+            creator.createPreparedStatement(connection);
+            insertChunkSizes.add(locations.size());
+
+            Collections.reverse(locations);
+            for (String location : locations) {
+                ResultSet row = mock(ResultSet.class);
+                when(row.getString("original_path")).thenReturn(location);
+                when(row.getLong("id")).thenReturn(idOf(location));
+                handler.processRow(row);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    // confirm null dönerse future hiç tamamlanmaz (timeout)
+    private void stubConfirms(Function<Long, CorrelationData.Confirm> confirmFor) {
+        RabbitOperations operations = mock(RabbitOperations.class);
+        doAnswer(invocation -> {
+            CorrelationData correlation = invocation.getArgument(4);
+            CorrelationData.Confirm confirm = confirmFor.apply(Long.valueOf(correlation.getId()));
+            if (confirm != null) {
+                correlation.getFuture().complete(confirm);
+            }
+            return null;
+        }).when(operations).convertAndSend(anyString(), anyString(), any(Object.class),
+                any(MessagePostProcessor.class), any(CorrelationData.class));
+        when(rabbitTemplate.invoke(any())).thenAnswer(invocation ->
+                invocation.<RabbitOperations.OperationsCallback<?>>getArgument(0).doInRabbit(operations));
+    }
+
+    private List<MultipartFile> files(int count) {
+        return IntStream.range(0, count)
+                .<MultipartFile>mapToObj(i -> new MockMultipartFile("files", "clip" + i + ".mp4", "video/mp4", new byte[]{1}))
+                .toList();
+    }
+
+    // Saklanan ad: <batch>_<indeks>_<orijinal ad>
+    private static long idOf(String location) {
+        String filename = location.substring(BUCKET_PREFIX.length());
+        return 1000 + Long.parseLong(filename.split("_")[1]);
+    }
+
+    private static long expectedId(int index) {
+        return 1000 + index;
+    }
+}
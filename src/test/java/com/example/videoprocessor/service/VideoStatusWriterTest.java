@@ -0,0 +1,151 @@
+package com.example.videoprocessor.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.videoprocessor.entity.VideoEntity;
+import com.example.videoprocessor.entity.enums.VideoStatus;
+import com.example.videoprocessor.repository.VideoRepository;
+
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class VideoStatusWriterTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final VideoRepository videoRepository = mock(VideoRepository.class);
+    private final VideoStatusWriter writer = new VideoStatusWriter();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(writer, "jdbcTemplate", jdbcTemplate);
+        ReflectionTestUtils.setField(writer, "videoRepository", videoRepository);
+        ReflectionTestUtils.setField(writer, "eventPublisher", mock(ApplicationEventPublisher.class));
+    }
+
+    @Test
+    void coalescesUpdatesOfOneVideoIntoASingleBatchRow() throws Exception {
+        LocalDateTime startedAt = LocalDateTime.of(2026, 1, 1, 12, 0);
+        writer.updateStatus(7L, VideoStatus.TRANSCODING, 30, startedAt);
+        writer.updateProgress(7L, 40);
+        writer.updateProgress(7L, 45, 60_000L);
+
+        writer.flush();
+
+        BatchPreparedStatementSetter batch = flushedBatch(1);
+        assertEquals(1, batch.getBatchSize());
+        PreparedStatement row = mock(PreparedStatement.class);
+        batch.setValues(row, 0);
+        verify(row).setObject(1, "TRANSCODING", Types.VARCHAR);
+        verify(row).setObject(2, 45, Types.INTEGER);
+        verify(row).setObject(3, Timestamp.valueOf(startedAt), Types.TIMESTAMP);
+        verify(row).setLong(6, 7L);
+
+        writer.flush();
+        verify(jdbcTemplate, times(1)).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+    }
+
+    @Test
+    void failedFlushIsRetriedWithNewerValuesWinning() throws Exception {
+        when(jdbcTemplate.batchUpdate(anyString(), any(BatchPreparedStatementSetter.class)))
+                .thenThrow(new DataAccessResourceFailureException("database down"))
+                .thenReturn(new int[]{1});
+        writer.updateStatus(7L, VideoStatus.TRANSCODING, 30, null);
+        writer.flush();
+
+        writer.updateProgress(7L, 50);
+        writer.flush();
+
+        BatchPreparedStatementSetter retried = flushedBatch(2);
+        PreparedStatement row = mock(PreparedStatement.class);
+        retried.setValues(row, 0);
+        verify(row).setObject(1, "TRANSCODING", Types.VARCHAR);
+        verify(row).setObject(2, 50, Types.INTEGER);
+    }
+
+    @Test
+    void terminalStatusCannotGoThroughTheBuffer() {
+        assertThrows(IllegalArgumentException.class,
+                () -> writer.updateStatus(7L, VideoStatus.COMPLETED, 100, null));
+    }
+
+    @Test
+    void terminalWriteLosingToCancellationKeepsTheStoredRow() {
+        VideoEntity cancelled = video(VideoStatus.CANCELLED);
+        when(jdbcTemplate.update(anyString(), any(Object[].class), any(int[].class))).thenReturn(0);
+        when(videoRepository.findById(7L)).thenReturn(Optional.of(cancelled));
+        writer.updateProgress(7L, 90);
+
+        VideoEntity completed = video(VideoStatus.COMPLETED);
+        completed.setProcessedPath("/app/processed/clip_processed.mp4");
+        VideoEntity result = writer.writeTerminal(completed);
+
+        assertSame(cancelled, result);
+        assertNull(cancelled.getProcessedPath());
+        // Bekleyen ara güncelleme de atıldı
+        writer.flush();
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(BatchPreparedStatementSetter.class));
+    }
+
+    @Test
+    void terminalWriteCopiesResultsOntoTheCurrentRow() {
+        LocalDateTime lastAccessedAt = LocalDateTime.of(2026, 1, 1, 12, 30);
+        VideoEntity current = video(VideoStatus.COMPLETED);
+        current.setLastAccessedAt(lastAccessedAt);
+        current.setThumbnailPath("/app/thumbnails/clip_thumb.jpg");
+        when(jdbcTemplate.update(anyString(), any(Object[].class), any(int[].class))).thenReturn(1);
+        when(videoRepository.findById(7L)).thenReturn(Optional.of(current));
+
+        VideoEntity completed = video(VideoStatus.COMPLETED);
+        completed.setProgressPercentage(100);
+        completed.setProcessedPath("/app/processed/clip_processed.mp4");
+        VideoEntity result = writer.writeTerminal(completed);
+
+        assertSame(current, result);
+        assertEquals(100, result.getProgressPercentage());
+        assertEquals("/app/processed/clip_processed.mp4", result.getProcessedPath());
+        assertEquals("/app/thumbnails/clip_thumb.jpg", result.getThumbnailPath());
+        assertEquals(lastAccessedAt, result.getLastAccessedAt());
+
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).update(anyString(), args.capture(), any(int[].class));
+        assertEquals("COMPLETED", args.getValue()[0]);
+        assertEquals(7L, args.getValue()[5]);
+    }
+
+    private BatchPreparedStatementSetter flushedBatch(int expectedCalls) {
+        ArgumentCaptor<BatchPreparedStatementSetter> batch = ArgumentCaptor.forClass(BatchPreparedStatementSetter.class);
+        verify(jdbcTemplate, times(expectedCalls)).batchUpdate(anyString(), batch.capture());
+        return batch.getValue();
+    }
+
+    private VideoEntity video(VideoStatus status) {
+        VideoEntity video = new VideoEntity();
+        video.setId(7L);
+        video.setFilename("1700_clip.mp4");
+        video.setOriginalPath("/app/uploads/1700_clip.mp4");
+        video.setStatus(status);
+        return video;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.videoprocessor.service.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.videoprocessor.dto.VideoMetadataDto;
+
+public class JobCostTest {
+
+    @Test
+    void scalesThreadsWithPixelRate() {
+        JobCost hd = JobCost.estimate(metadata(1920, 1080, 30.0, 60.0), 4, 2, 16);
+        JobCost uhd = JobCost.estimate(metadata(3840, 2160, 30.0, 60.0), 4, 2, 16);
+        JobCost sd = JobCost.estimate(metadata(640, 360, 30.0, 60.0), 4, 2, 16);
+
+        assertEquals(4, hd.threads());
+        assertEquals(16, uhd.threads());
+        assertEquals(2, sd.threads());
+        assertEquals(60.0, hd.workUnits(), 0.001);
+        assertEquals(240.0, uhd.workUnits(), 0.001);
+    }
+
+    @Test
+    void capsThreadsAndDefaultsMissingMetadataTo1080p() {
+        assertEquals(16, JobCost.estimate(metadata(7680, 4320, 60.0, 10.0), 4, 2, 16).threads());
+        assertEquals(4, JobCost.estimate(null, 4, 2, 16).threads());
+    }
+
+    private VideoMetadataDto metadata(int width, int height, double frameRate, double duration) {
+        VideoMetadataDto metadata = new VideoMetadataDto();
+        metadata.setWidth(width);
+        metadata.setHeight(height);
+        metadata.setFrameRate(frameRate);
+        metadata.setDurationSeconds(duration);
+        return metadata;
+    }
+}
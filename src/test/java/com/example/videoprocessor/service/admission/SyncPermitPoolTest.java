@@ -0,0 +1,44 @@
+package com.example.videoprocessor.service.admission;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class SyncPermitPoolTest {
+
+    @Test
+    void rejectsWhenSaturatedAndRecoversAfterRelease() throws Exception {
+        SyncPermitPool pool = new SyncPermitPool(1, 20);
+
+        SyncPermitPool.Permit permit = pool.acquire();
+        assertEquals(0, pool.getAvailablePermits());
+
+        SyncCapacityExceededException e = assertThrows(SyncCapacityExceededException.class, pool::acquire);
+        assertTrue(e.getRetryAfterSeconds() >= 1);
+
+        permit.close();
+        permit.close();
+        assertEquals(1, pool.getAvailablePermits());
+
+        try (SyncPermitPool.Permit again = pool.acquire()) {
+            assertEquals(0, pool.getAvailablePermits());
+        }
+        assertEquals(1, pool.getAvailablePermits());
+    }
+
+    @Test
+    void timeSpentQueuedBeforeAcquireCountsAgainstTheTimeout() throws Exception {
+        SyncPermitPool pool = new SyncPermitPool(1, 5_000);
+        long queuedSince = System.currentTimeMillis() - 10_000;
+
+        // Boş izin varsa bütçe bitmiş olsa da alınır
+        try (SyncPermitPool.Permit permit = pool.acquire(queuedSince)) {
+            // Dolu havuzda bütçesi bitmiş istek beklemeden reddedilir
+            long start = System.currentTimeMillis();
+            assertThrows(SyncCapacityExceededException.class, () -> pool.acquire(queuedSince));
+            assertTrue(System.currentTimeMillis() - start < 1_000);
+        }
+    }
+}
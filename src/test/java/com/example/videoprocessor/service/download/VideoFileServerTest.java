@@ -0,0 +1,56 @@
+package com.example.videoprocessor.service.download;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class VideoFileServerTest {
+
+    @Test
+    void resolvesSingleRanges() {
+        assertEquals(new VideoFileServer.ByteRange(0, 99), VideoFileServer.resolveRange("bytes=0-99", 1000));
+        assertEquals(new VideoFileServer.ByteRange(500, 999), VideoFileServer.resolveRange("bytes=500-", 1000));
+        assertEquals(new VideoFileServer.ByteRange(900, 999), VideoFileServer.resolveRange("bytes=-100", 1000));
+        // Dosya sonunu aşan bitiş kırpılır
+        assertEquals(new VideoFileServer.ByteRange(900, 999), VideoFileServer.resolveRange("bytes=900-5000", 1000));
+    }
+
+    @Test
+    void servesWholeFileWithoutRangeOrForMultipleRanges() {
+        assertNull(VideoFileServer.resolveRange(null, 1000));
+        assertNull(VideoFileServer.resolveRange("bytes=0-9,20-29", 1000));
+    }
+
+    @Test
+    void rejectsUnsatisfiableRanges() {
+        assertThrows(IllegalArgumentException.class, () -> VideoFileServer.resolveRange("bytes=1000-", 1000));
+        assertThrows(IllegalArgumentException.class, () -> VideoFileServer.resolveRange("bytes=0-9", 0));
+    }
+
+    @Test
+    void ifRangeMatchesOnlyCurrentValidator() {
+        String eTag = VideoFileServer.eTag(1000, 1_700_000_000_000L);
+
+        assertTrue(VideoFileServer.ifRangeMatches(null, eTag, 1_700_000_000_000L));
+        assertTrue(VideoFileServer.ifRangeMatches(eTag, eTag, 1_700_000_000_000L));
+        assertFalse(VideoFileServer.ifRangeMatches("\"other\"", eTag, 1_700_000_000_000L));
+        assertTrue(VideoFileServer.ifRangeMatches("Tue, 14 Nov 2023 22:13:20 GMT", eTag, 1_700_000_000_000L));
+        assertFalse(VideoFileServer.ifRangeMatches("Tue, 14 Nov 2023 22:13:21 GMT", eTag, 1_700_000_000_000L));
+    }
+
+    @Test
+    void acceptsOnlyRelativePathsBelowManifestDirectory() {
+        assertTrue(VideoFileServer.isSafeRelativePath("master.m3u8"));
+        assertTrue(VideoFileServer.isSafeRelativePath("720p/seg_00001.m4s"));
+        assertFalse(VideoFileServer.isSafeRelativePath("../secret.mp4"));
+        assertFalse(VideoFileServer.isSafeRelativePath("720p/../../x"));
+        assertFalse(VideoFileServer.isSafeRelativePath("/etc/passwd"));
+        assertFalse(VideoFileServer.isSafeRelativePath("720p//index.m3u8"));
+        assertFalse(VideoFileServer.isSafeRelativePath("720p\\index.m3u8"));
+        assertFalse(VideoFileServer.isSafeRelativePath(""));
+    }
+}
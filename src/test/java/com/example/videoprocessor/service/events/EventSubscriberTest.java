@@ -0,0 +1,142 @@
+package com.example.videoprocessor.service.events;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.videoprocessor.dto.VideoStatusEventDto;
+import com.example.videoprocessor.entity.enums.VideoStatus;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+public class EventSubscriberTest {
+
+    @Test
+    void slowSubscriberDropsOldestEventsAndKeepsTheLatest() {
+        Deque<Runnable> pending = new ArrayDeque<>();
+        List<Integer> sent = new ArrayList<>();
+        EventSubscriber subscriber = subscriber(3, pending::add, event -> sent.add(event.getProgressPercentage()));
+
+        for (int progress = 1; progress <= 5; progress++) {
+            subscriber.offer(event(progress, null));
+        }
+        // Tek bir gönderim işi planlanır; o çalışana kadar tampon sınırlı kalır
+        assertEquals(1, pending.size());
+        pending.poll().run();
+
+        assertEquals(List.of(3, 4, 5), sent);
+        assertEquals(2, subscriber.getDroppedEvents());
+    }
+
+    @Test
+    void concurrentPublishersNeverSendInParallel() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        List<Integer> sent = Collections.synchronizedList(new ArrayList<>());
+        EventSubscriber subscriber = subscriber(1000, executor, event -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            sent.add(event.getProgressPercentage());
+            inFlight.decrementAndGet();
+        });
+
+        CountDownLatch published = new CountDownLatch(4);
+        for (int publisher = 0; publisher < 4; publisher++) {
+            int offset = publisher * 100;
+            executor.execute(() -> {
+                for (int i = 1; i <= 100; i++) {
+                    subscriber.offer(event(offset + i, null));
+                }
+                published.countDown();
+            });
+        }
+        assertTrue(published.await(5, TimeUnit.SECONDS));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (sent.size() < 400 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        executor.shutdown();
+
+        assertEquals(400, Set.copyOf(sent).size());
+        assertEquals(1, maxInFlight.get());
+    }
+
+    @Test
+    void failedDeliveryClosesTheSubscriber() {
+        List<Integer> sent = new ArrayList<>();
+        EventSubscriber subscriber = subscriber(10, Runnable::run, event -> {
+            if (event.getProgressPercentage() == 2) {
+                throw new IOException("client went away");
+            }
+            sent.add(event.getProgressPercentage());
+        });
+
+        subscriber.offer(event(1, null));
+        subscriber.offer(event(2, null));
+        subscriber.offer(event(3, null));
+
+        assertTrue(subscriber.isClosed());
+        assertEquals(List.of(1), sent);
+    }
+
+    @Test
+    void sseStreamEndsAfterTheTerminalStatus() {
+        List<SseEmitter.SseEventBuilder> sent = new ArrayList<>();
+        SseEmitter emitter = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) {
+                sent.add(builder);
+            }
+        };
+        SseEventSubscriber subscriber = new SseEventSubscriber(emitter, 10, Runnable::run);
+
+        subscriber.offer(event(50, VideoStatus.TRANSCODING));
+        subscriber.offer(event(100, VideoStatus.COMPLETED));
+        subscriber.offer(event(100, VideoStatus.COMPLETED));
+
+        assertTrue(subscriber.isClosed());
+        assertEquals(2, sent.size());
+    }
+
+    @FunctionalInterface
+    interface Sender {
+        void send(VideoStatusEventDto event) throws Exception;
+    }
+
+    private EventSubscriber subscriber(int capacity, Executor executor, Sender sender) {
+        return new EventSubscriber(capacity, executor) {
+            @Override
+            protected void send(VideoStatusEventDto event) throws Exception {
+                sender.send(event);
+            }
+
+            @Override
+            protected void onClose() {
+            }
+        };
+    }
+
+    private VideoStatusEventDto event(int progress, VideoStatus status) {
+        VideoStatusEventDto event = new VideoStatusEventDto();
+        event.setType(VideoStatusEventDto.TYPE_STATUS);
+        event.setVideoId(1L);
+        event.setEventId((long) progress);
+        event.setProgressPercentage(progress);
+        event.setStatus(status != null ? status.name() : null);
+        return event;
+    }
+}
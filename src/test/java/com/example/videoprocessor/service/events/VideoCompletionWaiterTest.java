@@ -0,0 +1,95 @@
+package com.example.videoprocessor.service.events;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.videoprocessor.entity.enums.VideoStatus;
+import com.example.videoprocessor.repository.VideoRepository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class VideoCompletionWaiterTest {
+
+    private final VideoRepository videoRepository = mock(VideoRepository.class);
+    private final VideoCompletionWaiter waiter = new VideoCompletionWaiter();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(waiter, "videoRepository", videoRepository);
+        when(videoRepository.findStatusById(7L)).thenReturn(Optional.of(VideoStatus.TRANSCODING));
+    }
+
+    @Test
+    void completesWhenTerminalEventArrivesBeforeDeadline() throws Exception {
+        CompletableFuture<VideoStatus> completion = waiter.awaitTerminal(7L);
+        assertFalse(completion.isDone());
+
+        // Ara durumlar bekleyeni tamamlamaz
+        waiter.onStatusChanged(new VideoStatusChangedEvent(7L, VideoStatus.TRANSCODING, 50, null));
+        assertFalse(completion.isDone());
+
+        CompletableFuture.runAsync(() ->
+                waiter.onStatusChanged(new VideoStatusChangedEvent(7L, VideoStatus.COMPLETED, 100, null)));
+
+        assertEquals(VideoStatus.COMPLETED, completion.get(5, TimeUnit.SECONDS));
+        assertEquals(0, waiter.getWaiterCount());
+    }
+
+    @Test
+    void timedOutWaiterIsReleasedAndNoLongerPolled() {
+        CompletableFuture<VideoStatus> completion = waiter.awaitTerminal(7L);
+        assertEquals(1, waiter.getWaiterCount());
+
+        assertThrows(TimeoutException.class, () -> completion.get(50, TimeUnit.MILLISECONDS));
+        waiter.release(7L, completion);
+
+        assertEquals(0, waiter.getWaiterCount());
+        waiter.pollOtherNodes();
+        verify(videoRepository, never()).findIdsByIdInAndStatusIn(anyCollection(), any());
+        // Bırakıldıktan sonra gelen olay bir şey yapmaz
+        waiter.onStatusChanged(new VideoStatusChangedEvent(7L, VideoStatus.COMPLETED, 100, null));
+        assertFalse(completion.isDone());
+    }
+
+    @Test
+    void missedEventIsRecoveredByPollingSweep() throws Exception {
+        CompletableFuture<VideoStatus> first = waiter.awaitTerminal(7L);
+        CompletableFuture<VideoStatus> second = waiter.awaitTerminal(7L);
+
+        // İş başka bir node'da bitti: bu node'a olay gelmedi
+        when(videoRepository.findIdsByIdInAndStatusIn(anyCollection(), any())).thenReturn(List.of(7L));
+        when(videoRepository.findStatusById(7L)).thenReturn(Optional.of(VideoStatus.FAILED));
+        waiter.pollOtherNodes();
+
+        assertEquals(VideoStatus.FAILED, first.get(1, TimeUnit.SECONDS));
+        assertEquals(VideoStatus.FAILED, second.get(1, TimeUnit.SECONDS));
+        assertEquals(0, waiter.getWaiterCount());
+    }
+
+    @Test
+    void videoAlreadyFinishedBeforeRegistrationCompletesImmediately() {
+        when(videoRepository.findStatusById(7L)).thenReturn(Optional.of(VideoStatus.CANCELLED));
+
+        CompletableFuture<VideoStatus> completion = waiter.awaitTerminal(7L);
+
+        assertTrue(completion.isDone());
+        assertEquals(VideoStatus.CANCELLED, completion.join());
+        assertEquals(0, waiter.getWaiterCount());
+    }
+}
@@ -0,0 +1,103 @@
+package com.example.videoprocessor.service.events;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.videoprocessor.dto.VideoStatusEventDto;
+import com.example.videoprocessor.entity.enums.VideoStatus;
+import com.example.videoprocessor.service.VideoProgressTracker;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class VideoEventBroadcasterTest {
+
+    private final VideoEventBroadcaster broadcaster = new VideoEventBroadcaster();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(broadcaster, "progressTracker", new VideoProgressTracker());
+        ReflectionTestUtils.setField(broadcaster, "replaySize", 32);
+    }
+
+    @Test
+    void resumesAfterLastEventIdFromTheBoundedReplayBuffer() {
+        RecordingSubscriber early = new RecordingSubscriber();
+        broadcaster.subscribe(early, Set.of(1L), null);
+        for (int progress = 1; progress <= 40; progress++) {
+            broadcaster.onStatusChanged(new VideoStatusChangedEvent(1L, null, progress, null));
+        }
+        List<Long> ids = early.received.stream().map(VideoStatusEventDto::getEventId).toList();
+
+        // Sadece son 32 olay tutulur
+        RecordingSubscriber fromStart = new RecordingSubscriber();
+        assertTrue(broadcaster.subscribe(fromStart, Set.of(1L), ids.get(0)));
+        assertEquals(ids.subList(8, 40), eventIds(fromStart));
+
+        RecordingSubscriber resumed = new RecordingSubscriber();
+        assertTrue(broadcaster.subscribe(resumed, Set.of(1L), ids.get(34)));
+        assertEquals(ids.subList(35, 40), eventIds(resumed));
+
+        RecordingSubscriber upToDate = new RecordingSubscriber();
+        assertFalse(broadcaster.subscribe(upToDate, Set.of(1L), ids.get(39)));
+        assertFalse(broadcaster.subscribe(new RecordingSubscriber(), Set.of(1L), null));
+    }
+
+    @Test
+    void progressOnlyEventsCarryTheLastKnownStatus() {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        broadcaster.subscribe(subscriber, Set.of(1L), null);
+
+        broadcaster.onStatusChanged(new VideoStatusChangedEvent(1L, VideoStatus.TRANSCODING, 20, null));
+        broadcaster.onStatusChanged(new VideoStatusChangedEvent(1L, null, 45, null, 30_000L));
+
+        VideoStatusEventDto last = subscriber.received.get(1);
+        assertEquals("TRANSCODING", last.getStatus());
+        assertEquals(45, last.getProgressPercentage());
+        assertEquals(30_000L, last.getEstimatedTimeRemaining());
+        assertTrue(last.getEventId() > subscriber.received.get(0).getEventId());
+    }
+
+    @Test
+    void deliversOnlyEventsOfSubscribedVideosUntilUnsubscribed() {
+        RecordingSubscriber subscriber = new RecordingSubscriber();
+        broadcaster.subscribe(subscriber, Set.of(1L), null);
+
+        broadcaster.onStatusChanged(new VideoStatusChangedEvent(2L, VideoStatus.TRANSCODING, 20, null));
+        broadcaster.onStatusChanged(new VideoStatusChangedEvent(1L, VideoStatus.TRANSCODING, 20, null));
+        broadcaster.unsubscribeAll(subscriber);
+        broadcaster.onStatusChanged(new VideoStatusChangedEvent(1L, null, 30, null));
+
+        assertEquals(1, subscriber.received.size());
+        assertEquals(1L, subscriber.received.get(0).getVideoId());
+        assertEquals(0, broadcaster.getSubscriberCount());
+    }
+
+    private List<Long> eventIds(RecordingSubscriber subscriber) {
+        return subscriber.received.stream().map(VideoStatusEventDto::getEventId).toList();
+    }
+
+    static class RecordingSubscriber extends EventSubscriber {
+
+        final List<VideoStatusEventDto> received = new ArrayList<>();
+
+        RecordingSubscriber() {
+            super(64, Runnable::run);
+        }
+
+        @Override
+        protected void send(VideoStatusEventDto event) {
+            received.add(event);
+        }
+
+        @Override
+        protected void onClose() {
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.example.videoprocessor.service.ffmpeg;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+public class FFmpegProgressParserTest {
+
+    @Test
+    void emitsSnapshotAtEndOfEachBlock() {
+        FFmpegProgressParser parser = new FFmpegProgressParser();
+
+        assertNull(parser.accept("frame=300"));
+        assertNull(parser.accept("out_time_us=30000000"));
+        assertNull(parser.accept("out_time_ms=30000000"));
+        assertNull(parser.accept("speed=2.5x"));
+        FFmpegProgress progress = parser.accept("progress=continue");
+
+        assertEquals(30_000_000L, progress.outTimeMicros());
+        assertEquals(0.25, progress.fraction(120.0));
+        // kalan 90 sn medya / 2.5x hız = 36 sn
+        assertEquals(36_000L, progress.etaMillis(120.0));
+
+        assertNull(parser.accept("speed=N/A"));
+        FFmpegProgress last = parser.accept("progress=end");
+        assertTrue(last.finished());
+        assertNull(last.speed());
+        assertEquals(1.0, last.fraction(120.0));
+    }
+}
@@ -0,0 +1,72 @@
+package com.example.videoprocessor.service.ffmpeg;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.videoprocessor.dto.VideoMetadataDto;
+
+public class FFprobeParserTest {
+
+    private static final String PHONE_RECORDING = """
+            {
+              "streams": [
+                {
+                  "index": 0, "codec_name": "h264", "profile": "High", "codec_type": "video",
+                  "width": 1920, "height": 1080, "pix_fmt": "yuv420p",
+                  "r_frame_rate": "30/1", "avg_frame_rate": "30000/1001",
+                  "duration": "12.512000", "bit_rate": "8012345",
+                  "disposition": { "default": 1, "attached_pic": 0 },
+                  "tags": { "language": "und", "handler_name": "VideoHandle" },
+                  "side_data_list": [ { "side_data_type": "Display Matrix", "rotation": -90 } ]
+                },
+                {
+                  "index": 1, "codec_name": "aac", "codec_type": "audio",
+                  "sample_rate": "48000", "channels": 2, "bit_rate": "192000",
+                  "tags": { "language": "eng" }
+                },
+                {
+                  "index": 2, "codec_name": "mjpeg", "codec_type": "video", "width": 320, "height": 240,
+                  "avg_frame_rate": "0/0", "disposition": { "attached_pic": 1 }
+                }
+              ],
+              "format": {
+                "filename": "in.mp4", "nb_streams": 3, "format_name": "mov,mp4,m4a,3gp,3g2,mj2",
+                "format_long_name": "QuickTime / MOV", "duration": "12.533000",
+                "size": "12845123", "bit_rate": "8199999", "tags": { "major_brand": "isom" }
+              }
+            }
+            """;
+
+    @Test
+    void extractsFormatAndPrimaryStreams() throws Exception {
+        VideoMetadataDto metadata = new FFprobeParser().parse(
+                new ByteArrayInputStream(PHONE_RECORDING.getBytes(StandardCharsets.UTF_8)));
+
+        assertEquals(13L, metadata.getDuration());
+        assertEquals(12.533, metadata.getDurationSeconds());
+        assertEquals("1920x1080", metadata.getResolution());
+        assertEquals("h264", metadata.getCodec());
+        assertEquals(29.97, metadata.getFrameRate());
+        assertEquals(-90, metadata.getRotation());
+        assertEquals("yuv420p", metadata.getPixelFormat());
+        assertEquals(8199, metadata.getBitrate());
+        assertEquals(12845123L, metadata.getFileSize());
+        assertEquals("aac", metadata.getAudioCodec());
+        assertEquals(2, metadata.getAudioChannels());
+        assertEquals(48000, metadata.getAudioSampleRate());
+        assertEquals(3, metadata.getStreams().size());
+        assertEquals("eng", metadata.getStreams().get(1).getLanguage());
+    }
+
+    @Test
+    void parsesFfprobeRationals() {
+        assertEquals(25.0, FFprobeParser.parseRational("25/1"));
+        assertEquals(23.976, FFprobeParser.parseRational("24000/1001"));
+        assertNull(FFprobeParser.parseRational("0/0"));
+    }
+}
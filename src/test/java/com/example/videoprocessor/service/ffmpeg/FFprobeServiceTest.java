@@ -0,0 +1,55 @@
+package com.example.videoprocessor.service.ffmpeg;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import com.example.videoprocessor.service.storage.LocalFile;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class FFprobeServiceTest {
+
+    private static final String LOCATION = "s3://videos/uploads/1700_clip.mp4";
+
+    @TempDir
+    Path scratch;
+
+    @Test
+    void downloadedCopiesOfTheSameObjectShareOneCacheKey() throws Exception {
+        // Her localize farklı bir scratch yoluna indirir
+        LocalFile first = new LocalFile(copy("a_clip.mp4"), true, LOCATION, "\"etag-1\"");
+        LocalFile second = new LocalFile(copy("b_clip.mp4"), true, LOCATION, "\"etag-1\"");
+
+        assertEquals(FFprobeService.cacheKey(first), FFprobeService.cacheKey(second));
+        assertEquals(new ProbeCache.Key(LOCATION, 4, "\"etag-1\""), FFprobeService.cacheKey(first));
+    }
+
+    @Test
+    void overwrittenObjectGetsANewCacheKey() throws Exception {
+        LocalFile before = new LocalFile(copy("a_clip.mp4"), true, LOCATION, "\"etag-1\"");
+        LocalFile after = new LocalFile(copy("b_clip.mp4"), true, LOCATION, "\"etag-2\"");
+
+        assertNotEquals(FFprobeService.cacheKey(before), FFprobeService.cacheKey(after));
+    }
+
+    @Test
+    void localFilesAreKeyedOnPathAndModificationTime() throws Exception {
+        Path file = copy("1700_clip.mp4");
+        Files.setLastModifiedTime(file, FileTime.fromMillis(1_700_000_000_000L));
+
+        ProbeCache.Key key = FFprobeService.cacheKey(new LocalFile(file, false));
+
+        assertEquals(new ProbeCache.Key(file.toAbsolutePath().toString(), 4, "1700000000000"), key);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(1_700_000_001_000L));
+        assertNotEquals(key, FFprobeService.cacheKey(new LocalFile(file, false)));
+    }
+
+    private Path copy(String name) throws Exception {
+        return Files.write(scratch.resolve(name), new byte[]{0, 0, 0, 24});
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.videoprocessor.service.ffmpeg;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.videoprocessor.dto.VideoMetadataDto;
+import com.example.videoprocessor.dto.VideoStreamDto;
+
+public class ProbeCacheTest {
+
+    private static final ProbeCache.Key KEY = new ProbeCache.Key("/app/uploads/clip.mp4", 1024, "1700");
+
+    @Test
+    void callersCannotChangeTheCachedMetadata() {
+        ProbeCache cache = new ProbeCache(10);
+        VideoMetadataDto probed = metadata();
+        cache.put(KEY, probed);
+        probed.setWidth(640);
+
+        VideoMetadataDto first = cache.get(KEY);
+        first.setWidth(320);
+        first.getStreams().get(0).setCodecName("hevc");
+
+        VideoMetadataDto second = cache.get(KEY);
+        assertNotSame(first, second);
+        assertEquals(1920, second.getWidth());
+        assertEquals("h264", second.getStreams().get(0).getCodecName());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedEntry() {
+        ProbeCache cache = new ProbeCache(1);
+        cache.put(KEY, metadata());
+        cache.put(new ProbeCache.Key("/app/uploads/other.mp4", 1024, "1700"), metadata());
+
+        assertNull(cache.get(KEY));
+        assertEquals(1, cache.size());
+    }
+
+    private VideoMetadataDto metadata() {
+        VideoStreamDto stream = new VideoStreamDto();
+        stream.setCodecType("video");
+        stream.setCodecName("h264");
+        VideoMetadataDto metadata = new VideoMetadataDto();
+        metadata.setWidth(1920);
+        metadata.setHeight(1080);
+        metadata.setStreams(List.of(stream));
+        return metadata;
+    }
+}
@@ -0,0 +1,155 @@
+package com.example.videoprocessor.service.ffmpeg.command;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class FFmpegCommandTest {
+
+    @Test
+    void compilesAllOutputsIntoSingleDecodeWithSplit() {
+        FFmpegCommand command = FFmpegCommand.builder("/in.mp4")
+                .output(TranscodeOutput.defaultMp4("/out.mp4"))
+                .output(new ThumbnailOutput("/thumb.jpg", 5.0, 320, 240))
+                .output(new PreviewClipOutput("/preview.mp4", 10, 360))
+                .build();
+
+        List<String> args = command.toArgs();
+
+        assertEquals(1, Collections.frequency(args, "-i"));
+        assertEquals("[0:v]split=3[s0][s1][s2]"
+                        + ";[s0]scale=1280:720[v0]"
+                        + ";[s1]trim=start=5.0,scale=320:240[v1]"
+                        + ";[s2]trim=duration=10,setpts=PTS-STARTPTS,scale=-2:360[v2]",
+                args.get(args.indexOf("-filter_complex") + 1));
+
+        int thumbMap = args.indexOf("[v1]");
+        assertTrue(thumbMap > args.indexOf("/out.mp4"));
+        assertTrue(args.indexOf("/thumb.jpg") > thumbMap);
+        assertEquals(2, Collections.frequency(args, "0:a?"));
+    }
+
+    @Test
+    void seekOutputsGetTheirOwnKeyframeSeekedInputs() {
+        List<String> args = FFmpegCommand.builder("/in.mp4")
+                .keyframesOnly()
+                .output(new SpriteSheetOutput("/sprite.jpg", 10.0, 10, 3, 160, 90))
+                .output(ThumbnailOutput.keyframeAt("/thumb.jpg", 2.5, 320, 240))
+                .output(ThumbnailOutput.keyframeAt("/thumb_0.jpg", 30.0, 320, 240))
+                .build()
+                .toArgs();
+
+        assertEquals(3, Collections.frequency(args, "-i"));
+        assertEquals(2, Collections.frequency(args, "-noaccurate_seek"));
+        assertTrue(args.indexOf("nokey") < args.indexOf("-i"));
+        assertEquals("2.5", args.get(args.indexOf("-ss") + 1));
+        assertEquals("[0:v]fps=1/10.0,scale=160:90,tile=10x3[v0];[1:v]scale=320:240[v1];[2:v]scale=320:240[v2]",
+                args.get(args.indexOf("-filter_complex") + 1));
+    }
+
+    @Test
+    void streamCopyOutputBypassesFilterGraph() {
+        List<String> args = FFmpegCommand.builder("/in.mp4")
+                .output(new RemuxOutput("/out.mp4", false, "128k"))
+                .output(ThumbnailOutput.keyframeAt("/thumb.jpg", 2.5, 320, 240))
+                .build()
+                .toArgs();
+
+        assertEquals("0:v:0", args.get(args.indexOf("-map") + 1));
+        assertEquals("copy", args.get(args.indexOf("-c:v") + 1));
+        assertEquals("[1:v]scale=320:240[v1]", args.get(args.indexOf("-filter_complex") + 1));
+
+        List<String> remuxOnly = FFmpegCommand.builder("/in.mp4")
+                .output(new RemuxOutput("/out.mp4", true, "128k"))
+                .build()
+                .toArgs();
+        assertEquals(-1, remuxOnly.indexOf("-filter_complex"));
+        assertEquals("aac", remuxOnly.get(remuxOnly.indexOf("-c:a") + 1));
+    }
+
+    @Test
+    void onlySeekOutputsSkipSharedInput() {
+        List<String> args = FFmpegCommand.builder("/in.mp4")
+                .output(ThumbnailOutput.keyframeAt("/thumb.jpg", 2.5, 320, 240))
+                .build()
+                .toArgs();
+
+        assertEquals(1, Collections.frequency(args, "-i"));
+        assertTrue(args.indexOf("-ss") < args.indexOf("-i"));
+        assertEquals("[0:v]scale=320:240[v0]", args.get(args.indexOf("-filter_complex") + 1));
+    }
+
+    @Test
+    void singleOutputSkipsSplit() {
+        FFmpegCommand command = FFmpegCommand.builder("/in.mp4")
+                .output(TranscodeOutput.defaultMp4("/out.mp4"))
+                .build();
+
+        assertEquals("[0:v]scale=1280:720[v0]", command.buildFilterGraph());
+    }
+
+    @Test
+    void appliesThreadLimitToDecodeFilterAndEachEncoder() {
+        List<String> args = FFmpegCommand.builder("/in.mp4")
+                .output(TranscodeOutput.defaultMp4("/out.mp4"))
+                .output(new ThumbnailOutput("/thumb.jpg", 5.0, 320, 240))
+                .threads(6)
+                .build()
+                .toArgs();
+
+        assertEquals(3, Collections.frequency(args, "-threads"));
+        assertTrue(args.indexOf("-threads") < args.indexOf("-i"));
+        assertEquals("6", args.get(args.indexOf("-filter_complex_threads") + 1));
+        assertEquals("-threads", args.get(args.indexOf("/out.mp4") - 2));
+    }
+
+    @Test
+    void hlsRenditionsShareOneDecodeWithAlignedKeyframes() {
+        List<String> args = FFmpegCommand.builder("/in.mp4")
+                .output(new HlsRenditionOutput("/hls/720p/index.m3u8", 720, 2800, 128, 4, "veryfast"))
+                .output(new HlsRenditionOutput("/hls/360p/index.m3u8", 360, 800, 128, 4, "veryfast"))
+                .build()
+                .toArgs();
+
+        assertEquals(1, Collections.frequency(args, "-i"));
+        assertEquals("[0:v]split=2[s0][s1];[s0]scale=-2:720[v0];[s1]scale=-2:360[v1]",
+                args.get(args.indexOf("-filter_complex") + 1));
+        assertEquals(2, Collections.frequency(args, "expr:gte(t,n_forced*4)"));
+        assertTrue(args.contains("/hls/720p/seg_%05d.m4s"));
+        assertEquals("2996k", args.get(args.indexOf("-maxrate") + 1));
+    }
+
+    @Test
+    void stitchTakesVideoFromConcatListAndAudioFromOriginal() {
+        List<String> args = FFmpegCommand.builder("/seg/concat.txt")
+                .inputArgs("-f", "concat", "-safe", "0")
+                .audioFrom("/in.mp4")
+                .output(new RemuxOutput("/out.mp4", true, "128k"))
+                .build()
+                .toArgs();
+
+        assertEquals(List.of("-f", "concat", "-safe", "0", "-i", "/seg/concat.txt", "-i", "/in.mp4"),
+                args.subList(args.indexOf("-f"), args.indexOf("-map")));
+        assertEquals("0:v:0", args.get(args.indexOf("-map") + 1));
+        assertEquals("1:a?", args.get(args.lastIndexOf("-map") + 1));
+        assertFalse(args.contains("-filter_complex"));
+    }
+
+    @Test
+    void splitCopiesStreamsIntoKeyframeAlignedSegments() {
+        List<String> args = FFmpegCommand.builder("/in.mp4")
+                .output(new SegmentSplitOutput("/seg/src_%05d.mkv", 60, "/seg/segments.csv"))
+                .build()
+                .toArgs();
+
+        assertEquals(List.of("-map", "0:v:0", "-map", "0:a?", "-c", "copy", "-f", "segment"),
+                args.subList(args.indexOf("-map"), args.indexOf("-segment_format")));
+        assertEquals("60", args.get(args.indexOf("-segment_time") + 1));
+        assertEquals("/seg/src_%05d.mkv", args.get(args.size() - 1));
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.videoprocessor.service.hls;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.videoprocessor.dto.VideoMetadataDto;
+import com.example.videoprocessor.service.ffmpeg.command.HlsRenditionOutput;
+
+public class HlsLadderTest {
+
+    private static VideoMetadataDto metadata(int width, int height, Integer rotation) {
+        VideoMetadataDto metadata = new VideoMetadataDto();
+        metadata.setWidth(width);
+        metadata.setHeight(height);
+        metadata.setRotation(rotation);
+        return metadata;
+    }
+
+    @Test
+    void parsesAndSortsRungsDescending() {
+        assertEquals(List.of(new HlsLadder.Rung(1080, 5000), new HlsLadder.Rung(720, 2800), new HlsLadder.Rung(360, 800)),
+                HlsLadder.parse("360:800, 1080:5000k,720:2800,"));
+        assertThrows(IllegalArgumentException.class, () -> HlsLadder.parse("720"));
+    }
+
+    @Test
+    void skipsRungsAboveSourceHeight() {
+        List<HlsLadder.Rung> ladder = HlsLadder.parse("1080:5000,720:2800,360:800");
+
+        assertEquals(List.of(new HlsLadder.Rung(720, 2800), new HlsLadder.Rung(360, 800)),
+                HlsLadder.forSource(ladder, metadata(1280, 720, null)));
+        // 90 derece döndürülmüş 1920x1080 dikey oynatılır: görüntü yüksekliği 1920
+        assertEquals(ladder, HlsLadder.forSource(ladder, metadata(1920, 1080, 90)));
+        assertEquals(List.of(new HlsLadder.Rung(360, 800)),
+                HlsLadder.forSource(ladder, metadata(320, 240, null)));
+        assertEquals(ladder, HlsLadder.forSource(ladder, null));
+    }
+
+    @Test
+    void scaledWidthMatchesEvenRoundingOfScaleFilter() {
+        assertEquals(1280, HlsLadder.scaledWidth(720, metadata(1920, 1080, null)));
+        assertEquals(640, HlsLadder.scaledWidth(360, metadata(1920, 1080, null)));
+        assertEquals(640, HlsLadder.scaledWidth(360, metadata(1080, 1920, -90)));
+        assertEquals(202, HlsLadder.scaledWidth(360, metadata(1080, 1920, null)));
+        assertNull(HlsLadder.scaledWidth(360, null));
+    }
+
+    @Test
+    void masterPlaylistListsEveryRendition() {
+        List<HlsRenditionOutput> renditions = List.of(
+                new HlsRenditionOutput("/hls/720p/index.m3u8", 720, 2800, 128, 4, "veryfast"),
+                new HlsRenditionOutput("/hls/360p/index.m3u8", 360, 800, 128, 4, "veryfast"));
+
+        assertEquals("""
+                #EXTM3U
+                #EXT-X-VERSION:7
+                #EXT-X-INDEPENDENT-SEGMENTS
+                #EXT-X-STREAM-INF:BANDWIDTH=3124000,AVERAGE-BANDWIDTH=2928000,RESOLUTION=1280x720,CODECS="avc1.640029,mp4a.40.2"
+                720p/index.m3u8
+                #EXT-X-STREAM-INF:BANDWIDTH=984000,AVERAGE-BANDWIDTH=928000,RESOLUTION=640x360,CODECS="avc1.640029,mp4a.40.2"
+                360p/index.m3u8
+                """, HlsLadder.masterPlaylist(renditions, metadata(1920, 1080, null)));
+    }
+}
@@ -0,0 +1,46 @@
+package com.example.videoprocessor.service.job;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class RunningJobRegistryTest {
+
+    @Test
+    void cancelKillsAttachedProcess() throws Exception {
+        RunningJobRegistry registry = new RunningJobRegistry();
+        RunningJob job = registry.register(1L);
+        Process process = new ProcessBuilder("sleep", "30").start();
+        job.attach(process);
+
+        assertTrue(registry.cancel(1L));
+        assertTrue(process.waitFor(5, TimeUnit.SECONDS));
+        assertThrows(JobCancelledException.class, job::throwIfCancelled);
+    }
+
+    @Test
+    void cancellationBeforeRegisterIsRemembered() {
+        RunningJobRegistry registry = new RunningJobRegistry();
+        assertFalse(registry.cancel(2L));
+
+        RunningJob job = registry.register(2L);
+        assertTrue(job.isCancelled());
+    }
+
+    @Test
+    void deletesPartialOutputs(@TempDir Path dir) throws Exception {
+        RunningJob job = new RunningJobRegistry().register(3L);
+        Path output = Files.writeString(dir.resolve("partial.mp4"), "data");
+        job.addOutputPath(output.toString());
+
+        job.deleteOutputs();
+        assertFalse(Files.exists(output));
+    }
+}
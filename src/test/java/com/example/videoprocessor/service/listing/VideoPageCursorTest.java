@@ -0,0 +1,26 @@
+package com.example.videoprocessor.service.listing;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+public class VideoPageCursorTest {
+
+    @Test
+    void roundTripsCreatedAtAndId() {
+        VideoPageCursor cursor = new VideoPageCursor(LocalDateTime.of(2024, 3, 1, 12, 30, 5, 123456000), 42L);
+
+        assertEquals(cursor, VideoPageCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void blankCursorMeansFirstPageAndGarbageIsRejected() {
+        assertNull(VideoPageCursor.decode(null));
+        assertNull(VideoPageCursor.decode(""));
+        assertThrows(IllegalArgumentException.class, () -> VideoPageCursor.decode("not-a-cursor"));
+    }
+}
@@ -0,0 +1,160 @@
+package com.example.videoprocessor.service.pipeline;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.example.videoprocessor.service.job.JobCancelledException;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class StageGraphExecutorTest {
+
+    private final List<ThreadPoolTaskExecutor> pools = new ArrayList<>();
+    private final List<String> started = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> completed = Collections.synchronizedList(new ArrayList<>());
+    private final StageListener listener = new StageListener() {
+        @Override
+        public void onStageStarted(ProcessingStage stage) {
+            started.add(stage.getName());
+        }
+
+        @Override
+        public void onStageCompleted(ProcessingStage stage) {
+            completed.add(stage.getName());
+        }
+    };
+
+    @AfterEach
+    void shutdownPools() {
+        pools.forEach(ThreadPoolTaskExecutor::shutdown);
+    }
+
+    @Test
+    void rejectsDuplicateAndUnknownStages() {
+        StageGraphExecutor executor = executor(2);
+
+        assertThrows(IllegalArgumentException.class, () -> executor.execute(List.of(
+                stage("A", Set.of(), context -> { }),
+                stage("A", Set.of(), context -> { })), context(), listener));
+        assertThrows(IllegalArgumentException.class, () -> executor.execute(List.of(
+                stage("A", Set.of("MISSING"), context -> { })), context(), listener));
+        assertEquals(List.of(), started);
+    }
+
+    @Test
+    void runsIndependentBranchesConcurrentlyAndJoinsBeforeDependent() throws Exception {
+        // B ve C birbirini beklemeden bariyeri geçemez: ikisi aynı anda çalışmalı
+        CyclicBarrier bothRunning = new CyclicBarrier(2);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+
+        executor(2).execute(diamond(
+                context -> {
+                    bothRunning.await(5, TimeUnit.SECONDS);
+                    order.add("B");
+                },
+                context -> {
+                    bothRunning.await(5, TimeUnit.SECONDS);
+                    order.add("C");
+                },
+                order), context(), listener);
+
+        assertEquals("A", order.get(0));
+        assertEquals("D", order.get(3));
+        assertEquals(Set.of("A", "B", "C", "D"), Set.copyOf(completed));
+        assertEquals(List.of("A", "B", "C", "D"), started);
+    }
+
+    @Test
+    void completesFanOutOnSingleThreadPool() throws Exception {
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+
+        executor(1).execute(diamond(context -> order.add("B"), context -> order.add("C"), order), context(), listener);
+
+        assertEquals(4, order.size());
+        assertEquals("D", order.get(3));
+    }
+
+    @Test
+    void failedStageSkipsDependentsAfterRunningSiblingsFinish() throws Exception {
+        RuntimeException failure = new RuntimeException("thumbnail failed");
+        CountDownLatch failed = new CountDownLatch(1);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+
+        Exception thrown = assertThrows(RuntimeException.class, () -> executor(2).execute(diamond(
+                context -> {
+                    failed.countDown();
+                    throw failure;
+                },
+                context -> {
+                    // Kardeş stage hata sonrasında biter; executor onu beklemeden dönmemeli
+                    assertTrue(failed.await(5, TimeUnit.SECONDS));
+                    order.add("C");
+                },
+                order), context(), listener));
+
+        assertSame(failure, thrown);
+        assertEquals(List.of("A", "C"), order);
+        assertEquals(List.of("A"), completed);
+        assertEquals(List.of("A", "B", "C"), started);
+    }
+
+    @Test
+    void cancellationIsRethrownWithoutStartingDependents() {
+        JobCancelledException cancelled = new JobCancelledException(42L);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        List<ProcessingStage> stages = List.of(
+                stage("A", Set.of(), context -> {
+                    throw cancelled;
+                }),
+                stage("B", Set.of("A"), context -> order.add("B")));
+
+        Exception thrown = assertThrows(JobCancelledException.class, () -> executor(2).execute(stages, context(), listener));
+
+        assertSame(cancelled, thrown);
+        assertEquals(List.of(), order);
+        assertEquals(List.of("A"), started);
+    }
+
+    // A ──┬──> B ──┬──> D
+    //     └──> C ──┘
+    private List<ProcessingStage> diamond(ProcessingStage.StageAction b, ProcessingStage.StageAction c, List<String> order) {
+        return List.of(
+                stage("A", Set.of(), context -> order.add("A")),
+                stage("B", Set.of("A"), b),
+                stage("C", Set.of("A"), c),
+                stage("D", Set.of("B", "C"), context -> order.add("D")));
+    }
+
+    private ProcessingStage stage(String name, Set<String> dependencies, ProcessingStage.StageAction action) {
+        return ProcessingStage.of(name, dependencies, action);
+    }
+
+    private StageGraphExecutor executor(int threads) {
+        ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+        pool.setCorePoolSize(threads);
+        pool.setMaxPoolSize(threads);
+        pool.initialize();
+        pools.add(pool);
+
+        StageGraphExecutor executor = new StageGraphExecutor();
+        ReflectionTestUtils.setField(executor, "taskExecutor", pool);
+        return executor;
+    }
+
+    private ProcessingContext context() {
+        return new ProcessingContext(42L, "/tmp/input.mp4", "input.mp4", null);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.videoprocessor.service.pipeline;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.videoprocessor.dto.VideoMetadataDto;
+import com.example.videoprocessor.entity.enums.TranscodeMode;
+
+public class TranscodeDecisionTest {
+
+    private static VideoMetadataDto metadata(String codec, String pixelFormat, int width, int height,
+                                             String audioCodec, Long videoBitrate) {
+        VideoMetadataDto metadata = new VideoMetadataDto();
+        metadata.setCodec(codec);
+        metadata.setPixelFormat(pixelFormat);
+        metadata.setWidth(width);
+        metadata.setHeight(height);
+        metadata.setAudioCodec(audioCodec);
+        metadata.setVideoBitrate(videoBitrate);
+        return metadata;
+    }
+
+    @Test
+    void remuxesH264AacWithinTarget() {
+        assertEquals(TranscodeMode.REMUX,
+                TranscodeDecision.decide(metadata("h264", "yuv420p", 1280, 720, "aac", 4_000_000L), 1280, 720, 8000));
+        // Dikey telefon videosu
+        assertEquals(TranscodeMode.REMUX,
+                TranscodeDecision.decide(metadata("h264", "yuvj420p", 720, 1280, null, null), 1280, 720, 8000));
+    }
+
+    @Test
+    void reencodesOnlyAudioWhenAudioIsNotAac() {
+        assertEquals(TranscodeMode.AUDIO_REENCODE,
+                TranscodeDecision.decide(metadata("h264", "yuv420p", 640, 360, "opus", null), 1280, 720, 8000));
+    }
+
+    @Test
+    void fullyTranscodesEverythingElse() {
+        assertEquals(TranscodeMode.FULL_TRANSCODE,
+                TranscodeDecision.decide(metadata("hevc", "yuv420p", 1280, 720, "aac", null), 1280, 720, 8000));
+        assertEquals(TranscodeMode.FULL_TRANSCODE,
+                TranscodeDecision.decide(metadata("h264", "yuv420p", 1920, 1080, "aac", null), 1280, 720, 8000));
+        assertEquals(TranscodeMode.FULL_TRANSCODE,
+                TranscodeDecision.decide(metadata("h264", "yuv420p10le", 1280, 720, "aac", null), 1280, 720, 8000));
+        assertEquals(TranscodeMode.FULL_TRANSCODE,
+                TranscodeDecision.decide(metadata("h264", "yuv420p", 1280, 720, "aac", 12_000_000L), 1280, 720, 8000));
+        assertEquals(TranscodeMode.FULL_TRANSCODE, TranscodeDecision.decide(null, 1280, 720, 8000));
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.videoprocessor.service.pipeline;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.example.videoprocessor.dto.VideoMetadataDto;
+
+import org.junit.jupiter.api.Test;
+
+public class VideoProcessingPipelineTest {
+
+    @Test
+    void previewIsCostedOnPreviewResolutionAndClipLength() {
+        VideoMetadataDto source = new VideoMetadataDto();
+        source.setWidth(3840);
+        source.setHeight(2160);
+        source.setFrameRate(60.0);
+        source.setDurationSeconds(7200.0);
+
+        VideoMetadataDto cost = VideoProcessingPipeline.previewCostMetadata(source, 360, 30);
+
+        assertEquals(640, cost.getWidth());
+        assertEquals(360, cost.getHeight());
+        assertEquals(60.0, cost.getFrameRate());
+        assertEquals(30.0, cost.getDurationSeconds());
+    }
+
+    @Test
+    void shortOrUnprobedSourceKeepsItsOwnLength() {
+        VideoMetadataDto source = new VideoMetadataDto();
+        source.setDurationSeconds(12.0);
+        assertEquals(12.0, VideoProcessingPipeline.previewCostMetadata(source, 360, 30).getDurationSeconds());
+
+        // METADATA henüz bitmediyse sadece klip sınırı bilinir
+        VideoMetadataDto unprobed = VideoProcessingPipeline.previewCostMetadata(null, 360, 30);
+        assertEquals(30.0, unprobed.getDurationSeconds());
+        assertNull(unprobed.getFrameRate());
+        assertNull(VideoProcessingPipeline.previewCostMetadata(null, 360, 0).getDurationSeconds());
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.videoprocessor.service.priority;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.fail;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+public class WeightedFairSchedulerTest {
+
+    @Test
+    void lowTierUsesIdleSlotsButHighKeepsReservedSlot() throws Exception {
+        WeightedFairScheduler scheduler = new WeightedFairScheduler(3, 1, 6, 3, 1);
+
+        scheduler.acquire(PriorityTier.LOW);
+        scheduler.acquire(PriorityTier.LOW);
+        scheduler.acquire(PriorityTier.HIGH);
+
+        assertEquals(2, scheduler.getStats().get(PriorityTier.LOW).running());
+        assertEquals(1, scheduler.getStats().get(PriorityTier.HIGH).running());
+    }
+
+    @Test
+    void grantsSlotsInProportionToWeightsWithoutStarvingLow() throws Exception {
+        WeightedFairScheduler scheduler = new WeightedFairScheduler(1, 0, 2, 1, 1);
+        scheduler.acquire(PriorityTier.MEDIUM);
+
+        List<PriorityTier> order = Collections.synchronizedList(new ArrayList<>());
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            workers.add(startWorker(scheduler, PriorityTier.HIGH, order));
+            workers.add(startWorker(scheduler, PriorityTier.LOW, order));
+        }
+        waitUntilWaiting(scheduler, 8);
+
+        scheduler.release(PriorityTier.MEDIUM);
+        for (Thread worker : workers) {
+            worker.join(5000);
+        }
+
+        assertEquals(List.of(PriorityTier.HIGH, PriorityTier.LOW, PriorityTier.HIGH, PriorityTier.HIGH,
+                PriorityTier.LOW, PriorityTier.HIGH, PriorityTier.LOW, PriorityTier.LOW), order);
+    }
+
+    private Thread startWorker(WeightedFairScheduler scheduler, PriorityTier tier, List<PriorityTier> order) {
+        Thread thread = new Thread(() -> {
+            try {
+                scheduler.acquire(tier);
+                order.add(tier);
+                scheduler.release(tier);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    private void waitUntilWaiting(WeightedFairScheduler scheduler, int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (System.nanoTime() < deadline) {
+            int waiting = scheduler.getStats().values().stream().mapToInt(WeightedFairScheduler.TierStats::waiting).sum();
+            if (waiting == expected) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        fail("workers did not start waiting");
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.videoprocessor.service.segment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.videoprocessor.config.RabbitMQConfig;
+import com.example.videoprocessor.dto.SegmentTaskMessageDto;
+import com.example.videoprocessor.entity.VideoEntity;
+import com.example.videoprocessor.entity.VideoSegmentEntity;
+import com.example.videoprocessor.entity.enums.SegmentStatus;
+import com.example.videoprocessor.entity.enums.VideoStatus;
+import com.example.videoprocessor.repository.VideoRepository;
+import com.example.videoprocessor.repository.VideoSegmentRepository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class SegmentCoordinatorTest {
+
+    private final VideoRepository videoRepository = mock(VideoRepository.class);
+    private final VideoSegmentRepository segmentRepository = mock(VideoSegmentRepository.class);
+    private final SegmentCoordinator coordinator = new SegmentCoordinator();
+    private final VideoSegmentEntity segment = new VideoSegmentEntity();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(coordinator, "videoRepository", videoRepository);
+        ReflectionTestUtils.setField(coordinator, "segmentRepository", segmentRepository);
+        ReflectionTestUtils.setField(coordinator, "eventPublisher", mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(coordinator, "stitchLeaseMinutes", 60L);
+
+        VideoEntity video = new VideoEntity();
+        video.setId(7L);
+        video.setStatus(VideoStatus.TRANSCODING);
+        video.setProgressPercentage(20);
+        when(videoRepository.findByIdForUpdate(7L)).thenReturn(Optional.of(video));
+
+        segment.setVideoId(7L);
+        segment.setSegmentIndex(2);
+        segment.setStatus(SegmentStatus.ENCODED);
+        segment.setOutputPath("/app/segments/7/segment_2.mp4");
+        when(segmentRepository.findByVideoIdAndSegmentIndex(7L, 2)).thenReturn(Optional.of(segment));
+        when(segmentRepository.countByVideoId(7L)).thenReturn(3L);
+    }
+
+    @Test
+    void onlyTheCallerWinningTheClaimStitches() {
+        when(segmentRepository.countByVideoIdAndStatusNot(7L, SegmentStatus.ENCODED)).thenReturn(0L);
+        when(segmentRepository.claimStitch(eq(7L), any(), any())).thenReturn(1, 0);
+
+        assertTrue(coordinator.markEncoded(7L, 2, segment.getOutputPath(), null));
+        // Aynı parçanın tekrar gelen mesajı ikinci bir birleştirme başlatmaz
+        assertFalse(coordinator.markEncoded(7L, 2, segment.getOutputPath(), null));
+    }
+
+    @Test
+    void claimExpiresAfterStitchLease() {
+        when(segmentRepository.countByVideoIdAndStatusNot(7L, SegmentStatus.ENCODED)).thenReturn(0L);
+        when(segmentRepository.claimStitch(eq(7L), any(), any())).thenReturn(1);
+
+        coordinator.markEncoded(7L, 2, segment.getOutputPath(), null);
+
+        ArgumentCaptor<LocalDateTime> now = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> staleBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(segmentRepository).claimStitch(eq(7L), now.capture(), staleBefore.capture());
+        assertEquals(now.getValue().minusMinutes(60), staleBefore.getValue());
+    }
+
+    @Test
+    void noClaimWhileSegmentsRemain() {
+        when(segmentRepository.countByVideoIdAndStatusNot(7L, SegmentStatus.ENCODED)).thenReturn(1L);
+
+        assertFalse(coordinator.markEncoded(7L, 2, segment.getOutputPath(), null));
+        verify(segmentRepository, never()).claimStitch(any(), any(), any());
+    }
+
+    @Test
+    void redispatchesFirstSegmentOfStaleStitches() {
+        RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+        ReflectionTestUtils.setField(coordinator, "rabbitTemplate", rabbitTemplate);
+        when(segmentRepository.findVideoIdsWithStaleStitch(any())).thenReturn(List.of(7L));
+
+        coordinator.resumeStaleStitches();
+
+        ArgumentCaptor<LocalDateTime> staleBefore = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(segmentRepository).findVideoIdsWithStaleStitch(staleBefore.capture());
+        assertTrue(staleBefore.getValue().isBefore(LocalDateTime.now().minusMinutes(59)));
+        ArgumentCaptor<Object> task = ArgumentCaptor.forClass(Object.class);
+        verify(rabbitTemplate).convertAndSend(eq(RabbitMQConfig.VIDEO_PROCESSING_EXCHANGE),
+                eq(RabbitMQConfig.VIDEO_SEGMENT_ROUTING_KEY), task.capture(), any(MessagePostProcessor.class));
+        SegmentTaskMessageDto sent = (SegmentTaskMessageDto) task.getValue();
+        assertEquals(7L, sent.getVideoId());
+        assertEquals(0, sent.getSegmentIndex());
+    }
+}
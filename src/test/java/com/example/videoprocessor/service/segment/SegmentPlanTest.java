@@ -0,0 +1,42 @@
+package com.example.videoprocessor.service.segment;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class SegmentPlanTest {
+
+    @Test
+    void parsesSegmentMuxerCsvList() {
+        List<SegmentPlan.Span> spans = SegmentPlan.parseSegmentList(List.of(
+                "src_00000.mkv,0.000000,60.060000",
+                "\"src,\"\"1\"\".mkv\",60.060000,118.451000",
+                ""));
+
+        assertEquals(2, spans.size());
+        assertEquals("src_00000.mkv", spans.get(0).fileName());
+        assertEquals(60.06, spans.get(0).durationSeconds(), 1e-9);
+        assertEquals("src,\"1\".mkv", spans.get(1).fileName());
+        assertEquals(60.06, spans.get(1).startSeconds(), 1e-9);
+        assertThrows(IllegalArgumentException.class, () -> SegmentPlan.parseSegmentList(List.of("src_00000.mkv")));
+    }
+
+    @Test
+    void concatListQuotesPaths() {
+        assertEquals("file '/seg/a_enc_00000.ts'\nfile '/seg/it'\\''s_enc_00001.ts'\n",
+                SegmentPlan.concatList(List.of("/seg/a_enc_00000.ts", "/seg/it's_enc_00001.ts")));
+    }
+
+    @Test
+    void verifiesStitchedDurationWithinTolerance() {
+        assertDoesNotThrow(() -> SegmentPlan.verifyDuration(7200.0, 7200.4, 1.0));
+        assertDoesNotThrow(() -> SegmentPlan.verifyDuration(null, null, 1.0));
+        // Bir parça eksik
+        assertThrows(IllegalStateException.class, () -> SegmentPlan.verifyDuration(7200.0, 7140.0, 1.0));
+        assertThrows(IllegalStateException.class, () -> SegmentPlan.verifyDuration(7200.0, null, 1.0));
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.videoprocessor.service.stage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.videoprocessor.config.RabbitMQConfig;
+import com.example.videoprocessor.dto.StageTaskMessageDto;
+import com.example.videoprocessor.service.pipeline.VideoProcessingPipeline;
+import com.example.videoprocessor.service.priority.PriorityTier;
+
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class StageCoordinatorTest {
+
+    @Test
+    void startsWithStagesWithoutDependencies() {
+        assertEquals(List.of("METADATA"), StageCoordinator.readyStages(Set.of(), null));
+    }
+
+    @Test
+    void fansOutDependentsOnlyOnceWhenTheirDependencyCompletes() {
+        Set<String> afterMetadata = Set.of("METADATA");
+        assertEquals(List.of("THUMBNAIL", "TRANSCODING"), StageCoordinator.readyStages(afterMetadata, "METADATA"));
+
+        Set<String> afterThumbnail = Set.of("METADATA", "THUMBNAIL");
+        assertEquals(List.of(), StageCoordinator.readyStages(afterThumbnail, "THUMBNAIL"));
+        assertEquals(List.of("TRANSCODING"), StageCoordinator.runningStages(afterThumbnail));
+    }
+
+    @Test
+    void dispatchesPreviewAlongsideMetadataWhenFastPreviewIsEnabled() {
+        var graph = StageCoordinator.PREVIEW_FIRST_STAGE_DEPENDENCIES;
+        assertEquals(List.of("METADATA", "PREVIEW"), StageCoordinator.readyStages(graph, Set.of(), null));
+        assertEquals(List.of(), StageCoordinator.readyStages(graph, Set.of("PREVIEW"), "PREVIEW"));
+        assertEquals(List.of("THUMBNAIL", "TRANSCODING"),
+                StageCoordinator.readyStages(graph, Set.of("PREVIEW", "METADATA"), "METADATA"));
+        assertEquals(List.of("PREVIEW", "THUMBNAIL", "TRANSCODING"), StageCoordinator.runningStages(graph, Set.of("METADATA")));
+    }
+
+    @Test
+    void lowersOnlyTranscodeMessagePriorityWhenFastPreviewIsEnabled() {
+        assertEquals(6, StageCoordinator.stagePriority("TRANSCODING", 10, true, 4));
+        assertEquals(1, StageCoordinator.stagePriority("TRANSCODING", null, true, 4));
+        assertEquals(0, StageCoordinator.stagePriority("TRANSCODING", 1, true, 4));
+        assertEquals(10, StageCoordinator.stagePriority("PREVIEW", 10, true, 4));
+        assertEquals(10, StageCoordinator.stagePriority("TRANSCODING", 10, false, 4));
+    }
+
+    @Test
+    void parsesStoredStageList() {
+        assertEquals(Set.of("METADATA", "THUMBNAIL"), StageCoordinator.parseStages("METADATA,THUMBNAIL"));
+        assertEquals(Set.of(), StageCoordinator.parseStages(null));
+    }
+
+    @Test
+    void loweredTranscodeMessageKeepsTheJobPriorityTier() {
+        RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+        VideoProcessingPipeline pipeline = mock(VideoProcessingPipeline.class);
+        when(pipeline.isFastPreviewEnabled()).thenReturn(true);
+        StageCoordinator coordinator = new StageCoordinator();
+        ReflectionTestUtils.setField(coordinator, "rabbitTemplate", rabbitTemplate);
+        ReflectionTestUtils.setField(coordinator, "videoProcessingPipeline", pipeline);
+        ReflectionTestUtils.setField(coordinator, "transcodePriorityDrop", 4);
+
+        ReflectionTestUtils.invokeMethod(coordinator, "dispatchAfterCommit", 7L, List.of("TRANSCODING"), 10);
+
+        ArgumentCaptor<Object> task = ArgumentCaptor.forClass(Object.class);
+        ArgumentCaptor<MessagePostProcessor> postProcessor = ArgumentCaptor.forClass(MessagePostProcessor.class);
+        verify(rabbitTemplate).convertAndSend(eq(RabbitMQConfig.VIDEO_PROCESSING_EXCHANGE), anyString(),
+                task.capture(), postProcessor.capture());
+
+        // Broker'da önizlemelerin arkasına düşer, scheduler'da yine HIGH slotu alır
+        StageTaskMessageDto sent = (StageTaskMessageDto) task.getValue();
+        assertEquals(10, sent.getPriority());
+        assertEquals(PriorityTier.HIGH, PriorityTier.fromPriority(sent.getPriority()));
+        Message message = postProcessor.getValue().postProcessMessage(new Message(new byte[0], new MessageProperties()));
+        assertEquals(6, message.getMessageProperties().getPriority());
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.videoprocessor.service.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import software.amazon.awssdk.core.sync.RequestBody;
+import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.model.CreateMultipartUploadResponse;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.UploadPartResponse;
+
+public class S3VideoStorageTest {
+
+    @Test
+    void splitsObjectIntoNumberedPartsWithShorterLastPart() {
+        List<S3VideoStorage.Part> parts = S3VideoStorage.partRanges(25, 10);
+
+        assertEquals(3, parts.size());
+        assertEquals(new S3VideoStorage.Part(1, 0, 10), parts.get(0));
+        assertEquals(new S3VideoStorage.Part(2, 10, 10), parts.get(1));
+        assertEquals(new S3VideoStorage.Part(3, 20, 5), parts.get(2));
+    }
+
+    @Test
+    void emptyObjectStillHasOnePart() {
+        assertEquals(List.of(new S3VideoStorage.Part(1, 0, 0)), S3VideoStorage.partRanges(0, 10));
+    }
+
+    @Test
+    void parsesAndFormatsLocations() {
+        S3Location location = S3Location.parse("s3://videos/uploads/1700_clip.mp4");
+
+        assertEquals("videos", location.bucket());
+        assertEquals("uploads/1700_clip.mp4", location.key());
+        assertEquals("s3://videos/uploads/1700_clip.mp4", location.toString());
+        assertThrows(IllegalArgumentException.class, () -> S3Location.parse("/app/uploads/1700_clip.mp4"));
+        assertThrows(IllegalArgumentException.class, () -> S3Location.parse("s3://videos/"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importsDirectoryWithMultipartFileOnSingleThreadPool(@TempDir Path scratch) throws Exception {
+        S3Client s3 = mock(S3Client.class);
+        when(s3.putObject(any(Consumer.class), any(RequestBody.class))).thenReturn(PutObjectResponse.builder().build());
+        when(s3.createMultipartUpload(any(Consumer.class)))
+                .thenReturn(CreateMultipartUploadResponse.builder().uploadId("upload-1").build());
+        when(s3.uploadPart(any(Consumer.class), any(RequestBody.class)))
+                .thenReturn(UploadPartResponse.builder().eTag("\"part\"").build());
+
+        // Tek thread: havuzdaki bir iş part'larını aynı havuzda bekleseydi kilitlenirdi
+        ThreadPoolTaskExecutor pool = new ThreadPoolTaskExecutor();
+        pool.setCorePoolSize(1);
+        pool.setMaxPoolSize(1);
+        pool.initialize();
+
+        S3VideoStorage storage = new S3VideoStorage();
+        ReflectionTestUtils.setField(storage, "s3", s3);
+        ReflectionTestUtils.setField(storage, "transferExecutor", pool);
+        ReflectionTestUtils.setField(storage, "bucket", "videos");
+        ReflectionTestUtils.setField(storage, "keyPrefix", "");
+        ReflectionTestUtils.setField(storage, "partSize", 4L);
+
+        Path hls = Files.createDirectories(scratch.resolve("1700_clip_hls"));
+        Files.write(hls.resolve("master.m3u8"), new byte[]{1, 2});
+        Files.createDirectories(hls.resolve("720p"));
+        Files.write(hls.resolve("720p/segment_0.ts"), new byte[10]);
+        Files.write(hls.resolve("720p/index.m3u8"), new byte[]{1});
+
+        try {
+            String location = assertTimeoutPreemptively(Duration.ofSeconds(5),
+                    () -> storage.importDirectory(StorageArea.PROCESSED, hls));
+
+            assertEquals("s3://videos/processed/1700_clip_hls", location);
+            verify(s3, times(2)).putObject(any(Consumer.class), any(RequestBody.class));
+            verify(s3, times(3)).uploadPart(any(Consumer.class), any(RequestBody.class));
+            verify(s3).completeMultipartUpload(any(Consumer.class));
+            assertFalse(Files.exists(hls));
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.videoprocessor.service.storage;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.example.videoprocessor.dto.StorageStatsDto;
+import com.example.videoprocessor.repository.VideoRepository;
+import com.example.videoprocessor.repository.projection.StoredOriginalView;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.data.domain.Limit;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class StorageLifecycleServiceTest {
+
+    @TempDir
+    Path root;
+
+    private final VideoRepository videoRepository = mock(VideoRepository.class);
+    private final VideoStorage videoStorage = mock(VideoStorage.class);
+    private final StorageLifecycleService service = new StorageLifecycleService();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        ReflectionTestUtils.setField(service, "videoRepository", videoRepository);
+        ReflectionTestUtils.setField(service, "videoStorage", videoStorage);
+        ReflectionTestUtils.setField(service, "storageExecutor", new SyncTaskExecutor());
+        ReflectionTestUtils.setField(service, "orphanGraceMinutes", 60L);
+        ReflectionTestUtils.setField(service, "highWaterMark", 0.85);
+        ReflectionTestUtils.setField(service, "lowWaterMark", 0.75);
+        for (StorageArea area : StorageArea.values()) {
+            Path directory = Files.createDirectories(root.resolve(area.getPrefix()));
+            when(videoStorage.stagingDirectory(area)).thenReturn(directory);
+        }
+        when(videoStorage.usesLocalDisk()).thenReturn(true);
+    }
+
+    @Test
+    void mapsOutputFilesBackToTheirVideoFilename() {
+        assertEquals("1700_clip.mp4", StorageLifecycleService.baseFilename("1700_clip.mp4_processed.mp4"));
+        assertEquals("1700_clip.mp4", StorageLifecycleService.baseFilename("1700_clip.mp4_thumb.jpg"));
+        assertEquals("1700_clip.mp4", StorageLifecycleService.baseFilename("1700_clip.mp4_preview.mp4"));
+        assertEquals("1700_clip.mp4", StorageLifecycleService.baseFilename("1700_clip.mp4"));
+        assertEquals("1700_clip.mp4", StorageLifecycleService.baseFilename("1700_clip.mp4_thumb_3.jpg"));
+        assertEquals("1700_clip.mp4", StorageLifecycleService.baseFilename("1700_clip.mp4_sprite.jpg"));
+        assertEquals("1700_clip.mp4", StorageLifecycleService.baseFilename("1700_clip.mp4_storyboard.vtt"));
+        assertEquals("_thumb.jpg", StorageLifecycleService.baseFilename("_thumb.jpg"));
+    }
+
+    @Test
+    void reconcileRemovesOnlyOrphansOlderThanGraceWindow() throws IOException {
+        Path processed = root.resolve("processed");
+        Path known = file(processed, "1700_known.mp4_processed.mp4", 2);
+        Path oldOrphan = file(processed, "1600_gone.mp4_thumb_2.jpg", 2);
+        // Finalize edilmemiş resumable upload: satırı henüz yok ama grace süresi içinde
+        Path freshOrphan = file(root.resolve("uploads"), "1800_uploading.mp4", 0);
+        when(videoRepository.findExistingFilenames(anyCollection())).thenReturn(List.of("1700_known.mp4"));
+
+        service.reconcile();
+
+        assertTrue(Files.exists(known));
+        assertFalse(Files.exists(oldOrphan));
+        assertTrue(Files.exists(freshOrphan));
+
+        StorageStatsDto.DirectoryStats processedStats = stats("processed");
+        assertEquals(1, processedStats.getFileCount());
+        assertEquals(1, processedStats.getOrphanFileCount());
+        assertEquals(2, processedStats.getOrphanBytes());
+        assertEquals(1, stats("uploads").getFileCount());
+        assertEquals(0, stats("uploads").getOrphanFileCount());
+    }
+
+    @Test
+    void reconcileChecksExistenceInBatches() throws IOException {
+        Path uploads = root.resolve("uploads");
+        for (int i = 0; i < 501; i++) {
+            file(uploads, i + "_clip.mp4", 2);
+        }
+        when(videoRepository.findExistingFilenames(anyCollection())).thenAnswer(invocation -> {
+            Collection<String> names = invocation.getArgument(0);
+            return names.stream().filter(name -> name.startsWith("1")).toList();
+        });
+
+        service.reconcile();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<String>> batches = ArgumentCaptor.forClass(Collection.class);
+        verify(videoRepository, times(2)).findExistingFilenames(batches.capture());
+        assertEquals(Set.of(500, 1), Set.of(batches.getAllValues().get(0).size(), batches.getAllValues().get(1).size()));
+        try (var remaining = Files.list(uploads)) {
+            assertTrue(remaining.allMatch(path -> path.getFileName().toString().startsWith("1")));
+        }
+        assertEquals(501, stats("uploads").getFileCount() + stats("uploads").getOrphanFileCount());
+    }
+
+    @Test
+    void highWaterMarkEvictsOriginalsUntilNoCandidatesRemain() throws IOException {
+        // Eşikler 0: disk her zaman "dolu", aday kalmayana kadar silinir
+        ReflectionTestUtils.setField(service, "highWaterMark", 0.0);
+        ReflectionTestUtils.setField(service, "lowWaterMark", 0.0);
+        Path uploads = root.resolve("uploads");
+        List<StoredOriginalView> batch = new ArrayList<>();
+        batch.add(original(1L, file(uploads, "1_a.mp4", 0)));
+        batch.add(original(2L, file(uploads, "2_b.mp4", 0)));
+        Path alreadyGone = uploads.resolve("3_c.mp4");
+        batch.add(original(3L, alreadyGone));
+        when(videoStorage.exists(any())).thenAnswer(invocation -> Files.exists(Path.of((String) invocation.getArgument(0))));
+        when(videoStorage.size(any())).thenAnswer(invocation -> Files.size(Path.of((String) invocation.getArgument(0))));
+        when(videoRepository.findEvictableOriginals(any(Limit.class))).thenReturn(batch, List.of());
+
+        service.enforceHighWaterMark();
+
+        assertFalse(Files.exists(uploads.resolve("1_a.mp4")));
+        assertFalse(Files.exists(uploads.resolve("2_b.mp4")));
+        // Dosyası olmayan aday da işaretlenir, tekrar seçilmez
+        verify(videoRepository).markOriginalEvicted(eq(1L), any());
+        verify(videoRepository).markOriginalEvicted(eq(2L), any());
+        verify(videoRepository).markOriginalEvicted(eq(3L), any());
+        verify(videoRepository, times(2)).findEvictableOriginals(any(Limit.class));
+    }
+
+    @Test
+    void highWaterMarkDoesNothingBelowThresholdOrOnObjectStorage() throws IOException {
+        ReflectionTestUtils.setField(service, "highWaterMark", 1.01);
+        service.enforceHighWaterMark();
+
+        ReflectionTestUtils.setField(service, "highWaterMark", 0.0);
+        when(videoStorage.usesLocalDisk()).thenReturn(false);
+        service.enforceHighWaterMark();
+
+        verify(videoRepository, never()).findEvictableOriginals(any(Limit.class));
+        verify(videoRepository, never()).markOriginalEvicted(anyLong(), any());
+    }
+
+    private Path file(Path directory, String name, long ageHours) throws IOException {
+        Path file = Files.write(directory.resolve(name), new byte[]{1, 2});
+        Files.setLastModifiedTime(file, FileTime.from(Instant.now().minus(ageHours, ChronoUnit.HOURS)));
+        return file;
+    }
+
+    private StoredOriginalView original(Long id, Path path) {
+        StoredOriginalView view = mock(StoredOriginalView.class);
+        when(view.getId()).thenReturn(id);
+        when(view.getOriginalPath()).thenReturn(path.toString());
+        return view;
+    }
+
+    private StorageStatsDto.DirectoryStats stats(String name) {
+        return service.getStats().getDirectories().stream()
+                .filter(directory -> name.equals(directory.getName()))
+                .findFirst()
+                .orElseThrow();
+    }
+}
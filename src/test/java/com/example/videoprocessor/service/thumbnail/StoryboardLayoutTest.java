@@ -0,0 +1,54 @@
+package com.example.videoprocessor.service.thumbnail;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class StoryboardLayoutTest {
+
+    @Test
+    void capsTileCountAndKeepsSourceAspectRatio() {
+        StoryboardLayout layout = StoryboardLayout.plan(600.0, 1920, 1080, 160, 10, 100, 2);
+
+        assertEquals(6.0, layout.intervalSeconds());
+        assertEquals(100, layout.count());
+        assertEquals(10, layout.columns());
+        assertEquals(10, layout.rows());
+        assertEquals(90, layout.tileHeight());
+    }
+
+    @Test
+    void shortClipsUseMinimumIntervalAndSingleRow() {
+        StoryboardLayout layout = StoryboardLayout.plan(3.5, null, null, 160, 10, 100, 2);
+
+        assertEquals(2.0, layout.intervalSeconds());
+        assertEquals(2, layout.count());
+        assertEquals(2, layout.columns());
+        assertEquals(1, layout.rows());
+        assertNull(StoryboardLayout.plan(null, 1920, 1080, 160, 10, 100, 2));
+    }
+
+    @Test
+    void writesOneCuePerTileWithSpriteCoordinates() {
+        StoryboardLayout layout = StoryboardLayout.plan(25.0, 1280, 720, 160, 2, 100, 10);
+
+        String vtt = layout.toWebVtt("sprite");
+
+        assertTrue(vtt.startsWith("WEBVTT\n"));
+        assertTrue(vtt.contains("00:00:00.000 --> 00:00:10.000\nsprite#xywh=0,0,160,90\n"));
+        assertTrue(vtt.contains("00:00:10.000 --> 00:00:20.000\nsprite#xywh=160,0,160,90\n"));
+        assertTrue(vtt.contains("00:00:20.000 --> 00:00:25.000\nsprite#xywh=0,90,160,90\n"));
+    }
+
+    @Test
+    void spreadsThumbnailsInsideTheClip() {
+        assertEquals(List.of(1.0, 2.0, 3.0), ThumbnailEngine.positions(4.0, 3));
+        assertEquals(List.of(), ThumbnailEngine.positions(null, 3));
+        assertEquals(1.5, ThumbnailEngine.thumbnailSeconds(3.0));
+        assertEquals(5.0, ThumbnailEngine.thumbnailSeconds(120.0));
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.videoprocessor.service.upload;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+public class ByteRangeSetTest {
+
+    @Test
+    void mergesOverlappingAndAdjacentRanges() {
+        ByteRangeSet ranges = new ByteRangeSet();
+        ranges.add(100, 200);
+        ranges.add(0, 50);
+        ranges.add(50, 120);
+        ranges.add(300, 400);
+
+        assertEquals(List.of("0-199", "300-399"), ranges.toRangeStrings());
+        assertEquals(300, ranges.receivedBytes());
+    }
+
+    @Test
+    void coversOnlyWhenWholeFileReceived() {
+        ByteRangeSet ranges = new ByteRangeSet();
+        ranges.add(0, 500);
+        ranges.add(600, 1000);
+        assertFalse(ranges.covers(1000));
+
+        ranges.add(400, 700);
+        assertTrue(ranges.covers(1000));
+    }
+}